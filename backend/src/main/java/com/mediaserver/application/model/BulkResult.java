@@ -0,0 +1,38 @@
+package com.mediaserver.application.model;
+
+/**
+ * Outcome of a bulk operation for one movie.
+ *
+ * @param movieId the movie ID as requested
+ * @param outcome what happened to the movie
+ * @param message why the movie was rejected, null otherwise
+ */
+public record BulkResult(String movieId, Outcome outcome, String message) {
+
+    public enum Outcome {
+        /** The operation changed the movie. */
+        APPLIED,
+        /** The movie already was in the requested state. */
+        UNCHANGED,
+        /** No movie has the ID. */
+        NOT_FOUND,
+        /** The movie cannot undergo the operation in its current state. */
+        REJECTED
+    }
+
+    public static BulkResult applied(String movieId) {
+        return new BulkResult(movieId, Outcome.APPLIED, null);
+    }
+
+    public static BulkResult unchanged(String movieId) {
+        return new BulkResult(movieId, Outcome.UNCHANGED, null);
+    }
+
+    public static BulkResult notFound(String movieId) {
+        return new BulkResult(movieId, Outcome.NOT_FOUND, null);
+    }
+
+    public static BulkResult rejected(String movieId, String message) {
+        return new BulkResult(movieId, Outcome.REJECTED, message);
+    }
+}
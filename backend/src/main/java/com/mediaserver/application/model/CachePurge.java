@@ -0,0 +1,27 @@
+package com.mediaserver.application.model;
+
+/**
+ * Progress of a background purge of all cached movies except favorites.
+ *
+ * @param state where the purge is
+ * @param total the number of cached files being purged
+ * @param deleted the number of files deleted so far
+ * @param failed the number of files that could not be deleted
+ * @param error why the purge failed, null unless it did
+ */
+public record CachePurge(State state, int total, int deleted, int failed, String error) {
+
+    public enum State {
+        /** No purge has run since startup. */
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public static final CachePurge IDLE = new CachePurge(State.IDLE, 0, 0, 0, null);
+
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+}
@@ -0,0 +1,18 @@
+package com.mediaserver.application.model;
+
+/**
+ * Latest change of one catalog entity as recorded in the change log.
+ *
+ * @param version the change log version, growing with every recorded change
+ * @param type the kind of entity
+ * @param entityId the ID of the movie or category
+ * @param deleted whether the entity was removed
+ */
+public record CatalogChange(long version, EntityType type, String entityId, boolean deleted) {
+
+    /** Kinds of entities the change log records. */
+    public enum EntityType {
+        MOVIE,
+        CATEGORY
+    }
+}
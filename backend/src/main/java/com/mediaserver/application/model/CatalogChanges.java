@@ -0,0 +1,33 @@
+package com.mediaserver.application.model;
+
+import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.Movie;
+import java.util.List;
+
+/**
+ * Catalog entities changed since a version, in their current state.
+ *
+ * <p>Deleting a category leaves its movies uncategorized without recording a change for each of
+ * them; clients applying {@code deletedCategoryIds} clear the category of those movies themselves.
+ *
+ * @param version the version to ask for next changes since
+ * @param hasMore whether more changes follow after {@code version}
+ * @param reset whether the requested version is unknown, so the client must reload everything
+ * @param movies movies created or updated
+ * @param deletedMovieIds IDs of removed movies
+ * @param categories categories created or updated
+ * @param deletedCategoryIds IDs of removed categories
+ */
+public record CatalogChanges(
+        long version,
+        boolean hasMore,
+        boolean reset,
+        List<Movie> movies,
+        List<String> deletedMovieIds,
+        List<Category> categories,
+        List<String> deletedCategoryIds) {
+
+    public static CatalogChanges reset(long version) {
+        return new CatalogChanges(version, false, true, List.of(), List.of(), List.of(), List.of());
+    }
+}
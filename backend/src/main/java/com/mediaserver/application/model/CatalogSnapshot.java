@@ -0,0 +1,286 @@
+package com.mediaserver.application.model;
+
+import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieSort;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable view of the whole catalog at one version: all movies, all categories and the movies in
+ * each sort order and category.
+ *
+ * <p>Movies carry the name of their category, kept current as movies and categories change, so
+ * responses need no separate category lookup. Changes produce a new snapshot. Sort orders that were
+ * already built are carried over by merging the changed movies into them, and an autocomplete index
+ * or facet bitmaps that were already built are updated with the changed movies, so requests after a
+ * change find them ready; the per-category lists are derived on first use.
+ */
+public final class CatalogSnapshot {
+
+    /** Category index key of movies without a category. */
+    private static final String UNCATEGORIZED = "";
+
+    private static final Comparator<Category> CATEGORY_ORDER =
+            Comparator.comparing(
+                            Category::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Category::getId);
+
+    private final long version;
+    private final Map<String, Movie> moviesById;
+    private final List<Category> categories;
+    private final Map<MovieSort, List<Movie>> sorted;
+    private final Map<MovieSort, Map<String, List<Movie>>> byCategory =
+            new EnumMap<>(MovieSort.class);
+    private SuggestIndex suggestIndex;
+    private FacetIndex facetIndex;
+
+    private CatalogSnapshot(
+            long version,
+            Map<String, Movie> moviesById,
+            List<Category> categories,
+            Map<MovieSort, List<Movie>> sorted,
+            SuggestIndex suggestIndex,
+            FacetIndex facetIndex) {
+        this.version = version;
+        this.moviesById = moviesById;
+        this.categories = categories;
+        this.sorted = sorted;
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
+    }
+
+    public static CatalogSnapshot of(
+            long version, Collection<Movie> movies, Collection<Category> categories) {
+        List<Category> ordered = categories.stream().sorted(CATEGORY_ORDER).toList();
+        Map<String, String> names = categoryNames(ordered);
+        Map<String, Movie> moviesById = new HashMap<>();
+        movies.forEach(movie -> moviesById.put(movie.getId(), withCategoryName(movie, names)));
+        return new CatalogSnapshot(
+                version, moviesById, ordered, new EnumMap<>(MovieSort.class), null, null);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Optional<Movie> findMovie(String id) {
+        return Optional.ofNullable(moviesById.get(id));
+    }
+
+    public int movieCount() {
+        return moviesById.size();
+    }
+
+    /** Returns the categories ordered by their sort order. */
+    public List<Category> categories() {
+        return categories;
+    }
+
+    /**
+     * Returns all movies in a sort order.
+     *
+     * @param sort the sort order
+     * @return the movies, unmodifiable
+     */
+    public List<Movie> sorted(MovieSort sort) {
+        synchronized (sorted) {
+            return sorted.computeIfAbsent(
+                    sort, key -> moviesById.values().stream().sorted(key.comparator()).toList());
+        }
+    }
+
+    /**
+     * Returns the movies of one category in a sort order.
+     *
+     * @param categoryId the category ID, null for movies without a category
+     * @param sort the sort order
+     * @return the movies, unmodifiable
+     */
+    public List<Movie> inCategory(String categoryId, MovieSort sort) {
+        Map<String, List<Movie>> index;
+        synchronized (byCategory) {
+            index = byCategory.computeIfAbsent(sort, this::indexByCategory);
+        }
+        return index.getOrDefault(categoryId != null ? categoryId : UNCATEGORIZED, List.of());
+    }
+
+    /** Returns the autocomplete index over the titles, building it on first use. */
+    public synchronized SuggestIndex suggestIndex() {
+        if (suggestIndex == null) {
+            suggestIndex = SuggestIndex.of(moviesById.values());
+        }
+        return suggestIndex;
+    }
+
+    /** Returns the facet bitmaps over the movies in title order, building them on first use. */
+    public FacetIndex facetIndex() {
+        List<Movie> byTitle = sorted(MovieSort.TITLE);
+        synchronized (this) {
+            if (facetIndex == null) {
+                facetIndex = FacetIndex.of(byTitle);
+            }
+            return facetIndex;
+        }
+    }
+
+    /**
+     * Returns the snapshot with movies saved and removed.
+     *
+     * @param nextVersion the version of the new snapshot
+     * @param saved movies created or updated
+     * @param deletedIds IDs of removed movies
+     * @return the new snapshot
+     */
+    public CatalogSnapshot withMovies(
+            long nextVersion, Collection<Movie> saved, Collection<String> deletedIds) {
+        Map<String, String> names = categoryNames(categories);
+        Map<String, Movie> latest = new LinkedHashMap<>();
+        saved.forEach(movie -> latest.put(movie.getId(), withCategoryName(movie, names)));
+        Map<String, Movie> nextMovies = new HashMap<>(moviesById);
+        deletedIds.forEach(nextMovies::remove);
+        nextMovies.putAll(latest);
+
+        Set<String> changedIds = new HashSet<>(deletedIds);
+        changedIds.addAll(latest.keySet());
+        Map<MovieSort, List<Movie>> nextSorted = new EnumMap<>(MovieSort.class);
+        synchronized (sorted) {
+            sorted.forEach(
+                    (sort, movies) ->
+                            nextSorted.put(sort, merge(movies, changedIds, latest.values(), sort)));
+        }
+        SuggestIndex builtSuggestIndex;
+        FacetIndex builtFacetIndex;
+        synchronized (this) {
+            builtSuggestIndex = suggestIndex;
+            builtFacetIndex = facetIndex;
+        }
+        SuggestIndex nextSuggestIndex =
+                builtSuggestIndex != null
+                        ? builtSuggestIndex.withMovies(nextMovies, latest.values(), deletedIds)
+                        : null;
+        List<Movie> byTitle = nextSorted.get(MovieSort.TITLE);
+        FacetIndex nextFacetIndex = null;
+        if (builtFacetIndex != null && byTitle != null) {
+            nextFacetIndex =
+                    keepsTitleOrder(latest.values(), deletedIds)
+                            ? builtFacetIndex.withChanged(byTitle, latest.values())
+                            : FacetIndex.of(byTitle);
+        }
+        return new CatalogSnapshot(
+                nextVersion, nextMovies, categories, nextSorted, nextSuggestIndex, nextFacetIndex);
+    }
+
+    /**
+     * Returns the snapshot with categories saved and removed. Movies of a removed category become
+     * uncategorized, as the database does when the category row is deleted, and movies of a renamed
+     * category get the new name.
+     *
+     * @param nextVersion the version of the new snapshot
+     * @param saved categories created or updated
+     * @param deletedIds IDs of removed categories
+     * @return the new snapshot
+     */
+    public CatalogSnapshot withCategories(
+            long nextVersion, Collection<Category> saved, Collection<String> deletedIds) {
+        Map<String, Category> nextCategories = new HashMap<>();
+        categories.forEach(category -> nextCategories.put(category.getId(), category));
+        deletedIds.forEach(nextCategories::remove);
+        saved.forEach(category -> nextCategories.put(category.getId(), category));
+        List<Category> ordered = nextCategories.values().stream().sorted(CATEGORY_ORDER).toList();
+
+        Set<String> removed = new HashSet<>(deletedIds);
+        Map<String, String> names = categoryNames(ordered);
+        List<Movie> changed = new ArrayList<>();
+        for (Movie movie : moviesById.values()) {
+            if (removed.contains(movie.getCategoryId())) {
+                changed.add(movie.withCategoryId(null));
+            } else if (movie != withCategoryName(movie, names)) {
+                changed.add(movie);
+            }
+        }
+        Map<MovieSort, List<Movie>> nextSorted = copySorted();
+        CatalogSnapshot next;
+        synchronized (this) {
+            next =
+                    new CatalogSnapshot(
+                            nextVersion, moviesById, ordered, nextSorted, suggestIndex, facetIndex);
+        }
+        return changed.isEmpty() ? next : next.withMovies(nextVersion, changed, List.of());
+    }
+
+    /**
+     * Checks whether every saved movie replaces one at the same place in title order, as downloads
+     * and category moves do, so that the facet bitmaps can be updated instead of rebuilt.
+     */
+    private boolean keepsTitleOrder(Collection<Movie> saved, Collection<String> deletedIds) {
+        Comparator<Movie> order = MovieSort.TITLE.comparator();
+        return deletedIds.isEmpty()
+                && saved.stream()
+                        .allMatch(
+                                movie -> {
+                                    Movie previous = moviesById.get(movie.getId());
+                                    return previous != null && order.compare(previous, movie) == 0;
+                                });
+    }
+
+    private static Map<String, String> categoryNames(Collection<Category> categories) {
+        Map<String, String> names = new HashMap<>();
+        categories.forEach(category -> names.put(category.getId(), category.getName()));
+        return names;
+    }
+
+    /** Returns the movie with its category's current name, the same instance if unchanged. */
+    private static Movie withCategoryName(Movie movie, Map<String, String> names) {
+        String name = movie.getCategoryId() != null ? names.get(movie.getCategoryId()) : null;
+        return Objects.equals(name, movie.getCategoryName()) ? movie : movie.withCategoryName(name);
+    }
+
+    private Map<MovieSort, List<Movie>> copySorted() {
+        synchronized (sorted) {
+            Map<MovieSort, List<Movie>> copy = new EnumMap<>(MovieSort.class);
+            copy.putAll(sorted);
+            return copy;
+        }
+    }
+
+    private Map<String, List<Movie>> indexByCategory(MovieSort sort) {
+        Map<String, List<Movie>> index = new HashMap<>();
+        for (Movie movie : sorted(sort)) {
+            String key = movie.getCategoryId() != null ? movie.getCategoryId() : UNCATEGORIZED;
+            index.computeIfAbsent(key, ignored -> new ArrayList<>()).add(movie);
+        }
+        index.replaceAll((key, movies) -> List.copyOf(movies));
+        return index;
+    }
+
+    /** Merges changed movies into a sorted list in one pass instead of sorting it again. */
+    private static List<Movie> merge(
+            List<Movie> movies, Set<String> changedIds, Collection<Movie> saved, MovieSort sort) {
+        Comparator<Movie> order = sort.comparator();
+        List<Movie> inserted = saved.stream().sorted(order).toList();
+        List<Movie> merged = new ArrayList<>(movies.size() + inserted.size());
+        int next = 0;
+        for (Movie movie : movies) {
+            if (changedIds.contains(movie.getId())) {
+                continue;
+            }
+            while (next < inserted.size() && order.compare(inserted.get(next), movie) < 0) {
+                merged.add(inserted.get(next++));
+            }
+            merged.add(movie);
+        }
+        merged.addAll(inserted.subList(next, inserted.size()));
+        return List.copyOf(merged);
+    }
+}
@@ -0,0 +1,33 @@
+package com.mediaserver.application.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Selected facet values. A movie matches when, for every facet with a selection, its value is one
+ * of the selected ones; facets without a selection do not filter.
+ *
+ * @param selected the selected values by facet
+ */
+public record FacetFilter(Map<MovieFacet, Set<String>> selected) {
+
+    public FacetFilter {
+        Map<MovieFacet, Set<String>> copy = new EnumMap<>(MovieFacet.class);
+        selected.forEach(
+                (facet, values) -> {
+                    if (values != null && !values.isEmpty()) {
+                        copy.put(facet, Set.copyOf(values));
+                    }
+                });
+        selected = Map.copyOf(copy);
+    }
+
+    public static FacetFilter none() {
+        return new FacetFilter(Map.of());
+    }
+
+    public Set<String> values(MovieFacet facet) {
+        return selected.getOrDefault(facet, Set.of());
+    }
+}
@@ -0,0 +1,18 @@
+package com.mediaserver.application.model;
+
+import com.mediaserver.domain.model.Movie;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a faceted filter: one page of matching movies plus the counts the filter UI shows.
+ *
+ * <p>The counts of a facet ignore the selection on that facet itself, so they tell how many movies
+ * each alternative value would match given the other selections.
+ *
+ * @param movies the requested page of matching movies, ordered by title
+ * @param total the number of matching movies
+ * @param counts matching movies by facet and value, values without matches omitted
+ */
+public record FacetedMovies(
+        List<Movie> movies, int total, Map<MovieFacet, Map<String, Integer>> counts) {}
@@ -0,0 +1,38 @@
+package com.mediaserver.application.model;
+
+import com.mediaserver.domain.model.Movie;
+import java.util.Locale;
+
+/** Attributes movies can be filtered and counted by. Facet values are strings. */
+public enum MovieFacet {
+    CATEGORY,
+    YEAR,
+    STATUS,
+    CACHED,
+    FAVORITE;
+
+    /** Value of movies without a category or year. */
+    public static final String NONE = "none";
+
+    /** Returns the name of the facet in request parameters and responses. */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the movie's value for this facet. Favorites depend on the user and are not stored on
+     * the movie, so {@link #FAVORITE} has no value here.
+     *
+     * @param movie the movie
+     * @return the value, null for {@link #FAVORITE}
+     */
+    String valueOf(Movie movie) {
+        return switch (this) {
+            case CATEGORY -> movie.getCategoryId() != null ? movie.getCategoryId() : NONE;
+            case YEAR -> movie.getYear() != null ? movie.getYear().toString() : NONE;
+            case STATUS -> movie.getStatus() != null ? movie.getStatus().name() : NONE;
+            case CACHED -> Boolean.toString(movie.isCached());
+            case FAVORITE -> null;
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.mediaserver.application.model;
+
+import com.mediaserver.domain.model.Movie;
+import java.util.List;
+
+/**
+ * One page of a keyset-paged movie listing.
+ *
+ * @param movies the movies of the page
+ * @param nextCursor the token for the next page, null on the last page
+ */
+public record MoviePage(List<Movie> movies, String nextCursor) {}
@@ -0,0 +1,42 @@
+package com.mediaserver.application.model;
+
+/**
+ * Filter for paged movie listings. All set criteria must match.
+ *
+ * @param search text the title must contain, ignoring case
+ * @param categoryId the category the movie must belong to
+ * @param uncategorized whether only movies without a category match
+ * @param cachedOnly whether only movies cached on the server match
+ * @param favoritesOf the user whose favorites are listed
+ */
+public record MovieQuery(
+        String search,
+        String categoryId,
+        boolean uncategorized,
+        boolean cachedOnly,
+        String favoritesOf) {
+
+    public static MovieQuery all(String search) {
+        return new MovieQuery(search, null, false, false, null);
+    }
+
+    public static MovieQuery category(String categoryId, String search) {
+        return new MovieQuery(search, categoryId, false, false, null);
+    }
+
+    public static MovieQuery uncategorized(String search) {
+        return new MovieQuery(search, null, true, false, null);
+    }
+
+    public static MovieQuery cached(String search) {
+        return new MovieQuery(search, null, false, true, null);
+    }
+
+    public static MovieQuery favorites(String userId, String search) {
+        return new MovieQuery(search, null, false, false, userId);
+    }
+
+    public boolean hasSearch() {
+        return search != null && !search.isBlank();
+    }
+}
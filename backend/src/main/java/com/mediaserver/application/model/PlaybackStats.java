@@ -0,0 +1,33 @@
+package com.mediaserver.application.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * How recently and how often a movie was streamed.
+ *
+ * @param movieId the movie ID
+ * @param lastStreamedAt when the movie was last streamed, null if never
+ * @param playCount the number of times playback started from the beginning
+ */
+public record PlaybackStats(String movieId, LocalDateTime lastStreamedAt, long playCount) {
+
+    /** Statistics of a movie that was never streamed. */
+    public static PlaybackStats none(String movieId) {
+        return new PlaybackStats(movieId, null, 0);
+    }
+
+    /**
+     * Combines these statistics with later ones of the same movie.
+     *
+     * @param later statistics recorded since
+     * @return the latest stream time and the sum of the plays
+     */
+    public PlaybackStats plus(PlaybackStats later) {
+        LocalDateTime latest = lastStreamedAt;
+        if (latest == null
+                || later.lastStreamedAt() != null && later.lastStreamedAt().isAfter(latest)) {
+            latest = later.lastStreamedAt();
+        }
+        return new PlaybackStats(movieId, latest, playCount + later.playCount());
+    }
+}
@@ -0,0 +1,347 @@
+package com.mediaserver.application.model;
+
+import com.mediaserver.domain.model.Movie;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable autocomplete index over movie titles and years.
+ *
+ * <p>Every distinct word is stored once in a trie whose nodes cover a contiguous range of the
+ * sorted word list, so a prefix resolves to all words below it without walking them. Each query
+ * word is matched as a prefix, tolerating a few typos: the trie is walked with one row of the edit
+ * distance matrix per node, counting a swap of adjacent letters as one typo, and pruned as soon as
+ * the row exceeds the allowed distance. A movie must match every query word; fewer typos rank
+ * first.
+ *
+ * <p>Catalog changes are applied with {@link #withMovies} instead of indexing every title again.
+ * Movies whose title and year did not change keep their entries, which resolve to the current movie
+ * by ID. New and retitled movies go into a small second trie, and the entries they replace in the
+ * main trie are skipped; once the second trie grows past a fraction of the catalog, both are folded
+ * into a new main trie.
+ */
+public final class SuggestIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /** Number of changed titles the second trie always accepts before the tries are folded. */
+    private static final int MIN_CHANGES = 256;
+
+    /** Fraction of the catalog that may change before the tries are folded. */
+    private static final int CHANGE_DIVISOR = 16;
+
+    private final Map<String, Movie> movies;
+    private final Segment base;
+    private final Set<String> superseded;
+    private final Map<String, Movie> recent;
+    private final Segment delta;
+
+    private SuggestIndex(
+            Map<String, Movie> movies,
+            Segment base,
+            Set<String> superseded,
+            Map<String, Movie> recent,
+            Segment delta) {
+        this.movies = movies;
+        this.base = base;
+        this.superseded = superseded;
+        this.recent = recent;
+        this.delta = delta;
+    }
+
+    public static SuggestIndex of(Collection<Movie> movies) {
+        Map<String, Movie> byId = new HashMap<>();
+        movies.forEach(movie -> byId.put(movie.getId(), movie));
+        return new SuggestIndex(
+                byId, new Segment(movies), Set.of(), Map.of(), new Segment(List.of()));
+    }
+
+    /**
+     * Returns the index after movies were saved and removed.
+     *
+     * @param nextMovies all movies after the change, by ID; not copied and must not change
+     * @param saved movies created or updated
+     * @param deletedIds IDs of removed movies
+     * @return the new index
+     */
+    public SuggestIndex withMovies(
+            Map<String, Movie> nextMovies, Collection<Movie> saved, Collection<String> deletedIds) {
+        Set<String> nextSuperseded = new HashSet<>(superseded);
+        Map<String, Movie> nextRecent = new HashMap<>(recent);
+        for (String id : deletedIds) {
+            nextSuperseded.add(id);
+            nextRecent.remove(id);
+        }
+        for (Movie movie : saved) {
+            Movie previous = movies.get(movie.getId());
+            if (previous == null
+                    || !Objects.equals(previous.getTitle(), movie.getTitle())
+                    || !Objects.equals(previous.getYear(), movie.getYear())) {
+                nextSuperseded.add(movie.getId());
+                nextRecent.put(movie.getId(), movie);
+            }
+        }
+        int changes = nextSuperseded.size() + nextRecent.size();
+        if (changes > Math.max(MIN_CHANGES, nextMovies.size() / CHANGE_DIVISOR)) {
+            return new SuggestIndex(
+                    nextMovies,
+                    new Segment(nextMovies.values()),
+                    Set.of(),
+                    Map.of(),
+                    new Segment(List.of()));
+        }
+        Segment nextDelta = nextRecent.equals(recent) ? delta : new Segment(nextRecent.values());
+        return new SuggestIndex(nextMovies, base, nextSuperseded, nextRecent, nextDelta);
+    }
+
+    /**
+     * Finds the best movies for what the user has typed so far.
+     *
+     * @param query the typed text
+     * @param limit the maximum number of movies
+     * @return the movies, best match first
+     */
+    public List<Movie> suggest(String query, int limit) {
+        List<String> queryWords = tokenize(normalize(query != null ? query : ""));
+        if (queryWords.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        base.collect(queryWords, id -> !superseded.contains(id), candidates);
+        delta.collect(queryWords, id -> true, candidates);
+
+        String firstWord = queryWords.get(0);
+        Comparator<Candidate> ranking =
+                Comparator.comparingInt(Candidate::typos)
+                        .thenComparing(candidate -> !candidate.title().startsWith(firstWord))
+                        .thenComparingInt(candidate -> candidate.title().length())
+                        .thenComparing(Candidate::title);
+        PriorityQueue<Candidate> best = new PriorityQueue<>(ranking.reversed());
+        for (Candidate candidate : candidates) {
+            best.add(candidate);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        Movie[] result = new Movie[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = movies.get(best.poll().id());
+        }
+        return Arrays.asList(result);
+    }
+
+    /** Short words must match exactly; longer ones may contain one or two typos. */
+    private static int maxTypos(String word) {
+        if (word.length() <= 3) {
+            return 0;
+        }
+        return word.length() <= 7 ? 1 : 2;
+    }
+
+    private static String normalize(String text) {
+        String stripped =
+                DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static List<String> tokenize(String normalized) {
+        return Arrays.stream(NON_WORD.split(normalized)).filter(word -> !word.isEmpty()).toList();
+    }
+
+    /** A movie matching every query word, with its normalized title and total typos. */
+    private record Candidate(String id, String title, int typos) {}
+
+    /** One trie over the titles and years of a fixed set of movies. */
+    private static final class Segment {
+        private final String[] ids;
+        private final String[] titles;
+        private final String[] words;
+        private final int[][] postings;
+        private final Node root;
+
+        private Segment(Collection<Movie> movies) {
+            this.ids = new String[movies.size()];
+            this.titles = new String[movies.size()];
+            TreeMap<String, List<Integer>> movieOrdinalsByWord = new TreeMap<>();
+            int ordinal = 0;
+            for (Movie movie : movies) {
+                ids[ordinal] = movie.getId();
+                titles[ordinal] = normalize(movie.getTitle() != null ? movie.getTitle() : "");
+                List<String> movieWords = new ArrayList<>(tokenize(titles[ordinal]));
+                if (movie.getYear() != null) {
+                    movieWords.add(movie.getYear().toString());
+                }
+                for (String word : movieWords) {
+                    List<Integer> ordinals =
+                            movieOrdinalsByWord.computeIfAbsent(word, key -> new ArrayList<>());
+                    if (ordinals.isEmpty() || ordinals.get(ordinals.size() - 1) != ordinal) {
+                        ordinals.add(ordinal);
+                    }
+                }
+                ordinal++;
+            }
+            this.words = movieOrdinalsByWord.keySet().toArray(String[]::new);
+            this.postings =
+                    movieOrdinalsByWord.values().stream()
+                            .map(
+                                    ordinals ->
+                                            ordinals.stream().mapToInt(Integer::intValue).toArray())
+                            .toArray(int[][]::new);
+            this.root = Node.build(words, 0, words.length, 0);
+        }
+
+        /** Adds the live movies that match every query word to the candidates. */
+        private void collect(
+                List<String> queryWords, Predicate<String> live, List<Candidate> candidates) {
+            Map<Integer, Integer> typos = null;
+            for (String queryWord : queryWords) {
+                Map<Integer, Integer> matches = match(queryWord);
+                typos = typos == null ? matches : intersect(typos, matches);
+                if (typos.isEmpty()) {
+                    return;
+                }
+            }
+            typos.forEach(
+                    (ordinal, count) -> {
+                        if (live.test(ids[ordinal])) {
+                            candidates.add(new Candidate(ids[ordinal], titles[ordinal], count));
+                        }
+                    });
+        }
+
+        /**
+         * Returns the fewest typos with which each movie has a word starting with the query word.
+         */
+        private Map<Integer, Integer> match(String queryWord) {
+            int[] wordTypos = new int[words.length];
+            Arrays.fill(wordTypos, Integer.MAX_VALUE);
+            int maxTypos = maxTypos(queryWord);
+            int[] firstRow = new int[queryWord.length() + 1];
+            for (int i = 0; i < firstRow.length; i++) {
+                firstRow[i] = i;
+            }
+            walk(root, queryWord, null, '\0', firstRow, maxTypos, wordTypos);
+
+            Map<Integer, Integer> typos = new HashMap<>();
+            for (int word = 0; word < words.length; word++) {
+                if (wordTypos[word] != Integer.MAX_VALUE) {
+                    for (int ordinal : postings[word]) {
+                        typos.merge(ordinal, wordTypos[word], Math::min);
+                    }
+                }
+            }
+            return typos;
+        }
+
+        /**
+         * Extends the edit distance rows by one trie level. The row before the current one is kept
+         * so that two swapped letters count as one typo.
+         */
+        private void walk(
+                Node node,
+                String queryWord,
+                int[] previousRow,
+                char previousLabel,
+                int[] row,
+                int maxTypos,
+                int[] wordTypos) {
+            for (int child = 0; child < node.labels.length; child++) {
+                char label = node.labels[child];
+                int[] next = new int[row.length];
+                next[0] = row[0] + 1;
+                int rowMin = next[0];
+                for (int i = 1; i < row.length; i++) {
+                    char queryChar = queryWord.charAt(i - 1);
+                    int cost = Math.min(next[i - 1], row[i]) + 1;
+                    cost = Math.min(cost, row[i - 1] + (queryChar == label ? 0 : 1));
+                    if (previousRow != null
+                            && i > 1
+                            && queryChar == previousLabel
+                            && queryWord.charAt(i - 2) == label) {
+                        cost = Math.min(cost, previousRow[i - 2] + 1);
+                    }
+                    next[i] = cost;
+                    rowMin = Math.min(rowMin, cost);
+                }
+                Node childNode = node.children[child];
+                int distance = next[row.length - 1];
+                if (distance <= maxTypos) {
+                    for (int word = childNode.from; word < childNode.to; word++) {
+                        wordTypos[word] = Math.min(wordTypos[word], distance);
+                    }
+                }
+                if (rowMin <= maxTypos && distance > 0) {
+                    walk(childNode, queryWord, row, label, next, maxTypos, wordTypos);
+                }
+            }
+        }
+
+        private static Map<Integer, Integer> intersect(
+                Map<Integer, Integer> typos, Map<Integer, Integer> matches) {
+            Map<Integer, Integer> both = new HashMap<>();
+            typos.forEach(
+                    (ordinal, count) -> {
+                        Integer more = matches.get(ordinal);
+                        if (more != null) {
+                            both.put(ordinal, count + more);
+                        }
+                    });
+            return both;
+        }
+    }
+
+    /** Trie node covering the sorted words {@code [from, to)} that share its prefix. */
+    private static final class Node {
+        private final char[] labels;
+        private final Node[] children;
+        private final int from;
+        private final int to;
+
+        private Node(char[] labels, Node[] children, int from, int to) {
+            this.labels = labels;
+            this.children = children;
+            this.from = from;
+            this.to = to;
+        }
+
+        private static Node build(String[] words, int from, int to, int depth) {
+            int start = from;
+            while (start < to && words[start].length() == depth) {
+                start++;
+            }
+            List<Character> labels = new ArrayList<>();
+            List<Node> children = new ArrayList<>();
+            int i = start;
+            while (i < to) {
+                char label = words[i].charAt(depth);
+                int end = i;
+                while (end < to && words[end].charAt(depth) == label) {
+                    end++;
+                }
+                labels.add(label);
+                children.add(build(words, i, end, depth + 1));
+                i = end;
+            }
+            char[] labelArray = new char[labels.size()];
+            for (int j = 0; j < labelArray.length; j++) {
+                labelArray[j] = labels.get(j);
+            }
+            return new Node(labelArray, children.toArray(Node[]::new), from, to);
+        }
+    }
+}
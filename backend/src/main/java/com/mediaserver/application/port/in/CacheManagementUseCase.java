@@ -1,5 +1,6 @@
 package com.mediaserver.application.port.in;
 
+import com.mediaserver.application.model.CachePurge;
 import com.mediaserver.domain.model.Movie;
 import java.util.List;
 import lombok.Builder;
@@ -31,11 +32,11 @@ public interface CacheManagementUseCase {
     void clearCache(String movieId);
 
     /**
-     * Clears the cache for all movies.
+     * Starts clearing the cache of all movies except favorites in the background.
      *
-     * @return number of movies cleared
+     * @return the progress of the started or the already running purge
      */
-    int clearAllCache();
+    CachePurge clearAllCache();
 
     /** Cache statistics value object. */
     @Value
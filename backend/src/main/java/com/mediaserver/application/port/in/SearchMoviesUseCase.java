@@ -13,4 +13,14 @@ public interface SearchMoviesUseCase {
      * @return list of matching movies
      */
     List<Movie> searchMovies(String query);
+
+    /**
+     * Searches movies by title or description, best matches first.
+     *
+     * @param query the search query
+     * @param page the zero-based page number
+     * @param size the page size
+     * @return the matching movies of the page
+     */
+    List<Movie> searchMovies(String query, int page, int size);
 }
@@ -0,0 +1,27 @@
+package com.mediaserver.application.port.out;
+
+import com.mediaserver.application.model.CatalogChange;
+import java.util.List;
+
+/**
+ * Output port for the catalog change log. The log keeps the latest change of every movie and
+ * category, deletions included, and is written in the transaction of the change itself.
+ */
+public interface CatalogChangePort {
+
+    /**
+     * Finds changes recorded after a version.
+     *
+     * @param version the version to continue after
+     * @param limit the maximum number of changes
+     * @return the changes in version order
+     */
+    List<CatalogChange> findSince(long version, int limit);
+
+    /**
+     * Returns the version of the newest change.
+     *
+     * @return the version, 0 if nothing was recorded
+     */
+    long latestVersion();
+}
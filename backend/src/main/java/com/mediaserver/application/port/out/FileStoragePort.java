@@ -3,6 +3,8 @@ package com.mediaserver.application.port.out;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
 
 /**
  * Output port for file storage operations. This port will be implemented by the infrastructure
@@ -52,4 +54,32 @@ public interface FileStoragePort {
      * @throws IOException if opening fails
      */
     InputStream openInputStream(Path path) throws IOException;
+
+    /**
+     * Lists the regular files directly inside a directory; subdirectories are skipped.
+     *
+     * @param directory the directory
+     * @return the files, empty if the directory does not exist
+     * @throws IOException if listing fails
+     */
+    List<Path> listFiles(Path directory) throws IOException;
+
+    /**
+     * Gets when a file was last modified.
+     *
+     * @param path the file path
+     * @return the modification time
+     * @throws IOException if reading fails
+     */
+    Instant lastModified(Path path) throws IOException;
+
+    /**
+     * Creates a hard link to an existing file, so both paths share the data and either can be
+     * deleted without affecting the other.
+     *
+     * @param link the path of the new link
+     * @param existing the file to link to
+     * @throws IOException if the link cannot be created
+     */
+    void createLink(Path link, Path existing) throws IOException;
 }
@@ -1,9 +1,16 @@
 package com.mediaserver.application.port.out;
 
+import com.mediaserver.application.model.MovieQuery;
 import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieCursor;
+import com.mediaserver.domain.model.MovieSort;
 import com.mediaserver.domain.model.MovieStatus;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Output port for movie persistence operations. This port will be implemented by the persistence
@@ -19,6 +26,14 @@ public interface MoviePort {
      */
     Optional<Movie> findById(String id);
 
+    /**
+     * Finds the movies with the given IDs; IDs without a movie are skipped.
+     *
+     * @param ids the movie IDs
+     * @return the found movies, in no particular order
+     */
+    List<Movie> findAllById(Collection<String> ids);
+
     /**
      * Finds all movies.
      *
@@ -26,6 +41,14 @@ public interface MoviePort {
      */
     List<Movie> findAll();
 
+    /**
+     * Passes every movie to an action in title order, reading the rows in batches and releasing
+     * each one once passed on, so memory use does not grow with the size of the library.
+     *
+     * @param action receives each movie
+     */
+    void forEachMovie(Consumer<Movie> action);
+
     /**
      * Finds movies by status.
      *
@@ -46,10 +69,48 @@ public interface MoviePort {
      * Searches movies by query (title or description).
      *
      * @param query the search query
-     * @return list of matching movies
+     * @return the best matching movies, at most one page
      */
     List<Movie> search(String query);
 
+    /**
+     * Searches movies by title and description, best matches first.
+     *
+     * @param query the search query
+     * @param offset the number of results to skip
+     * @param limit the maximum number of results
+     * @return the matching movies of the page
+     */
+    List<Movie> search(String query, int offset, int limit);
+
+    /**
+     * Finds one page of movies in keyset order. Only the requested rows are read, so the cost does
+     * not grow with the size of the library.
+     *
+     * @param query the filter
+     * @param sort the sort order
+     * @param after the position to continue after, null for the first page
+     * @param limit the maximum number of movies
+     * @return the movies of the page
+     */
+    List<Movie> findPage(MovieQuery query, MovieSort sort, MovieCursor after, int limit);
+
+    /**
+     * Counts the movies matching a filter.
+     *
+     * @param query the filter
+     * @return the number of matching movies
+     */
+    long count(MovieQuery query);
+
+    /**
+     * Counts movies per category in a single query.
+     *
+     * @param search optional text the title must contain
+     * @return the number of matching movies by category ID, categories without matches omitted
+     */
+    Map<String, Long> countByCategory(String search);
+
     /**
      * Finds all ready movies ordered by creation date.
      *
@@ -86,6 +147,14 @@ public interface MoviePort {
      */
     Movie save(Movie movie);
 
+    /**
+     * Saves several movies in one batch.
+     *
+     * @param movies the movies to save
+     * @return the saved movies in the same order
+     */
+    List<Movie> saveAll(Collection<Movie> movies);
+
     /**
      * Deletes a movie.
      *
@@ -93,6 +162,22 @@ public interface MoviePort {
      */
     void delete(Movie movie);
 
+    /**
+     * Deletes movies in one statement. Their favorites and download tasks go with them.
+     *
+     * @param movieIds the movie IDs
+     */
+    void deleteAllById(Collection<String> movieIds);
+
+    /**
+     * Resets movies to pending in one statement, clearing their local path and file size. Does not
+     * touch the files.
+     *
+     * @param movieIds the movie IDs
+     * @return the reset movies
+     */
+    List<Movie> resetCache(Collection<String> movieIds);
+
     List<Movie> findFavorites(String userId);
 
     void addFavorite(String movieId, String userId);
@@ -101,6 +186,33 @@ public interface MoviePort {
 
     boolean isFavorite(String movieId, String userId);
 
+    /**
+     * Marks movies as favorites of a user in one statement. Movies that do not exist or already are
+     * favorites are skipped.
+     *
+     * @param movieIds the movie IDs
+     * @param userId the user ID
+     * @return the number of favorites added
+     */
+    int addFavorites(Collection<String> movieIds, String userId);
+
+    /**
+     * Removes movies from a user's favorites in one statement.
+     *
+     * @param movieIds the movie IDs
+     * @param userId the user ID
+     * @return the number of favorites removed
+     */
+    int removeFavorites(Collection<String> movieIds, String userId);
+
+    /**
+     * Returns the IDs of a user's favorite movies without loading the movies.
+     *
+     * @param userId the user ID
+     * @return the favorite movie IDs
+     */
+    Set<String> findFavoriteIds(String userId);
+
     /**
      * Applies favorite status to a list of movies for the given user.
      *
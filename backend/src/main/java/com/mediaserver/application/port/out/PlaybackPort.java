@@ -0,0 +1,28 @@
+package com.mediaserver.application.port.out;
+
+import com.mediaserver.application.model.PlaybackStats;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Output port for playback statistics. They are kept apart from the movies, so recording a stream
+ * neither changes the catalog nor races with writes to the movie.
+ */
+public interface PlaybackPort {
+
+    /**
+     * Finds the statistics of movies; movies that were never streamed are omitted.
+     *
+     * @param movieIds the movie IDs
+     * @return the statistics by movie ID
+     */
+    Map<String, PlaybackStats> findByMovieIds(Collection<String> movieIds);
+
+    /**
+     * Adds recorded plays to the stored statistics. Stream times only move forward, and plays of
+     * movies that no longer exist are dropped.
+     *
+     * @param recorded the plays recorded since the last call, one entry per movie
+     */
+    void addPlays(Collection<PlaybackStats> recorded);
+}
@@ -0,0 +1,196 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.application.model.BulkResult;
+import com.mediaserver.application.port.out.CurrentUserProvider;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.application.usecase.movie.BulkMovieUseCase;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Application service implementing the bulk movie use case. Each operation loads its movies in one
+ * query, decides an outcome per ID and then writes all applied movies with one set-based statement.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class BulkMovieApplicationService implements BulkMovieUseCase {
+
+    private final MoviePort moviePort;
+    private final CurrentUserProvider currentUserProvider;
+    private final CachedFileDeleter cachedFileDeleter;
+    private final DownloadStarter downloadStarter;
+
+    @Override
+    public List<BulkResult> addFavorites(Collection<String> movieIds) {
+        String userId = currentUserProvider.getCurrentUserId();
+        Set<String> favoriteIds = moviePort.findFavoriteIds(userId);
+        List<BulkResult> results =
+                classify(
+                        movieIds,
+                        movie ->
+                                favoriteIds.contains(movie.getId())
+                                        ? BulkResult.unchanged(movie.getId())
+                                        : BulkResult.applied(movie.getId()));
+        List<String> added = appliedIds(results);
+        if (!added.isEmpty()) {
+            moviePort.addFavorites(added, userId);
+            log.info("Added {} movies to favorites", added.size());
+        }
+        return results;
+    }
+
+    @Override
+    public List<BulkResult> removeFavorites(Collection<String> movieIds) {
+        String userId = currentUserProvider.getCurrentUserId();
+        Set<String> favoriteIds = moviePort.findFavoriteIds(userId);
+        List<BulkResult> results =
+                classify(
+                        movieIds,
+                        movie ->
+                                favoriteIds.contains(movie.getId())
+                                        ? BulkResult.applied(movie.getId())
+                                        : BulkResult.unchanged(movie.getId()));
+        List<String> removed = appliedIds(results);
+        if (!removed.isEmpty()) {
+            moviePort.removeFavorites(removed, userId);
+            log.info("Removed {} movies from favorites", removed.size());
+        }
+        return results;
+    }
+
+    /**
+     * Marks all downloadable movies as downloading in one batch and then hands them to the download
+     * service, which runs them asynchronously. Movies that do not fit into the cache quota even
+     * after eviction are rejected. If anything else fails, every movie claimed so far whose
+     * download has not started is released before the exception propagates; started downloads
+     * release themselves when they end.
+     */
+    @Override
+    public List<BulkResult> startDownloads(Collection<String> movieIds) {
+        List<Movie> downloading = new ArrayList<>();
+        Set<String> started = new HashSet<>();
+        List<BulkResult> results;
+        try {
+            results =
+                    classify(
+                            movieIds,
+                            movie -> {
+                                String rejection = DownloadStarter.rejection(movie);
+                                if (rejection != null) {
+                                    return BulkResult.rejected(movie.getId(), rejection);
+                                }
+                                if (!downloadStarter.claim(movie.getId())) {
+                                    return BulkResult.rejected(
+                                            movie.getId(), "Download already in progress");
+                                }
+                                try {
+                                    downloadStarter.admit(movie);
+                                } catch (IllegalStateException e) {
+                                    downloadStarter.release(movie.getId());
+                                    return BulkResult.rejected(movie.getId(), e.getMessage());
+                                } catch (RuntimeException e) {
+                                    downloadStarter.release(movie.getId());
+                                    throw e;
+                                }
+                                downloading.add(movie.withStatus(MovieStatus.DOWNLOADING));
+                                return BulkResult.applied(movie.getId());
+                            });
+            for (Movie movie : moviePort.saveAll(downloading)) {
+                downloadStarter.start(movie);
+                started.add(movie.getId());
+            }
+        } catch (RuntimeException e) {
+            downloading.stream()
+                    .map(Movie::getId)
+                    .filter(movieId -> !started.contains(movieId))
+                    .forEach(downloadStarter::release);
+            throw e;
+        }
+        log.info("Started {} downloads", downloading.size());
+        return results;
+    }
+
+    @Override
+    public List<BulkResult> clearCaches(Collection<String> movieIds) {
+        List<Path> files = new ArrayList<>();
+        List<BulkResult> results =
+                classify(
+                        movieIds,
+                        movie -> {
+                            if (movie.getLocalPath() == null) {
+                                return BulkResult.unchanged(movie.getId());
+                            }
+                            files.add(Path.of(movie.getLocalPath()));
+                            return BulkResult.applied(movie.getId());
+                        });
+        List<String> cleared = appliedIds(results);
+        if (!cleared.isEmpty()) {
+            moviePort.resetCache(cleared);
+            cachedFileDeleter.deleteAfterCommit(files);
+            log.info("Cleared cache for {} movies", cleared.size());
+        }
+        return results;
+    }
+
+    @Override
+    public List<BulkResult> deleteMovies(Collection<String> movieIds) {
+        List<Path> files = new ArrayList<>();
+        List<BulkResult> results =
+                classify(
+                        movieIds,
+                        movie -> {
+                            if (movie.getLocalPath() != null) {
+                                files.add(Path.of(movie.getLocalPath()));
+                            }
+                            return BulkResult.applied(movie.getId());
+                        });
+        List<String> deleted = appliedIds(results);
+        if (!deleted.isEmpty()) {
+            moviePort.deleteAllById(deleted);
+            cachedFileDeleter.deleteAfterCommit(files);
+            log.info("Deleted {} movies", deleted.size());
+        }
+        return results;
+    }
+
+    /**
+     * Loads the movies in one query and decides the outcome of each distinct ID in request order;
+     * IDs without a movie are not found.
+     */
+    private List<BulkResult> classify(
+            Collection<String> movieIds, Function<Movie, BulkResult> outcome) {
+        Set<String> ids = new LinkedHashSet<>(movieIds);
+        Map<String, Movie> movies =
+                moviePort.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Movie::getId, Function.identity()));
+        List<BulkResult> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Movie movie = movies.get(id);
+            results.add(movie != null ? outcome.apply(movie) : BulkResult.notFound(id));
+        }
+        return results;
+    }
+
+    private static List<String> appliedIds(List<BulkResult> results) {
+        return results.stream()
+                .filter(result -> result.outcome() == BulkResult.Outcome.APPLIED)
+                .map(BulkResult::movieId)
+                .toList();
+    }
+}
@@ -0,0 +1,204 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.application.model.PlaybackStats;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.config.MediaProperties.EvictionPolicy;
+import com.mediaserver.domain.model.Movie;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the video cache within {@code media.storage.max-cache-size-gb}. Before a download starts,
+ * {@link #admit} makes room for it by evicting cached movies that are neither anyone's favorite nor
+ * being streamed, in the order of {@code media.storage.eviction-policy}. The space of an admitted
+ * download stays reserved until it ends, so concurrent downloads cannot overcommit the quota. A
+ * download that {@link DownloadCoalescer} will serve by linking another movie's file takes no space
+ * and evicts nothing, and no movie sharing the source of an admitted download is evicted, so the
+ * file a link is about to point to stays on disk.
+ *
+ * <p>Usage is read from {@link CacheUsage}, which only sees committed changes. Evicted movies are
+ * reset in the caller's transaction and their files deleted once it commits; until the transaction
+ * completes they stay in a ledger next to the reservations, so a concurrent admission neither
+ * counts their space as used nor evicts them a second time. A quota of zero or less disables
+ * enforcement.
+ */
+@Service
+@Slf4j
+public class CacheEvictionService {
+
+    private static final long BYTES_PER_GB = 1024L * 1024 * 1024;
+
+    private final MoviePort moviePort;
+    private final CacheUsage cacheUsage;
+    private final PlaybackTracker playbackTracker;
+    private final CachedFileDeleter cachedFileDeleter;
+    private final DownloadCoalescer downloadCoalescer;
+    private final long quotaBytes;
+    private final EvictionPolicy policy;
+    private final Map<String, Long> reserved = new HashMap<>();
+    private final Map<String, String> sources = new HashMap<>();
+    private final Set<String> evicting = new HashSet<>();
+
+    public CacheEvictionService(
+            MoviePort moviePort,
+            CacheUsage cacheUsage,
+            PlaybackTracker playbackTracker,
+            CachedFileDeleter cachedFileDeleter,
+            DownloadCoalescer downloadCoalescer,
+            MediaProperties properties) {
+        this.moviePort = moviePort;
+        this.cacheUsage = cacheUsage;
+        this.playbackTracker = playbackTracker;
+        this.cachedFileDeleter = cachedFileDeleter;
+        this.downloadCoalescer = downloadCoalescer;
+        this.quotaBytes = properties.getStorage().getMaxCacheSizeGb() * BYTES_PER_GB;
+        this.policy = properties.getStorage().getEvictionPolicy();
+    }
+
+    /**
+     * Admits a download into the cache, evicting other movies if it would not fit, and reserves its
+     * space. A movie whose size is not known yet reserves nothing and only needs the cache to be
+     * within the quota; a movie that will be linked to another movie's file reserves nothing at
+     * all.
+     *
+     * @param movie the movie about to be downloaded
+     * @throws IllegalStateException if evicting every evictable movie would not free enough space
+     */
+    public synchronized void admit(Movie movie) {
+        if (quotaBytes <= 0) {
+            return;
+        }
+        String source = DownloadCoalescer.normalizeSource(movie.getMegaUrl());
+        if (source != null && downloadCoalescer.willLink(movie)) {
+            sources.put(movie.getId(), source);
+            reserved.put(movie.getId(), 0L);
+            return;
+        }
+        long needed = movie.getFileSize() != null ? movie.getFileSize() : 0;
+        long used = cacheUsage.totalBytesExcluding(evicting);
+        for (long bytes : reserved.values()) {
+            used += bytes;
+        }
+        long excess = used + needed - quotaBytes;
+        if (excess > 0) {
+            evict(movie, source, excess);
+        }
+        if (source != null) {
+            sources.put(movie.getId(), source);
+        }
+        reserved.put(movie.getId(), needed);
+    }
+
+    /**
+     * Releases the space reserved for a download once it has ended.
+     *
+     * @param movieId the movie ID
+     */
+    public synchronized void release(String movieId) {
+        reserved.remove(movieId);
+        sources.remove(movieId);
+    }
+
+    private void evict(Movie incoming, String source, long excess) {
+        List<Movie> candidates =
+                moviePort.findCachedNonFavorites().stream()
+                        .filter(
+                                movie ->
+                                        movie.getLocalPath() != null && movie.getFileSize() != null)
+                        .filter(movie -> !movie.getId().equals(incoming.getId()))
+                        .filter(movie -> !evicting.contains(movie.getId()))
+                        .filter(movie -> !isSourceInUse(movie, source))
+                        .filter(movie -> !playbackTracker.isStreaming(movie.getId()))
+                        .toList();
+        Map<String, PlaybackStats> stats =
+                playbackTracker.stats(candidates.stream().map(Movie::getId).toList());
+        List<Movie> ordered = new ArrayList<>(candidates);
+        ordered.sort(evictionOrder(stats));
+
+        List<String> evicted = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        long freed = 0;
+        for (Movie movie : ordered) {
+            if (freed >= excess) {
+                break;
+            }
+            evicted.add(movie.getId());
+            files.add(Path.of(movie.getLocalPath()));
+            freed += movie.getFileSize();
+        }
+        if (freed < excess) {
+            throw new IllegalStateException(
+                    "Not enough cache space for " + incoming.getTitle() + ", even after eviction");
+        }
+        moviePort.resetCache(evicted);
+        cachedFileDeleter.deleteAfterCommit(files);
+        holdUntilCompletion(evicted);
+        log.info(
+                "Evicted {} movies ({} bytes, {}) to make room for {}",
+                evicted.size(),
+                freed,
+                policy,
+                incoming.getTitle());
+    }
+
+    /** Checks whether a movie shares the source of the incoming or an admitted download. */
+    private boolean isSourceInUse(Movie movie, String incomingSource) {
+        String source = DownloadCoalescer.normalizeSource(movie.getMegaUrl());
+        return source != null && (source.equals(incomingSource) || sources.containsValue(source));
+    }
+
+    /**
+     * Keeps evicted movies in the ledger until the caller's transaction completes. By then {@link
+     * CacheUsage} has applied a commit, and after a rollback the movies are cached again.
+     */
+    private void holdUntilCompletion(List<String> evicted) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        evicting.addAll(evicted);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        synchronized (CacheEvictionService.this) {
+                            evicted.forEach(evicting::remove);
+                        }
+                    }
+                });
+    }
+
+    private Comparator<Movie> evictionOrder(Map<String, PlaybackStats> stats) {
+        Function<Movie, LocalDateTime> lastUsed =
+                movie -> {
+                    LocalDateTime streamed = stats.get(movie.getId()).lastStreamedAt();
+                    return streamed != null ? streamed : movie.getUpdatedAt();
+                };
+        Comparator<Movie> leastRecent =
+                Comparator.comparing(lastUsed, Comparator.nullsFirst(Comparator.naturalOrder()));
+        return switch (policy) {
+            case LRU -> leastRecent;
+            case LFU ->
+                    Comparator.<Movie>comparingLong(movie -> stats.get(movie.getId()).playCount())
+                            .thenComparing(leastRecent);
+            case SIZE ->
+                    Comparator.<Movie>comparingDouble(
+                                    movie ->
+                                            (stats.get(movie.getId()).playCount() + 1.0)
+                                                    / Math.max(1, movie.getFileSize()))
+                            .thenComparing(leastRecent);
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.application.model.CachePurge;
+import com.mediaserver.application.port.out.FileStoragePort;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.event.CachePurgeProgressEvent;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges all cached movies except favorites in the background. Files are deleted by a bounded pool
+ * of {@code media.storage.cache-purge-workers} threads, and the movies whose files are gone are
+ * then reset to pending with one bulk update, so no transaction or connection is held while the
+ * files are deleted. Only one purge runs at a time.
+ *
+ * <p>Progress is published as {@link CachePurgeProgressEvent}s, at most every {@value
+ * #PROGRESS_INTERVAL_MILLIS} ms while files are deleted and once when the purge ends.
+ */
+@Component
+@Slf4j
+public class CachePurgeJob {
+
+    static final long PROGRESS_INTERVAL_MILLIS = 250;
+
+    private final MoviePort moviePort;
+    private final FileStoragePort fileStoragePort;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int workers;
+    private final ExecutorService runner =
+            Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("cache-purge").daemon(true).factory());
+    private final Object lock = new Object();
+    private volatile CachePurge current = CachePurge.IDLE;
+    private long lastPublished;
+
+    public CachePurgeJob(
+            MoviePort moviePort,
+            FileStoragePort fileStoragePort,
+            ApplicationEventPublisher eventPublisher,
+            MediaProperties properties) {
+        this.moviePort = moviePort;
+        this.fileStoragePort = fileStoragePort;
+        this.eventPublisher = eventPublisher;
+        this.workers = Math.max(1, properties.getStorage().getCachePurgeWorkers());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Starts a purge unless one is running.
+     *
+     * @return the progress of the started or the already running purge
+     */
+    public CachePurge start() {
+        synchronized (lock) {
+            if (!current.isRunning()) {
+                current = new CachePurge(CachePurge.State.RUNNING, 0, 0, 0, null);
+                runner.execute(this::run);
+            }
+            return current;
+        }
+    }
+
+    /** Returns the progress of the running or the last purge. */
+    public CachePurge current() {
+        return current;
+    }
+
+    private void run() {
+        AtomicInteger deleted = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int total = 0;
+        try {
+            List<Movie> movies =
+                    moviePort.findCachedNonFavorites().stream()
+                            .filter(movie -> movie.getLocalPath() != null)
+                            .toList();
+            total = movies.size();
+            publish(new CachePurge(CachePurge.State.RUNNING, total, 0, 0, null), true);
+            List<String> cleared = deleteFiles(movies, total, deleted, failed);
+            moviePort.resetCache(cleared);
+            log.info(
+                    "Purged cache of {} movies, {} files could not be deleted (favorites"
+                            + " preserved)",
+                    cleared.size(),
+                    failed.get());
+            publish(
+                    new CachePurge(
+                            CachePurge.State.COMPLETED, total, deleted.get(), failed.get(), null),
+                    true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            publish(failure(total, deleted, failed, "Interrupted"), true);
+        } catch (RuntimeException | ExecutionException e) {
+            log.error("Cache purge failed", e);
+            publish(failure(total, deleted, failed, e.getMessage()), true);
+        }
+    }
+
+    /** Deletes the files in parallel and returns the IDs of the movies whose files are gone. */
+    private List<String> deleteFiles(
+            List<Movie> movies, int total, AtomicInteger deleted, AtomicInteger failed)
+            throws InterruptedException, ExecutionException {
+        Queue<String> cleared = new ConcurrentLinkedQueue<>();
+        ExecutorService pool =
+                Executors.newFixedThreadPool(
+                        workers,
+                        Thread.ofPlatform().name("cache-purge-worker-", 0).daemon(true).factory());
+        try {
+            List<Future<?>> deletions = new ArrayList<>(movies.size());
+            for (Movie movie : movies) {
+                deletions.add(
+                        pool.submit(
+                                () -> {
+                                    try {
+                                        fileStoragePort.deleteIfExists(
+                                                Path.of(movie.getLocalPath()));
+                                        cleared.add(movie.getId());
+                                        deleted.incrementAndGet();
+                                    } catch (IOException e) {
+                                        failed.incrementAndGet();
+                                        log.warn(
+                                                "Failed to delete cached file for movie {}: {}",
+                                                movie.getId(),
+                                                e.getMessage());
+                                    }
+                                    publish(
+                                            new CachePurge(
+                                                    CachePurge.State.RUNNING,
+                                                    total,
+                                                    deleted.get(),
+                                                    failed.get(),
+                                                    null),
+                                            false);
+                                }));
+            }
+            for (Future<?> deletion : deletions) {
+                deletion.get();
+            }
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return List.copyOf(cleared);
+    }
+
+    private static CachePurge failure(
+            int total, AtomicInteger deleted, AtomicInteger failed, String error) {
+        return new CachePurge(CachePurge.State.FAILED, total, deleted.get(), failed.get(), error);
+    }
+
+    /**
+     * Records the progress and publishes it, unless {@code force} is false and the last event is
+     * too recent. Runs under the lock so counts never go backwards.
+     */
+    private void publish(CachePurge purge, boolean force) {
+        synchronized (lock) {
+            if (purge.deleted() + purge.failed() < current.deleted() + current.failed()) {
+                return;
+            }
+            current = purge;
+            long now = System.currentTimeMillis();
+            if (!force && now - lastPublished < PROGRESS_INTERVAL_MILLIS) {
+                return;
+            }
+            lastPublished = now;
+            eventPublisher.publishEvent(
+                    new CachePurgeProgressEvent(
+                            purge.state().name(),
+                            purge.total(),
+                            purge.deleted(),
+                            purge.failed(),
+                            purge.error()));
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.application.port.out.FileStoragePort;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.domain.model.Movie;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings the movie rows and the {@link CacheUsage} totals back in line with the files in {@code
+ * media.storage.path}. Every {@code media.storage.reconcile-interval-minutes} the files are listed
+ * and inspected by {@code media.storage.reconcile-workers} low-priority threads, then:
+ *
+ * <ul>
+ *   <li>movies whose file is gone are reset to pending with one bulk update,
+ *   <li>movies whose file size changed get the size of the file,
+ *   <li>files no movie points to are deleted once they are {@code
+ *       media.storage.orphan-min-age-hours} old, which spares downloads still being written.
+ * </ul>
+ *
+ * Movies are re-read before they are changed, so a download or cache clear that finished during the
+ * scan is not undone. Subdirectories such as the thumbnail store, and files kept elsewhere, are
+ * left alone. Runs never overlap.
+ */
+@Component
+@Slf4j
+public class CacheReconciler {
+
+    private final MoviePort moviePort;
+    private final FileStoragePort fileStoragePort;
+    private final CacheUsage cacheUsage;
+    private final Path storagePath;
+    private final int workers;
+    private final long orphanMinAgeHours;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner =
+            Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform()
+                            .name("cache-reconciler")
+                            .priority(Thread.MIN_PRIORITY)
+                            .daemon(true)
+                            .factory());
+
+    public CacheReconciler(
+            MoviePort moviePort,
+            FileStoragePort fileStoragePort,
+            CacheUsage cacheUsage,
+            MediaProperties properties) {
+        this.moviePort = moviePort;
+        this.fileStoragePort = fileStoragePort;
+        this.cacheUsage = cacheUsage;
+        this.storagePath = Path.of(properties.getStorage().getPath()).toAbsolutePath().normalize();
+        this.workers = Math.max(1, properties.getStorage().getReconcileWorkers());
+        this.orphanMinAgeHours = properties.getStorage().getOrphanMinAgeHours();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /** Starts a reconciliation in the background unless one is running. */
+    @Scheduled(
+            initialDelayString = "${media.storage.reconcile-interval-minutes:360}",
+            fixedDelayString = "${media.storage.reconcile-interval-minutes:360}",
+            timeUnit = TimeUnit.MINUTES)
+    public void schedule() {
+        if (running.compareAndSet(false, true)) {
+            runner.execute(
+                    () -> {
+                        try {
+                            reconcile();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (IOException | ExecutionException | RuntimeException e) {
+                            log.error("Cache reconciliation failed", e);
+                        } finally {
+                            running.set(false);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Reconciles the rows and totals with the disk.
+     *
+     * @return what was found and fixed
+     */
+    Result reconcile() throws IOException, InterruptedException, ExecutionException {
+        List<Movie> cached = moviePort.findCachedMovies();
+        Map<Path, FileInfo> files = inspect(fileStoragePort.listFiles(storagePath));
+
+        Set<Path> referenced = new HashSet<>();
+        Map<String, Path> suspects = new HashMap<>();
+        for (Movie movie : cached) {
+            Path path = normalize(Path.of(movie.getLocalPath()));
+            referenced.add(path);
+            FileInfo file = files.get(path);
+            if (storagePath.equals(path.getParent())
+                    && (file == null || !Objects.equals(movie.getFileSize(), file.size()))) {
+                suspects.put(movie.getId(), path);
+            }
+        }
+
+        List<String> missing = new ArrayList<>();
+        List<Movie> resized = new ArrayList<>();
+        for (Movie movie : moviePort.findAllById(suspects.keySet())) {
+            Path path = suspects.get(movie.getId());
+            if (movie.getLocalPath() == null
+                    || !normalize(Path.of(movie.getLocalPath())).equals(path)) {
+                continue;
+            }
+            FileInfo file = files.get(path);
+            if (file == null) {
+                if (!fileStoragePort.exists(path)) {
+                    missing.add(movie.getId());
+                }
+            } else if (!Objects.equals(movie.getFileSize(), file.size())) {
+                resized.add(movie.withFileSize(file.size()));
+            }
+        }
+        if (!missing.isEmpty()) {
+            moviePort.resetCache(missing);
+        }
+        if (!resized.isEmpty()) {
+            moviePort.saveAll(resized);
+        }
+
+        Instant orphanedBefore = Instant.now().minus(orphanMinAgeHours, ChronoUnit.HOURS);
+        List<Path> orphans =
+                files.entrySet().stream()
+                        .filter(file -> !referenced.contains(file.getKey()))
+                        .filter(file -> file.getValue().lastModified().isBefore(orphanedBefore))
+                        .map(Map.Entry::getKey)
+                        .toList();
+        int deleted = deleteAll(orphans);
+        cacheUsage.reload();
+
+        Result result = new Result(files.size(), missing.size(), resized.size(), deleted);
+        log.info(
+                "Reconciled cache with disk: {} files, {} missing, {} resized, {} orphans deleted",
+                result.files(),
+                result.missing(),
+                result.resized(),
+                result.orphansDeleted());
+        return result;
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    /** Reads the size and modification time of the files in parallel. */
+    private Map<Path, FileInfo> inspect(List<Path> paths)
+            throws InterruptedException, ExecutionException {
+        Map<Path, FileInfo> files = new ConcurrentHashMap<>();
+        forEachInParallel(
+                paths,
+                path -> {
+                    try {
+                        files.put(
+                                normalize(path),
+                                new FileInfo(
+                                        fileStoragePort.size(path),
+                                        fileStoragePort.lastModified(path)));
+                    } catch (IOException e) {
+                        log.debug("Skipping unreadable file {}: {}", path, e.getMessage());
+                    }
+                });
+        return files;
+    }
+
+    private int deleteAll(List<Path> orphans) throws InterruptedException, ExecutionException {
+        AtomicInteger deleted = new AtomicInteger();
+        forEachInParallel(
+                orphans,
+                path -> {
+                    try {
+                        if (fileStoragePort.deleteIfExists(path)) {
+                            deleted.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        log.warn("Failed to delete orphaned file {}: {}", path, e.getMessage());
+                    }
+                });
+        return deleted.get();
+    }
+
+    private void forEachInParallel(List<Path> paths, Consumer<Path> action)
+            throws InterruptedException, ExecutionException {
+        if (paths.isEmpty()) {
+            return;
+        }
+        ExecutorService pool =
+                Executors.newFixedThreadPool(
+                        workers,
+                        Thread.ofPlatform()
+                                .name("cache-reconciler-worker-", 0)
+                                .priority(Thread.MIN_PRIORITY)
+                                .daemon(true)
+                                .factory());
+        try {
+            List<Future<?>> tasks = new ArrayList<>(paths.size());
+            for (Path path : paths) {
+                tasks.add(pool.submit(() -> action.accept(path)));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private record FileInfo(long size, Instant lastModified) {}
+
+    /**
+     * Outcome of one reconciliation.
+     *
+     * @param files the number of files found in the storage directory
+     * @param missing the number of movies reset because their file was gone
+     * @param resized the number of movies whose file size was corrected
+     * @param orphansDeleted the number of files deleted because no movie pointed to them
+     */
+    record Result(int files, int missing, int resized, int orphansDeleted) {}
+}
@@ -0,0 +1,138 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.event.CatalogChangedEvent;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Running totals of the video cache, so cache statistics need no query. The sizes of the cached
+ * movies are loaded once and then kept current from the {@link CatalogChangedEvent}s every movie
+ * write publishes after its commit: completed downloads add a movie, cleared caches and deletions
+ * remove it. Since totals are kept per movie, replaying a change cannot count it twice.
+ *
+ * <p>A movie counts as cached while it has a local path, as in {@link MoviePort#getTotalCacheSize}.
+ * {@link CacheReconciler} reloads the totals after comparing them with the disk.
+ */
+@Component
+@Slf4j
+public class CacheUsage {
+
+    private final MoviePort moviePort;
+    private final Object lock = new Object();
+    private Map<String, Long> sizes;
+    private long bytes;
+    private volatile Totals totals;
+
+    public CacheUsage(MoviePort moviePort) {
+        this.moviePort = moviePort;
+    }
+
+    /** Returns the total size of the cached files in bytes. */
+    public long totalBytes() {
+        return totals().bytes();
+    }
+
+    /**
+     * Returns the total size of the cached files in bytes, without the given movies. Movies that
+     * are no longer counted are skipped, so a caller can exclude rows whose removal may not have
+     * been applied yet without subtracting them twice.
+     *
+     * @param movieIds the movies to leave out
+     * @return the size of the other cached files in bytes
+     */
+    public long totalBytesExcluding(Collection<String> movieIds) {
+        synchronized (lock) {
+            if (sizes == null) {
+                reload();
+            }
+            long total = bytes;
+            for (String movieId : movieIds) {
+                Long size = sizes.get(movieId);
+                if (size != null) {
+                    total -= size;
+                }
+            }
+            return total;
+        }
+    }
+
+    /** Returns the number of cached movies. */
+    public long count() {
+        return totals().count();
+    }
+
+    /**
+     * Applies a committed change. Changes that arrive before the totals were first loaded are
+     * skipped, since the load reads them from the database anyway.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        synchronized (lock) {
+            if (sizes == null) {
+                return;
+            }
+            for (Movie movie : event.savedMovies()) {
+                if (movie.getLocalPath() != null) {
+                    put(movie.getId(), movie.getFileSize());
+                } else {
+                    remove(movie.getId());
+                }
+            }
+            event.deletedMovieIds().forEach(this::remove);
+            publish();
+        }
+    }
+
+    /** Reloads the totals from the database, dropping any drift. */
+    public void reload() {
+        synchronized (lock) {
+            sizes = new HashMap<>();
+            bytes = 0;
+            for (Movie movie : moviePort.findCachedMovies()) {
+                put(movie.getId(), movie.getFileSize());
+            }
+            publish();
+            log.debug("Loaded cache usage: {} movies, {} bytes", sizes.size(), bytes);
+        }
+    }
+
+    private Totals totals() {
+        Totals current = totals;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            if (totals == null) {
+                reload();
+            }
+            return totals;
+        }
+    }
+
+    private void put(String movieId, Long fileSize) {
+        long size = fileSize != null ? fileSize : 0;
+        Long previous = sizes.put(movieId, size);
+        bytes += size - (previous != null ? previous : 0);
+    }
+
+    private void remove(String movieId) {
+        Long previous = sizes.remove(movieId);
+        if (previous != null) {
+            bytes -= previous;
+        }
+    }
+
+    private void publish() {
+        totals = new Totals(bytes, sizes.size());
+    }
+
+    private record Totals(long bytes, long count) {}
+}
@@ -0,0 +1,75 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.application.port.out.FileStoragePort;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Deletes cached video files off the request thread. Deletion waits for the current transaction to
+ * commit, so a rolled back change never loses the file its row still points to; a file that cannot
+ * be deleted is logged and left behind.
+ */
+@Component
+@Slf4j
+public class CachedFileDeleter {
+
+    private final FileStoragePort fileStoragePort;
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("cached-file-deleter").daemon(true).factory());
+
+    public CachedFileDeleter(FileStoragePort fileStoragePort) {
+        this.fileStoragePort = fileStoragePort;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues files for deletion once the current transaction commits, or right away without one.
+     *
+     * @param files the files to delete
+     */
+    public void deleteAfterCommit(Collection<Path> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+        List<Path> queued = List.copyOf(files);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            executor.execute(() -> delete(queued));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        executor.execute(() -> delete(queued));
+                    }
+                });
+    }
+
+    private void delete(List<Path> files) {
+        int deleted = 0;
+        for (Path file : files) {
+            try {
+                if (fileStoragePort.deleteIfExists(file)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                log.warn("Failed to delete cached file {}: {}", file, e.getMessage());
+            }
+        }
+        log.info("Deleted {} of {} cached files", deleted, files.size());
+    }
+}
@@ -0,0 +1,98 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.application.model.CatalogChange;
+import com.mediaserver.application.model.CatalogChanges;
+import com.mediaserver.application.port.out.CatalogChangePort;
+import com.mediaserver.application.port.out.CategoryPort;
+import com.mediaserver.application.port.out.CurrentUserProvider;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.application.usecase.catalog.GetCatalogChangesUseCase;
+import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.exception.InvalidPageRequestException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for the catalog changes feed. Reads the change log and attaches the current state of
+ * every changed movie and category. An entity changed again after the log was read is returned in
+ * its newer state, which is harmless because applying a change is idempotent.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CatalogChangesService implements GetCatalogChangesUseCase {
+
+    public static final int MAX_CHANGES = 1000;
+
+    private final CatalogChangePort catalogChangePort;
+    private final MoviePort moviePort;
+    private final CategoryPort categoryPort;
+    private final CurrentUserProvider currentUserProvider;
+
+    @Override
+    public CatalogChanges getChanges(long since, int limit) {
+        if (since < 0 || limit < 1 || limit > MAX_CHANGES) {
+            throw new InvalidPageRequestException(
+                    "Version must be >= 0 and limit between 1 and " + MAX_CHANGES);
+        }
+        List<CatalogChange> changes = catalogChangePort.findSince(since, limit + 1);
+        if (changes.isEmpty()) {
+            long latest = catalogChangePort.latestVersion();
+            return since > latest ? CatalogChanges.reset(latest) : empty(since);
+        }
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+
+        Set<String> movieIds = new HashSet<>();
+        Set<String> categoryIds = new HashSet<>();
+        List<String> deletedMovieIds = new ArrayList<>();
+        List<String> deletedCategoryIds = new ArrayList<>();
+        for (CatalogChange change : changes) {
+            boolean movie = change.type() == CatalogChange.EntityType.MOVIE;
+            if (change.deleted()) {
+                (movie ? deletedMovieIds : deletedCategoryIds).add(change.entityId());
+            } else {
+                (movie ? movieIds : categoryIds).add(change.entityId());
+            }
+        }
+
+        List<Movie> movies =
+                movieIds.isEmpty()
+                        ? List.of()
+                        : moviePort.applyFavoriteStatus(
+                                moviePort.findAllById(movieIds),
+                                currentUserProvider.getCurrentUserId());
+        List<Category> categories =
+                categoryIds.isEmpty()
+                        ? List.of()
+                        : categoryPort.findAllOrderedBySortOrder().stream()
+                                .filter(category -> categoryIds.contains(category.getId()))
+                                .toList();
+        return new CatalogChanges(
+                changes.get(changes.size() - 1).version(),
+                hasMore,
+                false,
+                movies,
+                deletedMovieIds,
+                categories,
+                deletedCategoryIds);
+    }
+
+    @Override
+    public long getLatestVersion() {
+        return catalogChangePort.latestVersion();
+    }
+
+    private static CatalogChanges empty(long version) {
+        return new CatalogChanges(
+                version, false, false, List.of(), List.of(), List.of(), List.of());
+    }
+}
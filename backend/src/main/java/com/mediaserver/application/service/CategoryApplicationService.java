@@ -7,6 +7,7 @@ import com.mediaserver.application.port.in.DeleteCategoryUseCase;
 import com.mediaserver.application.port.in.GetCategoryUseCase;
 import com.mediaserver.application.port.in.UpdateCategoryUseCase;
 import com.mediaserver.application.port.out.CategoryPort;
+import com.mediaserver.application.usecase.category.GetAllCategoriesUseCase;
 import com.mediaserver.domain.model.Category;
 import com.mediaserver.exception.CategoryNotFoundException;
 import java.util.List;
@@ -25,9 +26,11 @@ public class CategoryApplicationService
         implements GetCategoryUseCase,
                 CreateCategoryUseCase,
                 UpdateCategoryUseCase,
-                DeleteCategoryUseCase {
+                DeleteCategoryUseCase,
+                GetAllCategoriesUseCase {
 
     private final CategoryPort categoryPort;
+    private final MovieCatalog movieCatalog;
 
     @Override
     public Category getCategory(String id) {
@@ -36,7 +39,7 @@ public class CategoryApplicationService
 
     @Override
     public List<Category> getAllCategories() {
-        return categoryPort.findAllOrderedBySortOrder();
+        return movieCatalog.categories();
     }
 
     @Override
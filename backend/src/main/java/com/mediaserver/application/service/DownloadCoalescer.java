@@ -0,0 +1,235 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.application.port.out.DownloadServicePort;
+import com.mediaserver.application.port.out.FileStoragePort;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs at most one transfer per source. Movies are matched by their normalized {@code megaUrl}, so
+ * rows that point to the same file, for example after a re-scan into another category, share one
+ * download: a movie whose source another movie already has cached is hard linked to that file right
+ * away, and a movie whose source is being downloaded waits for the running transfer and is linked
+ * to its file once it finishes. Only the first movie's transfer goes through the {@link
+ * DownloadServicePort}, which updates that movie; the linked movies are updated here.
+ *
+ * <p>Every linked movie records the full file size, so the cache totals count a shared file once
+ * per movie. That overstates the space on disk, which keeps the quota on the safe side, but
+ * clearing one of the movies frees nothing until the last link is gone.
+ */
+@Component
+@Slf4j
+public class DownloadCoalescer {
+
+    private final DownloadServicePort downloadServicePort;
+    private final MoviePort moviePort;
+    private final FileStoragePort fileStoragePort;
+    private final Map<String, CompletableFuture<Movie>> inFlight = new ConcurrentHashMap<>();
+
+    public DownloadCoalescer(
+            DownloadServicePort downloadServicePort,
+            MoviePort moviePort,
+            FileStoragePort fileStoragePort) {
+        this.downloadServicePort = downloadServicePort;
+        this.moviePort = moviePort;
+        this.fileStoragePort = fileStoragePort;
+    }
+
+    /**
+     * Downloads a movie, or links it to the file of another movie with the same source.
+     *
+     * @param movie the movie to download, already marked as downloading
+     * @return future containing the movie's file path
+     */
+    public CompletableFuture<Path> download(Movie movie) {
+        String source = normalizeSource(movie.getMegaUrl());
+        if (source == null) {
+            return downloadServicePort.downloadMovie(movie);
+        }
+        CompletableFuture<Movie> started = new CompletableFuture<>();
+        CompletableFuture<Movie> running = inFlight.putIfAbsent(source, started);
+        if (running != null) {
+            log.info("Attaching {} to the running download of its source", movie.getTitle());
+            return running.thenApply(holder -> link(movie, holder))
+                    .whenComplete(
+                            (path, error) -> {
+                                if (error != null) {
+                                    markFailed(movie.getId());
+                                }
+                            });
+        }
+        started.whenComplete((holder, error) -> inFlight.remove(source, started));
+        try {
+            Movie holder = findCached(source, movie.getId());
+            if (holder != null) {
+                Path path = link(movie, holder);
+                started.complete(holder);
+                return CompletableFuture.completedFuture(path);
+            }
+            return downloadServicePort
+                    .downloadMovie(movie)
+                    .whenComplete(
+                            (path, error) -> {
+                                if (error != null) {
+                                    started.completeExceptionally(error);
+                                } else {
+                                    started.complete(downloaded(movie, path));
+                                }
+                            });
+        } catch (RuntimeException e) {
+            started.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether {@link #download} would link a movie instead of transferring it, because
+     * another movie with the same source is cached or being downloaded.
+     *
+     * @param movie the movie
+     * @return true if the movie would share another movie's file
+     */
+    public boolean willLink(Movie movie) {
+        String source = normalizeSource(movie.getMegaUrl());
+        return source != null
+                && (inFlight.containsKey(source) || findCached(source, movie.getId()) != null);
+    }
+
+    /**
+     * Normalizes a source URL so that spellings of the same link compare equal: scheme and host are
+     * lower-cased, {@code www.}, default ports and trailing slashes are dropped, and old Mega links
+     * ({@code mega.co.nz}, {@code #!id!key}) are rewritten to the current form. Sources that are
+     * not absolute URLs, such as Mega paths, are only trimmed.
+     *
+     * @param source the source, may be null
+     * @return the normalized source, null if there is none
+     */
+    static String normalizeSource(String source) {
+        if (source == null || source.isBlank()) {
+            return null;
+        }
+        String trimmed = source.strip();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return trimmed;
+        }
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (host.startsWith("www.")) {
+            host = host.substring(4);
+        }
+        if (host.equals("mega.co.nz")) {
+            host = "mega.nz";
+        }
+        int port = uri.getPort();
+        if (port == 80 && scheme.equals("http") || port == 443 && scheme.equals("https")) {
+            port = -1;
+        }
+        String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        String fragment = uri.getRawFragment();
+        if (host.equals("mega.nz") && path.isEmpty() && fragment != null) {
+            String[] legacy = fragment.split("!");
+            if (legacy.length == 3 && legacy[0].isEmpty()) {
+                path = "/file/" + legacy[1];
+                fragment = legacy[2];
+            }
+        }
+        StringBuilder normalized = new StringBuilder(scheme).append("://").append(host);
+        if (port != -1) {
+            normalized.append(':').append(port);
+        }
+        normalized.append(path);
+        if (uri.getRawQuery() != null) {
+            normalized.append('?').append(uri.getRawQuery());
+        }
+        if (fragment != null) {
+            normalized.append('#').append(fragment);
+        }
+        return normalized.toString();
+    }
+
+    /** Re-reads a downloaded movie for the content type the download service detected. */
+    private Movie downloaded(Movie movie, Path path) {
+        try {
+            return moviePort
+                    .findById(movie.getId())
+                    .filter(Movie::isCached)
+                    .orElse(movie.withLocalPath(path.toString()).withStatus(MovieStatus.READY));
+        } catch (RuntimeException e) {
+            return movie.withLocalPath(path.toString()).withStatus(MovieStatus.READY);
+        }
+    }
+
+    /** Finds another movie whose file of the same source is still on disk. */
+    private Movie findCached(String source, String movieId) {
+        return moviePort.findCachedMovies().stream()
+                .filter(Movie::isCached)
+                .filter(movie -> !movie.getId().equals(movieId))
+                .filter(movie -> source.equals(normalizeSource(movie.getMegaUrl())))
+                .filter(movie -> fileStoragePort.exists(Path.of(movie.getLocalPath())))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Hard links a movie to the file of another movie with the same source and marks it ready. The
+     * link is named like a download of the movie itself, so either movie's cache can be cleared
+     * without touching the other's.
+     */
+    private Path link(Movie movie, Movie holder) {
+        Path file = Path.of(holder.getLocalPath());
+        Path fileName = file.getFileName();
+        if (fileName == null) {
+            throw new IllegalStateException("Not a file: " + file);
+        }
+        String name = fileName.toString();
+        String prefix = holder.getId() + "_";
+        Path link =
+                file.resolveSibling(
+                        movie.getId()
+                                + "_"
+                                + (name.startsWith(prefix)
+                                        ? name.substring(prefix.length())
+                                        : name));
+        try {
+            fileStoragePort.createLink(link, file);
+            Movie current = moviePort.findById(movie.getId()).orElse(movie);
+            moviePort.save(
+                    current.withLocalPath(link.toString())
+                            .withFileSize(fileStoragePort.size(link))
+                            .withContentType(holder.getContentType())
+                            .withStatus(MovieStatus.READY));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to link " + link + " to " + file, e);
+        }
+        log.info("Linked {} to the downloaded file {}", movie.getTitle(), file);
+        return link;
+    }
+
+    private void markFailed(String movieId) {
+        moviePort
+                .findById(movieId)
+                .filter(movie -> movie.getStatus() == MovieStatus.DOWNLOADING)
+                .ifPresent(movie -> moviePort.save(movie.withStatus(MovieStatus.ERROR)));
+    }
+}
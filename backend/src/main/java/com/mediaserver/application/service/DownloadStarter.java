@@ -0,0 +1,94 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks the downloads that are running and starts new ones, for single and bulk downloads alike. A
+ * movie is claimed before it is admitted into the cache, and its claim and cache reservation are
+ * released together once its download ends or fails to start.
+ */
+@Component
+public class DownloadStarter {
+
+    private final CacheEvictionService cacheEvictionService;
+    private final DownloadCoalescer downloadCoalescer;
+    private final Set<String> activeDownloads = ConcurrentHashMap.newKeySet();
+
+    public DownloadStarter(
+            CacheEvictionService cacheEvictionService, DownloadCoalescer downloadCoalescer) {
+        this.cacheEvictionService = cacheEvictionService;
+        this.downloadCoalescer = downloadCoalescer;
+    }
+
+    /**
+     * Returns why a movie cannot be downloaded.
+     *
+     * @param movie the movie
+     * @return the reason, null if it can be downloaded
+     */
+    static String rejection(Movie movie) {
+        if (movie.isCached()) {
+            return "Movie is already downloaded";
+        }
+        if (movie.getStatus() == MovieStatus.DOWNLOADING) {
+            return "Movie is already being downloaded";
+        }
+        if (movie.getStatus() == MovieStatus.UNAVAILABLE) {
+            return "Movie is no longer available on Mega";
+        }
+        return null;
+    }
+
+    /**
+     * Claims a movie for a download.
+     *
+     * @param movieId the movie ID
+     * @return false if a download of the movie is already active
+     */
+    public boolean claim(String movieId) {
+        return activeDownloads.add(movieId);
+    }
+
+    /**
+     * Makes room in the cache for a claimed movie and reserves its space.
+     *
+     * @param movie the movie about to be downloaded
+     * @throws IllegalStateException if the movie does not fit into the cache
+     */
+    public void admit(Movie movie) {
+        cacheEvictionService.admit(movie);
+    }
+
+    /**
+     * Starts the download of an admitted movie; it is released once the download ends.
+     *
+     * @param movie the movie, already marked as downloading
+     */
+    public void start(Movie movie) {
+        downloadCoalescer.download(movie).whenComplete((result, error) -> release(movie.getId()));
+    }
+
+    /**
+     * Releases a movie's claim and cache reservation.
+     *
+     * @param movieId the movie ID
+     */
+    public void release(String movieId) {
+        activeDownloads.remove(movieId);
+        cacheEvictionService.release(movieId);
+    }
+
+    /**
+     * Checks if a movie is currently being downloaded.
+     *
+     * @param movieId the movie ID
+     * @return true while the movie is claimed
+     */
+    public boolean isActive(String movieId) {
+        return activeDownloads.contains(movieId);
+    }
+}
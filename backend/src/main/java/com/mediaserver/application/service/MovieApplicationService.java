@@ -2,35 +2,42 @@ package com.mediaserver.application.service;
 
 import com.mediaserver.application.command.CreateMovieCommand;
 import com.mediaserver.application.command.UpdateMovieCommand;
+import com.mediaserver.application.model.CachePurge;
 import com.mediaserver.application.port.in.*;
 import com.mediaserver.application.port.out.CategoryPort;
 import com.mediaserver.application.port.out.CurrentUserProvider;
-import com.mediaserver.application.port.out.DownloadServicePort;
 import com.mediaserver.application.port.out.FileStoragePort;
 import com.mediaserver.application.port.out.MoviePort;
 import com.mediaserver.application.usecase.movie.AddFavoriteUseCase;
+import com.mediaserver.application.usecase.movie.ClearAllCacheUseCase;
 import com.mediaserver.application.usecase.movie.GetFavoritesUseCase;
 import com.mediaserver.application.usecase.movie.RemoveFavoriteUseCase;
+import com.mediaserver.application.usecase.movie.StreamAllMoviesUseCase;
+import com.mediaserver.application.usecase.movie.SuggestMoviesUseCase;
 import com.mediaserver.config.MediaProperties;
 import com.mediaserver.domain.model.Category;
 import com.mediaserver.domain.model.Movie;
 import com.mediaserver.domain.model.MovieStatus;
 import com.mediaserver.exception.CategoryNotFoundException;
+import com.mediaserver.exception.InvalidPageRequestException;
 import com.mediaserver.exception.MovieNotFoundException;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Application service implementing movie-related use cases. This service orchestrates the business
- * logic and delegates to output ports.
+ * logic and delegates to output ports. Reads run in read-only transactions, which skip dirty
+ * checking and flushing.
  */
 @Service
 @RequiredArgsConstructor
@@ -47,18 +54,27 @@ public class MovieApplicationService
                 FavoriteMovieUseCase,
                 AddFavoriteUseCase,
                 RemoveFavoriteUseCase,
-                GetFavoritesUseCase {
+                GetFavoritesUseCase,
+                SuggestMoviesUseCase,
+                StreamAllMoviesUseCase,
+                ClearAllCacheUseCase {
 
     private final MoviePort moviePort;
     private final CategoryPort categoryPort;
     private final FileStoragePort fileStoragePort;
-    private final DownloadServicePort downloadServicePort;
+    private final DownloadStarter downloadStarter;
     private final CurrentUserProvider currentUserProvider;
     private final MediaProperties properties;
+    private final MovieCatalog movieCatalog;
+    private final CachePurgeJob cachePurgeJob;
+    private final CacheUsage cacheUsage;
 
-    private static final Set<String> activeDownloads = ConcurrentHashMap.newKeySet();
+    private static final int SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_SEARCH_PAGE_SIZE = 200;
+    private static final int MAX_SUGGESTIONS = 20;
 
     @Override
+    @Transactional(readOnly = true)
     public Movie getMovie(String id) {
         Movie movie = moviePort.findById(id).orElseThrow(() -> new MovieNotFoundException(id));
         String userId = currentUserProvider.getCurrentUserId();
@@ -67,27 +83,66 @@ public class MovieApplicationService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Movie> getAllMovies() {
         String userId = currentUserProvider.getCurrentUserId();
-        return moviePort.applyFavoriteStatus(moviePort.findAll(), userId);
+        return moviePort.applyFavoriteStatus(movieCatalog.findAll(), userId);
     }
 
+    /**
+     * Runs without a transaction of its own: the in-memory catalog needs none, and the database
+     * cursor opens a read-only one for as long as the caller consumes the movies.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void streamAllMovies(Consumer<Movie> action) {
+        Set<String> favoriteIds = moviePort.findFavoriteIds(currentUserProvider.getCurrentUserId());
+        movieCatalog.forEachMovie(
+                movie -> {
+                    boolean favorite = favoriteIds.contains(movie.getId());
+                    action.accept(
+                            movie.isFavorite() == favorite ? movie : movie.withFavorite(favorite));
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Movie> getReadyMovies() {
         String userId = currentUserProvider.getCurrentUserId();
-        return moviePort.applyFavoriteStatus(moviePort.findReadyMovies(), userId);
+        return moviePort.applyFavoriteStatus(movieCatalog.findReadyMovies(), userId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Movie> getMoviesByCategory(String categoryId) {
         String userId = currentUserProvider.getCurrentUserId();
-        return moviePort.applyFavoriteStatus(moviePort.findByCategoryId(categoryId), userId);
+        return moviePort.applyFavoriteStatus(movieCatalog.findByCategoryId(categoryId), userId);
     }
 
     @Override
     public List<Movie> searchMovies(String query) {
+        return searchMovies(query, 0, SEARCH_PAGE_SIZE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Movie> searchMovies(String query, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new InvalidPageRequestException(
+                    "Page must be >= 0 and size between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
         String userId = currentUserProvider.getCurrentUserId();
-        return moviePort.applyFavoriteStatus(moviePort.search(query), userId);
+        return moviePort.applyFavoriteStatus(moviePort.search(query, page * size, size), userId);
+    }
+
+    /** Answered from the in-memory catalog without opening a transaction. */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Movie> suggestMovies(String query, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidPageRequestException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return movieCatalog.suggest(query, limit);
     }
 
     @Override
@@ -123,6 +178,8 @@ public class MovieApplicationService
 
         boolean megaUrlChanged =
                 command.getMegaUrl() != null && !command.getMegaUrl().equals(movie.getMegaUrl());
+        boolean thumbnailChanged =
+                !Objects.equals(command.getThumbnailUrl(), movie.getThumbnailUrl());
 
         String newCategoryId = movie.getCategoryId();
         if (command.getCategoryId() != null) {
@@ -140,6 +197,8 @@ public class MovieApplicationService
                         .withYear(command.getYear())
                         .withDuration(command.getDuration())
                         .withThumbnailUrl(command.getThumbnailUrl())
+                        .withThumbnailPlaceholder(
+                                thumbnailChanged ? null : movie.getThumbnailPlaceholder())
                         .withCategoryId(newCategoryId)
                         .withUpdatedAt(LocalDateTime.now());
 
@@ -171,7 +230,7 @@ public class MovieApplicationService
 
     @Override
     public void startDownload(String movieId) {
-        if (!activeDownloads.add(movieId)) {
+        if (!downloadStarter.claim(movieId)) {
             throw new IllegalStateException("Download already in progress for movie: " + movieId);
         }
 
@@ -181,45 +240,44 @@ public class MovieApplicationService
                             .findById(movieId)
                             .orElseThrow(() -> new MovieNotFoundException(movieId));
 
-            if (movie.isCached()) {
-                throw new IllegalStateException("Movie is already downloaded");
-            }
-
-            if (movie.getStatus() == MovieStatus.DOWNLOADING) {
-                throw new IllegalStateException("Movie is already being downloaded");
+            String rejection = DownloadStarter.rejection(movie);
+            if (rejection != null) {
+                throw new IllegalStateException(rejection);
             }
+            downloadStarter.admit(movie);
 
             Movie downloadingMovie = movie.withStatus(MovieStatus.DOWNLOADING);
             moviePort.save(downloadingMovie);
 
-            downloadServicePort
-                    .downloadMovie(downloadingMovie)
-                    .whenComplete((result, error) -> activeDownloads.remove(movieId));
+            downloadStarter.start(downloadingMovie);
         } catch (Exception e) {
-            activeDownloads.remove(movieId);
+            downloadStarter.release(movieId);
             throw e;
         }
     }
 
     /** Check if a movie is currently being downloaded. */
     public boolean isDownloadActive(String movieId) {
-        return activeDownloads.contains(movieId);
+        return downloadStarter.isActive(movieId);
     }
 
+    /** Answers from the running totals of {@link CacheUsage}, without a query. */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public CacheStats getCacheStats() {
-        var totalSize = moviePort.getTotalCacheSize();
+        var totalSize = cacheUsage.totalBytes();
         var maxSize = (long) properties.getStorage().getMaxCacheSizeGb() * 1024 * 1024 * 1024;
 
         return CacheStats.builder()
                 .totalSizeBytes(totalSize)
                 .maxSizeBytes(maxSize)
                 .usagePercent(maxSize > 0 ? (int) ((totalSize * 100) / maxSize) : 0)
-                .movieCount(moviePort.countCachedMovies())
+                .movieCount(cacheUsage.count())
                 .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Movie> getCachedMovies() {
         String userId = currentUserProvider.getCurrentUserId();
         return moviePort.applyFavoriteStatus(moviePort.findCachedMovies(), userId);
@@ -255,37 +313,17 @@ public class MovieApplicationService
         log.info("Cleared cache for movie: {} ({})", movie.getTitle(), movieId);
     }
 
+    /** Starts the purge job; the files are deleted after this returns. */
     @Override
-    public int clearAllCache() {
-        List<Movie> cachedMovies = moviePort.findCachedNonFavorites();
-        int cleared = 0;
-
-        for (Movie movie : cachedMovies) {
-            if (movie.getLocalPath() == null) {
-                continue;
-            }
-
-            try {
-                fileStoragePort.deleteIfExists(Path.of(movie.getLocalPath()));
-
-                Movie clearedMovie =
-                        movie.withLocalPath(null)
-                                .withFileSize(null)
-                                .withStatus(MovieStatus.PENDING)
-                                .withUpdatedAt(LocalDateTime.now());
-
-                moviePort.save(clearedMovie);
-                cleared++;
-            } catch (IOException e) {
-                log.warn(
-                        "Failed to delete cached file for movie {}: {}",
-                        movie.getId(),
-                        e.getMessage());
-            }
-        }
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CachePurge clearAllCache() {
+        return cachePurgeJob.start();
+    }
 
-        log.info("Cleared cache for {} movies (favorites preserved)", cleared);
-        return cleared;
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CachePurge getCachePurge() {
+        return cachePurgeJob.current();
     }
 
     @Override
@@ -321,8 +359,15 @@ public class MovieApplicationService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Movie> getFavorites() {
         String userId = currentUserProvider.getCurrentUserId();
         return moviePort.findFavorites(userId);
     }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Set<String> getFavoriteIds() {
+        return moviePort.findFavoriteIds(currentUserProvider.getCurrentUserId());
+    }
 }
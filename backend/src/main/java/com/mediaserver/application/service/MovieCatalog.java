@@ -0,0 +1,323 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.application.model.CatalogSnapshot;
+import com.mediaserver.application.model.FacetFilter;
+import com.mediaserver.application.model.FacetIndex;
+import com.mediaserver.application.model.FacetedMovies;
+import com.mediaserver.application.model.MovieQuery;
+import com.mediaserver.application.port.out.CategoryPort;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.application.usecase.catalog.GetCatalogVersionUseCase;
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieCursor;
+import com.mediaserver.domain.model.MovieSort;
+import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.event.CatalogChangedEvent;
+import com.mediaserver.event.FavoriteChangedEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Read model serving movie listings from memory. The catalog is loaded once and then kept current
+ * by applying the {@link CatalogChangedEvent}s the persistence adapters publish after each commit,
+ * so list, grouped and paged reads need no database round trip apart from the user's favorites,
+ * which are overlaid at read time.
+ *
+ * <p>Ranked text search is left to the database, which indexes title and description for it;
+ * autocomplete suggestions are answered from an index over the snapshot's titles. Every applied
+ * change, favorites included, bumps a monotonic version that clients revalidate cached responses
+ * against. With {@code media.catalog.in-memory=false} all reads go to the database instead.
+ */
+@Component
+@Slf4j
+public class MovieCatalog implements GetCatalogVersionUseCase {
+
+    private final MoviePort moviePort;
+    private final CategoryPort categoryPort;
+    private final boolean inMemory;
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Object lock = new Object();
+    private long lastVersion;
+    private volatile long publishedVersion;
+    private volatile CatalogSnapshot current;
+
+    public MovieCatalog(
+            MoviePort moviePort, CategoryPort categoryPort, MediaProperties properties) {
+        this.moviePort = moviePort;
+        this.categoryPort = categoryPort;
+        this.inMemory = properties.getCatalog().isInMemory();
+    }
+
+    /**
+     * Returns the current snapshot, loading it from the database on first use.
+     *
+     * @return the snapshot
+     */
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot snapshot = current;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (lock) {
+            if (current == null) {
+                List<Movie> movies = moviePort.findAll();
+                List<Category> categories = categoryPort.findAllOrderedBySortOrder();
+                current = CatalogSnapshot.of(++lastVersion, movies, categories);
+                publishedVersion = lastVersion;
+                log.info(
+                        "Loaded catalog with {} movies and {} categories",
+                        movies.size(),
+                        categories.size());
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Returns the catalog version. It grows with every applied change and is only published once
+     * the change is visible to readers, so a response built after reading version {@code v}
+     * reflects at least {@code v}. Reading it never touches the database.
+     */
+    public long version() {
+        return publishedVersion;
+    }
+
+    @Override
+    public String getCatalogVersion() {
+        return epoch + "." + publishedVersion;
+    }
+
+    /**
+     * Applies a committed change. Changes that arrive before the catalog was first loaded only
+     * advance the version, since the load reads them from the database anyway.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        synchronized (lock) {
+            CatalogSnapshot snapshot = current;
+            long version = ++lastVersion;
+            if (snapshot == null) {
+                publishedVersion = version;
+                return;
+            }
+            if (!event.savedCategories().isEmpty() || !event.deletedCategoryIds().isEmpty()) {
+                snapshot =
+                        snapshot.withCategories(
+                                version, event.savedCategories(), event.deletedCategoryIds());
+            }
+            if (!event.savedMovies().isEmpty() || !event.deletedMovieIds().isEmpty()) {
+                snapshot =
+                        snapshot.withMovies(version, event.savedMovies(), event.deletedMovieIds());
+            }
+            current = snapshot;
+            publishedVersion = version;
+        }
+    }
+
+    /**
+     * Bumps the version when favorites change. The snapshot holds no favorites, but responses carry
+     * favorite flags.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        synchronized (lock) {
+            publishedVersion = ++lastVersion;
+        }
+    }
+
+    public List<Category> categories() {
+        if (!inMemory) {
+            return categoryPort.findAllOrderedBySortOrder();
+        }
+        return snapshot().categories();
+    }
+
+    public List<Movie> findAll() {
+        if (!inMemory) {
+            return moviePort.findAll();
+        }
+        return snapshot().sorted(MovieSort.TITLE);
+    }
+
+    /**
+     * Passes every movie to an action in title order without copying the catalog.
+     *
+     * @param action receives each movie
+     */
+    public void forEachMovie(Consumer<Movie> action) {
+        if (!inMemory) {
+            moviePort.forEachMovie(action);
+            return;
+        }
+        snapshot().sorted(MovieSort.TITLE).forEach(action);
+    }
+
+    public List<Movie> findByCategoryId(String categoryId) {
+        if (!inMemory) {
+            return moviePort.findByCategoryId(categoryId);
+        }
+        return snapshot().inCategory(categoryId, MovieSort.TITLE);
+    }
+
+    public List<Movie> findReadyMovies() {
+        if (!inMemory) {
+            return moviePort.findReadyMovies();
+        }
+        return snapshot().sorted(MovieSort.CREATED_AT).stream()
+                .filter(movie -> movie.getStatus() == MovieStatus.READY)
+                .toList();
+    }
+
+    /**
+     * Suggests movies for a partially typed title, tolerating typos.
+     *
+     * @param query the typed text
+     * @param limit the maximum number of movies
+     * @return the movies, best match first
+     */
+    public List<Movie> suggest(String query, int limit) {
+        if (!inMemory) {
+            return moviePort.search(query, 0, limit);
+        }
+        return snapshot().suggestIndex().suggest(query, limit);
+    }
+
+    /**
+     * Filters movies by facet values and counts every value, like {@link FacetIndex#filter}.
+     *
+     * @param filter the selected facet values
+     * @param userId the user whose favorites the favorite facet refers to
+     * @param offset the number of matching movies to skip
+     * @param limit the maximum number of movies to return
+     * @return the page of matches, the total and the counts
+     */
+    public FacetedMovies filter(FacetFilter filter, String userId, int offset, int limit) {
+        Set<String> favoriteIds = moviePort.findFavoriteIds(userId);
+        if (!inMemory) {
+            List<Movie> movies = new ArrayList<>(moviePort.findAll());
+            movies.sort(MovieSort.TITLE.comparator());
+            return FacetIndex.of(movies).filter(filter, favoriteIds, offset, limit);
+        }
+        return snapshot().facetIndex().filter(filter, favoriteIds, offset, limit);
+    }
+
+    private Predicate<Movie> filter(MovieQuery query) {
+        Predicate<Movie> filter = titleContains(query.search());
+        if (query.cachedOnly()) {
+            filter = filter.and(Movie::isCached);
+        }
+        if (query.favoritesOf() != null) {
+            Set<String> favoriteIds = moviePort.findFavoriteIds(query.favoritesOf());
+            filter = filter.and(movie -> favoriteIds.contains(movie.getId()));
+        }
+        return filter;
+    }
+
+    /**
+     * Finds one page of movies in keyset order, like {@link MoviePort#findPage}.
+     *
+     * @param query the filter
+     * @param sort the sort order
+     * @param after the position to continue after, null for the first page
+     * @param limit the maximum number of movies
+     * @return the movies of the page
+     */
+    public List<Movie> findPage(MovieQuery query, MovieSort sort, MovieCursor after, int limit) {
+        if (!inMemory) {
+            return moviePort.findPage(query, sort, after, limit);
+        }
+        List<Movie> movies = source(snapshot(), query, sort);
+        Predicate<Movie> filter = filter(query);
+        List<Movie> page = new ArrayList<>(Math.min(limit, movies.size()));
+        for (int i = after != null ? firstAfter(movies, after) : 0;
+                i < movies.size() && page.size() < limit;
+                i++) {
+            if (filter.test(movies.get(i))) {
+                page.add(movies.get(i));
+            }
+        }
+        return page;
+    }
+
+    public long count(MovieQuery query) {
+        if (!inMemory) {
+            return moviePort.count(query);
+        }
+        return source(snapshot(), query, MovieSort.TITLE).stream().filter(filter(query)).count();
+    }
+
+    /**
+     * Counts movies per category, like {@link MoviePort#countByCategory}.
+     *
+     * @param search optional text the title must contain
+     * @return the number of matching movies by category ID, categories without matches omitted
+     */
+    public Map<String, Long> countByCategory(String search) {
+        if (!inMemory) {
+            return moviePort.countByCategory(search);
+        }
+        CatalogSnapshot snapshot = snapshot();
+        Map<String, Long> counts = new HashMap<>();
+        for (Category category : snapshot.categories()) {
+            long count =
+                    snapshot.inCategory(category.getId(), MovieSort.TITLE).stream()
+                            .filter(titleContains(search))
+                            .count();
+            if (count > 0) {
+                counts.put(category.getId(), count);
+            }
+        }
+        return counts;
+    }
+
+    /** Picks the narrowest prebuilt list that contains every match of the query. */
+    private List<Movie> source(CatalogSnapshot snapshot, MovieQuery query, MovieSort sort) {
+        if (query.categoryId() != null) {
+            return snapshot.inCategory(query.categoryId(), sort);
+        }
+        if (query.uncategorized()) {
+            return snapshot.inCategory(null, sort);
+        }
+        return snapshot.sorted(sort);
+    }
+
+    private static Predicate<Movie> titleContains(String search) {
+        if (search == null || search.isBlank()) {
+            return movie -> true;
+        }
+        String needle = search.toLowerCase(Locale.ROOT);
+        return movie ->
+                movie.getTitle() != null
+                        && movie.getTitle().toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    /** Binary search for the first movie after the cursor. */
+    private static int firstAfter(List<Movie> movies, MovieCursor after) {
+        int low = 0;
+        int high = movies.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (after.precedes(movies.get(middle))) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
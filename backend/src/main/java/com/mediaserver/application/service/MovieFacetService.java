@@ -0,0 +1,41 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.application.model.FacetFilter;
+import com.mediaserver.application.model.FacetedMovies;
+import com.mediaserver.application.port.out.CurrentUserProvider;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.application.usecase.movie.FilterMoviesUseCase;
+import com.mediaserver.exception.InvalidPageRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for faceted filtering. Filters and counts are computed on the bitmap index of the {@link
+ * MovieCatalog}; the database is only asked for the user's favorites.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MovieFacetService implements FilterMoviesUseCase {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final MoviePort moviePort;
+    private final MovieCatalog movieCatalog;
+    private final CurrentUserProvider currentUserProvider;
+
+    @Override
+    public FacetedMovies filterMovies(FacetFilter filter, int offset, int limit) {
+        if (offset < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException(
+                    "Offset must be >= 0 and limit between 1 and " + MAX_PAGE_SIZE);
+        }
+        String userId = currentUserProvider.getCurrentUserId();
+        FacetedMovies result = movieCatalog.filter(filter, userId, offset, limit);
+        return new FacetedMovies(
+                moviePort.applyFavoriteStatus(result.movies(), userId),
+                result.total(),
+                result.counts());
+    }
+}
@@ -1,17 +1,20 @@
 package com.mediaserver.application.service;
 
-import com.mediaserver.application.port.out.CategoryPort;
+import com.mediaserver.application.model.MoviePage;
+import com.mediaserver.application.model.MovieQuery;
 import com.mediaserver.application.port.out.CurrentUserProvider;
 import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.application.usecase.movie.GetMoviePageUseCase;
 import com.mediaserver.application.usecase.movie.GetMoviesGroupedUseCase;
 import com.mediaserver.domain.model.Category;
 import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieCursor;
 import com.mediaserver.domain.model.MovieGroup;
+import com.mediaserver.domain.model.MovieSort;
+import com.mediaserver.exception.InvalidPageRequestException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,18 +22,31 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * Service responsible for grouping movies by category and creating special groups for favorites and
  * cached movies.
+ *
+ * <p>Groups are paged: each group carries its first page, its total count and a cursor for the next
+ * page, which {@link #getMoviePage} continues from. Every page is a keyset query bounded by the
+ * page size, so the work per request does not grow with the size of the library. Listings are read
+ * from the {@link MovieCatalog}; only the favorite flags come from the database.
  */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class MovieGroupingService implements GetMoviesGroupedUseCase {
+public class MovieGroupingService implements GetMoviesGroupedUseCase, GetMoviePageUseCase {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
 
     private static final String FAVORITES_GROUP = "My Favorites";
     private static final String CACHED_GROUP = "Downloaded on Server";
     private static final String UNCATEGORIZED_GROUP = "Other Movies";
 
+    private static final String FAVORITES_KEY = "favorites";
+    private static final String CACHED_KEY = "downloaded";
+    private static final String UNCATEGORIZED_KEY = "other";
+    private static final String CATEGORY_KEY_PREFIX = "category:";
+
     private final MoviePort moviePort;
-    private final CategoryPort categoryPort;
+    private final MovieCatalog movieCatalog;
     private final CurrentUserProvider currentUserProvider;
 
     @Override
@@ -40,75 +56,149 @@ public class MovieGroupingService implements GetMoviesGroupedUseCase {
 
     @Override
     public List<MovieGroup> getMoviesGrouped(String search) {
-        String userId = currentUserProvider.getCurrentUserId();
-        List<Movie> allMovies =
-                (search != null && !search.isBlank())
-                        ? moviePort.search(search)
-                        : moviePort.findAll();
-        allMovies = moviePort.applyFavoriteStatus(allMovies, userId);
-
-        Map<String, Category> categoriesById =
-                categoryPort.findAllOrderedBySortOrder().stream()
-                        .collect(
-                                Collectors.toMap(
-                                        Category::getId, c -> c, (a, b) -> a, LinkedHashMap::new));
-
-        List<MovieGroup> groups = new ArrayList<>();
-        int sortOrder = 0;
-
-        List<Movie> favorites = allMovies.stream().filter(Movie::isFavorite).toList();
-        if (!favorites.isEmpty()) {
-            groups.add(
-                    MovieGroup.builder()
-                            .name(FAVORITES_GROUP)
-                            .special(true)
-                            .sortOrder(sortOrder++)
-                            .movies(favorites)
-                            .build());
-        }
+        return getMoviesGrouped(search, MovieSort.TITLE, DEFAULT_PAGE_SIZE);
+    }
 
-        List<Movie> cached = allMovies.stream().filter(Movie::isCached).toList();
-        if (!cached.isEmpty()) {
-            groups.add(
-                    MovieGroup.builder()
-                            .name(CACHED_GROUP)
-                            .special(true)
-                            .sortOrder(sortOrder++)
-                            .movies(cached)
-                            .build());
-        }
+    @Override
+    public List<MovieGroup> getMoviesGrouped(String search, MovieSort sort, int limit) {
+        checkLimit(limit);
+        String userId = currentUserProvider.getCurrentUserId();
+        List<MovieGroup.MovieGroupBuilder> groups = new ArrayList<>();
+        List<List<Movie>> pages = new ArrayList<>();
 
-        Map<String, List<Movie>> moviesByCategory =
-                allMovies.stream()
-                        .filter(m -> m.getCategoryId() != null)
-                        .collect(Collectors.groupingBy(Movie::getCategoryId));
+        addGroup(
+                groups,
+                pages,
+                MovieGroup.builder().name(FAVORITES_GROUP).key(FAVORITES_KEY).special(true),
+                MovieQuery.favorites(userId, search),
+                sort,
+                limit);
+        addGroup(
+                groups,
+                pages,
+                MovieGroup.builder().name(CACHED_GROUP).key(CACHED_KEY).special(true),
+                MovieQuery.cached(search),
+                sort,
+                limit);
 
-        for (Category category : categoriesById.values()) {
-            List<Movie> categoryMovies = moviesByCategory.get(category.getId());
-            if (categoryMovies != null && !categoryMovies.isEmpty()) {
-                groups.add(
+        Map<String, Long> countsByCategory = movieCatalog.countByCategory(search);
+        for (Category category : movieCatalog.categories()) {
+            long count = countsByCategory.getOrDefault(category.getId(), 0L);
+            if (count > 0) {
+                addPage(
+                        groups,
+                        pages,
                         MovieGroup.builder()
                                 .name(category.getName())
+                                .key(CATEGORY_KEY_PREFIX + category.getId())
                                 .categoryId(category.getId())
                                 .special(false)
-                                .sortOrder(sortOrder++)
-                                .movies(categoryMovies)
-                                .build());
+                                .totalCount(count),
+                        MovieQuery.category(category.getId(), search),
+                        sort,
+                        limit);
             }
         }
 
-        List<Movie> uncategorized =
-                allMovies.stream().filter(m -> m.getCategoryId() == null).toList();
-        if (!uncategorized.isEmpty()) {
-            groups.add(
-                    MovieGroup.builder()
-                            .name(UNCATEGORIZED_GROUP)
-                            .special(true)
-                            .sortOrder(sortOrder)
-                            .movies(uncategorized)
+        addGroup(
+                groups,
+                pages,
+                MovieGroup.builder().name(UNCATEGORIZED_GROUP).key(UNCATEGORIZED_KEY).special(true),
+                MovieQuery.uncategorized(search),
+                sort,
+                limit);
+
+        List<Movie> flagged =
+                moviePort.applyFavoriteStatus(
+                        pages.stream().flatMap(List::stream).toList(), userId);
+        List<MovieGroup> result = new ArrayList<>();
+        int offset = 0;
+        for (int i = 0; i < groups.size(); i++) {
+            int size = pages.get(i).size();
+            result.add(
+                    groups.get(i)
+                            .sortOrder(i)
+                            .movies(flagged.subList(offset, offset + size))
                             .build());
+            offset += size;
+        }
+        return result;
+    }
+
+    @Override
+    public MoviePage getMoviePage(
+            String group, String search, MovieSort sort, String cursor, int limit) {
+        checkLimit(limit);
+        String userId = currentUserProvider.getCurrentUserId();
+        MovieCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after =
+                    MovieCursor.decode(cursor)
+                            .filter(decoded -> decoded.getSort() == sort)
+                            .orElseThrow(
+                                    () ->
+                                            new InvalidPageRequestException(
+                                                    "Invalid cursor for sort " + sort));
+        }
+        MoviePage page = loadPage(queryFor(group, search, userId), sort, after, limit);
+        return new MoviePage(
+                moviePort.applyFavoriteStatus(page.movies(), userId), page.nextCursor());
+    }
+
+    private void addGroup(
+            List<MovieGroup.MovieGroupBuilder> groups,
+            List<List<Movie>> pages,
+            MovieGroup.MovieGroupBuilder group,
+            MovieQuery query,
+            MovieSort sort,
+            int limit) {
+        long count = movieCatalog.count(query);
+        if (count > 0) {
+            addPage(groups, pages, group.totalCount(count), query, sort, limit);
         }
+    }
+
+    private void addPage(
+            List<MovieGroup.MovieGroupBuilder> groups,
+            List<List<Movie>> pages,
+            MovieGroup.MovieGroupBuilder group,
+            MovieQuery query,
+            MovieSort sort,
+            int limit) {
+        MoviePage page = loadPage(query, sort, null, limit);
+        groups.add(group.nextCursor(page.nextCursor()));
+        pages.add(page.movies());
+    }
 
-        return groups;
+    /** Reads one row more than requested to learn whether another page follows. */
+    private MoviePage loadPage(MovieQuery query, MovieSort sort, MovieCursor after, int limit) {
+        List<Movie> rows = movieCatalog.findPage(query, sort, after, limit + 1);
+        if (rows.size() <= limit) {
+            return new MoviePage(rows, null);
+        }
+        List<Movie> movies = rows.subList(0, limit);
+        return new MoviePage(movies, MovieCursor.after(movies.get(limit - 1), sort).encode());
+    }
+
+    private MovieQuery queryFor(String group, String search, String userId) {
+        if (group == null || group.isBlank()) {
+            return MovieQuery.all(search);
+        }
+        if (group.startsWith(CATEGORY_KEY_PREFIX)) {
+            return MovieQuery.category(group.substring(CATEGORY_KEY_PREFIX.length()), search);
+        }
+        return switch (group) {
+            case FAVORITES_KEY -> MovieQuery.favorites(userId, search);
+            case CACHED_KEY -> MovieQuery.cached(search);
+            case UNCATEGORIZED_KEY -> MovieQuery.uncategorized(search);
+            default -> throw new InvalidPageRequestException("Unknown movie group: " + group);
+        };
+    }
+
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException(
+                    "Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
     }
 }
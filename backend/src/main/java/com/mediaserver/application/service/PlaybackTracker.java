@@ -0,0 +1,125 @@
+package com.mediaserver.application.service;
+
+import com.mediaserver.application.model.PlaybackStats;
+import com.mediaserver.application.port.out.PlaybackPort;
+import com.mediaserver.config.MediaProperties;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records which movies are streamed, how recently and how often. The stream path only updates
+ * in-memory counters; they are written to the database every {@code
+ * media.storage.playback-flush-seconds} in one batch, so range requests never wait for a write.
+ *
+ * <p>A movie counts as streaming while one of its streams is open and for {@code
+ * media.storage.streaming-grace-minutes} after the last one closed, since players fetch a video in
+ * a series of range requests with pauses in between.
+ */
+@Component
+@Slf4j
+public class PlaybackTracker {
+
+    private final PlaybackPort playbackPort;
+    private final long graceMinutes;
+    private final Map<String, PlaybackStats> pending = new ConcurrentHashMap<>();
+    private final Map<String, Integer> openStreams = new ConcurrentHashMap<>();
+    private final Map<String, LocalDateTime> lastSeen = new ConcurrentHashMap<>();
+
+    public PlaybackTracker(PlaybackPort playbackPort, MediaProperties properties) {
+        this.playbackPort = playbackPort;
+        this.graceMinutes = properties.getStorage().getStreamingGraceMinutes();
+    }
+
+    /**
+     * Records that a stream of a movie was opened.
+     *
+     * @param movieId the movie ID
+     * @param fromStart whether the stream starts at the beginning of the file, which counts as a
+     *     play
+     */
+    public void streamOpened(String movieId, boolean fromStart) {
+        LocalDateTime now = LocalDateTime.now();
+        openStreams.merge(movieId, 1, Integer::sum);
+        lastSeen.put(movieId, now);
+        pending.merge(
+                movieId, new PlaybackStats(movieId, now, fromStart ? 1 : 0), PlaybackStats::plus);
+    }
+
+    /**
+     * Records that a stream opened with {@link #streamOpened} was closed.
+     *
+     * @param movieId the movie ID
+     */
+    public void streamClosed(String movieId) {
+        lastSeen.put(movieId, LocalDateTime.now());
+        openStreams.computeIfPresent(movieId, (id, open) -> open > 1 ? open - 1 : null);
+    }
+
+    /**
+     * Checks whether a movie is being streamed.
+     *
+     * @param movieId the movie ID
+     * @return true if a stream is open or closed within the grace period
+     */
+    public boolean isStreaming(String movieId) {
+        if (openStreams.containsKey(movieId)) {
+            return true;
+        }
+        LocalDateTime seen = lastSeen.get(movieId);
+        return seen != null && seen.isAfter(LocalDateTime.now().minusMinutes(graceMinutes));
+    }
+
+    /**
+     * Returns the statistics of movies, including plays not written yet.
+     *
+     * @param movieIds the movie IDs
+     * @return the statistics of every given movie by ID
+     */
+    public Map<String, PlaybackStats> stats(Collection<String> movieIds) {
+        Map<String, PlaybackStats> stored = playbackPort.findByMovieIds(movieIds);
+        Map<String, PlaybackStats> stats = new HashMap<>();
+        for (String movieId : movieIds) {
+            PlaybackStats current = stored.getOrDefault(movieId, PlaybackStats.none(movieId));
+            PlaybackStats unwritten = pending.get(movieId);
+            stats.put(movieId, unwritten != null ? current.plus(unwritten) : current);
+        }
+        return stats;
+    }
+
+    /** Writes the plays recorded since the last flush and forgets streams past the grace period. */
+    @Scheduled(
+            fixedDelayString = "${media.storage.playback-flush-seconds:30}",
+            timeUnit = TimeUnit.SECONDS)
+    @PreDestroy
+    public void flush() {
+        LocalDateTime expired = LocalDateTime.now().minusMinutes(graceMinutes);
+        lastSeen.values().removeIf(seen -> seen.isBefore(expired));
+
+        List<PlaybackStats> recorded = new ArrayList<>();
+        for (String movieId : pending.keySet()) {
+            PlaybackStats stats = pending.remove(movieId);
+            if (stats != null) {
+                recorded.add(stats);
+            }
+        }
+        if (recorded.isEmpty()) {
+            return;
+        }
+        try {
+            playbackPort.addPlays(recorded);
+        } catch (RuntimeException e) {
+            log.warn("Failed to write playback statistics, retrying later: {}", e.getMessage());
+            recorded.forEach(stats -> pending.merge(stats.movieId(), stats, PlaybackStats::plus));
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.springframework.stereotype.Service;
 public class StreamingApplicationService implements StreamVideoUseCase {
 
     private final MediaProperties properties;
+    private final PlaybackTracker playbackTracker;
     private final MoviePort moviePort;
 
     @Override
@@ -46,7 +47,7 @@ public class StreamingApplicationService implements StreamVideoUseCase {
         var range = parseRange(rangeHeader, fileSize);
 
         return StreamingResponse.builder()
-                .inputStreamSupplier(() -> createRangeInputStream(videoPath, range))
+                .inputStreamSupplier(() -> createRangeInputStream(movieId, videoPath, range))
                 .contentType(contentType)
                 .contentLength(range.length())
                 .fileSize(fileSize)
@@ -99,7 +100,7 @@ public class StreamingApplicationService implements StreamVideoUseCase {
     }
 
     @SuppressWarnings("deprecation")
-    private InputStream createRangeInputStream(Path path, HttpRange range) {
+    private InputStream createRangeInputStream(String movieId, Path path, HttpRange range) {
         RandomAccessFile file = null;
         try {
             file = new RandomAccessFile(path.toFile(), "r");
@@ -108,6 +109,7 @@ public class StreamingApplicationService implements StreamVideoUseCase {
             InputStream boundedStream = new BoundedInputStream(channelStream, range.length());
 
             final RandomAccessFile fileRef = file;
+            playbackTracker.streamOpened(movieId, range.start() == 0);
 
             return new InputStream() {
                 private boolean closed = false;
@@ -136,6 +138,7 @@ public class StreamingApplicationService implements StreamVideoUseCase {
                 public void close() throws IOException {
                     if (closed) return;
                     closed = true;
+                    playbackTracker.streamClosed(movieId);
                     try {
                         boundedStream.close();
                     } finally {
@@ -0,0 +1,24 @@
+package com.mediaserver.application.usecase.catalog;
+
+import com.mediaserver.application.model.CatalogChanges;
+
+/** Use case for syncing a client-side copy of the catalog by applying what changed. */
+public interface GetCatalogChangesUseCase {
+
+    /**
+     * Get the movies and categories changed since a version. Version 0 returns the whole catalog.
+     *
+     * @param since the version of the client's copy
+     * @param limit the maximum number of changed entities
+     * @return the changes and the version to continue from
+     */
+    CatalogChanges getChanges(long since, int limit);
+
+    /**
+     * Get the current change log version without any changes, for clients that load the full
+     * catalog first and follow the changes from then on.
+     *
+     * @return the current version
+     */
+    long getLatestVersion();
+}
@@ -0,0 +1,13 @@
+package com.mediaserver.application.usecase.catalog;
+
+/** Use case for validating cached catalog responses without reading the catalog. */
+public interface GetCatalogVersionUseCase {
+
+    /**
+     * Get the current catalog version. It changes whenever a movie, a category or any user's
+     * favorites change, and differs between server runs, so equal versions mean equal data.
+     *
+     * @return the version, opaque to callers
+     */
+    String getCatalogVersion();
+}
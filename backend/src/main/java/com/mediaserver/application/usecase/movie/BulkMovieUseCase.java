@@ -0,0 +1,53 @@
+package com.mediaserver.application.usecase.movie;
+
+import com.mediaserver.application.model.BulkResult;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Use case for applying one operation to many movies at once. Each operation runs in a single
+ * transaction with set-based statements and reports an outcome per ID instead of failing as a
+ * whole; duplicate IDs are reported once.
+ */
+public interface BulkMovieUseCase {
+
+    /**
+     * Marks movies as favorites of the current user.
+     *
+     * @param movieIds the movie IDs
+     * @return one result per distinct ID, in request order
+     */
+    List<BulkResult> addFavorites(Collection<String> movieIds);
+
+    /**
+     * Removes movies from the current user's favorites.
+     *
+     * @param movieIds the movie IDs
+     * @return one result per distinct ID, in request order
+     */
+    List<BulkResult> removeFavorites(Collection<String> movieIds);
+
+    /**
+     * Starts downloading movies that are neither cached, downloading nor unavailable.
+     *
+     * @param movieIds the movie IDs
+     * @return one result per distinct ID, in request order
+     */
+    List<BulkResult> startDownloads(Collection<String> movieIds);
+
+    /**
+     * Resets cached movies to pending and deletes their files in the background after commit.
+     *
+     * @param movieIds the movie IDs
+     * @return one result per distinct ID, in request order
+     */
+    List<BulkResult> clearCaches(Collection<String> movieIds);
+
+    /**
+     * Deletes movies and, in the background after commit, their cached files.
+     *
+     * @param movieIds the movie IDs
+     * @return one result per distinct ID, in request order
+     */
+    List<BulkResult> deleteMovies(Collection<String> movieIds);
+}
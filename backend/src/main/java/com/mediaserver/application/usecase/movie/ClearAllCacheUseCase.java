@@ -1,5 +1,21 @@
 package com.mediaserver.application.usecase.movie;
 
+import com.mediaserver.application.model.CachePurge;
+
+/** Use case for purging all cached movies except favorites in the background. */
 public interface ClearAllCacheUseCase {
-    int clearAllCache();
+
+    /**
+     * Starts a purge, or returns the one already running.
+     *
+     * @return the purge's progress right after starting
+     */
+    CachePurge clearAllCache();
+
+    /**
+     * Returns the progress of the running or the last purge.
+     *
+     * @return the progress, {@link CachePurge#IDLE} if none ran yet
+     */
+    CachePurge getCachePurge();
 }
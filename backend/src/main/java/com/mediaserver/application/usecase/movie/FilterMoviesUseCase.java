@@ -0,0 +1,18 @@
+package com.mediaserver.application.usecase.movie;
+
+import com.mediaserver.application.model.FacetFilter;
+import com.mediaserver.application.model.FacetedMovies;
+
+/** Use case for filtering movies by facets and showing how many movies each value matches. */
+public interface FilterMoviesUseCase {
+
+    /**
+     * Filter movies and count the matches of every facet value.
+     *
+     * @param filter the selected facet values
+     * @param offset the number of matching movies to skip
+     * @param limit the maximum number of movies to return
+     * @return one page of matching movies, the total and the counts
+     */
+    FacetedMovies filterMovies(FacetFilter filter, int offset, int limit);
+}
@@ -1,8 +0,0 @@
-package com.mediaserver.application.usecase.movie;
-
-import com.mediaserver.domain.model.Movie;
-import java.util.List;
-
-public interface GetAllMoviesUseCase {
-    List<Movie> getAllMovies();
-}
@@ -2,7 +2,15 @@ package com.mediaserver.application.usecase.movie;
 
 import com.mediaserver.domain.model.Movie;
 import java.util.List;
+import java.util.Set;
 
 public interface GetFavoritesUseCase {
     List<Movie> getFavorites();
+
+    /**
+     * Returns the IDs of the current user's favorite movies without loading the movies.
+     *
+     * @return the favorite movie IDs
+     */
+    Set<String> getFavoriteIds();
 }
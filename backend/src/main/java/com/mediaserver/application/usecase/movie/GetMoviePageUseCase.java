@@ -0,0 +1,20 @@
+package com.mediaserver.application.usecase.movie;
+
+import com.mediaserver.application.model.MoviePage;
+import com.mediaserver.domain.model.MovieSort;
+
+/** Use case for paging through the movies of a group, one keyset page at a time. */
+public interface GetMoviePageUseCase {
+
+    /**
+     * Get one page of movies.
+     *
+     * @param group the group key from a movie group, null for all movies
+     * @param search optional search query to filter movies by title
+     * @param sort the sort order
+     * @param cursor the next-page token of the previous page, null for the first page
+     * @param limit the maximum number of movies
+     * @return the page
+     */
+    MoviePage getMoviePage(String group, String search, MovieSort sort, String cursor, int limit);
+}
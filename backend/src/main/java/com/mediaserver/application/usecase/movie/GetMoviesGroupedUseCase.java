@@ -1,6 +1,7 @@
 package com.mediaserver.application.usecase.movie;
 
 import com.mediaserver.domain.model.MovieGroup;
+import com.mediaserver.domain.model.MovieSort;
 import java.util.List;
 
 /**
@@ -27,4 +28,14 @@ public interface GetMoviesGroupedUseCase {
      * @return list of movie groups containing matching movies
      */
     List<MovieGroup> getMoviesGrouped(String search);
+
+    /**
+     * Get movies grouped by category, each group limited to its first page.
+     *
+     * @param search optional search query to filter movies by title
+     * @param sort the sort order within each group
+     * @param limit the maximum number of movies per group
+     * @return list of movie groups with total counts and next-page cursors
+     */
+    List<MovieGroup> getMoviesGrouped(String search, MovieSort sort, int limit);
 }
@@ -5,4 +5,6 @@ import java.util.List;
 
 public interface SearchMoviesUseCase {
     List<Movie> searchMovies(String query);
+
+    List<Movie> searchMovies(String query, int page, int size);
 }
@@ -0,0 +1,15 @@
+package com.mediaserver.application.usecase.movie;
+
+import com.mediaserver.domain.model.Movie;
+import java.util.function.Consumer;
+
+/** Use case for listing all movies one at a time, without collecting them into a list. */
+public interface StreamAllMoviesUseCase {
+
+    /**
+     * Passes every movie, with the current user's favorite flag, to an action in title order.
+     *
+     * @param action receives each movie
+     */
+    void streamAllMovies(Consumer<Movie> action);
+}
@@ -0,0 +1,17 @@
+package com.mediaserver.application.usecase.movie;
+
+import com.mediaserver.domain.model.Movie;
+import java.util.List;
+
+/** Use case for autocompleting a movie title while the user types. */
+public interface SuggestMoviesUseCase {
+
+    /**
+     * Suggest movies whose title or year matches the typed text.
+     *
+     * @param query the typed text, possibly incomplete or misspelled
+     * @param limit the maximum number of movies
+     * @return the movies, best match first
+     */
+    List<Movie> suggestMovies(String query, int limit);
+}
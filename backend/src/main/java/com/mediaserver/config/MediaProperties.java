@@ -15,12 +15,33 @@ public class MediaProperties {
     private Download download = new Download();
     private Admin admin = new Admin();
     private Auth auth = new Auth();
+    private Catalog catalog = new Catalog();
 
     @Data
     public static class Storage {
         private String path = "/var/media/videos";
         private String tempPath = "/var/media/temp";
         private int maxCacheSizeGb = 100;
+        private int thumbnailCacheMb = 64;
+        private int[] thumbnailWidths = {160, 320, 640};
+        private int thumbnailVariantWorkers = 2;
+        private int cachePurgeWorkers = 4;
+        private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+        private int streamingGraceMinutes = 10;
+        private int playbackFlushSeconds = 30;
+        private int reconcileIntervalMinutes = 360;
+        private int reconcileWorkers = 2;
+        private int orphanMinAgeHours = 24;
+    }
+
+    /** Order in which cached movies are evicted when a download needs room. */
+    public enum EvictionPolicy {
+        /** Least recently streamed first. */
+        LRU,
+        /** Least often played first, least recently streamed among equals. */
+        LFU,
+        /** Fewest plays per byte first, so large, rarely watched files go before small ones. */
+        SIZE
     }
 
     @Data
@@ -33,6 +54,9 @@ public class MediaProperties {
         };
         private String scanCron = "0 0 * * * *";
         private boolean scanEnabled = true;
+        private int scanListingWorkers = 4;
+        private int scanThumbnailWorkers = 2;
+        private int scanChunkSize = 500;
     }
 
     @Data
@@ -56,6 +80,12 @@ public class MediaProperties {
         private String password;
     }
 
+    @Data
+    public static class Catalog {
+        private boolean inMemory = true;
+        private boolean pushChanges = true;
+    }
+
     @Data
     public static class Auth {
         private String provider = "mock";
@@ -17,11 +17,16 @@ public class Movie {
     String megaUrl;
     String megaPath;
     String thumbnailUrl;
+    String thumbnailPlaceholder;
     String localPath;
     Long fileSize;
     String contentType;
     @Builder.Default MovieStatus status = MovieStatus.PENDING;
     String categoryId;
+
+    /** Name of the category, filled in by reads that have it at hand; not persisted. */
+    String categoryName;
+
     String userId;
     @Builder.Default boolean favorite = false;
     LocalDateTime createdAt;
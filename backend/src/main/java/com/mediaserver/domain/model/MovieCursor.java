@@ -0,0 +1,95 @@
+package com.mediaserver.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+import lombok.Value;
+
+/**
+ * Position in a keyset-paged movie listing: the sort key and ID of the last movie of a page. The
+ * next page starts strictly after it, so pages stay stable while movies are added or removed.
+ */
+@Value
+public class MovieCursor {
+    MovieSort sort;
+
+    /** The sort key of the last movie, null if it had no value for the sort order. */
+    String key;
+
+    String id;
+
+    public static MovieCursor after(Movie movie, MovieSort sort) {
+        return new MovieCursor(sort, sort.keyOf(movie), movie.getId());
+    }
+
+    /**
+     * Checks whether a movie comes after this position in the cursor's sort order, matching {@link
+     * MovieSort#comparator()}.
+     *
+     * @param movie the movie
+     * @return true if the movie belongs to a later page
+     */
+    public boolean precedes(Movie movie) {
+        int order =
+                switch (sort) {
+                    case TITLE -> key.compareTo(movie.getTitle());
+                    case CREATED_AT ->
+                            descendingNullsLast(
+                                    key != null ? LocalDateTime.parse(key) : null,
+                                    movie.getCreatedAt());
+                    case YEAR ->
+                            descendingNullsLast(
+                                    key != null ? Integer.valueOf(key) : null, movie.getYear());
+                };
+        return order < 0 || order == 0 && id.compareTo(movie.getId()) < 0;
+    }
+
+    private static <T extends Comparable<? super T>> int descendingNullsLast(T own, T other) {
+        if (own == null || other == null) {
+            return own == null ? (other == null ? 0 : 1) : -1;
+        }
+        return other.compareTo(own);
+    }
+
+    /**
+     * Encodes the cursor as an opaque URL-safe token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        String raw = sort.name() + ":" + id + (key != null ? ":" + key : "");
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token created by {@link #encode()}.
+     *
+     * @param token the token
+     * @return the cursor, empty if the token is malformed or its key does not fit the sort
+     */
+    public static Optional<MovieCursor> decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length < 2 || parts[1].isEmpty()) {
+                return Optional.empty();
+            }
+            MovieSort sort = MovieSort.valueOf(parts[0]);
+            String key = parts.length == 3 ? parts[2] : null;
+            if (key != null && sort == MovieSort.CREATED_AT) {
+                LocalDateTime.parse(key);
+            } else if (key != null && sort == MovieSort.YEAR) {
+                Integer.parseInt(key);
+            } else if (key == null && sort == MovieSort.TITLE) {
+                return Optional.empty();
+            }
+            return Optional.of(new MovieCursor(sort, key, parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
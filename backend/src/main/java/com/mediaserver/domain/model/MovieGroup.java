@@ -23,6 +23,18 @@ public class MovieGroup {
     /** The sort order for display purposes. */
     @Builder.Default int sortOrder = 0;
 
-    /** The movies in this group. */
+    /**
+     * Identifies the group when paging through it: "favorites", "downloaded", "other" or
+     * "category:" followed by the category ID.
+     */
+    String key;
+
+    /** The movies in this group; the first page when the group is paged. */
     List<Movie> movies;
+
+    /** The number of movies in the whole group. */
+    long totalCount;
+
+    /** The token for the next page of this group, null if all movies are included. */
+    String nextCursor;
 }
@@ -0,0 +1,54 @@
+package com.mediaserver.domain.model;
+
+import java.util.Comparator;
+
+/**
+ * Sort orders for paged movie listings. Each order is backed by an index and ends with the movie ID
+ * as tie-breaker, so every movie has a unique position a cursor can point at.
+ */
+public enum MovieSort {
+    /** Alphabetical by title. */
+    TITLE,
+
+    /** Newest first. */
+    CREATED_AT,
+
+    /** Newest release year first; movies without a year come last. */
+    YEAR;
+
+    /**
+     * Returns the value a movie is sorted by, as stored in a cursor.
+     *
+     * @param movie the movie
+     * @return the sort key, null if the movie has no value for this order
+     */
+    public String keyOf(Movie movie) {
+        return switch (this) {
+            case TITLE -> movie.getTitle();
+            case CREATED_AT ->
+                    movie.getCreatedAt() != null ? movie.getCreatedAt().toString() : null;
+            case YEAR -> movie.getYear() != null ? movie.getYear().toString() : null;
+        };
+    }
+
+    /**
+     * Orders movies the same way the paged queries do, for listings served from memory.
+     *
+     * @return the comparator, ending with the movie ID as tie-breaker
+     */
+    public Comparator<Movie> comparator() {
+        Comparator<Movie> byKey =
+                switch (this) {
+                    case TITLE -> Comparator.comparing(Movie::getTitle);
+                    case CREATED_AT ->
+                            Comparator.comparing(
+                                    Movie::getCreatedAt,
+                                    Comparator.nullsLast(Comparator.reverseOrder()));
+                    case YEAR ->
+                            Comparator.comparing(
+                                    Movie::getYear,
+                                    Comparator.nullsLast(Comparator.reverseOrder()));
+                };
+        return byKey.thenComparing(Movie::getId);
+    }
+}
@@ -4,5 +4,6 @@ public enum MovieStatus {
     PENDING,
     DOWNLOADING,
     READY,
-    ERROR
+    ERROR,
+    UNAVAILABLE
 }
@@ -0,0 +1,32 @@
+package com.mediaserver.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * A video file as it was seen in the last Mega folder listing. The persisted set of entries is the
+ * snapshot that delta scans diff against.
+ */
+@Value
+@Builder
+@With
+public class ScanSnapshotEntry {
+    String megaPath;
+    String parentPath;
+    String name;
+    long size;
+    LocalDateTime modifiedAt;
+
+    /**
+     * Checks whether another entry describes the same file content, ignoring its location.
+     *
+     * @param other the entry to compare with
+     * @return true if size and modification time are equal
+     */
+    public boolean hasSameContent(ScanSnapshotEntry other) {
+        return size == other.size && Objects.equals(modifiedAt, other.modifiedAt);
+    }
+}
@@ -0,0 +1,132 @@
+package com.mediaserver.domain.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Difference between two Mega listing snapshots. Files that disappeared from one path and appeared
+ * under another with identical size and modification time are reported as renames instead of a
+ * remove/add pair.
+ */
+@Value
+@Builder
+public class SnapshotDiff {
+    List<ScanSnapshotEntry> added;
+    List<ScanSnapshotEntry> removed;
+    List<Rename> renamed;
+    List<ScanSnapshotEntry> changed;
+    int unchanged;
+
+    /**
+     * Computes the difference between the previous and the current snapshot.
+     *
+     * @param previous entries from the last persisted snapshot
+     * @param current entries from the listing that was just taken
+     * @return the diff to apply
+     */
+    public static SnapshotDiff compute(
+            Collection<ScanSnapshotEntry> previous, Collection<ScanSnapshotEntry> current) {
+        Map<String, ScanSnapshotEntry> previousByPath = indexByPath(previous);
+        Map<String, ScanSnapshotEntry> currentByPath = indexByPath(current);
+
+        List<ScanSnapshotEntry> added = new ArrayList<>();
+        List<ScanSnapshotEntry> changed = new ArrayList<>();
+        int unchanged = 0;
+        for (ScanSnapshotEntry entry : currentByPath.values()) {
+            ScanSnapshotEntry before = previousByPath.get(entry.getMegaPath());
+            if (before == null) {
+                added.add(entry);
+            } else if (before.hasSameContent(entry)) {
+                unchanged++;
+            } else {
+                changed.add(entry);
+            }
+        }
+
+        List<ScanSnapshotEntry> removed =
+                previousByPath.values().stream()
+                        .filter(entry -> !currentByPath.containsKey(entry.getMegaPath()))
+                        .collect(Collectors.toCollection(ArrayList::new));
+
+        List<Rename> renamed = matchRenames(removed, added);
+
+        return SnapshotDiff.builder()
+                .added(added)
+                .removed(removed)
+                .renamed(renamed)
+                .changed(changed)
+                .unchanged(unchanged)
+                .build();
+    }
+
+    /**
+     * Checks whether the diff contains no changes at all.
+     *
+     * @return true if nothing was added, removed, renamed or changed
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && renamed.isEmpty() && changed.isEmpty();
+    }
+
+    private static Map<String, ScanSnapshotEntry> indexByPath(
+            Collection<ScanSnapshotEntry> entries) {
+        return entries.stream()
+                .collect(
+                        Collectors.toMap(
+                                ScanSnapshotEntry::getMegaPath,
+                                Function.identity(),
+                                (first, second) -> second));
+    }
+
+    /**
+     * Pairs removed and added entries whose content signature is unique on both sides. Matched
+     * entries are taken out of the removed and added lists.
+     */
+    private static List<Rename> matchRenames(
+            List<ScanSnapshotEntry> removed, List<ScanSnapshotEntry> added) {
+        Map<String, List<ScanSnapshotEntry>> removedBySignature = groupBySignature(removed);
+        Map<String, List<ScanSnapshotEntry>> addedBySignature = groupBySignature(added);
+
+        List<Rename> renames = new ArrayList<>();
+        for (Map.Entry<String, List<ScanSnapshotEntry>> candidate : removedBySignature.entrySet()) {
+            List<ScanSnapshotEntry> targets = addedBySignature.get(candidate.getKey());
+            if (candidate.getValue().size() == 1 && targets != null && targets.size() == 1) {
+                renames.add(new Rename(candidate.getValue().get(0), targets.get(0)));
+            }
+        }
+
+        for (Rename rename : renames) {
+            removed.remove(rename.from());
+            added.remove(rename.to());
+        }
+        return renames;
+    }
+
+    private static Map<String, List<ScanSnapshotEntry>> groupBySignature(
+            List<ScanSnapshotEntry> entries) {
+        Map<String, List<ScanSnapshotEntry>> bySignature = new HashMap<>();
+        for (ScanSnapshotEntry entry : entries) {
+            if (entry.getModifiedAt() == null || entry.getSize() <= 0) {
+                continue;
+            }
+            String signature = entry.getSize() + "@" + entry.getModifiedAt();
+            bySignature.computeIfAbsent(signature, key -> new ArrayList<>()).add(entry);
+        }
+        return bySignature;
+    }
+
+    /**
+     * A file that moved from one Mega path to another.
+     *
+     * @param from the entry in the previous snapshot
+     * @param to the entry in the current listing
+     */
+    public record Rename(ScanSnapshotEntry from, ScanSnapshotEntry to) {}
+}
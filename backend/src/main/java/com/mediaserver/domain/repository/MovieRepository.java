@@ -2,8 +2,10 @@ package com.mediaserver.domain.repository;
 
 import com.mediaserver.domain.model.Movie;
 import com.mediaserver.domain.model.MovieStatus;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository port interface for Movie domain entity. This is a port in hexagonal architecture -
@@ -34,6 +36,14 @@ public interface MovieRepository {
      */
     Movie save(Movie movie);
 
+    /**
+     * Save several movies in one batch (create or update).
+     *
+     * @param movies the movies to save
+     * @return the saved movies in the same order
+     */
+    List<Movie> saveAll(Collection<Movie> movies);
+
     /**
      * Delete a movie by its ID.
      *
@@ -58,10 +68,10 @@ public interface MovieRepository {
     List<Movie> findByCategoryId(String categoryId);
 
     /**
-     * Search movies by title (case-insensitive partial match).
+     * Search movies by title and description, best matches first.
      *
      * @param query the search query
-     * @return list of matching movies
+     * @return the first page of matching movies
      */
     List<Movie> search(String query);
 
@@ -101,6 +111,37 @@ public interface MovieRepository {
      */
     boolean existsByMegaPath(String megaPath);
 
+    /**
+     * Find a movie by its Mega path.
+     *
+     * @param megaPath the Mega path
+     * @return Optional containing the movie if found
+     */
+    Optional<Movie> findByMegaPath(String megaPath);
+
+    /**
+     * Find all movies with one of the given Mega paths.
+     *
+     * @param megaPaths the Mega paths
+     * @return list of matching movies
+     */
+    List<Movie> findByMegaPaths(Collection<String> megaPaths);
+
+    /**
+     * Find the movies with the given IDs; IDs without a movie are skipped.
+     *
+     * @param ids the movie IDs
+     * @return the found movies, in no particular order
+     */
+    List<Movie> findAllById(Collection<String> ids);
+
+    /**
+     * Load the Mega paths of all known movies in a single query.
+     *
+     * @return set of Mega paths
+     */
+    Set<String> findAllMegaPaths();
+
     /**
      * Find all favorite movies.
      *
@@ -0,0 +1,34 @@
+package com.mediaserver.domain.repository;
+
+import com.mediaserver.domain.model.ScanSnapshotEntry;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository port for the persisted Mega listing snapshot used by delta scans. Implementations are
+ * adapters.
+ */
+public interface ScanSnapshotRepository {
+
+    /**
+     * Find all snapshot entries below a Mega path.
+     *
+     * @param pathPrefix the path prefix, including the trailing slash
+     * @return list of snapshot entries whose Mega path starts with the prefix
+     */
+    List<ScanSnapshotEntry> findByPathPrefix(String pathPrefix);
+
+    /**
+     * Insert new snapshot entries. Existing entries for the same paths must be deleted first.
+     *
+     * @param entries the entries to insert
+     */
+    void saveAll(Collection<ScanSnapshotEntry> entries);
+
+    /**
+     * Delete snapshot entries by their Mega paths.
+     *
+     * @param megaPaths the Mega paths to delete
+     */
+    void deleteByMegaPaths(Collection<String> megaPaths);
+}
@@ -19,6 +19,12 @@ public class ScanResultDTO {
     private int categoriesUpdated;
     private int moviesDiscovered;
     private int moviesSkipped;
+    private int moviesRemoved;
+    private int moviesRenamed;
+    private int moviesUpdated;
+    private int chunksCommitted;
+    private List<ScanStageMetricsDTO> stages;
     private List<String> errors;
+    private boolean cancelled;
     private boolean success;
 }
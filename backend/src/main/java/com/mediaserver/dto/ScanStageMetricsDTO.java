@@ -0,0 +1,18 @@
+package com.mediaserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanStageMetricsDTO {
+    private String stage;
+    private long itemsProcessed;
+    private long elapsedMillis;
+    private double itemsPerSecond;
+    private boolean finished;
+}
@@ -0,0 +1,21 @@
+package com.mediaserver.dto;
+
+import java.util.Date;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanStatusDTO {
+    private boolean running;
+    private boolean cancelRequested;
+    private String scannedPath;
+    private Date startTime;
+    private List<ScanStageMetricsDTO> stages;
+    private ScanResultDTO lastResult;
+}
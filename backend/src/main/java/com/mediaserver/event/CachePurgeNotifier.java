@@ -0,0 +1,19 @@
+package com.mediaserver.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/** Forwards cache purge progress to {@code /topic/cache/purge}. */
+@Component
+@RequiredArgsConstructor
+public class CachePurgeNotifier {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @EventListener
+    public void handlePurgeProgress(CachePurgeProgressEvent event) {
+        messagingTemplate.convertAndSend("/topic/cache/purge", event);
+    }
+}
@@ -0,0 +1,13 @@
+package com.mediaserver.event;
+
+/**
+ * Published while a cache purge runs, so clients can show its progress.
+ *
+ * @param state RUNNING, COMPLETED or FAILED
+ * @param total the number of cached files being purged
+ * @param deleted the number of files deleted so far
+ * @param failed the number of files that could not be deleted
+ * @param error why the purge failed, null unless it did
+ */
+public record CachePurgeProgressEvent(
+        String state, int total, int deleted, int failed, String error) {}
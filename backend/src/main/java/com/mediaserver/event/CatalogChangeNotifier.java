@@ -0,0 +1,26 @@
+package com.mediaserver.event;
+
+import com.mediaserver.config.MediaProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Pushes the newest change log version to {@code /topic/catalog/changes}, as {@code {"version":
+ * n}}, after each committed catalog write, so clients fetch the changes feed instead of polling it.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogChangeNotifier {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MediaProperties properties;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleChangesLogged(CatalogChangesLoggedEvent event) {
+        if (properties.getCatalog().isPushChanges()) {
+            messagingTemplate.convertAndSend("/topic/catalog/changes", event);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.mediaserver.event;
+
+import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.Movie;
+import java.util.List;
+
+/**
+ * Published by the persistence adapters whenever movies or categories are written, so read models
+ * kept in memory can apply the change instead of reloading everything.
+ *
+ * @param savedMovies movies created or updated
+ * @param deletedMovieIds IDs of removed movies
+ * @param savedCategories categories created or updated
+ * @param deletedCategoryIds IDs of removed categories
+ */
+public record CatalogChangedEvent(
+        List<Movie> savedMovies,
+        List<String> deletedMovieIds,
+        List<Category> savedCategories,
+        List<String> deletedCategoryIds) {
+
+    public CatalogChangedEvent {
+        savedMovies = List.copyOf(savedMovies);
+        deletedMovieIds = List.copyOf(deletedMovieIds);
+        savedCategories = List.copyOf(savedCategories);
+        deletedCategoryIds = List.copyOf(deletedCategoryIds);
+    }
+
+    public static CatalogChangedEvent moviesSaved(List<Movie> movies) {
+        return new CatalogChangedEvent(movies, List.of(), List.of(), List.of());
+    }
+
+    public static CatalogChangedEvent movieDeleted(String movieId) {
+        return moviesDeleted(List.of(movieId));
+    }
+
+    public static CatalogChangedEvent moviesDeleted(List<String> movieIds) {
+        return new CatalogChangedEvent(List.of(), movieIds, List.of(), List.of());
+    }
+
+    public static CatalogChangedEvent categorySaved(Category category) {
+        return new CatalogChangedEvent(List.of(), List.of(), List.of(category), List.of());
+    }
+
+    public static CatalogChangedEvent categoryDeleted(String categoryId) {
+        return categoryDeleted(categoryId, List.of());
+    }
+
+    /**
+     * A category was deleted and its movies lost their category with it.
+     *
+     * @param categoryId the deleted category's ID
+     * @param uncategorizedMovies the movies that were in the category, without it
+     * @return the event
+     */
+    public static CatalogChangedEvent categoryDeleted(
+            String categoryId, List<Movie> uncategorizedMovies) {
+        return new CatalogChangedEvent(
+                uncategorizedMovies, List.of(), List.of(), List.of(categoryId));
+    }
+}
@@ -0,0 +1,9 @@
+package com.mediaserver.event;
+
+/**
+ * Published when catalog changes were written to the change log, so clients following the changes
+ * feed can be told there is something new once the transaction commits.
+ *
+ * @param version the newest change log version
+ */
+public record CatalogChangesLoggedEvent(long version) {}
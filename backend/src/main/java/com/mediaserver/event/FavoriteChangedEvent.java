@@ -0,0 +1,22 @@
+package com.mediaserver.event;
+
+import java.util.List;
+
+/**
+ * Published by the persistence adapter when a user adds or removes favorites, so caches of
+ * responses that carry favorite flags can be invalidated.
+ *
+ * @param userId the user whose favorites changed
+ * @param movieIds the movies added or removed
+ * @param favorite whether the movies are now favorites
+ */
+public record FavoriteChangedEvent(String userId, List<String> movieIds, boolean favorite) {
+
+    public FavoriteChangedEvent {
+        movieIds = List.copyOf(movieIds);
+    }
+
+    public FavoriteChangedEvent(String userId, String movieId, boolean favorite) {
+        this(userId, List.of(movieId), favorite);
+    }
+}
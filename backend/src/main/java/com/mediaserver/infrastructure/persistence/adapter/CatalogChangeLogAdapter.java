@@ -0,0 +1,113 @@
+package com.mediaserver.infrastructure.persistence.adapter;
+
+import com.mediaserver.application.model.CatalogChange;
+import com.mediaserver.application.port.out.CatalogChangePort;
+import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.event.CatalogChangedEvent;
+import com.mediaserver.event.CatalogChangesLoggedEvent;
+import com.mediaserver.infrastructure.persistence.entity.CatalogChangeJpaEntity;
+import com.mediaserver.infrastructure.persistence.repository.JpaCatalogChangeRepository;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Adapter implementation of the CatalogChangePort. Records every {@link CatalogChangedEvent} the
+ * movie and category adapters publish, synchronously and thus in the transaction of the write, and
+ * keeps only the latest change per entity so the log grows with the catalog, not with its history.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogChangeLogAdapter implements CatalogChangePort {
+
+    private final JpaCatalogChangeRepository jpaCatalogChangeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<CatalogChange> findSince(long version, int limit) {
+        return jpaCatalogChangeRepository
+                .findByVersionGreaterThanOrderByVersion(version, PageRequest.of(0, limit))
+                .stream()
+                .map(
+                        change ->
+                                new CatalogChange(
+                                        change.getVersion(),
+                                        CatalogChange.EntityType.valueOf(change.getEntityType()),
+                                        change.getEntityId(),
+                                        change.isDeleted()))
+                .toList();
+    }
+
+    @Override
+    public long latestVersion() {
+        return jpaCatalogChangeRepository.findLatestVersion();
+    }
+
+    /**
+     * Records a catalog write. Publishes a {@link CatalogChangesLoggedEvent} with the new version.
+     *
+     * @param event the write
+     */
+    @EventListener
+    @Transactional
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        Map<String, CatalogChangeJpaEntity> changes = new LinkedHashMap<>();
+        collect(changes, CatalogChange.EntityType.MOVIE, event.deletedMovieIds(), true);
+        collect(
+                changes,
+                CatalogChange.EntityType.MOVIE,
+                event.savedMovies().stream().map(Movie::getId).toList(),
+                false);
+        collect(changes, CatalogChange.EntityType.CATEGORY, event.deletedCategoryIds(), true);
+        collect(
+                changes,
+                CatalogChange.EntityType.CATEGORY,
+                event.savedCategories().stream().map(Category::getId).toList(),
+                false);
+        if (changes.isEmpty()) {
+            return;
+        }
+        jpaCatalogChangeRepository.lockForWrite();
+        for (CatalogChange.EntityType type : CatalogChange.EntityType.values()) {
+            Set<String> ids = new LinkedHashSet<>();
+            changes.values().stream()
+                    .filter(change -> change.getEntityType().equals(type.name()))
+                    .forEach(change -> ids.add(change.getEntityId()));
+            if (!ids.isEmpty()) {
+                jpaCatalogChangeRepository.deleteByEntityTypeAndEntityIdIn(type.name(), ids);
+            }
+        }
+        List<CatalogChangeJpaEntity> saved = jpaCatalogChangeRepository.saveAll(changes.values());
+        long version = saved.stream().mapToLong(CatalogChangeJpaEntity::getVersion).max().orElse(0);
+        eventPublisher.publishEvent(new CatalogChangesLoggedEvent(version));
+    }
+
+    /** Adds one change per entity; a later change of the same entity replaces an earlier one. */
+    private static void collect(
+            Map<String, CatalogChangeJpaEntity> changes,
+            CatalogChange.EntityType type,
+            Collection<String> ids,
+            boolean deleted) {
+        for (String id : ids) {
+            if (id != null) {
+                changes.put(
+                        type + ":" + id,
+                        CatalogChangeJpaEntity.builder()
+                                .entityType(type.name())
+                                .entityId(id)
+                                .deleted(deleted)
+                                .build());
+            }
+        }
+    }
+}
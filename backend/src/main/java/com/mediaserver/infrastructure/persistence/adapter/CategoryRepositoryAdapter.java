@@ -1,24 +1,36 @@
 package com.mediaserver.infrastructure.persistence.adapter;
 
+import com.mediaserver.application.port.out.CategoryPort;
 import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.Movie;
 import com.mediaserver.domain.repository.CategoryRepository;
+import com.mediaserver.event.CatalogChangedEvent;
 import com.mediaserver.infrastructure.persistence.mapper.CategoryPersistenceMapper;
+import com.mediaserver.infrastructure.persistence.mapper.MoviePersistenceMapper;
 import com.mediaserver.infrastructure.persistence.repository.JpaCategoryRepository;
+import com.mediaserver.infrastructure.persistence.repository.JpaMovieRepository;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Adapter implementation of CategoryRepository port. Bridges the domain layer with the JPA
- * persistence layer.
+ * persistence layer. Every write publishes a {@link CatalogChangedEvent} for the in-memory catalog
+ * and the change log, within a transaction so the change log entry commits with the write. Deleting
+ * a category also publishes its movies as saved, since the database uncategorizes them.
  */
 @Repository
 @RequiredArgsConstructor
-public class CategoryRepositoryAdapter implements CategoryRepository {
+public class CategoryRepositoryAdapter implements CategoryRepository, CategoryPort {
 
     private final JpaCategoryRepository jpaCategoryRepository;
     private final CategoryPersistenceMapper mapper;
+    private final JpaMovieRepository jpaMovieRepository;
+    private final MoviePersistenceMapper movieMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Optional<Category> findById(String id) {
@@ -31,18 +43,35 @@ public class CategoryRepositoryAdapter implements CategoryRepository {
     }
 
     @Override
+    @Transactional
     public Category save(Category category) {
         var entity = mapper.toEntity(category);
 
         entity.setId(category.getId());
 
-        var saved = jpaCategoryRepository.save(entity);
-        return mapper.toDomain(saved);
+        Category saved = mapper.toDomain(jpaCategoryRepository.save(entity));
+        eventPublisher.publishEvent(CatalogChangedEvent.categorySaved(saved));
+        return saved;
     }
 
     @Override
+    @Transactional
     public void delete(String id) {
+        List<Movie> uncategorized =
+                jpaMovieRepository.findRowsByCategoryId(id).stream()
+                        .map(movieMapper::rowToDomain)
+                        .map(movie -> movie.withCategoryId(null).withCategoryName(null))
+                        .toList();
         jpaCategoryRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangedEvent.categoryDeleted(id, uncategorized));
+    }
+
+    @Override
+    @Transactional
+    public void delete(Category category) {
+        if (category.getId() != null) {
+            delete(category.getId());
+        }
     }
 
     @Override
@@ -55,6 +84,16 @@ public class CategoryRepositoryAdapter implements CategoryRepository {
         return mapper.toDomainList(jpaCategoryRepository.findAllByOrderBySortOrderAsc());
     }
 
+    @Override
+    public List<Category> findAllOrderedBySortOrder() {
+        return findAllOrderBySortOrder();
+    }
+
+    @Override
+    public long countMoviesInCategory(String categoryId) {
+        return countMoviesByCategoryId(categoryId);
+    }
+
     @Override
     public long countMoviesByCategoryId(String categoryId) {
         return jpaCategoryRepository.countMoviesByCategoryId(categoryId);
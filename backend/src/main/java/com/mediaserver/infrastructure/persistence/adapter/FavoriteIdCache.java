@@ -0,0 +1,86 @@
+package com.mediaserver.infrastructure.persistence.adapter;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Favorite movie IDs per user, least recently used users evicted first. Each user's set is
+ * immutable and replaced on change, so a reader never sees a half-applied update.
+ */
+final class FavoriteIdCache {
+
+    private final Map<String, Set<String>> favoriteIds;
+    private long writes;
+
+    FavoriteIdCache(int maxUsers) {
+        this.favoriteIds =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Set<String>> eldest) {
+                        return size() > maxUsers;
+                    }
+                };
+    }
+
+    /**
+     * Returns the user's favorite IDs, loading them on a miss.
+     *
+     * @param userId the user ID
+     * @param loader reads the IDs from the database
+     * @return the favorite IDs, unmodifiable
+     */
+    Set<String> get(String userId, Function<String, ? extends Iterable<String>> loader) {
+        long writesBefore;
+        synchronized (favoriteIds) {
+            Set<String> cached = favoriteIds.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            writesBefore = writes;
+        }
+        Set<String> loaded = new HashSet<>();
+        loader.apply(userId).forEach(loaded::add);
+        Set<String> ids = Set.copyOf(loaded);
+        synchronized (favoriteIds) {
+            if (writes != writesBefore) {
+                return ids;
+            }
+            Set<String> raced = favoriteIds.putIfAbsent(userId, ids);
+            return raced != null ? raced : ids;
+        }
+    }
+
+    /**
+     * Adds a favorite to a cached user; users not cached are loaded fresh on their next read. A
+     * load that overlaps a change is returned but not cached, since it may predate the change.
+     */
+    void add(String userId, Collection<String> movieIds) {
+        synchronized (favoriteIds) {
+            writes++;
+            favoriteIds.computeIfPresent(
+                    userId,
+                    (key, ids) -> {
+                        Set<String> next = new HashSet<>(ids);
+                        next.addAll(movieIds);
+                        return Set.copyOf(next);
+                    });
+        }
+    }
+
+    void remove(String userId, Collection<String> movieIds) {
+        synchronized (favoriteIds) {
+            writes++;
+            favoriteIds.computeIfPresent(
+                    userId,
+                    (key, ids) -> {
+                        Set<String> next = new HashSet<>(ids);
+                        next.removeAll(movieIds);
+                        return Set.copyOf(next);
+                    });
+        }
+    }
+}
@@ -1,69 +1,184 @@
 package com.mediaserver.infrastructure.persistence.adapter;
 
+import com.mediaserver.application.model.MovieQuery;
 import com.mediaserver.application.port.out.MoviePort;
 import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieCursor;
+import com.mediaserver.domain.model.MovieSort;
 import com.mediaserver.domain.model.MovieStatus;
 import com.mediaserver.domain.repository.MovieRepository;
+import com.mediaserver.event.CatalogChangedEvent;
+import com.mediaserver.event.FavoriteChangedEvent;
 import com.mediaserver.infrastructure.persistence.entity.MovieFavoriteJpaEntity;
+import com.mediaserver.infrastructure.persistence.entity.MovieJpaEntity;
 import com.mediaserver.infrastructure.persistence.mapper.MoviePersistenceMapper;
 import com.mediaserver.infrastructure.persistence.repository.JpaCategoryRepository;
 import com.mediaserver.infrastructure.persistence.repository.JpaMovieFavoriteRepository;
 import com.mediaserver.infrastructure.persistence.repository.JpaMovieRepository;
+import com.mediaserver.infrastructure.persistence.repository.MovieRow;
+import com.mediaserver.infrastructure.persistence.repository.MovieSpecifications;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Adapter implementation of MovieRepository port. Bridges the domain layer with the JPA persistence
- * layer.
+ * layer. Every write publishes a {@link CatalogChangedEvent} for the in-memory catalog and the
+ * change log, within a transaction so the change log entry commits with the write.
+ *
+ * <p>Listings read {@link MovieRow} projections with the category name joined in instead of
+ * entities; keyset pages load the category together with the movie.
  */
 @Repository
 @RequiredArgsConstructor
 public class MovieRepositoryAdapter implements MovieRepository, MoviePort {
 
+    private static final int QUERY_CHUNK_SIZE = 1000;
+    private static final int MAX_CACHED_FAVORITE_USERS = 1024;
+    private static final int SEARCH_PAGE_SIZE = 50;
+    private static final String CATEGORY = "category";
+
     private final JpaMovieRepository jpaMovieRepository;
     private final JpaCategoryRepository jpaCategoryRepository;
     private final JpaMovieFavoriteRepository jpaMovieFavoriteRepository;
     private final MoviePersistenceMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FavoriteIdCache favoriteIdCache = new FavoriteIdCache(MAX_CACHED_FAVORITE_USERS);
 
     @Override
     public Optional<Movie> findById(String id) {
         return jpaMovieRepository.findById(id).map(mapper::toDomain);
     }
 
+    @Override
+    public List<Movie> findAllById(Collection<String> ids) {
+        List<String> idList = new ArrayList<>(ids);
+        List<MovieJpaEntity> entities = new ArrayList<>();
+        for (int start = 0; start < idList.size(); start += QUERY_CHUNK_SIZE) {
+            int end = Math.min(start + QUERY_CHUNK_SIZE, idList.size());
+            entities.addAll(jpaMovieRepository.findAllById(idList.subList(start, end)));
+        }
+        return mapper.toDomainList(entities);
+    }
+
     @Override
     public List<Movie> findAll() {
-        return mapper.toDomainList(jpaMovieRepository.findAll());
+        return mapper.rowsToDomainList(jpaMovieRepository.findAllRows());
+    }
+
+    /**
+     * Reads the movies through a cursor in a read-only transaction. Rows are projections rather
+     * than managed entities, so neither the result nor the persistence context holds more than one
+     * fetch batch.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachMovie(Consumer<Movie> action) {
+        try (Stream<MovieRow> rows = jpaMovieRepository.streamAllRows()) {
+            rows.forEach(row -> action.accept(mapper.rowToDomain(row)));
+        }
     }
 
     @Override
+    @Transactional
     public Movie save(Movie movie) {
+        Movie saved = mapper.toDomain(jpaMovieRepository.save(toEntity(movie)));
+        eventPublisher.publishEvent(CatalogChangedEvent.moviesSaved(List.of(saved)));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<Movie> saveAll(Collection<Movie> movies) {
+        if (movies.isEmpty()) {
+            return List.of();
+        }
+        List<MovieJpaEntity> entities = movies.stream().map(this::toEntity).toList();
+        List<Movie> saved = mapper.toDomainList(jpaMovieRepository.saveAll(entities));
+        eventPublisher.publishEvent(CatalogChangedEvent.moviesSaved(saved));
+        return saved;
+    }
+
+    /**
+     * Maps a movie to its entity. The category is attached as a lazy reference so saving does not
+     * load the category row.
+     */
+    private MovieJpaEntity toEntity(Movie movie) {
         var entity = mapper.toEntity(movie);
 
         if (movie.getCategoryId() != null) {
-            var category = jpaCategoryRepository.findById(movie.getCategoryId()).orElse(null);
-            entity.setCategory(category);
+            entity.setCategory(jpaCategoryRepository.getReferenceById(movie.getCategoryId()));
         }
 
         entity.setId(movie.getId());
-
-        var saved = jpaMovieRepository.save(entity);
-        return mapper.toDomain(saved);
+        return entity;
     }
 
     @Override
+    @Transactional
     public void delete(String id) {
         jpaMovieRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangedEvent.movieDeleted(id));
     }
 
     @Override
+    @Transactional
     public void delete(Movie movie) {
         if (movie.getId() != null) {
-            jpaMovieRepository.deleteById(movie.getId());
+            delete(movie.getId());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllById(Collection<String> movieIds) {
+        List<String> ids = List.copyOf(movieIds);
+        if (ids.isEmpty()) {
+            return;
+        }
+        chunks(ids).forEach(jpaMovieRepository::deleteByIdIn);
+        eventPublisher.publishEvent(CatalogChangedEvent.moviesDeleted(ids));
+    }
+
+    /** Updates the rows in one statement per chunk and reads them back for the change event. */
+    @Override
+    @Transactional
+    public List<Movie> resetCache(Collection<String> movieIds) {
+        List<String> ids = List.copyOf(movieIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Movie> reset = new ArrayList<>(ids.size());
+        for (List<String> chunk : chunks(ids)) {
+            jpaMovieRepository.resetCache(chunk, MovieStatus.PENDING, now);
+            reset.addAll(mapper.rowsToDomainList(jpaMovieRepository.findRowsByIdIn(chunk)));
         }
+        eventPublisher.publishEvent(CatalogChangedEvent.moviesSaved(reset));
+        return reset;
+    }
+
+    private static List<List<String>> chunks(List<String> ids) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += QUERY_CHUNK_SIZE) {
+            chunks.add(ids.subList(start, Math.min(start + QUERY_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
     }
 
     @Override
@@ -73,22 +188,59 @@ public class MovieRepositoryAdapter implements MovieRepository, MoviePort {
 
     @Override
     public List<Movie> findByCategoryId(String categoryId) {
-        return mapper.toDomainList(jpaMovieRepository.findByCategoryId(categoryId));
+        return mapper.rowsToDomainList(jpaMovieRepository.findRowsByCategoryId(categoryId));
     }
 
     @Override
     public List<Movie> search(String query) {
-        return mapper.toDomainList(jpaMovieRepository.search(query));
+        return search(query, 0, SEARCH_PAGE_SIZE);
+    }
+
+    @Override
+    public List<Movie> search(String query, int offset, int limit) {
+        return mapper.toDomainList(jpaMovieRepository.search(query, limit, offset));
+    }
+
+    @Override
+    public List<Movie> findPage(MovieQuery query, MovieSort sort, MovieCursor after, int limit) {
+        Specification<MovieJpaEntity> specification = MovieSpecifications.matching(query);
+        if (after != null) {
+            specification = specification.and(MovieSpecifications.after(after));
+        }
+        List<MovieJpaEntity> entities =
+                jpaMovieRepository.findBy(
+                        specification,
+                        fluent ->
+                                fluent.sortBy(MovieSpecifications.sortFor(sort))
+                                        .project(CATEGORY)
+                                        .limit(limit)
+                                        .all());
+        return mapper.toDomainList(entities);
+    }
+
+    @Override
+    public long count(MovieQuery query) {
+        return jpaMovieRepository.count(MovieSpecifications.matching(query));
+    }
+
+    @Override
+    public Map<String, Long> countByCategory(String search) {
+        List<Object[]> rows =
+                search != null && !search.isBlank()
+                        ? jpaMovieRepository.countByCategoryMatching(search)
+                        : jpaMovieRepository.countByCategory();
+        return rows.stream()
+                .collect(Collectors.toMap(row -> (String) row[0], row -> (Long) row[1]));
     }
 
     @Override
     public List<Movie> findReadyMovies() {
-        return mapper.toDomainList(jpaMovieRepository.findReadyMovies());
+        return mapper.rowsToDomainList(jpaMovieRepository.findReadyRows());
     }
 
     @Override
     public List<Movie> findCachedMovies() {
-        return mapper.toDomainList(jpaMovieRepository.findCachedMovies());
+        return mapper.rowsToDomainList(jpaMovieRepository.findCachedRows());
     }
 
     @Override
@@ -112,9 +264,30 @@ public class MovieRepositoryAdapter implements MovieRepository, MoviePort {
         return jpaMovieRepository.existsByMegaPath(megaPath);
     }
 
+    @Override
+    public Optional<Movie> findByMegaPath(String megaPath) {
+        return jpaMovieRepository.findByMegaPath(megaPath).map(mapper::toDomain);
+    }
+
+    @Override
+    public List<Movie> findByMegaPaths(Collection<String> megaPaths) {
+        List<String> paths = new ArrayList<>(megaPaths);
+        List<MovieJpaEntity> entities = new ArrayList<>();
+        for (int start = 0; start < paths.size(); start += QUERY_CHUNK_SIZE) {
+            int end = Math.min(start + QUERY_CHUNK_SIZE, paths.size());
+            entities.addAll(jpaMovieRepository.findByMegaPathIn(paths.subList(start, end)));
+        }
+        return mapper.toDomainList(entities);
+    }
+
+    @Override
+    public Set<String> findAllMegaPaths() {
+        return new HashSet<>(jpaMovieRepository.findAllMegaPaths());
+    }
+
     @Override
     public List<Movie> findFavorites(String userId) {
-        return mapper.toDomainList(jpaMovieRepository.findFavoritesByUserId(userId)).stream()
+        return mapper.rowsToDomainList(jpaMovieRepository.findFavoriteRowsByUserId(userId)).stream()
                 .map(movie -> movie.withFavorite(true))
                 .collect(Collectors.toList());
     }
@@ -128,30 +301,94 @@ public class MovieRepositoryAdapter implements MovieRepository, MoviePort {
         var favorite =
                 MovieFavoriteJpaEntity.builder().movie(movieReference).userId(userId).build();
         jpaMovieFavoriteRepository.save(favorite);
+        afterCommit(() -> favoriteIdCache.add(userId, List.of(movieId)));
+        eventPublisher.publishEvent(new FavoriteChangedEvent(userId, movieId, true));
     }
 
     @Override
     public void removeFavorite(String movieId, String userId) {
         jpaMovieFavoriteRepository.deleteByMovie_IdAndUserId(movieId, userId);
+        afterCommit(() -> favoriteIdCache.remove(userId, List.of(movieId)));
+        eventPublisher.publishEvent(new FavoriteChangedEvent(userId, movieId, false));
+    }
+
+    @Override
+    @Transactional
+    public int addFavorites(Collection<String> movieIds, String userId) {
+        List<String> ids = List.copyOf(movieIds);
+        int added = 0;
+        for (List<String> chunk : chunks(ids)) {
+            added += jpaMovieFavoriteRepository.insertIgnoringExisting(chunk, userId);
+        }
+        if (added > 0) {
+            afterCommit(() -> favoriteIdCache.add(userId, ids));
+            eventPublisher.publishEvent(new FavoriteChangedEvent(userId, ids, true));
+        }
+        return added;
+    }
+
+    @Override
+    @Transactional
+    public int removeFavorites(Collection<String> movieIds, String userId) {
+        List<String> ids = List.copyOf(movieIds);
+        int removed = 0;
+        for (List<String> chunk : chunks(ids)) {
+            removed += jpaMovieFavoriteRepository.deleteByUserIdAndMovieIdIn(userId, chunk);
+        }
+        if (removed > 0) {
+            afterCommit(() -> favoriteIdCache.remove(userId, ids));
+            eventPublisher.publishEvent(new FavoriteChangedEvent(userId, ids, false));
+        }
+        return removed;
     }
 
     @Override
     public boolean isFavorite(String movieId, String userId) {
-        return jpaMovieFavoriteRepository.existsByMovie_IdAndUserId(movieId, userId);
+        return findFavoriteIds(userId).contains(movieId);
     }
 
+    @Override
+    public Set<String> findFavoriteIds(String userId) {
+        return favoriteIdCache.get(userId, jpaMovieFavoriteRepository::findMovieIdsByUserId);
+    }
+
+    /**
+     * Sets the favorite flag from the cached favorite IDs. Only movies whose flag actually changes
+     * are copied, so a list without favorites is returned as is.
+     */
     @Override
     public List<Movie> applyFavoriteStatus(List<Movie> movies, String userId) {
         if (movies.isEmpty()) {
             return movies;
         }
-        Set<String> favoriteIds =
-                jpaMovieRepository.findFavoritesByUserId(userId).stream()
-                        .map(entity -> entity.getId())
-                        .collect(Collectors.toSet());
-        return movies.stream()
-                .map(movie -> movie.withFavorite(favoriteIds.contains(movie.getId())))
-                .toList();
+        Set<String> favoriteIds = findFavoriteIds(userId);
+        List<Movie> result = null;
+        for (int i = 0; i < movies.size(); i++) {
+            Movie movie = movies.get(i);
+            boolean favorite = favoriteIds.contains(movie.getId());
+            if (movie.isFavorite() != favorite) {
+                if (result == null) {
+                    result = new ArrayList<>(movies);
+                }
+                result.set(i, movie.withFavorite(favorite));
+            }
+        }
+        return result != null ? result : movies;
+    }
+
+    /** Runs the action once the current transaction commits, or right away without one. */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
     }
 
     @Override
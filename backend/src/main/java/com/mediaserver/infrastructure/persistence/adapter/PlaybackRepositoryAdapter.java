@@ -0,0 +1,52 @@
+package com.mediaserver.infrastructure.persistence.adapter;
+
+import com.mediaserver.application.model.PlaybackStats;
+import com.mediaserver.application.port.out.PlaybackPort;
+import com.mediaserver.infrastructure.persistence.entity.MoviePlaybackJpaEntity;
+import com.mediaserver.infrastructure.persistence.repository.JpaMoviePlaybackRepository;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Adapter implementation of the PlaybackPort. */
+@Repository
+@RequiredArgsConstructor
+public class PlaybackRepositoryAdapter implements PlaybackPort {
+
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
+    private final JpaMoviePlaybackRepository jpaMoviePlaybackRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, PlaybackStats> findByMovieIds(Collection<String> movieIds) {
+        List<String> ids = List.copyOf(movieIds);
+        Map<String, PlaybackStats> stats = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += QUERY_CHUNK_SIZE) {
+            int end = Math.min(start + QUERY_CHUNK_SIZE, ids.size());
+            for (MoviePlaybackJpaEntity entity :
+                    jpaMoviePlaybackRepository.findByMovieIdIn(ids.subList(start, end))) {
+                stats.put(entity.getMovieId(), toStats(entity));
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    @Transactional
+    public void addPlays(Collection<PlaybackStats> recorded) {
+        for (PlaybackStats stats : recorded) {
+            jpaMoviePlaybackRepository.addPlays(
+                    stats.movieId(), stats.lastStreamedAt(), stats.playCount());
+        }
+    }
+
+    private static PlaybackStats toStats(MoviePlaybackJpaEntity entity) {
+        return new PlaybackStats(
+                entity.getMovieId(), entity.getLastStreamedAt(), entity.getPlayCount());
+    }
+}
@@ -0,0 +1,48 @@
+package com.mediaserver.infrastructure.persistence.adapter;
+
+import com.mediaserver.domain.model.ScanSnapshotEntry;
+import com.mediaserver.domain.repository.ScanSnapshotRepository;
+import com.mediaserver.infrastructure.persistence.mapper.ScanSnapshotPersistenceMapper;
+import com.mediaserver.infrastructure.persistence.repository.JpaScanSnapshotRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Adapter implementation of ScanSnapshotRepository port. Bridges the domain layer with the JPA
+ * persistence layer.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ScanSnapshotRepositoryAdapter implements ScanSnapshotRepository {
+
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final JpaScanSnapshotRepository jpaScanSnapshotRepository;
+    private final ScanSnapshotPersistenceMapper mapper;
+
+    @Override
+    public List<ScanSnapshotEntry> findByPathPrefix(String pathPrefix) {
+        return mapper.toDomainList(
+                jpaScanSnapshotRepository.findByMegaPathStartingWith(pathPrefix));
+    }
+
+    @Override
+    public void saveAll(Collection<ScanSnapshotEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jpaScanSnapshotRepository.saveAll(mapper.toEntityList(new ArrayList<>(entries)));
+    }
+
+    @Override
+    public void deleteByMegaPaths(Collection<String> megaPaths) {
+        List<String> paths = new ArrayList<>(megaPaths);
+        for (int start = 0; start < paths.size(); start += DELETE_CHUNK_SIZE) {
+            int end = Math.min(start + DELETE_CHUNK_SIZE, paths.size());
+            jpaScanSnapshotRepository.deleteByMegaPathIn(paths.subList(start, end));
+        }
+    }
+}
@@ -35,6 +35,9 @@ public class MovieJpaEntity {
     @Column(name = "thumbnail_url")
     private String thumbnailUrl;
 
+    @Column(name = "thumbnail_placeholder", columnDefinition = "TEXT")
+    private String thumbnailPlaceholder;
+
     @Column(name = "local_path")
     private String localPath;
 
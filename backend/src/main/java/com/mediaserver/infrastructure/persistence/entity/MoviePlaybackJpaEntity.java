@@ -0,0 +1,24 @@
+package com.mediaserver.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+
+@Entity
+@Table(name = "movie_playback")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MoviePlaybackJpaEntity {
+
+    @Id
+    @Column(name = "movie_id", length = 36)
+    private String movieId;
+
+    @Column(name = "last_streamed_at")
+    private LocalDateTime lastStreamedAt;
+
+    @Column(name = "play_count", nullable = false)
+    private long playCount;
+}
@@ -0,0 +1,61 @@
+package com.mediaserver.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+@Entity
+@Table(name = "mega_scan_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScanSnapshotJpaEntity implements Persistable<String> {
+
+    @Id
+    @Column(name = "mega_path")
+    private String megaPath;
+
+    @Column(name = "parent_path", nullable = false)
+    private String parentPath;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "file_size", nullable = false)
+    private long size;
+
+    @Column(name = "modified_at")
+    private LocalDateTime modifiedAt;
+
+    @Column(name = "scanned_at")
+    private LocalDateTime scannedAt;
+
+    @Transient @Builder.Default private boolean newEntry = true;
+
+    @Override
+    public String getId() {
+        return megaPath;
+    }
+
+    /**
+     * Snapshot rows are always inserted after their predecessors were deleted, so saving never has
+     * to look up an existing row first.
+     */
+    @Override
+    public boolean isNew() {
+        return newEntry;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        scannedAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markPersisted() {
+        newEntry = false;
+    }
+}
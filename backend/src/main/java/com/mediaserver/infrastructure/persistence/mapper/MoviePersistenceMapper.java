@@ -1,8 +1,11 @@
 package com.mediaserver.infrastructure.persistence.mapper;
 
 import com.mediaserver.domain.model.Movie;
+import com.mediaserver.infrastructure.persistence.entity.CategoryJpaEntity;
 import com.mediaserver.infrastructure.persistence.entity.MovieJpaEntity;
+import com.mediaserver.infrastructure.persistence.repository.MovieRow;
 import java.util.List;
+import org.hibernate.Hibernate;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -13,10 +16,19 @@ import org.mapstruct.Mapping;
 @Mapper(componentModel = "spring")
 public interface MoviePersistenceMapper {
 
-    /** Maps JPA entity to domain entity. Extracts categoryId from the category relationship. */
+    /**
+     * Maps JPA entity to domain entity. Extracts categoryId from the category relationship; the
+     * category name is only taken if the category is already loaded, so mapping never triggers a
+     * query.
+     */
     @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "categoryName", expression = "java(loadedCategoryName(entity))")
     Movie toDomain(MovieJpaEntity entity);
 
+    /** Maps a read projection to a domain entity. */
+    @Mapping(target = "favorite", ignore = true)
+    Movie rowToDomain(MovieRow row);
+
     /**
      * Maps domain entity to JPA entity. Category relationship must be set separately in the
      * adapter.
@@ -27,6 +39,14 @@ public interface MoviePersistenceMapper {
     /** Maps list of JPA entities to list of domain entities. */
     List<Movie> toDomainList(List<MovieJpaEntity> entities);
 
+    /** Maps list of read projections to list of domain entities. */
+    List<Movie> rowsToDomainList(List<MovieRow> rows);
+
     /** Maps list of domain entities to list of JPA entities. */
     List<MovieJpaEntity> toEntityList(List<Movie> domains);
+
+    default String loadedCategoryName(MovieJpaEntity entity) {
+        CategoryJpaEntity category = entity.getCategory();
+        return category != null && Hibernate.isInitialized(category) ? category.getName() : null;
+    }
 }
@@ -0,0 +1,29 @@
+package com.mediaserver.infrastructure.persistence.mapper;
+
+import com.mediaserver.domain.model.ScanSnapshotEntry;
+import com.mediaserver.infrastructure.persistence.entity.ScanSnapshotJpaEntity;
+import java.util.List;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * MapStruct mapper for converting between ScanSnapshotEntry domain objects and
+ * ScanSnapshotJpaEntity.
+ */
+@Mapper(componentModel = "spring")
+public interface ScanSnapshotPersistenceMapper {
+
+    /** Maps JPA entity to domain entry. */
+    ScanSnapshotEntry toDomain(ScanSnapshotJpaEntity entity);
+
+    /** Maps domain entry to a new JPA entity. The scan timestamp is set on persist. */
+    @Mapping(target = "scannedAt", ignore = true)
+    @Mapping(target = "newEntry", ignore = true)
+    ScanSnapshotJpaEntity toEntity(ScanSnapshotEntry domain);
+
+    /** Maps list of JPA entities to list of domain entries. */
+    List<ScanSnapshotEntry> toDomainList(List<ScanSnapshotJpaEntity> entities);
+
+    /** Maps list of domain entries to list of JPA entities. */
+    List<ScanSnapshotJpaEntity> toEntityList(List<ScanSnapshotEntry> domains);
+}
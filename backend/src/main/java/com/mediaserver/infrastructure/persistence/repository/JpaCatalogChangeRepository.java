@@ -0,0 +1,42 @@
+package com.mediaserver.infrastructure.persistence.repository;
+
+import com.mediaserver.infrastructure.persistence.entity.CatalogChangeJpaEntity;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Spring Data JPA repository for CatalogChangeJpaEntity. This is an infrastructure component that
+ * provides persistence operations.
+ */
+public interface JpaCatalogChangeRepository extends JpaRepository<CatalogChangeJpaEntity, Long> {
+
+    List<CatalogChangeJpaEntity> findByVersionGreaterThanOrderByVersion(
+            long version, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.version), 0) FROM CatalogChangeJpaEntity c")
+    long findLatestVersion();
+
+    @Modifying
+    @Query(
+            "DELETE FROM CatalogChangeJpaEntity c WHERE c.entityType = :entityType AND c.entityId"
+                    + " IN :entityIds")
+    int deleteByEntityTypeAndEntityIdIn(
+            @Param("entityType") String entityType,
+            @Param("entityIds") Collection<String> entityIds);
+
+    /**
+     * Takes a transaction-scoped lock that serializes writers of the change log, so versions become
+     * visible in the order they were assigned and a reader never skips one that commits late.
+     */
+    @Query(
+            value =
+                    "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(7240531)) AS"
+                            + " change_log_lock",
+            nativeQuery = true)
+    long lockForWrite();
+}
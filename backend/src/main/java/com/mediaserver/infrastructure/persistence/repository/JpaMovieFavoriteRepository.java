@@ -1,14 +1,39 @@
 package com.mediaserver.infrastructure.persistence.repository;
 
 import com.mediaserver.infrastructure.persistence.entity.MovieFavoriteJpaEntity;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 public interface JpaMovieFavoriteRepository extends JpaRepository<MovieFavoriteJpaEntity, String> {
     boolean existsByMovie_IdAndUserId(String movieId, String userId);
 
+    @Query("SELECT f.movie.id FROM MovieFavoriteJpaEntity f WHERE f.userId = :userId")
+    List<String> findMovieIdsByUserId(@Param("userId") String userId);
+
     @Modifying
     @Transactional
     void deleteByMovie_IdAndUserId(String movieId, String userId);
+
+    /** Adds favorites in one statement, skipping movies that are missing or already favorites. */
+    @Modifying
+    @Query(
+            value =
+                    "INSERT INTO movie_favorites (id, movie_id, user_id) SELECT"
+                        + " CAST(gen_random_uuid() AS varchar), m.id, :userId FROM movies m WHERE"
+                        + " m.id IN (:movieIds) ON CONFLICT (movie_id, user_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIgnoringExisting(
+            @Param("movieIds") Collection<String> movieIds, @Param("userId") String userId);
+
+    @Modifying
+    @Query(
+            "DELETE FROM MovieFavoriteJpaEntity f WHERE f.userId = :userId AND f.movie.id IN"
+                    + " :movieIds")
+    int deleteByUserIdAndMovieIdIn(
+            @Param("userId") String userId, @Param("movieIds") Collection<String> movieIds);
 }
@@ -0,0 +1,37 @@
+package com.mediaserver.infrastructure.persistence.repository;
+
+import com.mediaserver.infrastructure.persistence.entity.MoviePlaybackJpaEntity;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Spring Data JPA repository for MoviePlaybackJpaEntity. This is an infrastructure component that
+ * provides persistence operations.
+ */
+public interface JpaMoviePlaybackRepository extends JpaRepository<MoviePlaybackJpaEntity, String> {
+
+    List<MoviePlaybackJpaEntity> findByMovieIdIn(Collection<String> movieIds);
+
+    /**
+     * Adds plays to a movie's statistics in one statement, creating them on first use. The latest
+     * stream time wins, and a movie deleted in the meantime is skipped.
+     */
+    @Modifying
+    @Query(
+            value =
+                    "INSERT INTO movie_playback (movie_id, last_streamed_at, play_count) SELECT"
+                        + " m.id, :streamedAt, :plays FROM movies m WHERE m.id = :movieId ON"
+                        + " CONFLICT (movie_id) DO UPDATE SET last_streamed_at ="
+                        + " GREATEST(movie_playback.last_streamed_at, EXCLUDED.last_streamed_at),"
+                        + " play_count = movie_playback.play_count + EXCLUDED.play_count",
+            nativeQuery = true)
+    int addPlays(
+            @Param("movieId") String movieId,
+            @Param("streamedAt") LocalDateTime streamedAt,
+            @Param("plays") long plays);
+}
@@ -2,36 +2,98 @@ package com.mediaserver.infrastructure.persistence.repository;
 
 import com.mediaserver.domain.model.MovieStatus;
 import com.mediaserver.infrastructure.persistence.entity.MovieJpaEntity;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 /**
  * Spring Data JPA repository for MovieJpaEntity. This is an infrastructure component that provides
  * persistence operations.
  */
-public interface JpaMovieRepository extends JpaRepository<MovieJpaEntity, String> {
+public interface JpaMovieRepository
+        extends JpaRepository<MovieJpaEntity, String>, JpaSpecificationExecutor<MovieJpaEntity> {
 
     List<MovieJpaEntity> findByStatus(MovieStatus status);
 
-    List<MovieJpaEntity> findByCategoryId(String categoryId);
-
     Optional<MovieJpaEntity> findByMegaPath(String megaPath);
 
     boolean existsByMegaPath(String megaPath);
 
+    List<MovieJpaEntity> findByMegaPathIn(Collection<String> megaPaths);
+
+    @Query("SELECT m.megaPath FROM MovieJpaEntity m WHERE m.megaPath IS NOT NULL")
+    List<String> findAllMegaPaths();
+
+    /**
+     * Ranked search over the full-text vector of title and description, falling back to a substring
+     * match on the title for partially typed words. Both conditions are backed by GIN indexes
+     * (changelog 006), so neither scans the table.
+     */
+    String RANKED_SEARCH =
+            "SELECT m.* FROM movies m"
+                    + " WHERE m.search_vector @@ websearch_to_tsquery('simple', :query)"
+                    + " OR lower(m.title) LIKE '%' || lower(:query) || '%'"
+                    + " ORDER BY ts_rank(m.search_vector, websearch_to_tsquery('simple', :query))"
+                    + " DESC, similarity(lower(m.title), lower(:query)) DESC, m.title, m.id"
+                    + " LIMIT :limit OFFSET :offset";
+
+    @Query(value = RANKED_SEARCH, nativeQuery = true)
+    List<MovieJpaEntity> search(
+            @Param("query") String query, @Param("limit") int limit, @Param("offset") int offset);
+
+    /**
+     * Selects {@link MovieRow} projections with the category name joined in. Listing queries start
+     * from it instead of loading entities.
+     */
+    String MOVIE_ROWS =
+            "SELECT new com.mediaserver.infrastructure.persistence.repository.MovieRow(m.id,"
+                    + " m.title, m.description, m.year, m.duration, m.megaUrl, m.megaPath,"
+                    + " m.thumbnailUrl, m.thumbnailPlaceholder, m.localPath, m.fileSize,"
+                    + " m.contentType, m.status, c.id, c.name, m.userId, m.createdAt, m.updatedAt)"
+                    + " FROM MovieJpaEntity m LEFT JOIN m.category c";
+
+    @Query(MOVIE_ROWS + " ORDER BY m.title, m.id")
+    List<MovieRow> findAllRows();
+
+    /**
+     * Streams all movies in title order. The driver fetches 500 rows at a time instead of the whole
+     * result; the stream must be consumed within a transaction and closed.
+     */
+    @Query(MOVIE_ROWS + " ORDER BY m.title, m.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<MovieRow> streamAllRows();
+
+    @Query(MOVIE_ROWS + " WHERE m.id IN :ids")
+    List<MovieRow> findRowsByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query(MOVIE_ROWS + " WHERE c.id = :categoryId ORDER BY m.title, m.id")
+    List<MovieRow> findRowsByCategoryId(@Param("categoryId") String categoryId);
+
     @Query(
-            "SELECT m FROM MovieJpaEntity m WHERE LOWER(m.title) LIKE LOWER(CONCAT('%', :query,"
-                    + " '%'))")
-    List<MovieJpaEntity> search(@Param("query") String query);
+            "SELECT m.category.id, COUNT(m) FROM MovieJpaEntity m WHERE m.category IS NOT NULL"
+                    + " GROUP BY m.category.id")
+    List<Object[]> countByCategory();
 
-    @Query("SELECT m FROM MovieJpaEntity m WHERE m.status = :status ORDER BY m.createdAt DESC")
-    List<MovieJpaEntity> findByStatusOrderByCreatedAtDesc(@Param("status") MovieStatus status);
+    @Query(
+            "SELECT m.category.id, COUNT(m) FROM MovieJpaEntity m WHERE m.category IS NOT NULL AND"
+                    + " LOWER(m.title) LIKE LOWER(CONCAT('%', :query, '%')) GROUP BY m.category.id")
+    List<Object[]> countByCategoryMatching(@Param("query") String query);
 
-    default List<MovieJpaEntity> findReadyMovies() {
-        return findByStatusOrderByCreatedAtDesc(MovieStatus.READY);
+    @Query(MOVIE_ROWS + " WHERE m.status = :status ORDER BY m.createdAt DESC")
+    List<MovieRow> findRowsByStatusOrderByCreatedAtDesc(@Param("status") MovieStatus status);
+
+    default List<MovieRow> findReadyRows() {
+        return findRowsByStatusOrderByCreatedAtDesc(MovieStatus.READY);
     }
 
     @Query(
@@ -39,15 +101,31 @@ public interface JpaMovieRepository extends JpaRepository<MovieJpaEntity, String
                     + " NULL")
     Long getTotalCacheSize();
 
-    @Query("SELECT m FROM MovieJpaEntity m WHERE m.localPath IS NOT NULL ORDER BY m.updatedAt DESC")
-    List<MovieJpaEntity> findCachedMovies();
+    @Query(MOVIE_ROWS + " WHERE m.localPath IS NOT NULL ORDER BY m.updatedAt DESC")
+    List<MovieRow> findCachedRows();
 
     long countByLocalPathIsNotNull();
 
+    /**
+     * Forgets the cached files of movies in one statement. Bypasses the persistence context, which
+     * is flushed before and cleared after.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query(
-            "SELECT m FROM MovieJpaEntity m JOIN MovieFavoriteJpaEntity f ON f.movie = m WHERE"
-                    + " f.userId = :userId")
-    List<MovieJpaEntity> findFavoritesByUserId(@Param("userId") String userId);
+            "UPDATE MovieJpaEntity m SET m.localPath = NULL, m.fileSize = NULL, m.status = :status,"
+                    + " m.updatedAt = :updatedAt WHERE m.id IN :ids")
+    int resetCache(
+            @Param("ids") Collection<String> ids,
+            @Param("status") MovieStatus status,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /** Deletes movies in one statement; the database cascades to favorites and download tasks. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM MovieJpaEntity m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query(MOVIE_ROWS + " JOIN MovieFavoriteJpaEntity f ON f.movie = m WHERE f.userId = :userId")
+    List<MovieRow> findFavoriteRowsByUserId(@Param("userId") String userId);
 
     @Query(
             "SELECT m FROM MovieJpaEntity m WHERE m.localPath IS NOT NULL AND NOT EXISTS (SELECT 1"
@@ -0,0 +1,22 @@
+package com.mediaserver.infrastructure.persistence.repository;
+
+import com.mediaserver.infrastructure.persistence.entity.ScanSnapshotJpaEntity;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Spring Data JPA repository for ScanSnapshotJpaEntity. This is an infrastructure component that
+ * provides persistence operations.
+ */
+public interface JpaScanSnapshotRepository extends JpaRepository<ScanSnapshotJpaEntity, String> {
+
+    List<ScanSnapshotJpaEntity> findByMegaPathStartingWith(String pathPrefix);
+
+    @Modifying
+    @Query("DELETE FROM ScanSnapshotJpaEntity s WHERE s.megaPath IN :megaPaths")
+    int deleteByMegaPathIn(@Param("megaPaths") Collection<String> megaPaths);
+}
@@ -0,0 +1,29 @@
+package com.mediaserver.infrastructure.persistence.repository;
+
+import com.mediaserver.domain.model.MovieStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a movie row joined with its category's name. Queries select it with a
+ * constructor expression, so rows are never managed entities: Hibernate keeps no dirty-checking
+ * snapshot for them and nothing has to be flushed or detached.
+ */
+public record MovieRow(
+        String id,
+        String title,
+        String description,
+        Integer year,
+        String duration,
+        String megaUrl,
+        String megaPath,
+        String thumbnailUrl,
+        String thumbnailPlaceholder,
+        String localPath,
+        Long fileSize,
+        String contentType,
+        MovieStatus status,
+        String categoryId,
+        String categoryName,
+        String userId,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {}
@@ -0,0 +1,114 @@
+package com.mediaserver.infrastructure.persistence.repository;
+
+import com.mediaserver.application.model.MovieQuery;
+import com.mediaserver.domain.model.MovieCursor;
+import com.mediaserver.domain.model.MovieSort;
+import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.infrastructure.persistence.entity.MovieFavoriteJpaEntity;
+import com.mediaserver.infrastructure.persistence.entity.MovieJpaEntity;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria for paged movie listings. The keyset predicates mirror {@link #sortFor(MovieSort)}
+ * exactly, which is what lets a page start right after the previous one using the index.
+ */
+public final class MovieSpecifications {
+
+    private MovieSpecifications() {}
+
+    public static Specification<MovieJpaEntity> matching(MovieQuery query) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (query.hasSearch()) {
+                predicates.add(
+                        cb.like(
+                                cb.lower(root.get("title")),
+                                "%" + query.search().toLowerCase() + "%"));
+            }
+            if (query.categoryId() != null) {
+                predicates.add(cb.equal(root.get("category").get("id"), query.categoryId()));
+            }
+            if (query.uncategorized()) {
+                predicates.add(cb.isNull(root.get("category")));
+            }
+            if (query.cachedOnly()) {
+                predicates.add(cb.isNotNull(root.get("localPath")));
+                predicates.add(cb.equal(root.get("status"), MovieStatus.READY));
+            }
+            if (query.favoritesOf() != null) {
+                Subquery<Integer> favorite = criteriaQuery.subquery(Integer.class);
+                Root<MovieFavoriteJpaEntity> favoriteRoot =
+                        favorite.from(MovieFavoriteJpaEntity.class);
+                favorite.select(cb.literal(1))
+                        .where(
+                                cb.equal(favoriteRoot.get("movie"), root),
+                                cb.equal(favoriteRoot.get("userId"), query.favoritesOf()));
+                predicates.add(cb.exists(favorite));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /** Restricts a listing to the movies that come after the cursor in its sort order. */
+    public static Specification<MovieJpaEntity> after(MovieCursor cursor) {
+        return (root, criteriaQuery, cb) -> {
+            Path<String> id = root.get("id");
+            return switch (cursor.getSort()) {
+                case TITLE -> {
+                    Path<String> title = root.get("title");
+                    yield cb.or(
+                            cb.greaterThan(title, cursor.getKey()),
+                            cb.and(
+                                    cb.equal(title, cursor.getKey()),
+                                    cb.greaterThan(id, cursor.getId())));
+                }
+                case CREATED_AT ->
+                        descendingNullsLast(
+                                cb,
+                                root.get("createdAt"),
+                                cursor.getKey() != null
+                                        ? LocalDateTime.parse(cursor.getKey())
+                                        : null,
+                                id,
+                                cursor.getId());
+                case YEAR ->
+                        descendingNullsLast(
+                                cb,
+                                root.get("year"),
+                                cursor.getKey() != null ? Integer.valueOf(cursor.getKey()) : null,
+                                id,
+                                cursor.getId());
+            };
+        };
+    }
+
+    public static Sort sortFor(MovieSort sort) {
+        return switch (sort) {
+            case TITLE -> Sort.by(Sort.Order.asc("title"), Sort.Order.asc("id"));
+            case CREATED_AT ->
+                    Sort.by(Sort.Order.desc("createdAt").nullsLast(), Sort.Order.asc("id"));
+            case YEAR -> Sort.by(Sort.Order.desc("year").nullsLast(), Sort.Order.asc("id"));
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate descendingNullsLast(
+            CriteriaBuilder cb, Expression<T> key, T lastKey, Path<String> id, String lastId) {
+        if (lastKey == null) {
+            return cb.and(cb.isNull(key), cb.greaterThan(id, lastId));
+        }
+        return cb.or(
+                cb.lessThan(key, lastKey),
+                cb.and(cb.equal(key, lastKey), cb.greaterThan(id, lastId)),
+                cb.isNull(key));
+    }
+}
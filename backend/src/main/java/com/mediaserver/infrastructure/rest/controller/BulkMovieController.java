@@ -0,0 +1,49 @@
+package com.mediaserver.infrastructure.rest.controller;
+
+import com.mediaserver.application.usecase.movie.BulkMovieUseCase;
+import com.mediaserver.infrastructure.rest.dto.BulkMovieRequestDTO;
+import com.mediaserver.infrastructure.rest.dto.BulkResultDTO;
+import com.mediaserver.infrastructure.rest.mapper.MovieRestMapper;
+import jakarta.validation.Valid;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Bulk variants of the per-movie operations. Each request takes up to 1000 IDs, runs in one
+ * transaction and answers with the outcome for every distinct ID, so one unknown or ineligible
+ * movie does not fail the others. Cached files are deleted in the background after commit.
+ */
+@RestController
+@RequestMapping("/api/movies/bulk")
+@RequiredArgsConstructor
+public class BulkMovieController {
+
+    private final BulkMovieUseCase bulkMovieUseCase;
+    private final MovieRestMapper movieMapper;
+
+    @PostMapping("/favorite")
+    public List<BulkResultDTO> addFavorites(@Valid @RequestBody BulkMovieRequestDTO request) {
+        return movieMapper.toBulkResultList(bulkMovieUseCase.addFavorites(request.getIds()));
+    }
+
+    @PostMapping("/unfavorite")
+    public List<BulkResultDTO> removeFavorites(@Valid @RequestBody BulkMovieRequestDTO request) {
+        return movieMapper.toBulkResultList(bulkMovieUseCase.removeFavorites(request.getIds()));
+    }
+
+    @PostMapping("/download")
+    public List<BulkResultDTO> startDownloads(@Valid @RequestBody BulkMovieRequestDTO request) {
+        return movieMapper.toBulkResultList(bulkMovieUseCase.startDownloads(request.getIds()));
+    }
+
+    @PostMapping("/clear-cache")
+    public List<BulkResultDTO> clearCaches(@Valid @RequestBody BulkMovieRequestDTO request) {
+        return movieMapper.toBulkResultList(bulkMovieUseCase.clearCaches(request.getIds()));
+    }
+
+    @PostMapping("/delete")
+    public List<BulkResultDTO> deleteMovies(@Valid @RequestBody BulkMovieRequestDTO request) {
+        return movieMapper.toBulkResultList(bulkMovieUseCase.deleteMovies(request.getIds()));
+    }
+}
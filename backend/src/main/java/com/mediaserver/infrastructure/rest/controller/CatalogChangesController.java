@@ -0,0 +1,50 @@
+package com.mediaserver.infrastructure.rest.controller;
+
+import com.mediaserver.application.model.CatalogChanges;
+import com.mediaserver.application.usecase.catalog.GetCatalogChangesUseCase;
+import com.mediaserver.infrastructure.rest.dto.CatalogChangesResponseDTO;
+import com.mediaserver.infrastructure.rest.mapper.CategoryRestMapper;
+import com.mediaserver.infrastructure.rest.mapper.MovieRestMapper;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Changes feed for clients that keep a local copy of the catalog. Without {@code since} only the
+ * current version is returned; with {@code since=0} the whole catalog is returned in pages. New
+ * versions are also pushed to {@code /topic/catalog/changes}.
+ */
+@RestController
+@RequestMapping("/api/movies/changes")
+@RequiredArgsConstructor
+public class CatalogChangesController {
+
+    private final GetCatalogChangesUseCase getCatalogChangesUseCase;
+    private final MovieRestMapper movieMapper;
+    private final CategoryRestMapper categoryMapper;
+
+    @GetMapping
+    public CatalogChangesResponseDTO getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        if (since == null) {
+            return CatalogChangesResponseDTO.builder()
+                    .version(getCatalogChangesUseCase.getLatestVersion())
+                    .movies(List.of())
+                    .deletedMovieIds(List.of())
+                    .categories(List.of())
+                    .deletedCategoryIds(List.of())
+                    .build();
+        }
+        CatalogChanges changes = getCatalogChangesUseCase.getChanges(since, limit);
+        return CatalogChangesResponseDTO.builder()
+                .version(changes.version())
+                .hasMore(changes.hasMore())
+                .reset(changes.reset())
+                .movies(changes.movies().stream().map(movieMapper::toResponse).toList())
+                .deletedMovieIds(changes.deletedMovieIds())
+                .categories(changes.categories().stream().map(categoryMapper::toResponse).toList())
+                .deletedCategoryIds(changes.deletedCategoryIds())
+                .build();
+    }
+}
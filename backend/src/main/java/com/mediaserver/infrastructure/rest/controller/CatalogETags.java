@@ -0,0 +1,51 @@
+package com.mediaserver.infrastructure.rest.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.TreeMap;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Weak ETags for responses derived from the catalog. The tag combines the catalog version with the
+ * user, the request URL and the accepted encodings, so it changes whenever anything the response
+ * could show changes.
+ */
+final class CatalogETags {
+
+    private CatalogETags() {}
+
+    /**
+     * Tags the response and checks the request's {@code If-None-Match} against the tag. Call it
+     * before reading anything, and return null from the handler when it returns true.
+     *
+     * @param request the current request
+     * @param catalogVersion the current catalog version
+     * @return true if the client's copy is current; the response is then a 304 without body
+     */
+    static boolean notModified(ServletWebRequest request, String catalogVersion) {
+        HttpServletRequest servletRequest = request.getRequest();
+        Principal user = servletRequest.getUserPrincipal();
+        StringBuilder key = new StringBuilder();
+        key.append(user != null ? user.getName() : "").append('\n');
+        key.append(servletRequest.getRequestURI());
+        key.append('\n').append(request.getHeader(HttpHeaders.ACCEPT));
+        new TreeMap<>(servletRequest.getParameterMap())
+                .forEach(
+                        (name, values) ->
+                                key.append('\n')
+                                        .append(name)
+                                        .append('=')
+                                        .append(Arrays.toString(values)));
+        String hash = DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        return request.checkNotModified("W/\"" + catalogVersion + "-" + hash + "\"");
+    }
+}
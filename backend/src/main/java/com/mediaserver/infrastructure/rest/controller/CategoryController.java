@@ -1,5 +1,6 @@
 package com.mediaserver.infrastructure.rest.controller;
 
+import com.mediaserver.application.usecase.catalog.GetCatalogVersionUseCase;
 import com.mediaserver.application.usecase.category.*;
 import com.mediaserver.infrastructure.rest.dto.CategoryRequestDTO;
 import com.mediaserver.infrastructure.rest.dto.CategoryResponseDTO;
@@ -9,6 +10,7 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -20,10 +22,14 @@ public class CategoryController {
     private final CreateCategoryUseCase createCategoryUseCase;
     private final UpdateCategoryUseCase updateCategoryUseCase;
     private final DeleteCategoryUseCase deleteCategoryUseCase;
+    private final GetCatalogVersionUseCase getCatalogVersionUseCase;
     private final CategoryRestMapper categoryMapper;
 
     @GetMapping
-    public List<CategoryResponseDTO> getAllCategories() {
+    public List<CategoryResponseDTO> getAllCategories(ServletWebRequest webRequest) {
+        if (CatalogETags.notModified(webRequest, getCatalogVersionUseCase.getCatalogVersion())) {
+            return null;
+        }
         return getAllCategoriesUseCase.getAllCategories().stream()
                 .map(categoryMapper::toResponse)
                 .toList();
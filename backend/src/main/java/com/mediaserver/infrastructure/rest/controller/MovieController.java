@@ -1,34 +1,54 @@
 package com.mediaserver.infrastructure.rest.controller;
 
-import com.mediaserver.application.usecase.category.GetAllCategoriesUseCase;
+import com.mediaserver.application.model.CachePurge;
+import com.mediaserver.application.model.FacetFilter;
+import com.mediaserver.application.model.MovieFacet;
+import com.mediaserver.application.usecase.catalog.GetCatalogVersionUseCase;
 import com.mediaserver.application.usecase.movie.*;
-import com.mediaserver.domain.model.Category;
 import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieSort;
+import com.mediaserver.infrastructure.rest.dto.CachePurgeDTO;
 import com.mediaserver.infrastructure.rest.dto.CacheStatsDTO;
+import com.mediaserver.infrastructure.rest.dto.MovieFacetsResponseDTO;
 import com.mediaserver.infrastructure.rest.dto.MovieGroupResponseDTO;
+import com.mediaserver.infrastructure.rest.dto.MoviePageResponseDTO;
 import com.mediaserver.infrastructure.rest.dto.MovieRequestDTO;
 import com.mediaserver.infrastructure.rest.dto.MovieResponseDTO;
+import com.mediaserver.infrastructure.rest.dto.MovieSuggestionDTO;
+import com.mediaserver.infrastructure.rest.dto.SpriteTileDTO;
 import com.mediaserver.infrastructure.rest.mapper.MovieRestMapper;
+import com.mediaserver.service.ThumbnailSprites;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @RestController
 @RequestMapping("/api/movies")
 @RequiredArgsConstructor
 public class MovieController {
 
-    private final GetAllMoviesUseCase getAllMoviesUseCase;
+    private final StreamAllMoviesUseCase streamAllMoviesUseCase;
     private final GetMovieUseCase getMovieUseCase;
     private final SearchMoviesUseCase searchMoviesUseCase;
     private final GetMoviesByCategoryUseCase getMoviesByCategoryUseCase;
     private final GetReadyMoviesUseCase getReadyMoviesUseCase;
     private final GetMoviesGroupedUseCase getMoviesGroupedUseCase;
+    private final GetMoviePageUseCase getMoviePageUseCase;
+    private final SuggestMoviesUseCase suggestMoviesUseCase;
+    private final FilterMoviesUseCase filterMoviesUseCase;
     private final CreateMovieUseCase createMovieUseCase;
     private final UpdateMovieUseCase updateMovieUseCase;
     private final DeleteMovieUseCase deleteMovieUseCase;
@@ -40,22 +60,114 @@ public class MovieController {
     private final AddFavoriteUseCase addFavoriteUseCase;
     private final RemoveFavoriteUseCase removeFavoriteUseCase;
     private final GetFavoritesUseCase getFavoritesUseCase;
-    private final GetAllCategoriesUseCase getAllCategoriesUseCase;
+    private final GetCatalogVersionUseCase getCatalogVersionUseCase;
+    private final ThumbnailSprites thumbnailSprites;
     private final MovieRestMapper movieMapper;
+    private final MovieJsonCache movieJsonCache;
+    private final MovieRepresentations representations;
 
+    /**
+     * Lists movies. The unfiltered listing is the one that grows with the library, so it is written
+     * as the catalog is walked instead of being collected into a list first. Movies are written
+     * from pre-encoded JSON, and users without favorites who accept gzip get the precompressed
+     * catalog. {@code fields} trims each movie to the listed properties, and CBOR or Smile are
+     * written instead of JSON when the client accepts them.
+     */
     @GetMapping
-    public List<MovieResponseDTO> getAllMovies(
+    public void getAllMovies(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String categoryId,
-            @RequestParam(defaultValue = "false") boolean readyOnly) {
-        return getMovies(search, categoryId, readyOnly).stream()
-                .map(movieMapper::toResponse)
-                .toList();
+            @RequestParam(defaultValue = "false") boolean readyOnly,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest,
+            HttpServletResponse response)
+            throws IOException {
+        Set<String> selected = representations.parseFields(fields);
+        MediaType encoding = representations.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT));
+        String version = getCatalogVersionUseCase.getCatalogVersion();
+        response.setHeader(
+                HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (CatalogETags.notModified(webRequest, version)) {
+            return;
+        }
+        response.setContentType(encoding.toString());
+        List<Movie> movies = getMovies(search, categoryId, readyOnly, page, size);
+        if (selected != null || !MediaType.APPLICATION_JSON.equals(encoding)) {
+            representations.writeArray(
+                    response.getOutputStream(),
+                    encoding,
+                    selected,
+                    action -> {
+                        Consumer<Movie> toResponse =
+                                movie -> action.accept(movieMapper.toResponse(movie));
+                        if (movies != null) {
+                            movies.forEach(toResponse);
+                        } else {
+                            streamAllMoviesUseCase.streamAllMovies(toResponse);
+                        }
+                    });
+        } else if (movies != null) {
+            movieJsonCache.writeArray(response.getOutputStream(), movies::forEach);
+        } else if (acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                && getFavoritesUseCase.getFavoriteIds().isEmpty()) {
+            byte[] gzipped =
+                    movieJsonCache.gzippedCatalog(version, streamAllMoviesUseCase::streamAllMovies);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(gzipped.length);
+            response.getOutputStream().write(gzipped);
+        } else {
+            movieJsonCache.writeArray(
+                    response.getOutputStream(), streamAllMoviesUseCase::streamAllMovies);
+        }
+    }
+
+    /**
+     * Checks whether the client accepts gzip, either by name or through {@code *}. A coding given
+     * {@code q=0} is refused, and an explicit {@code gzip} entry overrides {@code *}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].strip().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(parts) > 0;
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
     }
 
-    private List<Movie> getMovies(String search, String categoryId, boolean readyOnly) {
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].strip();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).strip());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Searches are ranked and paged by {@code page} and {@code size}; other listings are not. The
+     * unfiltered listing is streamed, so null is returned for it.
+     */
+    private List<Movie> getMovies(
+            String search, String categoryId, boolean readyOnly, int page, int size) {
         if (search != null && !search.isBlank()) {
-            return searchMoviesUseCase.searchMovies(search);
+            return searchMoviesUseCase.searchMovies(search, page, size);
         }
         if (categoryId != null && !categoryId.isBlank()) {
             return getMoviesByCategoryUseCase.getMoviesByCategory(categoryId);
@@ -63,24 +175,136 @@ public class MovieController {
         if (readyOnly) {
             return getReadyMoviesUseCase.getReadyMovies();
         }
-        return getAllMoviesUseCase.getAllMovies();
+        return null;
     }
 
+    /**
+     * Lists movies in groups. {@code fields} trims each movie to the listed properties; trimmed
+     * groups are written directly, in JSON, CBOR or Smile as negotiated for {@link #getAllMovies}.
+     */
     @GetMapping("/grouped")
     public List<MovieGroupResponseDTO> getMoviesGrouped(
-            @RequestParam(required = false) String search) {
-        var groups =
-                (search != null && !search.isBlank())
-                        ? getMoviesGroupedUseCase.getMoviesGrouped(search)
-                        : getMoviesGroupedUseCase.getMoviesGrouped();
-        Map<String, Category> categoriesById =
-                getAllCategoriesUseCase.getAllCategories().stream()
-                        .collect(Collectors.toMap(Category::getId, Function.identity()));
-        return movieMapper.toGroupResponseList(groups, categoriesById);
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "TITLE") MovieSort sort,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest,
+            HttpServletResponse response)
+            throws IOException {
+        Set<String> selected = representations.parseFields(fields);
+        if (CatalogETags.notModified(webRequest, getCatalogVersionUseCase.getCatalogVersion())) {
+            return null;
+        }
+        List<MovieGroupResponseDTO> groups =
+                movieMapper.toGroupResponseList(
+                        getMoviesGroupedUseCase.getMoviesGrouped(search, sort, limit));
+        groups.forEach(this::attachSpriteTiles);
+        if (selected == null) {
+            return groups;
+        }
+        MediaType encoding = representations.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT));
+        response.setContentType(encoding.toString());
+        representations.writeGroups(response.getOutputStream(), encoding, selected, groups);
+        return null;
+    }
+
+    /**
+     * Pages through a movie group, or through all movies when no group is given. Continue with the
+     * returned cursor until it is null.
+     */
+    @GetMapping("/page")
+    public MoviePageResponseDTO getMoviePage(
+            @RequestParam(required = false) String group,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "TITLE") MovieSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        var page = getMoviePageUseCase.getMoviePage(group, search, sort, cursor, limit);
+        return MoviePageResponseDTO.builder()
+                .movies(page.movies().stream().map(movieMapper::toResponse).toList())
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
+    /** Autocompletes a title while the user types; answered from memory, tolerating typos. */
+    @GetMapping("/suggest")
+    public List<MovieSuggestionDTO> suggestMovies(
+            @RequestParam String q, @RequestParam(defaultValue = "8") int limit) {
+        return suggestMoviesUseCase.suggestMovies(q, limit).stream()
+                .map(movieMapper::toSuggestion)
+                .toList();
+    }
+
+    /**
+     * Filters by any combination of facets and returns the counts of every facet value. Repeat a
+     * parameter to select several values of one facet; {@code none} selects movies without a
+     * category or year.
+     */
+    @GetMapping("/facets")
+    public MovieFacetsResponseDTO filterMovies(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> year,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) Boolean cached,
+            @RequestParam(required = false) Boolean favorite,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "50") int limit) {
+        Map<MovieFacet, Set<String>> selected = new EnumMap<>(MovieFacet.class);
+        select(selected, MovieFacet.CATEGORY, category);
+        select(selected, MovieFacet.YEAR, year);
+        select(selected, MovieFacet.STATUS, status);
+        select(selected, MovieFacet.CACHED, cached != null ? List.of(cached.toString()) : null);
+        select(
+                selected,
+                MovieFacet.FAVORITE,
+                favorite != null ? List.of(favorite.toString()) : null);
+
+        var result = filterMoviesUseCase.filterMovies(new FacetFilter(selected), offset, limit);
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        result.counts().forEach((facet, valueCounts) -> counts.put(facet.key(), valueCounts));
+        return MovieFacetsResponseDTO.builder()
+                .movies(result.movies().stream().map(movieMapper::toResponse).toList())
+                .total(result.total())
+                .counts(counts)
+                .build();
+    }
+
+    private static void select(
+            Map<MovieFacet, Set<String>> selected, MovieFacet facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            selected.put(facet, Set.copyOf(values));
+        }
+    }
+
+    private void attachSpriteTiles(MovieGroupResponseDTO group) {
+        Map<String, String> thumbnailUrls = new LinkedHashMap<>();
+        for (MovieResponseDTO movie : group.getMovies()) {
+            thumbnailUrls.put(movie.getId(), movie.getThumbnailUrl());
+        }
+        Map<String, SpriteTileDTO> tiles = new LinkedHashMap<>();
+        thumbnailSprites
+                .layout(thumbnailUrls)
+                .forEach(
+                        (movieId, tile) ->
+                                tiles.put(
+                                        movieId,
+                                        SpriteTileDTO.builder()
+                                                .url(tile.url())
+                                                .x(tile.x())
+                                                .y(tile.y())
+                                                .width(ThumbnailSprites.TILE_WIDTH)
+                                                .height(ThumbnailSprites.TILE_HEIGHT)
+                                                .sheetWidth(tile.sheetWidth())
+                                                .sheetHeight(tile.sheetHeight())
+                                                .build()));
+        group.setSpriteTiles(tiles);
     }
 
     @GetMapping("/{id}")
-    public MovieResponseDTO getMovie(@PathVariable String id) {
+    public MovieResponseDTO getMovie(@PathVariable String id, ServletWebRequest webRequest) {
+        if (CatalogETags.notModified(webRequest, getCatalogVersionUseCase.getCatalogVersion())) {
+            return null;
+        }
         return movieMapper.toResponse(getMovieUseCase.getMovie(id));
     }
 
@@ -134,9 +358,29 @@ public class MovieController {
         clearMovieCacheUseCase.clearCache(id);
     }
 
+    /**
+     * Starts purging the cache of all movies except favorites. The purge runs in the background;
+     * follow it on {@code /topic/cache/purge} or poll {@code /cache/purge}.
+     */
     @DeleteMapping("/cache")
-    public int clearAllCache() {
-        return clearAllCacheUseCase.clearAllCache();
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public CachePurgeDTO clearAllCache() {
+        return toPurgeResponse(clearAllCacheUseCase.clearAllCache());
+    }
+
+    @GetMapping("/cache/purge")
+    public CachePurgeDTO getCachePurge() {
+        return toPurgeResponse(clearAllCacheUseCase.getCachePurge());
+    }
+
+    private static CachePurgeDTO toPurgeResponse(CachePurge purge) {
+        return CachePurgeDTO.builder()
+                .state(purge.state().name())
+                .total(purge.total())
+                .deleted(purge.deleted())
+                .failed(purge.failed())
+                .error(purge.error())
+                .build();
     }
 
     @GetMapping("/favorites")
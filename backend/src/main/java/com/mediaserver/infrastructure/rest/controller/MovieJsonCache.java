@@ -0,0 +1,143 @@
+package com.mediaserver.infrastructure.rest.controller;
+
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.event.CatalogChangedEvent;
+import com.mediaserver.infrastructure.rest.mapper.MovieRestMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Pre-encoded JSON of movie responses. Each movie is mapped and serialized once, without its
+ * per-user favorite flag, and listings are written by joining the UTF-8 fragments and appending
+ * each flag, so a read costs a copy per movie instead of a mapping and a serialization.
+ *
+ * <p>A fragment is only reused for a movie equal to the one it was encoded from, so a stale entry
+ * is never served; saved and deleted movies are evicted after commit to free the memory. The whole
+ * catalog without favorites is also kept gzip-compressed per catalog version, for users who have
+ * none.
+ */
+@Component
+class MovieJsonCache {
+
+    private static final String FAVORITE = "favorite";
+    private static final byte[] FAVORITE_TRUE = bytes(",\"" + FAVORITE + "\":true}");
+    private static final byte[] FAVORITE_FALSE = bytes(",\"" + FAVORITE + "\":false}");
+
+    private final MovieRestMapper movieMapper;
+    private final JsonMapper jsonMapper;
+    private final Map<String, Fragment> fragments = new ConcurrentHashMap<>();
+    private final Object gzipLock = new Object();
+    private volatile GzippedCatalog gzippedCatalog;
+
+    MovieJsonCache(MovieRestMapper movieMapper, JsonMapper jsonMapper) {
+        this.movieMapper = movieMapper;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Writes movies as a JSON array of movie responses.
+     *
+     * @param out the stream to write to
+     * @param source passes each movie, with its favorite flag, to the consumer it is given
+     * @throws IOException if the stream cannot be written
+     */
+    void writeArray(OutputStream out, Consumer<Consumer<Movie>> source) throws IOException {
+        out.write('[');
+        boolean[] first = {true};
+        try {
+            source.accept(
+                    movie -> {
+                        try {
+                            if (!first[0]) {
+                                out.write(',');
+                            }
+                            first[0] = false;
+                            out.write(fragment(movie));
+                            out.write(movie.isFavorite() ? FAVORITE_TRUE : FAVORITE_FALSE);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.write(']');
+    }
+
+    /**
+     * Returns the gzip-compressed JSON array of all movies, none marked as favorite, building it
+     * once per catalog version. Read the version before calling, so the content is at least as new
+     * as the version it is stored under.
+     *
+     * @param catalogVersion the catalog version read before calling
+     * @param source passes every movie to the consumer it is given
+     * @return the compressed array
+     */
+    byte[] gzippedCatalog(String catalogVersion, Consumer<Consumer<Movie>> source) {
+        GzippedCatalog cached = gzippedCatalog;
+        if (cached != null && cached.version().equals(catalogVersion)) {
+            return cached.gzip();
+        }
+        synchronized (gzipLock) {
+            cached = gzippedCatalog;
+            if (cached != null && cached.version().equals(catalogVersion)) {
+                return cached.gzip();
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                writeArray(
+                        gzip,
+                        action -> source.accept(movie -> action.accept(movie.withFavorite(false))));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            gzippedCatalog = new GzippedCatalog(catalogVersion, bytes.toByteArray());
+            return gzippedCatalog.gzip();
+        }
+    }
+
+    /**
+     * Evicts the fragments of saved and deleted movies.
+     *
+     * @param event the committed change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        event.savedMovies().forEach(movie -> fragments.remove(movie.getId()));
+        event.deletedMovieIds().forEach(fragments::remove);
+    }
+
+    /** Returns the movie's JSON object without the favorite flag and the closing brace. */
+    private byte[] fragment(Movie movie) {
+        Movie unflagged = movie.withFavorite(false);
+        Fragment fragment = fragments.get(movie.getId());
+        if (fragment == null || !fragment.movie().equals(unflagged)) {
+            ObjectNode node = jsonMapper.valueToTree(movieMapper.toResponse(unflagged));
+            node.remove(FAVORITE);
+            byte[] json = jsonMapper.writeValueAsBytes(node);
+            fragment = new Fragment(unflagged, Arrays.copyOf(json, json.length - 1));
+            fragments.put(movie.getId(), fragment);
+        }
+        return fragment.json();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Fragment(Movie movie, byte[] json) {}
+
+    private record GzippedCatalog(String version, byte[] gzip) {}
+}
@@ -0,0 +1,167 @@
+package com.mediaserver.infrastructure.rest.controller;
+
+import com.mediaserver.exception.InvalidFieldSelectionException;
+import com.mediaserver.infrastructure.rest.dto.MovieGroupResponseDTO;
+import com.mediaserver.infrastructure.rest.dto.MovieResponseDTO;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Trimmed and binary representations of movie responses. {@code fields} selects the properties of
+ * each movie, and CBOR or Smile can be requested through {@code Accept} instead of JSON; both
+ * encode the same tree in less space and parse without scanning text.
+ *
+ * <p>Responses are always converted to a tree by the application's JSON mapper, so dates and enums
+ * look the same in every encoding, and only then encoded.
+ */
+@Component
+class MovieRepresentations {
+
+    static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /** Properties a movie response can be trimmed to. */
+    static final Set<String> MOVIE_FIELDS =
+            Arrays.stream(MovieResponseDTO.class.getDeclaredFields())
+                    .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                    .map(Field::getName)
+                    .collect(Collectors.toUnmodifiableSet());
+
+    private static final String MOVIES = "movies";
+
+    private final JsonMapper jsonMapper;
+    private final Map<MediaType, ObjectMapper> encoders = new LinkedHashMap<>();
+
+    MovieRepresentations(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+        encoders.put(MediaType.APPLICATION_JSON, jsonMapper);
+        encoders.put(MediaType.APPLICATION_CBOR, CBORMapper.builder().build());
+        encoders.put(APPLICATION_SMILE, SmileMapper.builder().build());
+    }
+
+    /**
+     * Parses a comma-separated field selection.
+     *
+     * @param fields the {@code fields} parameter, may be null
+     * @return the selected fields in request order, null to keep all of them
+     * @throws InvalidFieldSelectionException if a field is not a movie property
+     */
+    Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.strip();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!MOVIE_FIELDS.contains(name)) {
+                throw new InvalidFieldSelectionException("Unknown movie field: " + name);
+            }
+            selected.add(name);
+        }
+        return selected.isEmpty() ? null : selected;
+    }
+
+    /**
+     * Picks the encoding for an {@code Accept} header, most specific type first. JSON is used when
+     * the header is missing or names nothing supported.
+     *
+     * @param accept the {@code Accept} header, may be null
+     * @return JSON, CBOR or Smile
+     */
+    MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (IllegalArgumentException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            for (MediaType supported : encoders.keySet()) {
+                if (type.isCompatibleWith(supported)) {
+                    return supported;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Writes movie responses as an array in the given encoding.
+     *
+     * @param out the stream to write to
+     * @param encoding a type returned by {@link #negotiate}
+     * @param fields the selected fields, null for all
+     * @param source passes each movie response to the consumer it is given
+     */
+    void writeArray(
+            OutputStream out,
+            MediaType encoding,
+            Set<String> fields,
+            Consumer<Consumer<MovieResponseDTO>> source) {
+        ObjectMapper encoder = encoders.get(encoding);
+        try (JsonGenerator generator = encoder.createGenerator(out)) {
+            generator.writeStartArray();
+            source.accept(movie -> encoder.writeTree(generator, movie(movie, fields)));
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes group responses as an array in the given encoding, with their movies trimmed to the
+     * selected fields.
+     *
+     * @param out the stream to write to
+     * @param encoding a type returned by {@link #negotiate}
+     * @param fields the selected fields
+     * @param groups the group responses
+     */
+    void writeGroups(
+            OutputStream out,
+            MediaType encoding,
+            Set<String> fields,
+            List<MovieGroupResponseDTO> groups) {
+        ObjectMapper encoder = encoders.get(encoding);
+        try (JsonGenerator generator = encoder.createGenerator(out)) {
+            generator.writeStartArray();
+            for (MovieGroupResponseDTO group : groups) {
+                ObjectNode node = jsonMapper.valueToTree(group);
+                JsonNode movies = node.get(MOVIES);
+                if (movies != null) {
+                    movies.values().forEach(movie -> ((ObjectNode) movie).retain(fields));
+                }
+                encoder.writeTree(generator, node);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private ObjectNode movie(MovieResponseDTO movie, Set<String> fields) {
+        ObjectNode node = jsonMapper.valueToTree(movie);
+        return fields != null ? node.retain(fields) : node;
+    }
+}
@@ -0,0 +1,38 @@
+package com.mediaserver.infrastructure.rest.controller;
+
+import com.mediaserver.dto.ScanStatusDTO;
+import com.mediaserver.service.MegaScanService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/scan")
+@RequiredArgsConstructor
+public class ScanController {
+
+    private final MegaScanService megaScanService;
+
+    @GetMapping
+    public ScanStatusDTO getStatus() {
+        return megaScanService.getStatus();
+    }
+
+    @PostMapping
+    public ResponseEntity<ScanStatusDTO> startScan() {
+        if (megaScanService.isScanInProgress()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(megaScanService.getStatus());
+        }
+        megaScanService.scanFolderAsync(null);
+        return ResponseEntity.accepted().body(megaScanService.getStatus());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<ScanStatusDTO> cancelScan() {
+        if (!megaScanService.cancelScan()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(megaScanService.getStatus());
+        }
+        return ResponseEntity.accepted().body(megaScanService.getStatus());
+    }
+}
@@ -1,18 +1,33 @@
 package com.mediaserver.infrastructure.rest.controller;
 
-import com.mediaserver.config.MediaProperties;
+import com.mediaserver.service.ThumbnailCache;
+import com.mediaserver.service.ThumbnailCache.CachedThumbnail;
+import com.mediaserver.service.ThumbnailSprites;
+import com.mediaserver.service.ThumbnailStore;
+import com.mediaserver.service.ThumbnailVariants;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -21,10 +36,26 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class ThumbnailController {
 
-    private final MediaProperties properties;
+    private static final long MAX_THUMBNAIL_BYTES = 10 * 1024 * 1024;
 
+    private final ThumbnailStore thumbnailStore;
+    private final ThumbnailCache thumbnailCache;
+    private final ThumbnailVariants thumbnailVariants;
+    private final ThumbnailSprites thumbnailSprites;
+
+    /**
+     * Serves a thumbnail. Cache hits are answered from memory without touching the file system,
+     * misses are streamed from disk. Responses carry a strong ETag and If-None-Match is answered
+     * with 304. Content-addressed names never change and are marked immutable. With {@code ?w=} the
+     * closest pre-sized JPEG variant is served; until it has been generated the original is
+     * returned instead, revalidated on every use so that the variant replaces it once ready.
+     */
     @GetMapping("/file/{fileName}")
-    public ResponseEntity<byte[]> getThumbnail(@PathVariable String fileName) {
+    public ResponseEntity<Resource> getThumbnail(
+            @PathVariable String fileName,
+            @RequestParam(name = "w", required = false) Integer width,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                    String ifNoneMatch) {
         try {
             if (fileName == null
                     || fileName.contains("..")
@@ -44,36 +75,238 @@ public class ThumbnailController {
                 return ResponseEntity.badRequest().build();
             }
 
-            Path thumbnailDir = Path.of(properties.getStorage().getPath(), "thumbnails");
-            Path thumbnailPath = thumbnailDir.resolve(fileName).normalize();
+            CacheControl cacheControl = getCacheControl(fileName);
 
-            if (!thumbnailPath.startsWith(thumbnailDir)) {
-                log.warn("Path traversal attempt detected: {}", fileName);
-                return ResponseEntity.badRequest().build();
+            if (width != null && width > 0) {
+                OptionalInt variantWidth = thumbnailVariants.closestWidth(width);
+                if (variantWidth.isPresent()) {
+                    String cacheKey = fileName + "?w=" + variantWidth.getAsInt();
+                    Optional<ResponseEntity<Resource>> cachedVariant =
+                            fromCache(cacheKey, MediaType.IMAGE_JPEG, cacheControl, ifNoneMatch);
+                    if (cachedVariant.isPresent()) {
+                        return cachedVariant.get();
+                    }
+                    Optional<Path> variant =
+                            thumbnailVariants.find(fileName, variantWidth.getAsInt());
+                    if (variant.isPresent()) {
+                        String etag =
+                                ThumbnailStore.isContentAddressed(fileName)
+                                        ? "\""
+                                                + fileName.substring(0, fileName.indexOf('.'))
+                                                + "-w"
+                                                + variantWidth.getAsInt()
+                                                + "\""
+                                        : null;
+                        return fromDisk(
+                                cacheKey,
+                                variant.get(),
+                                MediaType.IMAGE_JPEG,
+                                cacheControl,
+                                etag,
+                                ifNoneMatch);
+                    }
+                    return pendingVariant(
+                            original(fileName, cacheControl, null),
+                            variantWidth.getAsInt(),
+                            ifNoneMatch);
+                }
             }
 
-            if (!Files.exists(thumbnailPath)) {
+            return original(fileName, cacheControl, ifNoneMatch);
+
+        } catch (IOException e) {
+            log.error("Error serving thumbnail {}: {}", fileName, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Serves a sprite sheet of a catalog group, rendering it on first request. Sheet ids are
+     * derived from their content, so sheets are immutable.
+     */
+    @GetMapping("/sprite/{sheetId}.jpg")
+    public ResponseEntity<Resource> getSprite(
+            @PathVariable String sheetId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                    String ifNoneMatch) {
+        if (!ThumbnailSprites.isSheetId(sheetId)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            String cacheKey = "sprite:" + sheetId;
+            CacheControl cacheControl =
+                    CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+            Optional<ResponseEntity<Resource>> cached =
+                    fromCache(cacheKey, MediaType.IMAGE_JPEG, cacheControl, ifNoneMatch);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            Optional<Path> sheet = thumbnailSprites.sheet(sheetId);
+            if (sheet.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
+            return fromDisk(
+                    cacheKey,
+                    sheet.get(),
+                    MediaType.IMAGE_JPEG,
+                    cacheControl,
+                    "\"" + sheetId + "\"",
+                    ifNoneMatch);
+        } catch (IOException e) {
+            log.error("Error serving sprite sheet {}: {}", sheetId, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
 
-            long fileSize = Files.size(thumbnailPath);
-            if (fileSize > 10 * 1024 * 1024) {
-                log.warn("Thumbnail file too large: {} ({} bytes)", fileName, fileSize);
-                return ResponseEntity.badRequest().build();
-            }
+    private ResponseEntity<Resource> original(
+            String fileName, CacheControl cacheControl, String ifNoneMatch) throws IOException {
+        MediaType mediaType = getMediaType(fileName);
+        Optional<ResponseEntity<Resource>> cached =
+                fromCache(fileName, mediaType, cacheControl, ifNoneMatch);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
 
-            byte[] imageBytes = Files.readAllBytes(thumbnailPath);
-            MediaType mediaType = getMediaType(fileName);
+        Path thumbnailDir = thumbnailStore.directory();
+        Path thumbnailPath = thumbnailDir.resolve(fileName).normalize();
 
-            return ResponseEntity.ok()
-                    .contentType(mediaType)
-                    .cacheControl(CacheControl.maxAge(7, TimeUnit.DAYS))
-                    .body(imageBytes);
+        if (!thumbnailPath.startsWith(thumbnailDir)) {
+            log.warn("Path traversal attempt detected: {}", fileName);
+            return ResponseEntity.badRequest().build();
+        }
 
-        } catch (IOException e) {
-            log.error("Error serving thumbnail {}: {}", fileName, e.getMessage());
-            return ResponseEntity.internalServerError().build();
+        String etag =
+                ThumbnailStore.isContentAddressed(fileName)
+                        ? "\"" + fileName.substring(0, fileName.indexOf('.')) + "\""
+                        : null;
+        return fromDisk(fileName, thumbnailPath, mediaType, cacheControl, etag, ifNoneMatch);
+    }
+
+    /**
+     * Serves the original in place of a variant that has not been generated yet. The variant's URL
+     * must not keep the original, so the response is revalidated on every use and tagged apart from
+     * both the original and the variant; once the variant exists the tag no longer matches.
+     */
+    private ResponseEntity<Resource> pendingVariant(
+            ResponseEntity<Resource> original, int width, String ifNoneMatch) {
+        String originalETag = original.getHeaders().getETag();
+        if (!original.getStatusCode().is2xxSuccessful() || originalETag == null) {
+            return original;
+        }
+        String etag =
+                originalETag.substring(0, originalETag.length() - 1) + "-original-w" + width + "\"";
+        if (matchesETag(ifNoneMatch, etag)) {
+            return notModified(etag, CacheControl.noCache());
+        }
+        return ResponseEntity.ok()
+                .headers(original.getHeaders())
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(original.getBody());
+    }
+
+    private Optional<ResponseEntity<Resource>> fromCache(
+            String cacheKey, MediaType mediaType, CacheControl cacheControl, String ifNoneMatch) {
+        Optional<CachedThumbnail> cached = thumbnailCache.get(cacheKey);
+        if (cached.isEmpty()) {
+            return Optional.empty();
+        }
+        String etag = cached.get().etag();
+        if (matchesETag(ifNoneMatch, etag)) {
+            return Optional.of(notModified(etag, cacheControl));
+        }
+        return Optional.of(
+                ResponseEntity.ok()
+                        .contentType(mediaType)
+                        .cacheControl(cacheControl)
+                        .eTag(etag)
+                        .body(new ByteArrayResource(cached.get().bytes())));
+    }
+
+    /**
+     * Streams a file from disk, admitting it to the memory cache once it has been asked for
+     * repeatedly. Without a known content ETag one is derived from size and mtime.
+     */
+    private ResponseEntity<Resource> fromDisk(
+            String cacheKey,
+            Path path,
+            MediaType mediaType,
+            CacheControl cacheControl,
+            String contentETag,
+            String ifNoneMatch)
+            throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long fileSize = attributes.size();
+        if (fileSize > MAX_THUMBNAIL_BYTES) {
+            log.warn("Thumbnail file too large: {} ({} bytes)", cacheKey, fileSize);
+            return ResponseEntity.badRequest().build();
+        }
+
+        String etag = contentETag != null ? contentETag : getETag(attributes);
+        if (matchesETag(ifNoneMatch, etag)) {
+            return notModified(etag, cacheControl);
+        }
+
+        Resource body;
+        if (thumbnailCache.accepts(fileSize) && thumbnailCache.admit(cacheKey)) {
+            byte[] imageBytes = Files.readAllBytes(path);
+            thumbnailCache.put(cacheKey, new CachedThumbnail(imageBytes, etag));
+            body = new ByteArrayResource(imageBytes);
+        } else {
+            body = new FileSystemResource(path);
+        }
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .contentLength(fileSize)
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .body(body);
+    }
+
+    private ResponseEntity<Resource> notModified(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .build();
+    }
+
+    /** Names that are not content-addressed fall back to size and mtime. */
+    private String getETag(BasicFileAttributes attributes) {
+        return "\""
+                + Long.toHexString(attributes.size())
+                + "-"
+                + Long.toHexString(attributes.lastModifiedTime().toMillis())
+                + "\"";
+    }
+
+    private boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CacheControl getCacheControl(String fileName) {
+        if (ThumbnailStore.isContentAddressed(fileName)) {
+            return CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
         }
+        return CacheControl.maxAge(7, TimeUnit.DAYS);
     }
 
     private MediaType getMediaType(String fileName) {
@@ -0,0 +1,19 @@
+package com.mediaserver.infrastructure.rest.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for a bulk operation on movies. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMovieRequestDTO {
+    /** The movies to apply the operation to. */
+    @NotEmpty(message = "At least one movie ID is required") @Size(max = 1000, message = "At most 1000 movie IDs per request") private List<String> ids;
+}
@@ -0,0 +1,21 @@
+package com.mediaserver.infrastructure.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for the outcome of a bulk operation for one movie. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResultDTO {
+    private String movieId;
+
+    /** APPLIED, UNCHANGED, NOT_FOUND or REJECTED. */
+    private String outcome;
+
+    /** Why the movie was rejected, null otherwise. */
+    private String message;
+}
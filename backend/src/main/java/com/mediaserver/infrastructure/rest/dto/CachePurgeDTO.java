@@ -0,0 +1,21 @@
+package com.mediaserver.infrastructure.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for the progress of a cache purge; also pushed to {@code /topic/cache/purge}. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachePurgeDTO {
+    /** IDLE, RUNNING, COMPLETED or FAILED. */
+    private String state;
+
+    private int total;
+    private int deleted;
+    private int failed;
+    private String error;
+}
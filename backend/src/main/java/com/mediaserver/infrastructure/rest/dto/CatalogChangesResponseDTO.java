@@ -0,0 +1,30 @@
+package com.mediaserver.infrastructure.rest.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for the catalog changes feed. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangesResponseDTO {
+    /** Version to pass as {@code since} next time. */
+    private long version;
+
+    /** Whether more changes are waiting; ask again right away. */
+    private boolean hasMore;
+
+    /** Whether the client's version is unknown and the catalog must be reloaded in full. */
+    private boolean reset;
+
+    private List<MovieResponseDTO> movies;
+    private List<String> deletedMovieIds;
+    private List<CategoryResponseDTO> categories;
+
+    /** Removed categories; their movies are now uncategorized. */
+    private List<String> deletedCategoryIds;
+}
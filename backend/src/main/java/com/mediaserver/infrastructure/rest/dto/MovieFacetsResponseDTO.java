@@ -0,0 +1,27 @@
+package com.mediaserver.infrastructure.rest.dto;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for a faceted movie listing with the counts for the filter UI. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieFacetsResponseDTO {
+    /** The requested page of matching movies. */
+    private List<MovieResponseDTO> movies;
+
+    /** Number of matching movies across all pages. */
+    private int total;
+
+    /**
+     * Matching movies per facet and value, e.g. {@code counts.year["1999"]}. The counts of a facet
+     * ignore its own selection.
+     */
+    private Map<String, Map<String, Integer>> counts;
+}
@@ -1,6 +1,7 @@
 package com.mediaserver.infrastructure.rest.dto;
 
 import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -27,6 +28,20 @@ public class MovieGroupResponseDTO {
     /** Sort order for display. */
     private int sortOrder;
 
-    /** The movies in this group. */
+    /** Identifies the group for /api/movies/page. */
+    private String key;
+
+    /** The first page of movies in this group. */
     private List<MovieResponseDTO> movies;
+
+    /** The number of movies in the whole group. */
+    private long totalCount;
+
+    /** Token for the next page of this group, null if all movies are included. */
+    private String nextCursor;
+
+    /**
+     * Sprite sheet tiles by movie ID. Movies without an entry load their thumbnail individually.
+     */
+    private Map<String, SpriteTileDTO> spriteTiles;
 }
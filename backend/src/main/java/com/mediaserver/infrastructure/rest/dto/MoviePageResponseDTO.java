@@ -0,0 +1,20 @@
+package com.mediaserver.infrastructure.rest.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for one page of a keyset-paged movie listing. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoviePageResponseDTO {
+    /** The movies of this page. */
+    private List<MovieResponseDTO> movies;
+
+    /** Token for the next page, null on the last page. */
+    private String nextCursor;
+}
@@ -18,6 +18,7 @@ public class MovieResponseDTO {
     private Integer year;
     private String duration;
     private String thumbnailUrl;
+    private String thumbnailPlaceholder;
     private boolean cached;
     private boolean favorite;
     private MovieStatus status;
@@ -0,0 +1,18 @@
+package com.mediaserver.infrastructure.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for one autocomplete suggestion, just enough to render the dropdown entry. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieSuggestionDTO {
+    private String id;
+    private String title;
+    private Integer year;
+    private String thumbnailUrl;
+}
@@ -0,0 +1,27 @@
+package com.mediaserver.infrastructure.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Position of a movie thumbnail inside a sprite sheet, in sheet pixels. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpriteTileDTO {
+    /** URL of the sprite sheet image. */
+    private String url;
+
+    /** Left edge of the tile. */
+    private int x;
+
+    /** Top edge of the tile. */
+    private int y;
+
+    private int width;
+    private int height;
+    private int sheetWidth;
+    private int sheetHeight;
+}
@@ -2,14 +2,15 @@ package com.mediaserver.infrastructure.rest.mapper;
 
 import com.mediaserver.application.command.CreateMovieCommand;
 import com.mediaserver.application.command.UpdateMovieCommand;
-import com.mediaserver.domain.model.Category;
+import com.mediaserver.application.model.BulkResult;
 import com.mediaserver.domain.model.Movie;
 import com.mediaserver.domain.model.MovieGroup;
+import com.mediaserver.infrastructure.rest.dto.BulkResultDTO;
 import com.mediaserver.infrastructure.rest.dto.MovieGroupResponseDTO;
 import com.mediaserver.infrastructure.rest.dto.MovieRequestDTO;
 import com.mediaserver.infrastructure.rest.dto.MovieResponseDTO;
+import com.mediaserver.infrastructure.rest.dto.MovieSuggestionDTO;
 import java.util.List;
-import java.util.Map;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -17,55 +18,31 @@ import org.mapstruct.Mapping;
 public interface MovieRestMapper {
 
     @Mapping(target = "cached", expression = "java(movie.isCached())")
-    @Mapping(target = "categoryName", ignore = true)
     MovieResponseDTO toResponse(Movie movie);
 
-    /**
-     * Convert a Movie to MovieResponseDTO with category name lookup.
-     *
-     * @param movie the movie domain object
-     * @param categoriesById map of category ID to Category for name lookup
-     * @return the response DTO with categoryName populated
-     */
-    default MovieResponseDTO toResponseWithCategory(
-            Movie movie, Map<String, Category> categoriesById) {
-        MovieResponseDTO dto = toResponse(movie);
-        if (movie.getCategoryId() != null && categoriesById != null) {
-            Category category = categoriesById.get(movie.getCategoryId());
-            if (category != null) {
-                dto.setCategoryName(category.getName());
-            }
-        }
-        return dto;
-    }
+    MovieSuggestionDTO toSuggestion(Movie movie);
 
-    /**
-     * Convert a list of Movies to MovieResponseDTOs with category name lookup.
-     *
-     * @param movies the movie domain objects
-     * @param categoriesById map of category ID to Category for name lookup
-     * @return list of response DTOs with categoryName populated
-     */
-    default List<MovieResponseDTO> toResponseListWithCategories(
-            List<Movie> movies, Map<String, Category> categoriesById) {
-        return movies.stream().map(m -> toResponseWithCategory(m, categoriesById)).toList();
-    }
+    BulkResultDTO toBulkResult(BulkResult result);
+
+    List<BulkResultDTO> toBulkResultList(List<BulkResult> results);
 
     /**
-     * Convert a MovieGroup to MovieGroupResponseDTO.
+     * Convert a MovieGroup to MovieGroupResponseDTO. Movies carry their category name, so no
+     * category lookup is needed.
      *
      * @param group the movie group domain object
-     * @param categoriesById map of category ID to Category for name lookup
      * @return the response DTO
      */
-    default MovieGroupResponseDTO toGroupResponse(
-            MovieGroup group, Map<String, Category> categoriesById) {
+    default MovieGroupResponseDTO toGroupResponse(MovieGroup group) {
         return MovieGroupResponseDTO.builder()
                 .name(group.getName())
                 .categoryId(group.getCategoryId())
                 .special(group.isSpecial())
                 .sortOrder(group.getSortOrder())
-                .movies(toResponseListWithCategories(group.getMovies(), categoriesById))
+                .key(group.getKey())
+                .movies(group.getMovies().stream().map(this::toResponse).toList())
+                .totalCount(group.getTotalCount())
+                .nextCursor(group.getNextCursor())
                 .build();
     }
 
@@ -73,12 +50,10 @@ public interface MovieRestMapper {
      * Convert a list of MovieGroups to MovieGroupResponseDTOs.
      *
      * @param groups the movie group domain objects
-     * @param categoriesById map of category ID to Category for name lookup
      * @return list of response DTOs
      */
-    default List<MovieGroupResponseDTO> toGroupResponseList(
-            List<MovieGroup> groups, Map<String, Category> categoriesById) {
-        return groups.stream().map(g -> toGroupResponse(g, categoriesById)).toList();
+    default List<MovieGroupResponseDTO> toGroupResponseList(List<MovieGroup> groups) {
+        return groups.stream().map(this::toGroupResponse).toList();
     }
 
     CreateMovieCommand toCreateCommand(MovieRequestDTO dto);
@@ -0,0 +1,53 @@
+package com.mediaserver.service;
+
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.domain.model.ScanSnapshotEntry;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Video files and thumbnail images found in one Mega folder. Images are keyed by their lower-case
+ * base name.
+ */
+record FolderListing(
+        String path,
+        String categoryId,
+        List<ScanSnapshotEntry> videos,
+        Map<String, String> images) {
+
+    /**
+     * Picks the image for a video: the one with the same base name, otherwise any image of the
+     * folder. Fallback images are shared, so the thumbnail fetcher downloads them only once.
+     */
+    String thumbnailFor(String videoFileName) {
+        String thumbnailPath = images.get(MovieFileNames.baseName(videoFileName).toLowerCase());
+
+        if (thumbnailPath == null && !images.isEmpty()) {
+            thumbnailPath = images.values().iterator().next();
+        }
+        return thumbnailPath;
+    }
+
+    /** Builds the pending movie for a video of this folder, with its thumbnail fetched. */
+    Movie newMovie(ScanSnapshotEntry entry, ThumbnailFetcher.Session thumbnails) {
+        String megaThumbnailPath = thumbnailFor(entry.getName());
+        ThumbnailFetcher.Thumbnail thumbnail =
+                megaThumbnailPath != null
+                        ? thumbnails.fetch(megaThumbnailPath)
+                        : ThumbnailFetcher.Thumbnail.NONE;
+
+        return Movie.builder()
+                .title(MovieFileNames.extractTitle(entry.getName()))
+                .megaPath(entry.getMegaPath())
+                .megaUrl(entry.getMegaPath())
+                .thumbnailUrl(thumbnail.url())
+                .thumbnailPlaceholder(thumbnail.placeholder())
+                .fileSize(entry.getSize())
+                .categoryId(categoryId)
+                .status(MovieStatus.PENDING)
+                .year(MovieFileNames.extractYear(entry.getName()))
+                .contentType(MovieFileNames.detectContentType(entry.getName()))
+                .build();
+    }
+}
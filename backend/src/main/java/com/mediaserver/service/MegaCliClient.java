@@ -0,0 +1,194 @@
+package com.mediaserver.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/** Runs the MEGAcmd command line tools used by the folder scanner. */
+@Component
+@Slf4j
+public class MegaCliClient {
+
+    private static final int LIST_TIMEOUT_SECONDS = 120;
+    private static final int GET_TIMEOUT_SECONDS = 60;
+
+    private static final Pattern LONG_LISTING_LINE =
+            Pattern.compile(
+                    "^(\\S+)\\s+(\\S+)\\s+(\\S+)\\s+(\\S+)\\s+(\\d{2}:\\d{2}:\\d{2})\\s+(.+)$");
+    private static final DateTimeFormatter MEGA_DATE_TIME =
+            DateTimeFormatter.ofPattern("ddMMMyyyy HH:mm:ss", Locale.ENGLISH);
+
+    /**
+     * Lists a Mega folder with {@code mega-ls -l}.
+     *
+     * @param path the Mega folder path
+     * @return the entries of the folder
+     * @throws IOException if the process cannot be started or read
+     * @throws InterruptedException if interrupted while waiting for the process
+     */
+    public List<MegaEntry> list(String path) throws IOException, InterruptedException {
+        log.debug("Listing Mega folder: {}", path);
+
+        ProcessBuilder pb = new ProcessBuilder("mega-ls", "-l", path);
+        pb.redirectErrorStream(true);
+        Process process = pb.start();
+
+        List<MegaEntry> entries = new ArrayList<>();
+
+        try {
+            try (BufferedReader reader =
+                    new BufferedReader(
+                            new InputStreamReader(
+                                    process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank() || line.startsWith("FLAGS")) {
+                        continue;
+                    }
+
+                    MegaEntry entry = parseMegaLsLine(line);
+                    if (entry != null) {
+                        entries.add(entry);
+                    }
+                }
+            }
+
+            boolean completed = process.waitFor(LIST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (!completed) {
+                process.destroyForcibly();
+                throw new RuntimeException(
+                        "mega-ls timed out after " + LIST_TIMEOUT_SECONDS + " seconds");
+            }
+
+            int exitCode = process.exitValue();
+            if (exitCode != 0) {
+                throw new RuntimeException("mega-ls failed with exit code: " + exitCode);
+            }
+        } finally {
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Downloads a single Mega file with {@code mega-get}.
+     *
+     * @param megaPath the Mega path of the file
+     * @param localPath the local target file
+     * @return true if the file was downloaded
+     */
+    public boolean get(String megaPath, Path localPath) {
+        Process process = null;
+        try {
+            ProcessBuilder pb = new ProcessBuilder("mega-get", megaPath, localPath.toString());
+            pb.redirectErrorStream(true);
+            process = pb.start();
+
+            try (InputStream output = process.getInputStream()) {
+                output.transferTo(OutputStream.nullOutputStream());
+            }
+
+            boolean completed = process.waitFor(GET_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (!completed) {
+                log.warn("mega-get timed out for: {}", megaPath);
+                return false;
+            }
+
+            int exitCode = process.exitValue();
+            if (exitCode == 0 && Files.exists(localPath)) {
+                return true;
+            }
+            log.warn("mega-get failed for: {} (exit code: {})", megaPath, exitCode);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("mega-get interrupted for: {}", megaPath);
+            return false;
+        } catch (IOException e) {
+            log.error("Error running mega-get for {}: {}", megaPath, e.getMessage());
+            return false;
+        } finally {
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    MegaEntry parseMegaLsLine(String line) {
+        Matcher matcher = LONG_LISTING_LINE.matcher(line.trim());
+        if (matcher.matches()) {
+            boolean isDirectory = matcher.group(1).startsWith("d");
+            long size = isDirectory ? 0 : parseSize(matcher.group(3));
+            LocalDateTime modifiedAt = parseModifiedAt(matcher.group(4), matcher.group(5));
+            return new MegaEntry(matcher.group(6), isDirectory, size, modifiedAt);
+        }
+
+        String[] parts = line.trim().split("\\s+", 4);
+        if (parts.length < 4) {
+            return null;
+        }
+
+        String flags = parts[0];
+        String sizeStr = parts[1];
+        String name = parts[3];
+
+        if (name.matches("\\d{2}:\\d{2}:\\d{2}")) {
+            String[] reParts = line.trim().split("\\s+", 5);
+            if (reParts.length >= 5) {
+                name = reParts[4];
+            } else {
+                return null;
+            }
+        }
+
+        boolean isDirectory = flags.startsWith("d");
+        long size = parseSize(sizeStr);
+
+        return new MegaEntry(name, isDirectory, size, null);
+    }
+
+    private LocalDateTime parseModifiedAt(String date, String time) {
+        try {
+            return LocalDateTime.parse(date + " " + time, MEGA_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private long parseSize(String sizeStr) {
+        try {
+            sizeStr = sizeStr.toUpperCase();
+            double value = Double.parseDouble(sizeStr.replaceAll("[^0-9.]", ""));
+
+            if (sizeStr.endsWith("GB") || sizeStr.endsWith("G")) {
+                return (long) (value * 1024 * 1024 * 1024);
+            } else if (sizeStr.endsWith("MB") || sizeStr.endsWith("M")) {
+                return (long) (value * 1024 * 1024);
+            } else if (sizeStr.endsWith("KB") || sizeStr.endsWith("K")) {
+                return (long) (value * 1024);
+            }
+            return (long) value;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+}
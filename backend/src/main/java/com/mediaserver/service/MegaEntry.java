@@ -0,0 +1,13 @@
+package com.mediaserver.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single line of a {@code mega-ls -l} listing.
+ *
+ * @param name the file or folder name
+ * @param isDirectory whether the entry is a folder
+ * @param size the size in bytes, 0 for folders
+ * @param modifiedAt the modification time reported by Mega, or null if it could not be parsed
+ */
+public record MegaEntry(String name, boolean isDirectory, long size, LocalDateTime modifiedAt) {}
@@ -3,40 +3,60 @@ package com.mediaserver.service;
 import com.mediaserver.config.MediaProperties;
 import com.mediaserver.domain.model.Category;
 import com.mediaserver.domain.model.Movie;
-import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.domain.model.ScanSnapshotEntry;
+import com.mediaserver.domain.model.SnapshotDiff;
 import com.mediaserver.domain.repository.CategoryRepository;
 import com.mediaserver.domain.repository.MovieRepository;
+import com.mediaserver.domain.repository.ScanSnapshotRepository;
 import com.mediaserver.dto.ScanResultDTO;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import com.mediaserver.dto.ScanStatusDTO;
+import com.mediaserver.service.ScanChangePlanner.PlannedChange;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Scans the Mega folder tree for movies. Every scan diffs the fresh listing against the snapshot
+ * persisted by the previous scan and applies only the added, removed, renamed and resized files.
+ *
+ * <p>A scan runs as a staged pipeline: category folders are listed by parallel workers, new movies
+ * get their thumbnails from a bounded fetch stage, and a writer commits the results in chunks. No
+ * transaction is open while {@code mega-ls} or {@code mega-get} runs, and each chunk commits
+ * together with its snapshot rows, so an interrupted scan loses at most one chunk.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class MegaScanService {
 
+    private static final long CANCEL_POLL_MILLIS = 500;
+
     private final MediaProperties properties;
     private final CategoryRepository categoryRepository;
     private final MovieRepository movieRepository;
+    private final ScanSnapshotRepository snapshotRepository;
+    private final MegaCliClient megaCli;
+    private final ThumbnailFetcher thumbnailFetcher;
+    private final ScanChangePlanner changePlanner;
+    private final ScanChunkWriter chunkWriter;
 
     private final AtomicBoolean scanInProgress = new AtomicBoolean(false);
-
-    private static final int PROCESS_TIMEOUT_SECONDS = 120;
+    private final AtomicBoolean cancelRequested = new AtomicBoolean(false);
+    private volatile ScanRun currentRun;
+    private volatile ScanResultDTO lastResult;
 
     @Scheduled(cron = "${media.mega.scan-cron:0 0 * * * *}")
     public void scheduledScan() {
@@ -44,15 +64,15 @@ public class MegaScanService {
             log.debug("Scheduled scan is disabled");
             return;
         }
-        if (!scanInProgress.compareAndSet(false, true)) {
+        if (scanInProgress.get()) {
             log.warn("Scan already in progress, skipping scheduled scan");
             return;
         }
         try {
             log.info("Starting scheduled Mega folder scan");
             scanFolder(null);
-        } finally {
-            scanInProgress.set(false);
+        } catch (IllegalStateException e) {
+            log.warn("Scan already in progress, skipping scheduled scan");
         }
     }
 
@@ -65,251 +85,355 @@ public class MegaScanService {
         return CompletableFuture.completedFuture(scanFolder(folderPath));
     }
 
-    @Transactional
+    /**
+     * Requests cancellation of the running scan. Chunks that were already committed are kept.
+     *
+     * @return true if a scan was running
+     */
+    public boolean cancelScan() {
+        if (!scanInProgress.get()) {
+            return false;
+        }
+        cancelRequested.set(true);
+        log.info("Cancellation of the running Mega scan requested");
+        return true;
+    }
+
+    public ScanStatusDTO getStatus() {
+        ScanRun run = currentRun;
+        return ScanStatusDTO.builder()
+                .running(scanInProgress.get())
+                .cancelRequested(cancelRequested.get())
+                .scannedPath(run != null ? run.path : null)
+                .startTime(run != null ? run.startTime : null)
+                .stages(run != null ? run.stageMetrics() : List.of())
+                .lastResult(lastResult)
+                .build();
+    }
+
     public ScanResultDTO scanFolder(String folderPath) {
+        if (!scanInProgress.compareAndSet(false, true)) {
+            throw new IllegalStateException("Scan already in progress");
+        }
+        cancelRequested.set(false);
+        try {
+            ScanResultDTO result = runScan(folderPath);
+            lastResult = result;
+            return result;
+        } finally {
+            scanInProgress.set(false);
+        }
+    }
+
+    private ScanResultDTO runScan(String folderPath) {
         log.info("Starting Mega folder scan: {}", folderPath);
 
         String rootPath = folderPath != null ? folderPath : properties.getMega().getRootFolder();
-        ScanResultDTO.ScanResultDTOBuilder result =
-                ScanResultDTO.builder().scannedPath(rootPath).startTime(new Date());
+        ScanRun run = new ScanRun(rootPath);
+        currentRun = run;
 
-        int categoriesCreated = 0;
-        int categoriesUpdated = 0;
-        int moviesDiscovered = 0;
-        int moviesSkipped = 0;
+        ScanTally tally = new ScanTally();
         List<String> errors = new ArrayList<>();
+        boolean cancelled = false;
 
         try {
-            List<MegaEntry> entries = listFolder(rootPath);
-
-            for (MegaEntry entry : entries) {
-                if (entry.isDirectory()) {
-                    String categoryPath =
-                            rootPath.endsWith("/")
-                                    ? rootPath + entry.name()
-                                    : rootPath + "/" + entry.name();
-
-                    Category category = getOrCreateCategory(entry.name(), categoryPath);
-                    if (category.getId() == null
-                            || categoryRepository.findById(category.getId()).isEmpty()) {
-                        categoriesCreated++;
-                    } else {
-                        categoriesUpdated++;
-                    }
-                    category = categoryRepository.save(category);
-
-                    try {
-                        List<MegaEntry> movieEntries = listFolder(categoryPath);
-
-                        List<MegaEntry> videoFiles = new ArrayList<>();
-                        Map<String, String> imageFiles = new HashMap<>();
-
-                        for (MegaEntry movieEntry : movieEntries) {
-                            if (movieEntry.isDirectory()) continue;
-
-                            String fileName = movieEntry.name();
-                            String baseName = getBaseName(fileName);
-
-                            if (isVideoFile(fileName)) {
-                                videoFiles.add(movieEntry);
-                            } else if (isImageFile(fileName)) {
-                                String imagePath = categoryPath + "/" + fileName;
-                                imageFiles.put(baseName.toLowerCase(), imagePath);
-                            }
-                        }
-
-                        for (MegaEntry videoEntry : videoFiles) {
-                            String moviePath = categoryPath + "/" + videoEntry.name();
-
-                            if (movieRepository.existsByMegaPath(moviePath)) {
-                                moviesSkipped++;
-                                continue;
-                            }
-
-                            String videoBaseName = getBaseName(videoEntry.name()).toLowerCase();
-                            String thumbnailPath = imageFiles.get(videoBaseName);
-
-                            if (thumbnailPath == null && !imageFiles.isEmpty()) {
-                                thumbnailPath = imageFiles.values().iterator().next();
-                            }
-
-                            Movie movie =
-                                    createMovieFromEntry(
-                                            videoEntry, moviePath, category, thumbnailPath);
-                            movieRepository.save(movie);
-                            moviesDiscovered++;
-                            log.debug(
-                                    "Discovered movie: {} in category: {} with thumbnail: {}",
-                                    movie.getTitle(),
-                                    category.getName(),
-                                    thumbnailPath);
-                        }
-                    } catch (Exception e) {
-                        String error =
-                                "Error scanning category " + entry.name() + ": " + e.getMessage();
-                        errors.add(error);
-                        log.error(error, e);
-                    }
-                }
+            Map<String, FolderListing> folders = new LinkedHashMap<>();
+            Set<String> failedFolders = new HashSet<>();
+            listFolders(rootPath, run, folders, failedFolders, tally, errors);
+            ensureNotCancelled();
+
+            List<ScanSnapshotEntry> previous =
+                    snapshotRepository.findByPathPrefix(pathPrefix(rootPath)).stream()
+                            .filter(e -> isInScanScope(e.getParentPath(), rootPath, failedFolders))
+                            .toList();
+            List<ScanSnapshotEntry> current =
+                    folders.values().stream().flatMap(f -> f.videos().stream()).toList();
+
+            SnapshotDiff diff = SnapshotDiff.compute(previous, current);
+            tally.moviesSkipped += diff.getUnchanged();
+            if (!diff.isEmpty()) {
+                writeInChunks(changePlanner.plan(diff, folders), run, tally);
             }
 
-            List<MegaEntry> rootVideoFiles = new ArrayList<>();
-            Map<String, String> rootImageFiles = new HashMap<>();
-
-            for (MegaEntry entry : entries) {
-                if (entry.isDirectory()) continue;
-
-                String fileName = entry.name();
-                String baseName = getBaseName(fileName);
-
-                if (isVideoFile(fileName)) {
-                    rootVideoFiles.add(entry);
-                } else if (isImageFile(fileName)) {
-                    String imagePath =
-                            rootPath.endsWith("/")
-                                    ? rootPath + fileName
-                                    : rootPath + "/" + fileName;
-                    rootImageFiles.put(baseName.toLowerCase(), imagePath);
-                }
-            }
-
-            for (MegaEntry videoEntry : rootVideoFiles) {
-                String moviePath =
-                        rootPath.endsWith("/")
-                                ? rootPath + videoEntry.name()
-                                : rootPath + "/" + videoEntry.name();
-
-                if (movieRepository.existsByMegaPath(moviePath)) {
-                    moviesSkipped++;
-                    continue;
-                }
-
-                String videoBaseName = getBaseName(videoEntry.name()).toLowerCase();
-                String thumbnailPath = rootImageFiles.get(videoBaseName);
-
-                if (thumbnailPath == null && !rootImageFiles.isEmpty()) {
-                    thumbnailPath = rootImageFiles.values().iterator().next();
-                }
-
-                Movie movie = createMovieFromEntry(videoEntry, moviePath, null, thumbnailPath);
-                movieRepository.save(movie);
-                moviesDiscovered++;
-                log.debug(
-                        "Discovered uncategorized movie: {} with thumbnail: {}",
-                        movie.getTitle(),
-                        thumbnailPath);
-            }
-
-        } catch (Exception e) {
+        } catch (CancellationException e) {
+            cancelled = true;
+            errors.add("Scan cancelled");
+            log.info("Mega folder scan cancelled after {} committed chunks", tally.chunksCommitted);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.add("Scan interrupted");
+            log.warn("Mega folder scan interrupted");
+        } catch (IOException | RuntimeException e) {
             String error = "Scan failed: " + e.getMessage();
             errors.add(error);
             log.error("Mega folder scan failed", e);
+        } finally {
+            run.finish();
         }
 
         ScanResultDTO scanResult =
-                result.endTime(new Date())
-                        .categoriesCreated(categoriesCreated)
-                        .categoriesUpdated(categoriesUpdated)
-                        .moviesDiscovered(moviesDiscovered)
-                        .moviesSkipped(moviesSkipped)
+                ScanResultDTO.builder()
+                        .scannedPath(rootPath)
+                        .startTime(run.startTime)
+                        .endTime(new Date())
+                        .categoriesCreated(tally.categoriesCreated)
+                        .categoriesUpdated(tally.categoriesUpdated)
+                        .moviesDiscovered(tally.moviesDiscovered)
+                        .moviesSkipped(tally.moviesSkipped)
+                        .moviesRemoved(tally.moviesRemoved)
+                        .moviesRenamed(tally.moviesRenamed)
+                        .moviesUpdated(tally.moviesUpdated)
+                        .chunksCommitted(tally.chunksCommitted)
+                        .stages(run.stageMetrics())
                         .errors(errors)
+                        .cancelled(cancelled)
                         .success(errors.isEmpty())
                         .build();
 
         log.info(
-                "Scan completed: {} categories, {} movies discovered, {} skipped",
-                categoriesCreated + categoriesUpdated,
-                moviesDiscovered,
-                moviesSkipped);
+                "Scan completed: {} categories, {} movies discovered, {} removed, {} renamed,"
+                        + " {} updated, {} skipped in {} chunks",
+                tally.categoriesCreated + tally.categoriesUpdated,
+                tally.moviesDiscovered,
+                tally.moviesRemoved,
+                tally.moviesRenamed,
+                tally.moviesUpdated,
+                tally.moviesSkipped,
+                tally.chunksCommitted);
 
         return scanResult;
     }
 
-    private List<MegaEntry> listFolder(String path) throws Exception {
-        log.debug("Listing Mega folder: {}", path);
-
-        ProcessBuilder pb = new ProcessBuilder("mega-ls", "-l", path);
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
+    /**
+     * Listing stage. The root folder is listed first, then its category folders are listed by a
+     * pool of workers. Categories are resolved up front so the workers only run {@code mega-ls}.
+     */
+    private void listFolders(
+            String rootPath,
+            ScanRun run,
+            Map<String, FolderListing> folders,
+            Set<String> failedFolders,
+            ScanTally tally,
+            List<String> errors)
+            throws IOException, InterruptedException {
+        run.listing.start();
+
+        List<MegaEntry> entries = megaCli.list(rootPath);
+        run.listing.record(1);
+        folders.put(rootPath, toFolderListing(rootPath, null, entries));
+
+        Map<String, Category> categories = new LinkedHashMap<>();
+        for (MegaEntry entry : entries) {
+            if (!entry.isDirectory()) {
+                continue;
+            }
 
-        List<MegaEntry> entries = new ArrayList<>();
+            String categoryPath = childPath(rootPath, entry.name());
+            categories.put(categoryPath, resolveCategory(entry.name(), categoryPath, tally));
+        }
 
+        ExecutorService listingPool =
+                newStagePool(properties.getMega().getScanListingWorkers(), "mega-scan-list-");
         try {
-            try (BufferedReader reader =
-                    new BufferedReader(
-                            new InputStreamReader(
-                                    process.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.isBlank() || line.startsWith("FLAGS")) continue;
-
-                    MegaEntry entry = parseMegaLsLine(line);
-                    if (entry != null) {
-                        entries.add(entry);
-                    }
+            Map<String, Future<List<MegaEntry>>> listings = new LinkedHashMap<>();
+            for (String categoryPath : categories.keySet()) {
+                listings.put(categoryPath, listingPool.submit(() -> listFolder(categoryPath)));
+            }
+
+            for (Map.Entry<String, Future<List<MegaEntry>>> listing : listings.entrySet()) {
+                String categoryPath = listing.getKey();
+                Category category = categories.get(categoryPath);
+                try {
+                    List<MegaEntry> movieEntries = await(listing.getValue());
+                    folders.put(
+                            categoryPath,
+                            toFolderListing(categoryPath, category.getId(), movieEntries));
+                    run.listing.record(1);
+                } catch (ExecutionException e) {
+                    failedFolders.add(categoryPath);
+                    String error =
+                            "Error scanning category "
+                                    + category.getName()
+                                    + ": "
+                                    + e.getCause().getMessage();
+                    errors.add(error);
+                    log.error(error, e.getCause());
                 }
             }
+        } finally {
+            listingPool.shutdownNow();
+            run.listing.finish();
+        }
+    }
+
+    private List<MegaEntry> listFolder(String path) throws IOException, InterruptedException {
+        ensureNotCancelled();
+        return megaCli.list(path);
+    }
 
-            boolean completed = process.waitFor(PROCESS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-            if (!completed) {
-                process.destroyForcibly();
-                throw new RuntimeException(
-                        "mega-ls timed out after " + PROCESS_TIMEOUT_SECONDS + " seconds");
+    /**
+     * Thumbnail and writer stages. New movies are prepared by a bounded pool of thumbnail workers
+     * while the writer commits the plan in order, one chunk per transaction.
+     */
+    private void writeInChunks(List<PlannedChange> plan, ScanRun run, ScanTally tally)
+            throws InterruptedException {
+        ExecutorService thumbnailPool =
+                newStagePool(properties.getMega().getScanThumbnailWorkers(), "mega-scan-thumb-");
+        try {
+            run.thumbnails.start();
+            ThumbnailFetcher.Session thumbnails = thumbnailFetcher.openSession();
+            List<Future<Movie>> prepared = new ArrayList<>(plan.size());
+            for (PlannedChange change : plan) {
+                if (change.newMovieFolder() == null) {
+                    prepared.add(CompletableFuture.completedFuture(null));
+                } else {
+                    prepared.add(
+                            thumbnailPool.submit(() -> prepareNewMovie(change, run, thumbnails)));
+                }
             }
 
-            int exitCode = process.exitValue();
-            if (exitCode != 0) {
-                throw new RuntimeException("mega-ls failed with exit code: " + exitCode);
+            run.writing.start();
+            int chunkSize = Math.max(1, properties.getMega().getScanChunkSize());
+            for (int start = 0; start < plan.size(); start += chunkSize) {
+                ensureNotCancelled();
+                int end = Math.min(start + chunkSize, plan.size());
+
+                List<Movie> movies = new ArrayList<>();
+                List<ScanMovieUpdate> updates = new ArrayList<>();
+                List<String> stalePaths = new ArrayList<>();
+                List<ScanSnapshotEntry> freshEntries = new ArrayList<>();
+                for (int i = start; i < end; i++) {
+                    PlannedChange change = plan.get(i);
+                    Movie movie = awaitPrepared(prepared.get(i));
+                    if (movie != null) {
+                        movies.add(movie);
+                    }
+                    if (change.update() != null) {
+                        updates.add(change.update());
+                    }
+                    if (change.stalePath() != null) {
+                        stalePaths.add(change.stalePath());
+                    }
+                    if (change.freshEntry() != null) {
+                        freshEntries.add(change.freshEntry());
+                    }
+                }
+
+                chunkWriter.write(movies, updates, stalePaths, freshEntries);
+                run.writing.record(end - start);
+                tally.chunksCommitted++;
+                for (int i = start; i < end; i++) {
+                    tally.count(plan.get(i).kind());
+                }
             }
         } finally {
-            if (process.isAlive()) {
-                process.destroyForcibly();
+            thumbnailPool.shutdownNow();
+            run.thumbnails.finish();
+            run.writing.finish();
+        }
+    }
+
+    private Movie prepareNewMovie(
+            PlannedChange change, ScanRun run, ThumbnailFetcher.Session thumbnails) {
+        ensureNotCancelled();
+        Movie movie = change.newMovieFolder().newMovie(change.freshEntry(), thumbnails);
+        run.thumbnails.record(1);
+        log.debug(
+                "Discovered movie: {} in folder: {} with thumbnail: {}",
+                movie.getTitle(),
+                change.newMovieFolder().path(),
+                movie.getThumbnailUrl());
+        return movie;
+    }
+
+    private Movie awaitPrepared(Future<Movie> future) throws InterruptedException {
+        try {
+            return await(future);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Preparing movie failed", e.getCause());
+        }
+    }
+
+    /** Waits for a stage result while staying responsive to cancellation requests. */
+    private <T> T await(Future<T> future) throws InterruptedException, ExecutionException {
+        while (true) {
+            ensureNotCancelled();
+            try {
+                return future.get(CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.trace("Still waiting for scan stage result");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof CancellationException cancellation) {
+                    throw cancellation;
+                }
+                throw e;
             }
         }
+    }
 
-        return entries;
+    private void ensureNotCancelled() {
+        if (cancelRequested.get()) {
+            throw new CancellationException("Scan cancelled");
+        }
     }
 
-    private MegaEntry parseMegaLsLine(String line) {
+    private ExecutorService newStagePool(int workers, String threadPrefix) {
+        return Executors.newFixedThreadPool(
+                Math.max(1, workers), Thread.ofPlatform().name(threadPrefix, 0).factory());
+    }
 
-        String[] parts = line.trim().split("\\s+", 4);
-        if (parts.length < 4) return null;
+    private FolderListing toFolderListing(
+            String folderPath, String categoryId, List<MegaEntry> entries) {
+        List<ScanSnapshotEntry> videos = new ArrayList<>();
+        Map<String, String> images = new HashMap<>();
 
-        String flags = parts[0];
-        String sizeStr = parts[1];
-        String name = parts[3];
+        for (MegaEntry entry : entries) {
+            if (entry.isDirectory()) {
+                continue;
+            }
 
-        if (name.matches("\\d{2}:\\d{2}:\\d{2}")) {
-            String[] reParts = line.trim().split("\\s+", 5);
-            if (reParts.length >= 5) {
-                name = reParts[4];
-            } else {
-                return null;
+            String fileName = entry.name();
+            if (isVideoFile(fileName)) {
+                videos.add(
+                        ScanSnapshotEntry.builder()
+                                .megaPath(childPath(folderPath, fileName))
+                                .parentPath(folderPath)
+                                .name(fileName)
+                                .size(entry.size())
+                                .modifiedAt(entry.modifiedAt())
+                                .build());
+            } else if (MovieFileNames.isImageFile(fileName)) {
+                images.put(
+                        MovieFileNames.baseName(fileName).toLowerCase(),
+                        childPath(folderPath, fileName));
             }
         }
 
-        boolean isDirectory = flags.startsWith("d");
-        long size = parseSize(sizeStr);
-
-        return new MegaEntry(name, isDirectory, size);
+        return new FolderListing(folderPath, categoryId, videos, images);
     }
 
-    private long parseSize(String sizeStr) {
-        try {
-            sizeStr = sizeStr.toUpperCase();
-            double value = Double.parseDouble(sizeStr.replaceAll("[^0-9.]", ""));
-
-            if (sizeStr.endsWith("GB") || sizeStr.endsWith("G")) {
-                return (long) (value * 1024 * 1024 * 1024);
-            } else if (sizeStr.endsWith("MB") || sizeStr.endsWith("M")) {
-                return (long) (value * 1024 * 1024);
-            } else if (sizeStr.endsWith("KB") || sizeStr.endsWith("K")) {
-                return (long) (value * 1024);
-            }
-            return (long) value;
-        } catch (Exception e) {
-            return 0;
+    /**
+     * Checks whether a snapshot folder was covered by this scan: the root itself or one of its
+     * direct sub folders, as long as listing it did not fail.
+     */
+    private boolean isInScanScope(String parentPath, String rootPath, Set<String> failedFolders) {
+        if (failedFolders.contains(parentPath)) {
+            return false;
         }
+        if (parentPath.equals(rootPath)) {
+            return true;
+        }
+        int lastSlash = parentPath.lastIndexOf('/');
+        return lastSlash >= 0
+                && childPath(rootPath, parentPath.substring(lastSlash + 1)).equals(parentPath);
+    }
+
+    private String childPath(String parent, String name) {
+        return parent.endsWith("/") ? parent + name : parent + "/" + name;
+    }
+
+    private String pathPrefix(String rootPath) {
+        return rootPath.endsWith("/") ? rootPath : rootPath + "/";
     }
 
     private boolean isVideoFile(String fileName) {
@@ -322,18 +446,17 @@ public class MegaScanService {
         return false;
     }
 
-    private boolean isImageFile(String fileName) {
-        String lowerName = fileName.toLowerCase();
-        return lowerName.endsWith(".png")
-                || lowerName.endsWith(".jpg")
-                || lowerName.endsWith(".jpeg")
-                || lowerName.endsWith(".webp")
-                || lowerName.endsWith(".gif");
-    }
-
-    private String getBaseName(String fileName) {
-        int lastDot = fileName.lastIndexOf('.');
-        return lastDot > 0 ? fileName.substring(0, lastDot) : fileName;
+    private Category resolveCategory(String name, String megaPath, ScanTally tally) {
+        Category category = getOrCreateCategory(name, megaPath);
+        if (category.getId() == null) {
+            tally.categoriesCreated++;
+            return categoryRepository.save(category);
+        }
+        tally.categoriesUpdated++;
+        if (megaPath.equals(category.getMegaPath())) {
+            return category;
+        }
+        return categoryRepository.save(category.withMegaPath(megaPath));
     }
 
     private Category getOrCreateCategory(String name, String megaPath) {
@@ -343,7 +466,6 @@ public class MegaScanService {
                         () ->
                                 categoryRepository
                                         .findByName(name)
-                                        .map(cat -> cat.withMegaPath(megaPath))
                                         .orElse(
                                                 Category.builder()
                                                         .name(name)
@@ -352,139 +474,4 @@ public class MegaScanService {
                                                                 "Auto-discovered from Mega folder")
                                                         .build()));
     }
-
-    private Movie createMovieFromEntry(
-            MegaEntry entry, String megaPath, Category category, String megaThumbnailPath) {
-        String title = extractTitleFromFileName(entry.name());
-        Integer year = extractYearFromFileName(entry.name());
-        String localThumbnailUrl = null;
-
-        if (megaThumbnailPath != null) {
-            localThumbnailUrl = downloadThumbnail(megaThumbnailPath, title);
-        }
-
-        return Movie.builder()
-                .title(title)
-                .megaPath(megaPath)
-                .megaUrl(megaPath)
-                .thumbnailUrl(localThumbnailUrl)
-                .fileSize(entry.size())
-                .categoryId(category != null ? category.getId() : null)
-                .status(MovieStatus.PENDING)
-                .year(year)
-                .contentType(detectContentType(entry.name()))
-                .build();
-    }
-
-    private String downloadThumbnail(String megaPath, String movieTitle) {
-        Process process = null;
-        try {
-            Path thumbnailsDir = Path.of(properties.getStorage().getPath(), "thumbnails");
-            Files.createDirectories(thumbnailsDir);
-
-            String safeTitle = movieTitle.replaceAll("[^a-zA-Z0-9.-]", "_");
-            String extension = getExtension(megaPath);
-            String fileName = safeTitle + "_" + System.currentTimeMillis() + extension;
-            Path localPath = thumbnailsDir.resolve(fileName);
-
-            ProcessBuilder pb = new ProcessBuilder("mega-get", megaPath, localPath.toString());
-            pb.redirectErrorStream(true);
-            process = pb.start();
-
-            try (BufferedReader reader =
-                    new BufferedReader(
-                            new InputStreamReader(
-                                    process.getInputStream(), StandardCharsets.UTF_8))) {
-                @SuppressWarnings("unused")
-                String line;
-                while ((line = reader.readLine()) != null) {}
-            }
-
-            boolean completed = process.waitFor(60, TimeUnit.SECONDS);
-            if (!completed) {
-                log.warn("Thumbnail download timed out for: {}", megaPath);
-                return null;
-            }
-
-            int exitCode = process.exitValue();
-            if (exitCode == 0 && Files.exists(localPath)) {
-                log.debug("Downloaded thumbnail: {}", localPath);
-                return "/api/thumbnails/file/" + fileName;
-            } else {
-                log.warn(
-                        "Failed to download thumbnail from: {} (exit code: {})",
-                        megaPath,
-                        exitCode);
-                return null;
-            }
-        } catch (Exception e) {
-            log.error("Error downloading thumbnail from {}: {}", megaPath, e.getMessage());
-            return null;
-        } finally {
-            if (process != null && process.isAlive()) {
-                process.destroyForcibly();
-            }
-        }
-    }
-
-    private String getExtension(String path) {
-        int lastDot = path.lastIndexOf('.');
-        return lastDot > 0 ? path.substring(lastDot) : ".png";
-    }
-
-    private String extractTitleFromFileName(String fileName) {
-        String name = fileName;
-        int lastDot = name.lastIndexOf('.');
-        if (lastDot > 0) {
-            name = name.substring(0, lastDot);
-        }
-
-        name =
-                name.replaceAll("\\[.*?\\]", "")
-                        .replaceAll("\\(\\d{4}\\)", "")
-                        .replaceAll("\\d{3,4}p", "")
-                        .replaceAll("BluRay|WEB-DL|HDRip|DVDRip|BRRip|HDTV", "")
-                        .replaceAll("x264|x265|HEVC|AAC|DTS", "")
-                        .replaceAll("[._-]+", " ")
-                        .trim();
-
-        String[] words = name.split("\\s+");
-        StringBuilder result = new StringBuilder();
-        for (String word : words) {
-            if (!word.isEmpty()) {
-                result.append(Character.toUpperCase(word.charAt(0)))
-                        .append(word.substring(1).toLowerCase())
-                        .append(" ");
-            }
-        }
-
-        return result.toString().trim();
-    }
-
-    private Integer extractYearFromFileName(String fileName) {
-        Pattern yearPattern = Pattern.compile("(19|20)\\d{2}");
-        Matcher matcher = yearPattern.matcher(fileName);
-        if (matcher.find()) {
-            try {
-                return Integer.parseInt(matcher.group());
-            } catch (NumberFormatException e) {
-                return null;
-            }
-        }
-        return null;
-    }
-
-    private String detectContentType(String fileName) {
-        String lowerName = fileName.toLowerCase();
-        if (lowerName.endsWith(".mp4")) return "video/mp4";
-        if (lowerName.endsWith(".mkv")) return "video/x-matroska";
-        if (lowerName.endsWith(".avi")) return "video/x-msvideo";
-        if (lowerName.endsWith(".mov")) return "video/quicktime";
-        if (lowerName.endsWith(".wmv")) return "video/x-ms-wmv";
-        if (lowerName.endsWith(".flv")) return "video/x-flv";
-        if (lowerName.endsWith(".webm")) return "video/webm";
-        return "video/mp4";
-    }
-
-    private record MegaEntry(String name, boolean isDirectory, long size) {}
 }
@@ -0,0 +1,94 @@
+package com.mediaserver.service;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** Derives movie metadata from the file names found on Mega. */
+final class MovieFileNames {
+
+    private static final Pattern YEAR_PATTERN = Pattern.compile("(19|20)\\d{2}");
+
+    private MovieFileNames() {}
+
+    static String baseName(String fileName) {
+        int lastDot = fileName.lastIndexOf('.');
+        return lastDot > 0 ? fileName.substring(0, lastDot) : fileName;
+    }
+
+    static String extension(String path) {
+        int lastDot = path.lastIndexOf('.');
+        return lastDot > 0 ? path.substring(lastDot) : ".png";
+    }
+
+    static boolean isImageFile(String fileName) {
+        String lowerName = fileName.toLowerCase();
+        return lowerName.endsWith(".png")
+                || lowerName.endsWith(".jpg")
+                || lowerName.endsWith(".jpeg")
+                || lowerName.endsWith(".webp")
+                || lowerName.endsWith(".gif");
+    }
+
+    static String extractTitle(String fileName) {
+        String name = baseName(fileName);
+
+        name =
+                name.replaceAll("\\[.*?\\]", "")
+                        .replaceAll("\\(\\d{4}\\)", "")
+                        .replaceAll("\\d{3,4}p", "")
+                        .replaceAll("BluRay|WEB-DL|HDRip|DVDRip|BRRip|HDTV", "")
+                        .replaceAll("x264|x265|HEVC|AAC|DTS", "")
+                        .replaceAll("[._-]+", " ")
+                        .trim();
+
+        String[] words = name.split("\\s+");
+        StringBuilder result = new StringBuilder();
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                result.append(Character.toUpperCase(word.charAt(0)))
+                        .append(word.substring(1).toLowerCase())
+                        .append(" ");
+            }
+        }
+
+        return result.toString().trim();
+    }
+
+    static Integer extractYear(String fileName) {
+        Matcher matcher = YEAR_PATTERN.matcher(fileName);
+        if (matcher.find()) {
+            try {
+                return Integer.parseInt(matcher.group());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    static String detectContentType(String fileName) {
+        String lowerName = fileName.toLowerCase();
+        if (lowerName.endsWith(".mp4")) {
+            return "video/mp4";
+        }
+        if (lowerName.endsWith(".mkv")) {
+            return "video/x-matroska";
+        }
+        if (lowerName.endsWith(".avi")) {
+            return "video/x-msvideo";
+        }
+        if (lowerName.endsWith(".mov")) {
+            return "video/quicktime";
+        }
+        if (lowerName.endsWith(".wmv")) {
+            return "video/x-ms-wmv";
+        }
+        if (lowerName.endsWith(".flv")) {
+            return "video/x-flv";
+        }
+        if (lowerName.endsWith(".webm")) {
+            return "video/webm";
+        }
+        return "video/mp4";
+    }
+}
@@ -0,0 +1,151 @@
+package com.mediaserver.service;
+
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.domain.model.ScanSnapshotEntry;
+import com.mediaserver.domain.model.SnapshotDiff;
+import com.mediaserver.domain.repository.MovieRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/** Decides which movie and snapshot writes a Mega scan has to make for a listing diff. */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ScanChangePlanner {
+
+    private final MovieRepository movieRepository;
+
+    /**
+     * Turns a listing diff into an ordered list of changes. Known paths are loaded once and the
+     * movies touched by the diff are fetched in one batched query.
+     */
+    List<PlannedChange> plan(SnapshotDiff diff, Map<String, FolderListing> folders) {
+        Set<String> knownPaths = movieRepository.findAllMegaPaths();
+
+        List<String> lookupPaths = new ArrayList<>();
+        diff.getAdded().stream()
+                .map(ScanSnapshotEntry::getMegaPath)
+                .filter(knownPaths::contains)
+                .forEach(lookupPaths::add);
+        diff.getRenamed().forEach(r -> lookupPaths.add(r.from().getMegaPath()));
+        diff.getChanged().forEach(e -> lookupPaths.add(e.getMegaPath()));
+        diff.getRemoved().forEach(e -> lookupPaths.add(e.getMegaPath()));
+
+        Map<String, Movie> existingByPath = new HashMap<>();
+        if (!lookupPaths.isEmpty()) {
+            movieRepository
+                    .findByMegaPaths(lookupPaths)
+                    .forEach(movie -> existingByPath.put(movie.getMegaPath(), movie));
+        }
+
+        List<PlannedChange> plan = new ArrayList<>();
+
+        for (ScanSnapshotEntry added : diff.getAdded()) {
+            Movie existing = existingByPath.get(added.getMegaPath());
+            if (existing == null && !knownPaths.contains(added.getMegaPath())) {
+                FolderListing folder = folders.get(added.getParentPath());
+                plan.add(PlannedChange.newMovie(null, added, folder));
+            } else if (existing != null && existing.getStatus() == MovieStatus.UNAVAILABLE) {
+                plan.add(
+                        new PlannedChange(
+                                ChangeKind.UPDATED,
+                                null,
+                                added,
+                                ScanMovieUpdate.restore(existing.getId()),
+                                null));
+            } else {
+                plan.add(new PlannedChange(ChangeKind.SKIPPED, null, added, null, null));
+            }
+        }
+
+        for (SnapshotDiff.Rename rename : diff.getRenamed()) {
+            String fromPath = rename.from().getMegaPath();
+            ScanSnapshotEntry target = rename.to();
+            FolderListing folder = folders.get(target.getParentPath());
+            Movie movie = existingByPath.get(fromPath);
+            if (movie == null) {
+                plan.add(PlannedChange.newMovie(fromPath, target, folder));
+                continue;
+            }
+            ScanMovieUpdate moved =
+                    ScanMovieUpdate.move(movie.getId(), target.getMegaPath(), folder.categoryId());
+            plan.add(new PlannedChange(ChangeKind.RENAMED, fromPath, target, moved, null));
+            log.debug("Movie {} moved to {}", movie.getTitle(), target.getMegaPath());
+        }
+
+        for (ScanSnapshotEntry changed : diff.getChanged()) {
+            Movie existing = existingByPath.get(changed.getMegaPath());
+            if (existing != null && !existing.isCached()) {
+                plan.add(
+                        new PlannedChange(
+                                ChangeKind.UPDATED,
+                                changed.getMegaPath(),
+                                changed,
+                                ScanMovieUpdate.resize(existing.getId(), changed.getSize()),
+                                null));
+            } else {
+                plan.add(
+                        new PlannedChange(
+                                ChangeKind.SNAPSHOT_ONLY,
+                                changed.getMegaPath(),
+                                changed,
+                                null,
+                                null));
+            }
+        }
+
+        for (ScanSnapshotEntry removed : diff.getRemoved()) {
+            Movie existing = existingByPath.get(removed.getMegaPath());
+            if (existing != null && ScanMovieUpdate.isMarkableUnavailable(existing)) {
+                plan.add(
+                        new PlannedChange(
+                                ChangeKind.REMOVED,
+                                removed.getMegaPath(),
+                                null,
+                                ScanMovieUpdate.markUnavailable(existing.getId()),
+                                null));
+                log.debug("Movie no longer on Mega: {}", existing.getTitle());
+            } else {
+                plan.add(
+                        new PlannedChange(
+                                ChangeKind.SNAPSHOT_ONLY, removed.getMegaPath(), null, null, null));
+            }
+        }
+
+        return plan;
+    }
+
+    enum ChangeKind {
+        DISCOVERED,
+        RENAMED,
+        UPDATED,
+        REMOVED,
+        SKIPPED,
+        SNAPSHOT_ONLY
+    }
+
+    /**
+     * One planned write: the snapshot row to drop, the snapshot row to insert and the change to
+     * make to a known movie. New movies carry their folder instead and are built by the thumbnail
+     * stage.
+     */
+    record PlannedChange(
+            ChangeKind kind,
+            String stalePath,
+            ScanSnapshotEntry freshEntry,
+            ScanMovieUpdate update,
+            FolderListing newMovieFolder) {
+
+        static PlannedChange newMovie(
+                String stalePath, ScanSnapshotEntry entry, FolderListing folder) {
+            return new PlannedChange(ChangeKind.DISCOVERED, stalePath, entry, null, folder);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.mediaserver.service;
+
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.ScanSnapshotEntry;
+import com.mediaserver.domain.repository.MovieRepository;
+import com.mediaserver.domain.repository.ScanSnapshotRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes one chunk of scan results. The movie changes and the snapshot rows that describe them
+ * commit together, so the snapshot doubles as the checkpoint the next scan resumes from. Changes to
+ * known movies are applied to the rows as they are read in the write's transaction, so whatever
+ * happened to them since the scan was planned is kept.
+ */
+@Component
+@RequiredArgsConstructor
+public class ScanChunkWriter {
+
+    private final MovieRepository movieRepository;
+    private final ScanSnapshotRepository snapshotRepository;
+
+    @Transactional
+    public void write(
+            List<Movie> newMovies,
+            List<ScanMovieUpdate> updates,
+            Collection<String> staleSnapshotPaths,
+            Collection<ScanSnapshotEntry> freshSnapshotEntries) {
+        Map<String, Movie> changed = new LinkedHashMap<>();
+        if (!updates.isEmpty()) {
+            Map<String, Movie> current = new HashMap<>();
+            movieRepository
+                    .findAllById(updates.stream().map(ScanMovieUpdate::movieId).toList())
+                    .forEach(movie -> current.put(movie.getId(), movie));
+            for (ScanMovieUpdate update : updates) {
+                Movie movie = current.get(update.movieId());
+                Movie updated = movie != null ? update.applyTo(movie) : null;
+                if (updated != null) {
+                    current.put(updated.getId(), updated);
+                    changed.put(updated.getId(), updated);
+                }
+            }
+        }
+        List<Movie> movies = new ArrayList<>(newMovies);
+        movies.addAll(changed.values());
+        movieRepository.saveAll(movies);
+        snapshotRepository.deleteByMegaPaths(staleSnapshotPaths);
+        snapshotRepository.saveAll(freshSnapshotEntries);
+    }
+}
@@ -0,0 +1,73 @@
+package com.mediaserver.service;
+
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+
+/**
+ * Change a scan makes to a known movie. Only the fields the scan is responsible for are carried,
+ * and they are applied to the movie as it is when its chunk is written rather than as it was when
+ * the scan was planned, so a download, cache clear or edit that happened in between is kept.
+ *
+ * @param movieId the movie to change
+ * @param megaPath the new Mega path and URL, null to keep them
+ * @param categoryId the new category, only applied together with a new Mega path
+ * @param fileSize the new file size, null to keep it; ignored for cached movies
+ * @param restore whether an unavailable movie becomes pending again
+ * @param markUnavailable whether an uncached movie is marked unavailable
+ */
+record ScanMovieUpdate(
+        String movieId,
+        String megaPath,
+        String categoryId,
+        Long fileSize,
+        boolean restore,
+        boolean markUnavailable) {
+
+    static ScanMovieUpdate restore(String movieId) {
+        return new ScanMovieUpdate(movieId, null, null, null, true, false);
+    }
+
+    static ScanMovieUpdate move(String movieId, String megaPath, String categoryId) {
+        return new ScanMovieUpdate(movieId, megaPath, categoryId, null, true, false);
+    }
+
+    static ScanMovieUpdate resize(String movieId, long fileSize) {
+        return new ScanMovieUpdate(movieId, null, null, fileSize, false, false);
+    }
+
+    static ScanMovieUpdate markUnavailable(String movieId) {
+        return new ScanMovieUpdate(movieId, null, null, null, false, true);
+    }
+
+    /**
+     * Applies the change to the current state of the movie.
+     *
+     * @param movie the movie as currently stored
+     * @return the changed movie, null if the change does not apply to it any more
+     */
+    Movie applyTo(Movie movie) {
+        Movie updated = movie;
+        if (megaPath != null) {
+            updated =
+                    updated.withMegaPath(megaPath).withMegaUrl(megaPath).withCategoryId(categoryId);
+        }
+        if (fileSize != null && !movie.isCached()) {
+            updated = updated.withFileSize(fileSize);
+        }
+        if (restore && movie.getStatus() == MovieStatus.UNAVAILABLE) {
+            updated = updated.withStatus(MovieStatus.PENDING);
+        }
+        if (markUnavailable && isMarkableUnavailable(movie)) {
+            updated = updated.withStatus(MovieStatus.UNAVAILABLE);
+        }
+        return updated.equals(movie) ? null : updated;
+    }
+
+    /**
+     * Movies that are cached locally stay playable when their Mega source disappears, so only
+     * uncached movies are marked unavailable.
+     */
+    static boolean isMarkableUnavailable(Movie movie) {
+        return !movie.isCached() && movie.getStatus() != MovieStatus.UNAVAILABLE;
+    }
+}
@@ -0,0 +1,29 @@
+package com.mediaserver.service;
+
+import com.mediaserver.dto.ScanStageMetricsDTO;
+import java.util.Date;
+import java.util.List;
+
+/** Path, start time and stage metrics of the current or last scan. */
+final class ScanRun {
+
+    final String path;
+    final Date startTime = new Date();
+    final ScanStageMetrics listing = new ScanStageMetrics("listing");
+    final ScanStageMetrics thumbnails = new ScanStageMetrics("thumbnails");
+    final ScanStageMetrics writing = new ScanStageMetrics("writing");
+
+    ScanRun(String path) {
+        this.path = path;
+    }
+
+    List<ScanStageMetricsDTO> stageMetrics() {
+        return List.of(listing.toDTO(), thumbnails.toDTO(), writing.toDTO());
+    }
+
+    void finish() {
+        listing.finish();
+        thumbnails.finish();
+        writing.finish();
+    }
+}
@@ -0,0 +1,53 @@
+package com.mediaserver.service;
+
+import com.mediaserver.dto.ScanStageMetricsDTO;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Throughput counters of one scan pipeline stage. Safe to update from worker threads. */
+final class ScanStageMetrics {
+
+    private final String stage;
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong startNanos = new AtomicLong();
+    private final AtomicLong endNanos = new AtomicLong();
+
+    ScanStageMetrics(String stage) {
+        this.stage = stage;
+    }
+
+    void start() {
+        startNanos.compareAndSet(0, System.nanoTime());
+    }
+
+    void record(long count) {
+        items.addAndGet(count);
+    }
+
+    void finish() {
+        if (startNanos.get() != 0) {
+            endNanos.compareAndSet(0, System.nanoTime());
+        }
+    }
+
+    ScanStageMetricsDTO toDTO() {
+        long start = startNanos.get();
+        long end = endNanos.get();
+        long elapsedNanos = 0;
+        if (start != 0) {
+            elapsedNanos = (end != 0 ? end : System.nanoTime()) - start;
+        }
+        long processed = items.get();
+
+        return ScanStageMetricsDTO.builder()
+                .stage(stage)
+                .itemsProcessed(processed)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .itemsPerSecond(
+                        elapsedNanos > 0
+                                ? processed * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos
+                                : 0)
+                .finished(end != 0)
+                .build();
+    }
+}
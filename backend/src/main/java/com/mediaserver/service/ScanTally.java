@@ -0,0 +1,29 @@
+package com.mediaserver.service;
+
+import com.mediaserver.service.ScanChangePlanner.ChangeKind;
+
+/** Counters collected while a scan runs. Only updated from the scanning thread. */
+final class ScanTally {
+
+    int categoriesCreated;
+    int categoriesUpdated;
+    int moviesDiscovered;
+    int moviesSkipped;
+    int moviesRemoved;
+    int moviesRenamed;
+    int moviesUpdated;
+    int chunksCommitted;
+
+    void count(ChangeKind kind) {
+        switch (kind) {
+            case DISCOVERED -> moviesDiscovered++;
+            case RENAMED -> moviesRenamed++;
+            case UPDATED -> moviesUpdated++;
+            case REMOVED -> moviesRemoved++;
+            case SKIPPED -> moviesSkipped++;
+            default -> {
+                /* snapshot-only changes have no movie counter */
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.mediaserver.service;
+
+import com.mediaserver.config.MediaProperties;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size-bounded, least-recently-used cache of thumbnail bytes. Cached arrays are shared between
+ * requests and never copied, so callers must not modify them.
+ */
+@Component
+public class ThumbnailCache {
+
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    private static final int MAX_ENTRY_FRACTION = 16;
+    private static final int MAX_SEEN_NAMES = 4096;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final Map<String, CachedThumbnail> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Boolean> seenOnce =
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_SEEN_NAMES;
+                }
+            };
+    private long currentBytes;
+
+    public ThumbnailCache(MediaProperties properties) {
+        this.maxBytes = Math.max(0, properties.getStorage().getThumbnailCacheMb()) * BYTES_PER_MB;
+        this.maxEntryBytes = maxBytes / MAX_ENTRY_FRACTION;
+    }
+
+    public synchronized Optional<CachedThumbnail> get(String fileName) {
+        return Optional.ofNullable(entries.get(fileName));
+    }
+
+    /**
+     * Checks whether a file of the given size may be cached. Larger files are served from disk.
+     *
+     * @param size the file size in bytes
+     * @return true if the file is small enough
+     */
+    public boolean accepts(long size) {
+        return size <= maxEntryBytes;
+    }
+
+    /**
+     * Records a cache miss and decides whether the file should be loaded into the cache. A file is
+     * admitted on its second miss, so thumbnails that are requested only once keep streaming from
+     * disk and do not push frequently used ones out.
+     *
+     * @param fileName the thumbnail file name
+     * @return true if the file should be cached now
+     */
+    public synchronized boolean admit(String fileName) {
+        if (seenOnce.remove(fileName) != null) {
+            return true;
+        }
+        seenOnce.put(fileName, Boolean.TRUE);
+        return false;
+    }
+
+    public synchronized void put(String fileName, CachedThumbnail thumbnail) {
+        if (!accepts(thumbnail.bytes().length)) {
+            return;
+        }
+        CachedThumbnail previous = entries.put(fileName, thumbnail);
+        if (previous != null) {
+            currentBytes -= previous.bytes().length;
+        }
+        currentBytes += thumbnail.bytes().length;
+
+        var eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= eldest.next().getValue().bytes().length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized void evict(String fileName) {
+        CachedThumbnail removed = entries.remove(fileName);
+        if (removed != null) {
+            currentBytes -= removed.bytes().length;
+        }
+    }
+
+    public synchronized long sizeBytes() {
+        return currentBytes;
+    }
+
+    /** Thumbnail bytes together with their entity tag. */
+    public record CachedThumbnail(byte[] bytes, String etag) {}
+}
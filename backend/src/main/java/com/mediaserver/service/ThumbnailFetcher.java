@@ -0,0 +1,126 @@
+package com.mediaserver.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/** Downloads movie thumbnails from Mega into the content-addressed {@link ThumbnailStore}. */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ThumbnailFetcher {
+
+    private static final int PLACEHOLDER_WIDTH = 20;
+    private static final float PLACEHOLDER_QUALITY = 0.5f;
+
+    private final ThumbnailStore thumbnailStore;
+    private final MegaCliClient megaCli;
+    private final ThumbnailVariants thumbnailVariants;
+
+    /**
+     * Opens a fetch session for one scan. Within a session every Mega path is downloaded at most
+     * once, even when several movies of a folder fall back to the same image.
+     *
+     * @return a new session
+     */
+    public Session openSession() {
+        return new Session();
+    }
+
+    /**
+     * A downloaded thumbnail.
+     *
+     * @param url the thumbnail URL, null if the download failed
+     * @param placeholder a tiny JPEG data URI to show while the thumbnail loads, null if the image
+     *     could not be decoded
+     */
+    public record Thumbnail(String url, String placeholder) {
+
+        static final Thumbnail NONE = new Thumbnail(null, null);
+    }
+
+    private Thumbnail download(String megaPath) {
+        Path tempFile = null;
+        try {
+            String extension = MovieFileNames.extension(megaPath);
+            tempFile = thumbnailStore.newTempFile(extension);
+
+            if (megaCli.get(megaPath, tempFile)) {
+                String fileName = thumbnailStore.put(tempFile, extension);
+                log.debug("Downloaded thumbnail {} as {}", megaPath, fileName);
+                thumbnailVariants.schedule(fileName);
+                return new Thumbnail(thumbnailStore.urlFor(fileName), placeholder(fileName));
+            }
+            log.warn("Failed to download thumbnail from: {}", megaPath);
+            return Thumbnail.NONE;
+        } catch (IOException e) {
+            log.error("Error downloading thumbnail from {}: {}", megaPath, e.getMessage());
+            return Thumbnail.NONE;
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private String placeholder(String fileName) {
+        try (InputStream in = Files.newInputStream(thumbnailStore.directory().resolve(fileName))) {
+            BufferedImage image = ImageIO.read(in);
+            if (image == null) {
+                return null;
+            }
+            return ThumbnailImages.jpegDataUri(
+                    ThumbnailImages.scaleToWidth(image, PLACEHOLDER_WIDTH), PLACEHOLDER_QUALITY);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not compute placeholder for {}: {}", fileName, e.getMessage());
+            return null;
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary thumbnail {}: {}", file, e.getMessage());
+        }
+    }
+
+    /** Per-scan memo of fetched thumbnails. Safe to use from several fetch workers. */
+    public final class Session {
+
+        private final Map<String, CompletableFuture<Thumbnail>> fetched = new ConcurrentHashMap<>();
+
+        private Session() {}
+
+        /**
+         * Returns the thumbnail for a Mega image, downloading it on first use.
+         *
+         * @param megaPath the Mega path of the image
+         * @return the thumbnail, with a null URL if the download failed
+         */
+        public Thumbnail fetch(String megaPath) {
+            CompletableFuture<Thumbnail> pending = new CompletableFuture<>();
+            CompletableFuture<Thumbnail> existing = fetched.putIfAbsent(megaPath, pending);
+            if (existing != null) {
+                return existing.join();
+            }
+            Thumbnail thumbnail = Thumbnail.NONE;
+            try {
+                thumbnail = download(megaPath);
+            } finally {
+                pending.complete(thumbnail);
+            }
+            return thumbnail;
+        }
+    }
+}
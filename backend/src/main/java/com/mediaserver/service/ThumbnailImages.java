@@ -0,0 +1,106 @@
+package com.mediaserver.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/** Scales and encodes images derived from stored thumbnails. */
+final class ThumbnailImages {
+
+    private ThumbnailImages() {}
+
+    /**
+     * Encodes an image as JPEG next to the target and moves it into place atomically, so readers
+     * never see a partially written file.
+     */
+    static void writeJpeg(BufferedImage image, Path target, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(tempFile.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), jpegParam(writer, quality));
+        } finally {
+            writer.dispose();
+        }
+        Files.move(
+                tempFile,
+                target,
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Scales down in halving steps, which keeps bilinear filtering from aliasing. */
+    static BufferedImage scaleToWidth(BufferedImage original, int targetWidth) {
+        int targetHeight =
+                Math.max(
+                        1,
+                        (int)
+                                Math.round(
+                                        original.getHeight()
+                                                * (double) targetWidth
+                                                / original.getWidth()));
+
+        BufferedImage current = original;
+        int width = original.getWidth();
+        int height = original.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(
+                        RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(
+                        RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width > targetWidth);
+
+        return current;
+    }
+
+    /**
+     * Encodes an image as a JPEG data URI, small enough to be embedded in API responses.
+     *
+     * @param image the image to encode
+     * @param quality the JPEG quality between 0 and 1
+     * @return the data URI
+     */
+    static String jpegDataUri(BufferedImage image, float quality) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), jpegParam(writer, quality));
+        } finally {
+            writer.dispose();
+        }
+        return "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    private static ImageWriteParam jpegParam(ImageWriter writer, float quality) {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        return param;
+    }
+}
@@ -0,0 +1,327 @@
+package com.mediaserver.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.imageio.ImageIO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Packs the thumbnails of a movie group into JPEG sprite sheets so a catalog page needs a few image
+ * requests instead of one per movie.
+ *
+ * <p>A sheet is identified by a hash of the content-addressed thumbnail names it contains, in
+ * order. Any change to a group's membership or to one of its thumbnails therefore yields a new
+ * sheet id, and a rendered sheet never has to be invalidated. Sheets are rendered lazily on first
+ * request.
+ *
+ * <p>Only the most recently laid out sheets are kept registered, and a sheet dropped from the
+ * registry is deleted. The registry does not survive a restart, so files of sheets that are no
+ * longer registered are swept from the sprites directory once they are a day old.
+ */
+@Component
+@Slf4j
+public class ThumbnailSprites {
+
+    public static final String URL_PREFIX = "/api/thumbnails/sprite/";
+    public static final int TILE_WIDTH = 320;
+    public static final int TILE_HEIGHT = 180;
+
+    private static final String SPRITES_DIR = "sprites";
+    private static final int COLUMNS = 6;
+    private static final int MAX_TILES_PER_SHEET = 48;
+    private static final int MAX_REGISTERED_SHEETS = 512;
+    private static final int MIN_TILES = 2;
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final Color BACKGROUND = new Color(0x2a, 0x2a, 0x2a);
+    private static final Pattern SHEET_ID = Pattern.compile("[0-9a-f]{32}");
+    private static final Pattern SHEET_FILE = Pattern.compile("([0-9a-f]{32})\\.jpg");
+    private static final Duration UNREGISTERED_SHEET_MAX_AGE = Duration.ofDays(1);
+
+    private final ThumbnailStore thumbnailStore;
+    private final ThumbnailVariants thumbnailVariants;
+    private final Map<String, List<String>> sheets;
+    private final Map<String, CompletableFuture<Optional<Path>>> rendering =
+            new ConcurrentHashMap<>();
+
+    public ThumbnailSprites(ThumbnailStore thumbnailStore, ThumbnailVariants thumbnailVariants) {
+        this.thumbnailStore = thumbnailStore;
+        this.thumbnailVariants = thumbnailVariants;
+        this.sheets =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+                        if (size() > MAX_REGISTERED_SHEETS) {
+                            deleteQuietly(sheetPath(eldest.getKey()));
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+    }
+
+    /** Position of one movie's thumbnail inside a sprite sheet. */
+    public record Tile(String url, int x, int y, int sheetWidth, int sheetHeight) {}
+
+    public static boolean isSheetId(String sheetId) {
+        return sheetId != null && SHEET_ID.matcher(sheetId).matches();
+    }
+
+    /**
+     * Assigns thumbnails to sprite sheets and registers the sheets for lazy rendering. Only
+     * content-addressed thumbnails are packed; other movies keep loading their own image.
+     *
+     * @param thumbnailUrls thumbnail URL per movie ID, in display order
+     * @return the tile per movie ID, empty if the group is too small to benefit from a sprite
+     */
+    public Map<String, Tile> layout(Map<String, String> thumbnailUrls) {
+        List<String> movieIds = new ArrayList<>();
+        List<String> fileNames = new ArrayList<>();
+        thumbnailUrls.forEach(
+                (movieId, url) -> {
+                    if (url != null && url.startsWith(ThumbnailStore.URL_PREFIX)) {
+                        String fileName = url.substring(ThumbnailStore.URL_PREFIX.length());
+                        if (ThumbnailStore.isContentAddressed(fileName)) {
+                            movieIds.add(movieId);
+                            fileNames.add(fileName);
+                        }
+                    }
+                });
+        if (fileNames.size() < MIN_TILES) {
+            return Map.of();
+        }
+
+        Map<String, Tile> tiles = new LinkedHashMap<>();
+        for (int start = 0; start < fileNames.size(); start += MAX_TILES_PER_SHEET) {
+            int end = Math.min(start + MAX_TILES_PER_SHEET, fileNames.size());
+            List<String> sheetFiles = List.copyOf(fileNames.subList(start, end));
+            String sheetId = sheetId(sheetFiles);
+            synchronized (sheets) {
+                sheets.put(sheetId, sheetFiles);
+            }
+
+            int count = sheetFiles.size();
+            int sheetWidth = Math.min(count, COLUMNS) * TILE_WIDTH;
+            int sheetHeight = ((count + COLUMNS - 1) / COLUMNS) * TILE_HEIGHT;
+            String url = URL_PREFIX + sheetId + ".jpg";
+            for (int i = 0; i < count; i++) {
+                tiles.put(
+                        movieIds.get(start + i),
+                        new Tile(
+                                url,
+                                (i % COLUMNS) * TILE_WIDTH,
+                                (i / COLUMNS) * TILE_HEIGHT,
+                                sheetWidth,
+                                sheetHeight));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Returns the rendered sheet, rendering it on first use. Concurrent requests for the same sheet
+     * share one rendering.
+     *
+     * @param sheetId the id from a tile URL
+     * @return the sheet file, empty if the id is unknown or rendering failed
+     */
+    public Optional<Path> sheet(String sheetId) {
+        Path path = sheetPath(sheetId);
+        if (Files.exists(path)) {
+            return Optional.of(path);
+        }
+        List<String> fileNames;
+        synchronized (sheets) {
+            fileNames = sheets.get(sheetId);
+        }
+        if (fileNames == null) {
+            return Optional.empty();
+        }
+
+        CompletableFuture<Optional<Path>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<Path>> existing = rendering.putIfAbsent(sheetId, pending);
+        if (existing != null) {
+            return existing.join();
+        }
+        Optional<Path> result = Optional.empty();
+        try {
+            render(fileNames, path);
+            result = Optional.of(path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not render sprite sheet {}: {}", sheetId, e.getMessage());
+        } finally {
+            pending.complete(result);
+            rendering.remove(sheetId);
+        }
+        return result;
+    }
+
+    /** Sweeps unregistered sheets, first shortly after startup and then every six hours. */
+    @Scheduled(initialDelay = 5, fixedDelay = 360, timeUnit = TimeUnit.MINUTES)
+    public void sweepUnregisteredSheets() {
+        int deleted = sweep(Instant.now().minus(UNREGISTERED_SHEET_MAX_AGE));
+        if (deleted > 0) {
+            log.info("Deleted {} unregistered sprite sheets", deleted);
+        }
+    }
+
+    /**
+     * Deletes the sheet files that are not registered and were last modified before a cutoff.
+     *
+     * @param modifiedBefore files modified at or after this instant are kept
+     * @return the number of deleted files
+     */
+    int sweep(Instant modifiedBefore) {
+        Path directory = thumbnailStore.directory().resolve(SPRITES_DIR);
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Path fileName = file.getFileName();
+                Matcher matcher = fileName != null ? SHEET_FILE.matcher(fileName.toString()) : null;
+                if (matcher == null || !matcher.matches() || isRegistered(matcher.group(1))) {
+                    continue;
+                }
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(modifiedBefore)
+                        && !rendering.containsKey(matcher.group(1))
+                        && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not sweep sprite sheets in {}: {}", directory, e.getMessage());
+        }
+        return deleted;
+    }
+
+    private boolean isRegistered(String sheetId) {
+        synchronized (sheets) {
+            return sheets.containsKey(sheetId);
+        }
+    }
+
+    Path sheetPath(String sheetId) {
+        return thumbnailStore.directory().resolve(SPRITES_DIR).resolve(sheetId + ".jpg");
+    }
+
+    private void render(List<String> fileNames, Path target) throws IOException {
+        int count = fileNames.size();
+        BufferedImage sheet =
+                new BufferedImage(
+                        Math.min(count, COLUMNS) * TILE_WIDTH,
+                        ((count + COLUMNS - 1) / COLUMNS) * TILE_HEIGHT,
+                        BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = sheet.createGraphics();
+        try {
+            graphics.setRenderingHint(
+                    RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(BACKGROUND);
+            graphics.fillRect(0, 0, sheet.getWidth(), sheet.getHeight());
+            for (int i = 0; i < count; i++) {
+                BufferedImage image = read(fileNames.get(i));
+                if (image != null) {
+                    drawCover(
+                            graphics,
+                            image,
+                            (i % COLUMNS) * TILE_WIDTH,
+                            (i / COLUMNS) * TILE_HEIGHT);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        Files.createDirectories(thumbnailStore.directory().resolve(SPRITES_DIR));
+        ThumbnailImages.writeJpeg(sheet, target, JPEG_QUALITY);
+        log.debug("Rendered sprite sheet {} with {} tiles", target.getFileName(), count);
+    }
+
+    /** Prefers an already derived variant, which decodes much faster than the original. */
+    private BufferedImage read(String fileName) {
+        Path source = thumbnailStore.directory().resolve(fileName);
+        OptionalInt variantWidth = thumbnailVariants.closestWidth(TILE_WIDTH);
+        if (variantWidth.isPresent()) {
+            Path variant = thumbnailVariants.variantPath(fileName, variantWidth.getAsInt());
+            if (Files.exists(variant)) {
+                source = variant;
+            }
+        }
+        try (InputStream in = Files.newInputStream(source)) {
+            return ImageIO.read(in);
+        } catch (IOException e) {
+            log.debug("Skipping unreadable thumbnail {} in sprite: {}", fileName, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Scales the image to fill the tile and crops the overflow, like CSS object-fit: cover. */
+    private void drawCover(Graphics2D graphics, BufferedImage image, int x, int y) {
+        double scale =
+                Math.max(
+                        (double) TILE_WIDTH / image.getWidth(),
+                        (double) TILE_HEIGHT / image.getHeight());
+        int width = (int) Math.ceil(image.getWidth() * scale);
+        int height = (int) Math.ceil(image.getHeight() * scale);
+        Graphics2D tile = (Graphics2D) graphics.create(x, y, TILE_WIDTH, TILE_HEIGHT);
+        try {
+            tile.drawImage(
+                    image,
+                    (TILE_WIDTH - width) / 2,
+                    (TILE_HEIGHT - height) / 2,
+                    width,
+                    height,
+                    null);
+        } finally {
+            tile.dispose();
+        }
+    }
+
+    private String sheetId(List<String> fileNames) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((TILE_WIDTH + "x" + TILE_HEIGHT).getBytes(StandardCharsets.UTF_8));
+            for (String fileName : fileNames) {
+                digest.update((byte) '\n');
+                digest.update(fileName.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest()).substring(0, 32);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete sprite sheet {}: {}", file, e.getMessage());
+        }
+    }
+}
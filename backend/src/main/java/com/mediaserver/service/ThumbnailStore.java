@@ -0,0 +1,105 @@
+package com.mediaserver.service;
+
+import com.mediaserver.config.MediaProperties;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content-addressed thumbnail storage. Files are named after the SHA-256 hash of their bytes, so
+ * identical images are stored once and shared by every movie that uses them.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ThumbnailStore {
+
+    public static final String URL_PREFIX = "/api/thumbnails/file/";
+
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z]+");
+
+    private final MediaProperties properties;
+
+    public Path directory() {
+        return Path.of(properties.getStorage().getPath(), "thumbnails");
+    }
+
+    /**
+     * Creates an empty temporary file inside the thumbnail directory to download into.
+     *
+     * @param extension the image file extension including the dot
+     * @return path of the temporary file
+     * @throws IOException if the directory cannot be created
+     */
+    public Path newTempFile(String extension) throws IOException {
+        Path dir = Files.createDirectories(directory());
+        return dir.resolve(".incoming-" + UUID.randomUUID() + extension);
+    }
+
+    /**
+     * Moves a downloaded image into the store under its content hash. If the same content is
+     * already stored the temporary file is discarded.
+     *
+     * @param tempFile the downloaded file
+     * @param extension the image file extension including the dot
+     * @return the content-addressed file name
+     * @throws IOException if the file cannot be read or moved
+     */
+    public String put(Path tempFile, String extension) throws IOException {
+        String fileName = contentHash(tempFile) + extension.toLowerCase();
+        Path target = directory().resolve(fileName);
+
+        if (Files.exists(target)) {
+            Files.deleteIfExists(tempFile);
+            log.debug("Thumbnail already stored: {}", fileName);
+            return fileName;
+        }
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(tempFile);
+        }
+        return fileName;
+    }
+
+    /**
+     * Checks whether a file name was produced by {@link #put}. Such files never change, because
+     * their name is derived from their content.
+     *
+     * @param fileName the thumbnail file name
+     * @return true for content-addressed names
+     */
+    public static boolean isContentAddressed(String fileName) {
+        return CONTENT_ADDRESSED_NAME.matcher(fileName).matches();
+    }
+
+    public String urlFor(String fileName) {
+        return URL_PREFIX + fileName;
+    }
+
+    private String contentHash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,200 @@
+package com.mediaserver.service;
+
+import com.mediaserver.config.MediaProperties;
+import jakarta.annotation.PreDestroy;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives resized JPEG variants of stored thumbnails. Variants are generated on a small bounded
+ * executor, never on the request thread; until a variant exists callers serve the original.
+ */
+@Component
+@Slf4j
+public class ThumbnailVariants {
+
+    private static final String VARIANTS_DIR = "variants";
+    private static final int QUEUE_CAPACITY = 512;
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final int MAX_PROCESSED_NAMES = 4096;
+
+    private final ThumbnailStore thumbnailStore;
+    private final int[] widths;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Set<String> processed =
+            Collections.newSetFromMap(
+                    Collections.synchronizedMap(
+                            new LinkedHashMap<>(64, 0.75f) {
+                                @Override
+                                protected boolean removeEldestEntry(
+                                        Map.Entry<String, Boolean> eldest) {
+                                    return size() > MAX_PROCESSED_NAMES;
+                                }
+                            }));
+
+    public ThumbnailVariants(ThumbnailStore thumbnailStore, MediaProperties properties) {
+        this.thumbnailStore = thumbnailStore;
+        this.widths =
+                Arrays.stream(properties.getStorage().getThumbnailWidths())
+                        .filter(width -> width > 0)
+                        .distinct()
+                        .sorted()
+                        .toArray();
+        int workers = Math.max(1, properties.getStorage().getThumbnailVariantWorkers());
+        this.executor =
+                new ThreadPoolExecutor(
+                        workers,
+                        workers,
+                        30,
+                        TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                        Thread.ofPlatform().name("thumbnail-variant-", 0).daemon(true).factory());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Picks the configured width closest to a requested one: the smallest width that is at least as
+     * large, or the largest width if the request exceeds all of them.
+     *
+     * @param requestedWidth the width the client asked for
+     * @return the variant width, empty if no widths are configured
+     */
+    public OptionalInt closestWidth(int requestedWidth) {
+        if (widths.length == 0) {
+            return OptionalInt.empty();
+        }
+        for (int width : widths) {
+            if (width >= requestedWidth) {
+                return OptionalInt.of(width);
+            }
+        }
+        return OptionalInt.of(widths[widths.length - 1]);
+    }
+
+    /**
+     * Looks up the variant for a thumbnail. A missing variant is scheduled for generation and the
+     * caller should serve the original for now.
+     *
+     * @param fileName the original thumbnail file name
+     * @param width a width returned by {@link #closestWidth}
+     * @return the variant file if it exists
+     */
+    public Optional<Path> find(String fileName, int width) {
+        Path variant = variantPath(fileName, width);
+        if (Files.exists(variant)) {
+            return Optional.of(variant);
+        }
+        schedule(fileName);
+        return Optional.empty();
+    }
+
+    /**
+     * Queues generation of all variants of a thumbnail. Does nothing if the thumbnail was recently
+     * processed, is queued, or the queue is full; a later request will try again, as it will after
+     * a failed generation. Only the most recent thumbnails are remembered as processed. GIFs are
+     * never resized so that animations survive.
+     *
+     * @param fileName the original thumbnail file name
+     */
+    public void schedule(String fileName) {
+        if (widths.length == 0
+                || fileName.toLowerCase().endsWith(".gif")
+                || processed.contains(fileName)
+                || !pending.add(fileName)) {
+            return;
+        }
+        try {
+            executor.execute(
+                    () -> {
+                        try {
+                            if (generate(fileName)) {
+                                processed.add(fileName);
+                            }
+                        } finally {
+                            pending.remove(fileName);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            pending.remove(fileName);
+            log.debug("Thumbnail variant queue full, skipping {}", fileName);
+        }
+    }
+
+    /** Returns whether variants are queued or being generated. */
+    boolean isBusy() {
+        return !pending.isEmpty();
+    }
+
+    public String variantName(String fileName, int width) {
+        return MovieFileNames.baseName(fileName) + ".w" + width + ".jpg";
+    }
+
+    Path variantPath(String fileName, int width) {
+        return thumbnailStore
+                .directory()
+                .resolve(VARIANTS_DIR)
+                .resolve(variantName(fileName, width));
+    }
+
+    /**
+     * Writes the missing variants of a thumbnail.
+     *
+     * @param fileName the original thumbnail file name
+     * @return false if generation failed and should be retried, true if the variants exist or the
+     *     image cannot be decoded at all
+     */
+    boolean generate(String fileName) {
+        Path source = thumbnailStore.directory().resolve(fileName);
+        try {
+            BufferedImage original;
+            try (InputStream in = Files.newInputStream(source)) {
+                original = ImageIO.read(in);
+            }
+            if (original == null) {
+                log.debug("No image reader for thumbnail {}, serving original only", fileName);
+                return true;
+            }
+
+            Files.createDirectories(thumbnailStore.directory().resolve(VARIANTS_DIR));
+            for (int width : widths) {
+                if (width >= original.getWidth()) {
+                    continue;
+                }
+                Path target = variantPath(fileName, width);
+                if (!Files.exists(target)) {
+                    ThumbnailImages.writeJpeg(
+                            ThumbnailImages.scaleToWidth(original, width), target, JPEG_QUALITY);
+                }
+            }
+            log.debug("Generated thumbnail variants for {}", fileName);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate variants for thumbnail {}: {}", fileName, e.getMessage());
+            return false;
+        }
+    }
+}
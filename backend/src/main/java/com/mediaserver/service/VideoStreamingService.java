@@ -1,5 +1,6 @@
 package com.mediaserver.service;
 
+import com.mediaserver.application.service.PlaybackTracker;
 import com.mediaserver.config.MediaProperties;
 import com.mediaserver.domain.model.Movie;
 import com.mediaserver.domain.repository.MovieRepository;
@@ -24,6 +25,7 @@ import org.springframework.stereotype.Service;
 public class VideoStreamingService {
 
     private final MediaProperties properties;
+    private final PlaybackTracker playbackTracker;
     private final MovieRepository movieRepository;
 
     public StreamingResponse streamVideo(String movieId, String rangeHeader) throws IOException {
@@ -46,7 +48,7 @@ public class VideoStreamingService {
         HttpRange range = parseRange(rangeHeader, fileSize);
 
         return StreamingResponse.builder()
-                .inputStreamSupplier(() -> createRangeInputStream(videoPath, range))
+                .inputStreamSupplier(() -> createRangeInputStream(movieId, videoPath, range))
                 .contentType(contentType)
                 .contentLength(range.length)
                 .fileSize(fileSize)
@@ -99,7 +101,7 @@ public class VideoStreamingService {
     }
 
     @SuppressWarnings("deprecation")
-    private InputStream createRangeInputStream(Path path, HttpRange range) {
+    private InputStream createRangeInputStream(String movieId, Path path, HttpRange range) {
         RandomAccessFile file = null;
         try {
             file = new RandomAccessFile(path.toFile(), "r");
@@ -108,6 +110,7 @@ public class VideoStreamingService {
             InputStream boundedStream = new BoundedInputStream(channelStream, range.length);
 
             final RandomAccessFile fileRef = file;
+            playbackTracker.streamOpened(movieId, range.start == 0);
 
             return new InputStream() {
                 private boolean closed = false;
@@ -136,6 +139,7 @@ public class VideoStreamingService {
                 public void close() throws IOException {
                     if (closed) return;
                     closed = true;
+                    playbackTracker.streamClosed(movieId);
                     try {
                         boundedStream.close();
                     } finally {
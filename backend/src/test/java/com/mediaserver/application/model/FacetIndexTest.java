@@ -0,0 +1,109 @@
+package com.mediaserver.application.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for FacetIndex. */
+class FacetIndexTest {
+
+    private final FacetIndex index =
+            FacetIndex.of(
+                    List.of(
+                            movie("m1", "cat-1", 1999, MovieStatus.READY),
+                            movie("m2", "cat-1", 2003, MovieStatus.PENDING),
+                            movie("m3", "cat-2", 1999, MovieStatus.READY),
+                            movie("m4", null, null, MovieStatus.READY)));
+
+    private static Movie movie(String id, String categoryId, Integer year, MovieStatus status) {
+        return Movie.builder()
+                .id(id)
+                .title(id)
+                .categoryId(categoryId)
+                .year(year)
+                .status(status)
+                .build();
+    }
+
+    private static FacetFilter filter(MovieFacet facet, String... values) {
+        return new FacetFilter(Map.of(facet, Set.of(values)));
+    }
+
+    @Test
+    void filter_shouldReturnAllMoviesAndCounts_whenNothingSelected() {
+        FacetedMovies result = index.filter(FacetFilter.none(), Set.of("m2"), 0, 10);
+
+        assertThat(result.total()).isEqualTo(4);
+        assertThat(result.counts().get(MovieFacet.CATEGORY))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("cat-1", 2, "cat-2", 1, "none", 1));
+        assertThat(result.counts().get(MovieFacet.FAVORITE))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("true", 1, "false", 3));
+    }
+
+    @Test
+    void filter_shouldUnionValuesOfOneFacetAndIntersectFacets() {
+        FacetFilter filter =
+                new FacetFilter(
+                        Map.of(
+                                MovieFacet.CATEGORY, Set.of("cat-1", "none"),
+                                MovieFacet.STATUS, Set.of("READY")));
+
+        FacetedMovies result = index.filter(filter, Set.of(), 0, 10);
+
+        assertThat(result.movies()).extracting(Movie::getId).containsExactly("m1", "m4");
+        assertThat(result.total()).isEqualTo(2);
+    }
+
+    @Test
+    void filter_shouldCountFacetIgnoringItsOwnSelection() {
+        FacetedMovies result = index.filter(filter(MovieFacet.YEAR, "1999"), Set.of(), 0, 10);
+
+        assertThat(result.counts().get(MovieFacet.YEAR))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("1999", 2, "2003", 1, "none", 1));
+        assertThat(result.counts().get(MovieFacet.CATEGORY))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("cat-1", 1, "cat-2", 1));
+    }
+
+    @Test
+    void filter_shouldSelectFavorites() {
+        FacetedMovies result =
+                index.filter(filter(MovieFacet.FAVORITE, "true"), Set.of("m3", "gone"), 0, 10);
+
+        assertThat(result.movies()).extracting(Movie::getId).containsExactly("m3");
+    }
+
+    @Test
+    void filter_shouldPageMatches() {
+        FacetedMovies result = index.filter(FacetFilter.none(), Set.of(), 1, 2);
+
+        assertThat(result.movies()).extracting(Movie::getId).containsExactly("m2", "m3");
+        assertThat(result.total()).isEqualTo(4);
+    }
+
+    @Test
+    void withChanged_shouldMoveChangedMoviesBetweenBitmapsAndKeepOriginal() {
+        Movie downloaded = movie("m2", "cat-2", 2003, MovieStatus.READY);
+        List<Movie> next =
+                List.of(
+                        movie("m1", "cat-1", 1999, MovieStatus.READY),
+                        downloaded,
+                        movie("m3", "cat-2", 1999, MovieStatus.READY),
+                        movie("m4", null, null, MovieStatus.READY));
+
+        FacetIndex updated = index.withChanged(next, List.of(downloaded));
+
+        FacetedMovies result =
+                updated.filter(filter(MovieFacet.CATEGORY, "cat-2"), Set.of(), 0, 10);
+        assertThat(result.movies()).containsExactly(downloaded, next.get(2));
+        assertThat(result.counts().get(MovieFacet.STATUS))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("READY", 2));
+        assertThat(index.filter(filter(MovieFacet.STATUS, "PENDING"), Set.of(), 0, 10).movies())
+                .extracting(Movie::getId)
+                .containsExactly("m2");
+    }
+}
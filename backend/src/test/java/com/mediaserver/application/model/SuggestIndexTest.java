@@ -0,0 +1,123 @@
+package com.mediaserver.application.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mediaserver.domain.model.Movie;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for SuggestIndex. */
+class SuggestIndexTest {
+
+    private final SuggestIndex index = SuggestIndex.of(catalog());
+
+    private static List<Movie> catalog() {
+        return List.of(
+                movie("m1", "The Matrix", 1999),
+                movie("m2", "The Matrix Reloaded", 2003),
+                movie("m3", "Amélie", 2001),
+                movie("m4", "Mad Max: Fury Road", 2015),
+                movie("m5", "Interstellar", 2014));
+    }
+
+    private static Map<String, Movie> byId(List<Movie> movies) {
+        Map<String, Movie> byId = new HashMap<>();
+        movies.forEach(movie -> byId.put(movie.getId(), movie));
+        return byId;
+    }
+
+    private static Movie movie(String id, String title, Integer year) {
+        return Movie.builder().id(id).title(title).year(year).build();
+    }
+
+    private List<String> suggest(String query) {
+        return index.suggest(query, 10).stream().map(Movie::getId).toList();
+    }
+
+    @Test
+    void suggest_shouldMatchWordPrefixes() {
+        assertThat(suggest("mat")).containsExactly("m1", "m2");
+        assertThat(suggest("fury ro")).containsExactly("m4");
+    }
+
+    @Test
+    void suggest_shouldTolerateTypos() {
+        assertThat(suggest("intersteller")).containsExactly("m5");
+        assertThat(suggest("matirx rel")).containsExactly("m2");
+    }
+
+    @Test
+    void suggest_shouldRankExactMatchesBeforeTypos() {
+        SuggestIndex typoIndex =
+                SuggestIndex.of(
+                        List.of(
+                                movie("m1", "Mexico", null),
+                                movie("m2", "Maximum Overdrive", null)));
+
+        assertThat(typoIndex.suggest("maxi", 10))
+                .extracting(Movie::getId)
+                .containsExactly("m2", "m1");
+    }
+
+    @Test
+    void suggest_shouldIgnoreCaseAndAccents() {
+        assertThat(suggest("AMELIE")).containsExactly("m3");
+    }
+
+    @Test
+    void suggest_shouldMatchYear() {
+        assertThat(suggest("matrix 2003")).containsExactly("m2");
+    }
+
+    @Test
+    void suggest_shouldRespectLimit() {
+        assertThat(index.suggest("the", 1)).extracting(Movie::getId).containsExactly("m1");
+        assertThat(index.suggest("  ", 5)).isEmpty();
+    }
+
+    @Test
+    void withMovies_shouldIndexAddedAndRetitledMoviesAndDropRemovedOnes() {
+        Movie retitled = movie("m5", "Solaris", 1972);
+        Movie added = movie("m6", "Matrix Resurrections", 2021);
+        Map<String, Movie> next = byId(catalog());
+        next.remove("m1");
+        next.put("m5", retitled);
+        next.put("m6", added);
+
+        SuggestIndex updated = index.withMovies(next, List.of(retitled, added), List.of("m1"));
+
+        assertThat(updated.suggest("mat", 10)).extracting(Movie::getId).containsExactly("m6", "m2");
+        assertThat(updated.suggest("solaris", 10)).containsExactly(retitled);
+        assertThat(updated.suggest("interstellar", 10)).isEmpty();
+        assertThat(suggest("interstellar")).containsExactly("m5");
+    }
+
+    @Test
+    void withMovies_shouldReturnCurrentMovie_whenTitleIsUnchanged() {
+        Movie downloaded = movie("m3", "Amélie", 2001).withLocalPath("/cache/m3.mkv");
+        Map<String, Movie> next = byId(catalog());
+        next.put("m3", downloaded);
+
+        SuggestIndex updated = index.withMovies(next, List.of(downloaded), List.of());
+
+        assertThat(updated.suggest("amelie", 10)).singleElement().isSameAs(downloaded);
+    }
+
+    @Test
+    void withMovies_shouldMatchFullIndex_afterChangesAreFolded() {
+        Map<String, Movie> next = byId(catalog());
+        SuggestIndex updated = index;
+        for (int i = 0; i < 300; i++) {
+            Movie added = movie("n" + i, "Matrix Sequel " + i, 2000 + i % 20);
+            next = new HashMap<>(next);
+            next.put(added.getId(), added);
+            updated = updated.withMovies(next, List.of(added), List.of());
+        }
+
+        assertThat(updated.suggest("matrix seq 2005", 50))
+                .containsExactlyElementsOf(
+                        SuggestIndex.of(next.values()).suggest("matrix seq 2005", 50));
+    }
+}
@@ -0,0 +1,199 @@
+package com.mediaserver.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.application.model.BulkResult;
+import com.mediaserver.application.model.BulkResult.Outcome;
+import com.mediaserver.application.port.out.CurrentUserProvider;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for BulkMovieApplicationService. */
+@ExtendWith(MockitoExtension.class)
+class BulkMovieApplicationServiceTest {
+
+    @Mock private MoviePort moviePort;
+
+    @Mock private CurrentUserProvider currentUserProvider;
+
+    @Mock private CachedFileDeleter cachedFileDeleter;
+
+    @Mock private DownloadStarter downloadStarter;
+
+    @InjectMocks private BulkMovieApplicationService bulkMovieApplicationService;
+
+    private Movie testMovie;
+
+    @BeforeEach
+    void setUp() {
+        testMovie =
+                Movie.builder()
+                        .id("movie-1")
+                        .title("Test Movie")
+                        .megaUrl("https://mega.nz/file/test")
+                        .status(MovieStatus.PENDING)
+                        .createdAt(LocalDateTime.now())
+                        .updatedAt(LocalDateTime.now())
+                        .build();
+        lenient().when(currentUserProvider.getCurrentUserId()).thenReturn("user-1");
+    }
+
+    @Test
+    void addFavorites_shouldInsertOnlyNewFavoritesAndReportEachId() {
+        Movie other = testMovie.withId("movie-2");
+        when(moviePort.findFavoriteIds("user-1")).thenReturn(Set.of("movie-2"));
+        when(moviePort.findAllById(Set.of("movie-1", "movie-2", "missing")))
+                .thenReturn(List.of(testMovie, other));
+
+        List<BulkResult> results =
+                bulkMovieApplicationService.addFavorites(
+                        List.of("movie-1", "movie-2", "missing", "movie-1"));
+
+        assertThat(results)
+                .extracting(BulkResult::movieId, BulkResult::outcome)
+                .containsExactly(
+                        tuple("movie-1", Outcome.APPLIED),
+                        tuple("movie-2", Outcome.UNCHANGED),
+                        tuple("missing", Outcome.NOT_FOUND));
+        verify(moviePort).addFavorites(List.of("movie-1"), "user-1");
+    }
+
+    @Test
+    void startDownloads_shouldSaveDownloadableMoviesInOneBatchAndRejectOthers() {
+        Movie cached =
+                testMovie
+                        .withId("movie-2")
+                        .withStatus(MovieStatus.READY)
+                        .withLocalPath("/cache/movie-2.mp4");
+        when(moviePort.findAllById(any())).thenReturn(List.of(testMovie, cached));
+        when(moviePort.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(downloadStarter.claim("movie-1")).thenReturn(true);
+
+        List<BulkResult> results =
+                bulkMovieApplicationService.startDownloads(List.of("movie-1", "movie-2"));
+
+        assertThat(results)
+                .extracting(BulkResult::outcome, BulkResult::message)
+                .containsExactly(
+                        tuple(Outcome.APPLIED, null),
+                        tuple(Outcome.REJECTED, "Movie is already downloaded"));
+        verify(moviePort)
+                .saveAll(
+                        argThat(
+                                movies ->
+                                        movies.size() == 1
+                                                && movies.iterator().next().getStatus()
+                                                        == MovieStatus.DOWNLOADING));
+        verify(downloadStarter, times(1)).start(any());
+        verify(downloadStarter, never()).claim("movie-2");
+    }
+
+    @Test
+    void startDownloads_shouldRejectMovie_whenItDoesNotFitIntoCache() {
+        when(moviePort.findAllById(any())).thenReturn(List.of(testMovie));
+        when(moviePort.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(downloadStarter.claim("movie-1")).thenReturn(true);
+        doThrow(new IllegalStateException("Not enough cache space"))
+                .when(downloadStarter)
+                .admit(testMovie);
+
+        List<BulkResult> results = bulkMovieApplicationService.startDownloads(List.of("movie-1"));
+
+        assertThat(results)
+                .extracting(BulkResult::outcome, BulkResult::message)
+                .containsExactly(tuple(Outcome.REJECTED, "Not enough cache space"));
+        verify(downloadStarter).release("movie-1");
+        verify(downloadStarter, never()).start(any());
+    }
+
+    @Test
+    void startDownloads_shouldReleaseClaimedMovies_whenAdmissionFails() {
+        Movie other = testMovie.withId("movie-2");
+        when(moviePort.findAllById(any())).thenReturn(List.of(testMovie, other));
+        when(downloadStarter.claim(any())).thenReturn(true);
+        doNothing()
+                .doThrow(new IllegalArgumentException("database down"))
+                .when(downloadStarter)
+                .admit(any());
+
+        assertThatThrownBy(
+                        () ->
+                                bulkMovieApplicationService.startDownloads(
+                                        List.of("movie-1", "movie-2")))
+                .hasMessage("database down");
+
+        verify(downloadStarter).release("movie-1");
+        verify(downloadStarter).release("movie-2");
+        verify(moviePort, never()).saveAll(any());
+        verify(downloadStarter, never()).start(any());
+    }
+
+    @Test
+    void startDownloads_shouldReleaseOnlyUnstartedMovies_whenStartFails() {
+        Movie second = testMovie.withId("movie-2");
+        Movie third = testMovie.withId("movie-3");
+        when(moviePort.findAllById(any())).thenReturn(List.of(testMovie, second, third));
+        when(moviePort.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(downloadStarter.claim(any())).thenReturn(true);
+        doNothing()
+                .doThrow(new IllegalStateException("link failed"))
+                .when(downloadStarter)
+                .start(any());
+
+        assertThatThrownBy(
+                        () ->
+                                bulkMovieApplicationService.startDownloads(
+                                        List.of("movie-1", "movie-2", "movie-3")))
+                .hasMessage("link failed");
+
+        verify(downloadStarter, never()).release("movie-1");
+        verify(downloadStarter).release("movie-2");
+        verify(downloadStarter).release("movie-3");
+    }
+
+    @Test
+    void clearCaches_shouldResetCachedMoviesAndDeleteFilesAfterCommit() {
+        Movie cached = testMovie.withLocalPath("/cache/movie-1.mp4");
+        Movie notCached = testMovie.withId("movie-2");
+        when(moviePort.findAllById(any())).thenReturn(List.of(cached, notCached));
+
+        List<BulkResult> results =
+                bulkMovieApplicationService.clearCaches(List.of("movie-1", "movie-2"));
+
+        assertThat(results)
+                .extracting(BulkResult::outcome)
+                .containsExactly(Outcome.APPLIED, Outcome.UNCHANGED);
+        verify(moviePort).resetCache(List.of("movie-1"));
+        verify(cachedFileDeleter).deleteAfterCommit(List.of(Path.of("/cache/movie-1.mp4")));
+    }
+
+    @Test
+    void deleteMovies_shouldDeleteFoundMoviesAndTheirFilesAfterCommit() {
+        Movie cached = testMovie.withLocalPath("/cache/movie-1.mp4");
+        when(moviePort.findAllById(any())).thenReturn(List.of(cached));
+
+        List<BulkResult> results =
+                bulkMovieApplicationService.deleteMovies(List.of("movie-1", "missing"));
+
+        assertThat(results)
+                .extracting(BulkResult::outcome)
+                .containsExactly(Outcome.APPLIED, Outcome.NOT_FOUND);
+        verify(moviePort).deleteAllById(List.of("movie-1"));
+        verify(cachedFileDeleter).deleteAfterCommit(List.of(Path.of("/cache/movie-1.mp4")));
+    }
+}
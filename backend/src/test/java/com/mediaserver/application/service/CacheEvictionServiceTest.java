@@ -0,0 +1,239 @@
+package com.mediaserver.application.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.application.model.PlaybackStats;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.config.MediaProperties.EvictionPolicy;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for CacheEvictionService. Tests that downloads are admitted within the cache quota and
+ * that movies are evicted in the order of the configured policy.
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheEvictionServiceTest {
+
+    private static final long GB = 1024L * 1024 * 1024;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock private MoviePort moviePort;
+
+    @Mock private CacheUsage cacheUsage;
+
+    @Mock private PlaybackTracker playbackTracker;
+
+    @Mock private CachedFileDeleter cachedFileDeleter;
+
+    @Mock private DownloadCoalescer downloadCoalescer;
+
+    private MediaProperties properties;
+    private final Map<String, PlaybackStats> stats = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new MediaProperties();
+        properties.getStorage().setMaxCacheSizeGb(10);
+    }
+
+    private CacheEvictionService service(EvictionPolicy policy) {
+        properties.getStorage().setEvictionPolicy(policy);
+        return new CacheEvictionService(
+                moviePort,
+                cacheUsage,
+                playbackTracker,
+                cachedFileDeleter,
+                downloadCoalescer,
+                properties);
+    }
+
+    private Movie cached(String id, long gb, int plays, int hoursAgo) {
+        stats.put(id, new PlaybackStats(id, NOW.minusHours(hoursAgo), plays));
+        return Movie.builder()
+                .id(id)
+                .title(id)
+                .status(MovieStatus.READY)
+                .localPath("/cache/" + id + ".mp4")
+                .fileSize(gb * GB)
+                .build();
+    }
+
+    private Movie download(long gb) {
+        return Movie.builder().id("new").title("New").fileSize(gb * GB).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void library(Movie... movies) {
+        when(cacheUsage.totalBytesExcluding(anyCollection()))
+                .thenAnswer(
+                        invocation -> {
+                            Collection<String> excluded = invocation.getArgument(0);
+                            return List.of(movies).stream()
+                                    .filter(movie -> !excluded.contains(movie.getId()))
+                                    .mapToLong(Movie::getFileSize)
+                                    .sum();
+                        });
+        when(moviePort.findCachedNonFavorites()).thenReturn(List.of(movies));
+        lenient()
+                .when(playbackTracker.stats(anyCollection()))
+                .thenAnswer(
+                        invocation -> {
+                            Map<String, PlaybackStats> requested = new HashMap<>();
+                            for (String id : (Collection<String>) invocation.getArgument(0)) {
+                                requested.put(id, stats.get(id));
+                            }
+                            return requested;
+                        });
+    }
+
+    @Test
+    void admit_shouldNotEvict_whenDownloadFits() {
+        when(cacheUsage.totalBytesExcluding(anyCollection())).thenReturn(4 * GB);
+
+        service(EvictionPolicy.LRU).admit(download(6));
+
+        verify(moviePort, never()).findCachedNonFavorites();
+        verifyNoInteractions(cachedFileDeleter);
+    }
+
+    @Test
+    void admit_shouldEvictLeastRecentlyStreamedMoviesThatAreNotStreaming() {
+        Movie old = cached("old", 3, 9, 48);
+        Movie watching = cached("watching", 3, 1, 72);
+        Movie recent = cached("recent", 3, 1, 1);
+        library(old, watching, recent);
+        when(playbackTracker.isStreaming(any())).thenReturn(false);
+        when(playbackTracker.isStreaming("watching")).thenReturn(true);
+
+        service(EvictionPolicy.LRU).admit(download(2));
+
+        verify(moviePort).resetCache(List.of("old"));
+        verify(cachedFileDeleter).deleteAfterCommit(List.of(Path.of("/cache/old.mp4")));
+    }
+
+    @Test
+    void admit_shouldEvictLeastPlayedMovies_whenPolicyIsLfu() {
+        library(cached("popular", 3, 9, 48), cached("rare", 3, 1, 1), cached("mid", 3, 4, 2));
+
+        service(EvictionPolicy.LFU).admit(download(5));
+
+        verify(moviePort).resetCache(List.of("rare", "mid"));
+    }
+
+    @Test
+    void admit_shouldPreferLargeRarelyPlayedMovies_whenPolicyIsSize() {
+        library(cached("small", 1, 0, 48), cached("large", 7, 1, 1), cached("mid", 1, 0, 2));
+
+        service(EvictionPolicy.SIZE).admit(download(2));
+
+        verify(moviePort).resetCache(List.of("large"));
+    }
+
+    @Test
+    void admit_shouldReject_whenEvictingEverythingDoesNotFreeEnough() {
+        library(cached("m1", 4, 0, 1), cached("m2", 4, 0, 2));
+        when(playbackTracker.isStreaming("m1")).thenReturn(true);
+
+        assertThatThrownBy(() -> service(EvictionPolicy.LRU).admit(download(7)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Not enough cache space");
+
+        verify(moviePort, never()).resetCache(any());
+        verifyNoInteractions(cachedFileDeleter);
+    }
+
+    @Test
+    void admit_shouldCountReservedSpaceOfRunningDownloads() {
+        when(cacheUsage.totalBytesExcluding(anyCollection())).thenReturn(0L);
+        when(moviePort.findCachedNonFavorites()).thenReturn(List.of());
+        CacheEvictionService service = service(EvictionPolicy.LRU);
+        service.admit(download(8));
+        Movie second = Movie.builder().id("second").title("Second").fileSize(4 * GB).build();
+
+        assertThatThrownBy(() -> service.admit(second)).isInstanceOf(IllegalStateException.class);
+
+        service.release("new");
+        service.admit(second);
+        verify(moviePort, never()).resetCache(any());
+    }
+
+    @Test
+    void admit_shouldNotCountOrEvictMoviesAgain_whileTheirEvictionIsUncommitted() {
+        library(cached("old", 4, 0, 48), cached("recent", 4, 0, 1));
+        CacheEvictionService service = service(EvictionPolicy.LRU);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.admit(download(4));
+            service.release("new");
+            Movie second = Movie.builder().id("second").title("Second").fileSize(4 * GB).build();
+
+            service.admit(second);
+
+            verify(moviePort).resetCache(List.of("old"));
+            verify(moviePort, never()).resetCache(List.of("recent"));
+            verify(cacheUsage, atLeastOnce()).totalBytesExcluding(Set.of("old"));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(
+                            synchronization ->
+                                    synchronization.afterCompletion(
+                                            TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Movie third = Movie.builder().id("third").title("Third").fileSize(4 * GB).build();
+        service.admit(third);
+        verify(moviePort).resetCache(List.of("old", "recent"));
+    }
+
+    @Test
+    void admit_shouldReserveNothingAndEvictNothing_whenMovieWillBeLinked() {
+        when(cacheUsage.totalBytesExcluding(anyCollection())).thenReturn(9 * GB);
+        Movie linked = download(4).withMegaUrl("https://mega.nz/file/abc#key");
+        when(downloadCoalescer.willLink(linked)).thenReturn(true);
+        CacheEvictionService service = service(EvictionPolicy.LRU);
+
+        service.admit(linked);
+        service.admit(download(1));
+
+        verify(moviePort, never()).findCachedNonFavorites();
+        verifyNoInteractions(cachedFileDeleter);
+    }
+
+    @Test
+    void admit_shouldNotEvictMoviesSharingTheSourceOfAnAdmittedDownload() {
+        Movie holder = cached("holder", 4, 0, 48).withMegaUrl("https://mega.nz/file/abc#key");
+        Movie other = cached("other", 4, 0, 1);
+        library(holder, other);
+        CacheEvictionService service = service(EvictionPolicy.LRU);
+        service.admit(
+                Movie.builder()
+                        .id("waiting")
+                        .title("Waiting")
+                        .megaUrl("https://www.mega.nz/file/abc#key")
+                        .build());
+
+        service.admit(download(4));
+
+        verify(moviePort).resetCache(List.of("other"));
+    }
+}
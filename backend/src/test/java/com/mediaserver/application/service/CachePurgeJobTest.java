@@ -0,0 +1,101 @@
+package com.mediaserver.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.application.model.CachePurge;
+import com.mediaserver.application.port.out.FileStoragePort;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.event.CachePurgeProgressEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Unit tests for CachePurgeJob. Tests that files are deleted in the background, that only movies
+ * whose files are gone are reset and that progress is published.
+ */
+@ExtendWith(MockitoExtension.class)
+class CachePurgeJobTest {
+
+    @Mock private MoviePort moviePort;
+
+    @Mock private FileStoragePort fileStoragePort;
+
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    private CachePurgeJob cachePurgeJob;
+
+    @BeforeEach
+    void setUp() {
+        cachePurgeJob =
+                new CachePurgeJob(
+                        moviePort, fileStoragePort, eventPublisher, new MediaProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cachePurgeJob.shutdown();
+    }
+
+    private Movie cached(String id) {
+        return Movie.builder()
+                .id(id)
+                .title(id)
+                .status(MovieStatus.READY)
+                .localPath("/cache/" + id + ".mp4")
+                .build();
+    }
+
+    private CachePurge awaitFinished() throws InterruptedException {
+        for (int i = 0; i < 500 && cachePurgeJob.current().isRunning(); i++) {
+            Thread.sleep(10);
+        }
+        return cachePurgeJob.current();
+    }
+
+    @Test
+    void start_shouldResetOnlyMoviesWhoseFilesWereDeleted() throws Exception {
+        when(moviePort.findCachedNonFavorites())
+                .thenReturn(List.of(cached("m1"), cached("m2"), cached("m3")));
+        when(fileStoragePort.deleteIfExists(any())).thenReturn(true);
+        when(fileStoragePort.deleteIfExists(Path.of("/cache/m2.mp4")))
+                .thenThrow(new IOException("busy"));
+
+        assertThat(cachePurgeJob.start().isRunning()).isTrue();
+        CachePurge result = awaitFinished();
+
+        assertThat(result).isEqualTo(new CachePurge(CachePurge.State.COMPLETED, 3, 2, 1, null));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> reset = ArgumentCaptor.forClass(List.class);
+        verify(moviePort).resetCache(reset.capture());
+        assertThat(reset.getValue()).containsExactlyInAnyOrder("m1", "m3");
+        verify(eventPublisher)
+                .publishEvent(new CachePurgeProgressEvent("COMPLETED", 3, 2, 1, null));
+    }
+
+    @Test
+    void start_shouldReportFailure_whenMoviesCannotBeRead() throws Exception {
+        when(moviePort.findCachedNonFavorites()).thenThrow(new IllegalStateException("db down"));
+
+        cachePurgeJob.start();
+        CachePurge result = awaitFinished();
+
+        assertThat(result.state()).isEqualTo(CachePurge.State.FAILED);
+        assertThat(result.error()).isEqualTo("db down");
+        verify(moviePort, never()).resetCache(any());
+        verifyNoInteractions(fileStoragePort);
+    }
+}
@@ -0,0 +1,105 @@
+package com.mediaserver.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.application.port.out.FileStoragePort;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for CacheReconciler. Tests that missing and resized files are fixed in the movie rows
+ * and that old orphaned files are deleted.
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheReconcilerTest {
+
+    private static final Path STORAGE = Path.of("/media/videos").toAbsolutePath();
+
+    @Mock private MoviePort moviePort;
+
+    @Mock private FileStoragePort fileStoragePort;
+
+    @Mock private CacheUsage cacheUsage;
+
+    private CacheReconciler cacheReconciler;
+
+    @BeforeEach
+    void setUp() {
+        MediaProperties properties = new MediaProperties();
+        properties.getStorage().setPath(STORAGE.toString());
+        cacheReconciler = new CacheReconciler(moviePort, fileStoragePort, cacheUsage, properties);
+    }
+
+    private Movie cached(String id, long size) {
+        return Movie.builder()
+                .id(id)
+                .status(MovieStatus.READY)
+                .localPath(STORAGE.resolve(id + ".mp4").toString())
+                .fileSize(size)
+                .build();
+    }
+
+    private void file(String name, long size, Instant modified) throws Exception {
+        when(fileStoragePort.size(STORAGE.resolve(name))).thenReturn(size);
+        when(fileStoragePort.lastModified(STORAGE.resolve(name))).thenReturn(modified);
+    }
+
+    @Test
+    void reconcile_shouldFixRowsDeleteOldOrphansAndReloadTotals() throws Exception {
+        Instant old = Instant.now().minus(2, ChronoUnit.DAYS);
+        Movie intact = cached("intact", 100);
+        Movie gone = cached("gone", 100);
+        Movie grown = cached("grown", 100);
+        when(moviePort.findCachedMovies()).thenReturn(List.of(intact, gone, grown));
+        when(fileStoragePort.listFiles(STORAGE))
+                .thenReturn(
+                        List.of(
+                                STORAGE.resolve("intact.mp4"),
+                                STORAGE.resolve("grown.mp4"),
+                                STORAGE.resolve("orphan.mp4"),
+                                STORAGE.resolve("writing.mp4")));
+        file("intact.mp4", 100, old);
+        file("grown.mp4", 250, old);
+        file("orphan.mp4", 70, old);
+        file("writing.mp4", 70, Instant.now());
+        when(moviePort.findAllById(anyCollection())).thenReturn(List.of(gone, grown));
+        when(fileStoragePort.deleteIfExists(STORAGE.resolve("orphan.mp4"))).thenReturn(true);
+
+        CacheReconciler.Result result = cacheReconciler.reconcile();
+
+        assertThat(result).isEqualTo(new CacheReconciler.Result(4, 1, 1, 1));
+        verify(moviePort).resetCache(List.of("gone"));
+        verify(moviePort).saveAll(List.of(grown.withFileSize(250L)));
+        verify(fileStoragePort, never()).deleteIfExists(STORAGE.resolve("writing.mp4"));
+        verify(cacheUsage).reload();
+    }
+
+    @Test
+    void reconcile_shouldLeaveMovieAlone_whenItChangedDuringTheScan() throws Exception {
+        Movie gone = cached("gone", 100);
+        when(moviePort.findCachedMovies()).thenReturn(List.of(gone));
+        when(fileStoragePort.listFiles(STORAGE)).thenReturn(List.of());
+        when(moviePort.findAllById(anyCollection()))
+                .thenReturn(List.of(gone.withLocalPath(null).withStatus(MovieStatus.PENDING)));
+
+        CacheReconciler.Result result = cacheReconciler.reconcile();
+
+        assertThat(result.missing()).isZero();
+        verify(moviePort, never()).resetCache(any());
+        verify(moviePort, never()).saveAll(any());
+    }
+}
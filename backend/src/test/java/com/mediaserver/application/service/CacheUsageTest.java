@@ -0,0 +1,83 @@
+package com.mediaserver.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.event.CatalogChangedEvent;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for CacheUsage. Tests that the totals are loaded once and kept current from catalog
+ * changes.
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheUsageTest {
+
+    @Mock private MoviePort moviePort;
+
+    @InjectMocks private CacheUsage cacheUsage;
+
+    private Movie cached(String id, long size) {
+        return Movie.builder()
+                .id(id)
+                .status(MovieStatus.READY)
+                .localPath("/cache/" + id + ".mp4")
+                .fileSize(size)
+                .build();
+    }
+
+    @Test
+    void totals_shouldLoadOnceAndServeFromMemory() {
+        when(moviePort.findCachedMovies()).thenReturn(List.of(cached("m1", 100), cached("m2", 50)));
+
+        cacheUsage.totalBytes();
+
+        assertThat(cacheUsage.totalBytes()).isEqualTo(150);
+        assertThat(cacheUsage.count()).isEqualTo(2);
+        verify(moviePort, times(1)).findCachedMovies();
+        verifyNoMoreInteractions(moviePort);
+    }
+
+    @Test
+    void onCatalogChanged_shouldApplyDownloadsClearsAndDeletesOnce() {
+        when(moviePort.findCachedMovies()).thenReturn(List.of(cached("m1", 100), cached("m2", 50)));
+        cacheUsage.count();
+
+        CatalogChangedEvent downloaded = CatalogChangedEvent.moviesSaved(List.of(cached("m3", 30)));
+        cacheUsage.onCatalogChanged(downloaded);
+        cacheUsage.onCatalogChanged(downloaded);
+        cacheUsage.onCatalogChanged(
+                CatalogChangedEvent.moviesSaved(
+                        List.of(cached("m1", 100).withLocalPath(null).withFileSize(null))));
+        cacheUsage.onCatalogChanged(CatalogChangedEvent.movieDeleted("m2"));
+
+        assertThat(cacheUsage.totalBytes()).isEqualTo(30);
+        assertThat(cacheUsage.count()).isEqualTo(1);
+    }
+
+    @Test
+    void onCatalogChanged_shouldBeSkipped_whenNotLoadedYet() {
+        cacheUsage.onCatalogChanged(CatalogChangedEvent.moviesSaved(List.of(cached("m1", 10))));
+
+        verifyNoInteractions(moviePort);
+    }
+
+    @Test
+    void totalBytesExcluding_shouldSkipMoviesThatAreNoLongerCounted() {
+        when(moviePort.findCachedMovies()).thenReturn(List.of(cached("m1", 100), cached("m2", 50)));
+
+        assertThat(cacheUsage.totalBytesExcluding(List.of("m1", "unknown"))).isEqualTo(50);
+
+        cacheUsage.onCatalogChanged(CatalogChangedEvent.movieDeleted("m1"));
+
+        assertThat(cacheUsage.totalBytesExcluding(List.of("m1"))).isEqualTo(50);
+    }
+}
@@ -0,0 +1,99 @@
+package com.mediaserver.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.application.model.CatalogChange;
+import com.mediaserver.application.model.CatalogChange.EntityType;
+import com.mediaserver.application.model.CatalogChanges;
+import com.mediaserver.application.port.out.CatalogChangePort;
+import com.mediaserver.application.port.out.CategoryPort;
+import com.mediaserver.application.port.out.CurrentUserProvider;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.exception.InvalidPageRequestException;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for CatalogChangesService. Tests assembling the changes feed from the change log. */
+@ExtendWith(MockitoExtension.class)
+class CatalogChangesServiceTest {
+
+    @Mock private CatalogChangePort catalogChangePort;
+
+    @Mock private MoviePort moviePort;
+
+    @Mock private CategoryPort categoryPort;
+
+    @Mock private CurrentUserProvider currentUserProvider;
+
+    @InjectMocks private CatalogChangesService catalogChangesService;
+
+    @Test
+    void getChanges_shouldLoadCurrentStateOfChangedEntities() {
+        Movie movie = Movie.builder().id("m1").title("Alpha").build();
+        Category action = Category.builder().id("cat-1").name("Action").build();
+        Category drama = Category.builder().id("cat-2").name("Drama").build();
+        when(catalogChangePort.findSince(5, 11))
+                .thenReturn(
+                        List.of(
+                                new CatalogChange(6, EntityType.MOVIE, "m1", false),
+                                new CatalogChange(7, EntityType.MOVIE, "m2", true),
+                                new CatalogChange(8, EntityType.CATEGORY, "cat-1", false)));
+        when(currentUserProvider.getCurrentUserId()).thenReturn("user-1");
+        when(moviePort.findAllById(Set.of("m1"))).thenReturn(List.of(movie));
+        when(moviePort.applyFavoriteStatus(List.of(movie), "user-1")).thenReturn(List.of(movie));
+        when(categoryPort.findAllOrderedBySortOrder()).thenReturn(List.of(action, drama));
+
+        CatalogChanges changes = catalogChangesService.getChanges(5, 10);
+
+        assertThat(changes.version()).isEqualTo(8);
+        assertThat(changes.hasMore()).isFalse();
+        assertThat(changes.movies()).containsExactly(movie);
+        assertThat(changes.deletedMovieIds()).containsExactly("m2");
+        assertThat(changes.categories()).containsExactly(action);
+    }
+
+    @Test
+    void getChanges_shouldStopAtLimitAndReportMore() {
+        when(catalogChangePort.findSince(0, 2))
+                .thenReturn(
+                        List.of(
+                                new CatalogChange(1, EntityType.MOVIE, "m1", true),
+                                new CatalogChange(2, EntityType.MOVIE, "m2", true)));
+
+        CatalogChanges changes = catalogChangesService.getChanges(0, 1);
+
+        assertThat(changes.version()).isEqualTo(1);
+        assertThat(changes.hasMore()).isTrue();
+        assertThat(changes.deletedMovieIds()).containsExactly("m1");
+        verifyNoInteractions(moviePort, categoryPort);
+    }
+
+    @Test
+    void getChanges_shouldAskForReset_whenVersionIsAheadOfLog() {
+        when(catalogChangePort.findSince(99, 11)).thenReturn(List.of());
+        when(catalogChangePort.latestVersion()).thenReturn(12L);
+
+        CatalogChanges changes = catalogChangesService.getChanges(99, 10);
+
+        assertThat(changes.reset()).isTrue();
+        assertThat(changes.version()).isEqualTo(12);
+    }
+
+    @Test
+    void getChanges_shouldRejectInvalidLimit() {
+        assertThatThrownBy(() -> catalogChangesService.getChanges(0, 5000))
+                .isInstanceOf(InvalidPageRequestException.class);
+        verify(catalogChangePort, never()).findSince(anyLong(), anyInt());
+    }
+}
@@ -27,6 +27,8 @@ class CategoryApplicationServiceTest {
 
     @Mock private CategoryPort categoryPort;
 
+    @Mock private MovieCatalog movieCatalog;
+
     @InjectMocks private CategoryApplicationService categoryApplicationService;
 
     private Category testCategory;
@@ -47,14 +49,15 @@ class CategoryApplicationServiceTest {
     void getAllCategories_shouldReturnAllCategoriesSortedByOrder() {
         Category category2 = Category.builder().id("cat-2").name("Drama").sortOrder(2).build();
 
-        when(categoryPort.findAllOrderedBySortOrder()).thenReturn(List.of(testCategory, category2));
+        when(movieCatalog.categories()).thenReturn(List.of(testCategory, category2));
 
         List<Category> result = categoryApplicationService.getAllCategories();
 
         assertThat(result).hasSize(2);
         assertThat(result.get(0).getSortOrder()).isEqualTo(1);
         assertThat(result.get(1).getSortOrder()).isEqualTo(2);
-        verify(categoryPort).findAllOrderedBySortOrder();
+        verify(movieCatalog).categories();
+        verifyNoInteractions(categoryPort);
     }
 
     @Test
@@ -0,0 +1,151 @@
+package com.mediaserver.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.application.port.out.DownloadServicePort;
+import com.mediaserver.application.port.out.FileStoragePort;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for DownloadCoalescer. Tests that movies of the same source share one transfer and are
+ * linked to its file.
+ */
+@ExtendWith(MockitoExtension.class)
+class DownloadCoalescerTest {
+
+    private static final String SOURCE = "https://mega.nz/file/abc#key";
+
+    @Mock private DownloadServicePort downloadServicePort;
+
+    @Mock private MoviePort moviePort;
+
+    @Mock private FileStoragePort fileStoragePort;
+
+    @InjectMocks private DownloadCoalescer downloadCoalescer;
+
+    private Movie movie(String id, String source) {
+        return Movie.builder()
+                .id(id)
+                .title(id)
+                .megaUrl(source)
+                .status(MovieStatus.DOWNLOADING)
+                .build();
+    }
+
+    @Test
+    void download_shouldShareRunningTransferAndLinkWaitingMovies() throws Exception {
+        CompletableFuture<Path> transfer = new CompletableFuture<>();
+        Path file = Path.of("/videos/m1_Title.mp4");
+        Movie first = movie("m1", SOURCE);
+        Movie second = movie("m2", "HTTPS://www.Mega.nz/file/abc/#key");
+        when(downloadServicePort.downloadMovie(first)).thenReturn(transfer);
+        when(moviePort.findById("m1"))
+                .thenReturn(
+                        Optional.of(
+                                first.withLocalPath(file.toString())
+                                        .withContentType("video/x-matroska")
+                                        .withStatus(MovieStatus.READY)));
+        when(moviePort.findById("m2")).thenReturn(Optional.of(second));
+        when(fileStoragePort.size(Path.of("/videos/m2_Title.mp4"))).thenReturn(42L);
+
+        CompletableFuture<Path> firstResult = downloadCoalescer.download(first);
+        CompletableFuture<Path> secondResult = downloadCoalescer.download(second);
+        transfer.complete(file);
+
+        assertThat(firstResult.get()).isEqualTo(file);
+        assertThat(secondResult.get()).isEqualTo(Path.of("/videos/m2_Title.mp4"));
+        verify(downloadServicePort, times(1)).downloadMovie(any());
+        verify(fileStoragePort).createLink(Path.of("/videos/m2_Title.mp4"), file);
+        verify(moviePort)
+                .save(
+                        second.withLocalPath("/videos/m2_Title.mp4")
+                                .withFileSize(42L)
+                                .withContentType("video/x-matroska")
+                                .withStatus(MovieStatus.READY));
+    }
+
+    @Test
+    void download_shouldLinkToCachedFileOfSameSourceWithoutTransfer() throws Exception {
+        Movie cached =
+                movie("m1", SOURCE)
+                        .withLocalPath("/videos/m1_Title.mp4")
+                        .withStatus(MovieStatus.READY);
+        Movie rescanned = movie("m2", SOURCE);
+        when(moviePort.findCachedMovies()).thenReturn(List.of(cached));
+        when(fileStoragePort.exists(Path.of("/videos/m1_Title.mp4"))).thenReturn(true);
+        when(moviePort.findById("m2")).thenReturn(Optional.of(rescanned));
+
+        Path result = downloadCoalescer.download(rescanned).get();
+
+        assertThat(result).isEqualTo(Path.of("/videos/m2_Title.mp4"));
+        verify(fileStoragePort).createLink(result, Path.of("/videos/m1_Title.mp4"));
+        verifyNoInteractions(downloadServicePort);
+    }
+
+    @Test
+    void download_shouldFailWaitingMovies_whenSharedTransferFails() {
+        CompletableFuture<Path> transfer = new CompletableFuture<>();
+        Movie first = movie("m1", SOURCE);
+        Movie second = movie("m2", SOURCE);
+        when(downloadServicePort.downloadMovie(first)).thenReturn(transfer);
+        when(moviePort.findById("m2")).thenReturn(Optional.of(second));
+
+        downloadCoalescer.download(first);
+        CompletableFuture<Path> secondResult = downloadCoalescer.download(second);
+        transfer.completeExceptionally(new IllegalStateException("mega-get failed"));
+
+        assertThat(secondResult).isCompletedExceptionally();
+        verify(moviePort).save(second.withStatus(MovieStatus.ERROR));
+
+        when(downloadServicePort.downloadMovie(second)).thenReturn(new CompletableFuture<>());
+        downloadCoalescer.download(second);
+        verify(downloadServicePort).downloadMovie(second);
+    }
+
+    @Test
+    void willLink_shouldDetectCachedOrRunningDownloadsOfTheSameSource() {
+        Movie holder =
+                movie("m1", SOURCE)
+                        .withLocalPath("/videos/m1_Title.mp4")
+                        .withStatus(MovieStatus.READY);
+        when(moviePort.findCachedMovies()).thenReturn(List.of(holder));
+        when(fileStoragePort.exists(Path.of("/videos/m1_Title.mp4"))).thenReturn(true);
+
+        assertThat(downloadCoalescer.willLink(movie("m2", "https://mega.nz/file/abc/#key")))
+                .isTrue();
+        assertThat(downloadCoalescer.willLink(movie("m3", "https://mega.nz/file/other#key")))
+                .isFalse();
+
+        Movie running = movie("m4", "https://mega.nz/file/other#key");
+        when(downloadServicePort.downloadMovie(running)).thenReturn(new CompletableFuture<>());
+        downloadCoalescer.download(running);
+
+        assertThat(downloadCoalescer.willLink(movie("m5", "https://mega.nz/file/other#key")))
+                .isTrue();
+        assertThat(downloadCoalescer.willLink(movie("m6", null))).isFalse();
+    }
+
+    @Test
+    void normalizeSource_shouldTreatSpellingsOfTheSameLinkAsEqual() {
+        assertThat(DownloadCoalescer.normalizeSource("https://mega.co.nz/#!abc!key"))
+                .isEqualTo(SOURCE);
+        assertThat(DownloadCoalescer.normalizeSource(" https://WWW.mega.nz:443/file/abc#key "))
+                .isEqualTo(SOURCE);
+        assertThat(DownloadCoalescer.normalizeSource("/Movies/Title.mp4"))
+                .isEqualTo("/Movies/Title.mp4");
+        assertThat(DownloadCoalescer.normalizeSource(" ")).isNull();
+    }
+}
@@ -0,0 +1,56 @@
+package com.mediaserver.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for DownloadStarter. */
+@ExtendWith(MockitoExtension.class)
+class DownloadStarterTest {
+
+    @Mock private CacheEvictionService cacheEvictionService;
+
+    @Mock private DownloadCoalescer downloadCoalescer;
+
+    @InjectMocks private DownloadStarter downloadStarter;
+
+    private final Movie movie =
+            Movie.builder()
+                    .id("movie-1")
+                    .title("Test Movie")
+                    .status(MovieStatus.DOWNLOADING)
+                    .build();
+
+    @Test
+    void claim_shouldFail_whenMovieIsAlreadyClaimed() {
+        assertThat(downloadStarter.claim("movie-1")).isTrue();
+        assertThat(downloadStarter.claim("movie-1")).isFalse();
+        assertThat(downloadStarter.isActive("movie-1")).isTrue();
+    }
+
+    @Test
+    void start_shouldReleaseMovie_whenDownloadEnds() {
+        CompletableFuture<Path> download = new CompletableFuture<>();
+        when(downloadCoalescer.download(movie)).thenReturn(download);
+        downloadStarter.claim("movie-1");
+
+        downloadStarter.start(movie);
+
+        assertThat(downloadStarter.isActive("movie-1")).isTrue();
+        verify(cacheEvictionService, never()).release("movie-1");
+
+        download.completeExceptionally(new IllegalStateException("transfer failed"));
+
+        assertThat(downloadStarter.isActive("movie-1")).isFalse();
+        verify(cacheEvictionService).release("movie-1");
+    }
+}
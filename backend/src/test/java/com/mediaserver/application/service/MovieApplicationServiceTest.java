@@ -3,25 +3,30 @@ package com.mediaserver.application.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 import com.mediaserver.application.command.CreateMovieCommand;
 import com.mediaserver.application.command.UpdateMovieCommand;
+import com.mediaserver.application.model.CachePurge;
 import com.mediaserver.application.port.in.CacheManagementUseCase.CacheStats;
 import com.mediaserver.application.port.out.CategoryPort;
 import com.mediaserver.application.port.out.CurrentUserProvider;
-import com.mediaserver.application.port.out.DownloadServicePort;
 import com.mediaserver.application.port.out.FileStoragePort;
 import com.mediaserver.application.port.out.MoviePort;
 import com.mediaserver.config.MediaProperties;
 import com.mediaserver.domain.model.Category;
 import com.mediaserver.domain.model.Movie;
 import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.exception.InvalidPageRequestException;
 import com.mediaserver.exception.MovieNotFoundException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -41,12 +46,18 @@ class MovieApplicationServiceTest {
 
     @Mock private FileStoragePort fileStoragePort;
 
-    @Mock private DownloadServicePort downloadServicePort;
+    @Mock private DownloadStarter downloadStarter;
 
     @Mock private CurrentUserProvider currentUserProvider;
 
     @Mock private MediaProperties properties;
 
+    @Mock private MovieCatalog movieCatalog;
+
+    @Mock private CachePurgeJob cachePurgeJob;
+
+    @Mock private CacheUsage cacheUsage;
+
     @InjectMocks private MovieApplicationService movieApplicationService;
 
     private Movie testMovie;
@@ -77,16 +88,36 @@ class MovieApplicationServiceTest {
     @Test
     void getAllMovies_shouldReturnAllMovies() {
         List<Movie> movies = List.of(testMovie);
-        when(moviePort.findAll()).thenReturn(movies);
+        when(movieCatalog.findAll()).thenReturn(movies);
 
         List<Movie> result = movieApplicationService.getAllMovies();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getTitle()).isEqualTo("Test Movie");
-        verify(moviePort).findAll();
+        verify(movieCatalog).findAll();
         verify(moviePort).applyFavoriteStatus(movies, "user-1");
     }
 
+    @Test
+    void streamAllMovies_shouldPassEachMovieWithFavoriteFlag() {
+        Movie other = testMovie.withId("movie-2");
+        when(moviePort.findFavoriteIds("user-1")).thenReturn(Set.of("movie-2"));
+        doAnswer(
+                        invocation -> {
+                            Consumer<Movie> action = invocation.getArgument(0);
+                            action.accept(testMovie);
+                            action.accept(other);
+                            return null;
+                        })
+                .when(movieCatalog)
+                .forEachMovie(any());
+        List<Movie> result = new ArrayList<>();
+
+        movieApplicationService.streamAllMovies(result::add);
+
+        assertThat(result).extracting(Movie::isFavorite).containsExactly(false, true);
+    }
+
     @Test
     void getMovie_shouldReturnMovie_whenExists() {
         when(moviePort.findById("movie-1")).thenReturn(Optional.of(testMovie));
@@ -210,43 +241,59 @@ class MovieApplicationServiceTest {
     @Test
     void searchMovies_shouldReturnMatchingMovies() {
         List<Movie> movies = List.of(testMovie);
-        when(moviePort.search("test")).thenReturn(movies);
+        when(moviePort.search("test", 0, 50)).thenReturn(movies);
 
         List<Movie> result = movieApplicationService.searchMovies("test");
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getTitle()).isEqualTo("Test Movie");
-        verify(moviePort).search("test");
+        verify(moviePort).search("test", 0, 50);
         verify(moviePort).applyFavoriteStatus(movies, "user-1");
     }
 
+    @Test
+    void searchMovies_shouldTranslatePageToOffset() {
+        when(moviePort.search("test", 40, 20)).thenReturn(List.of());
+
+        List<Movie> result = movieApplicationService.searchMovies("test", 2, 20);
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void searchMovies_shouldRejectOversizedPage() {
+        assertThatThrownBy(() -> movieApplicationService.searchMovies("test", 0, 500))
+                .isInstanceOf(InvalidPageRequestException.class);
+        verify(moviePort, never()).search(anyString(), anyInt(), anyInt());
+    }
+
     @Test
     void getReadyMovies_shouldReturnOnlyReadyMovies() {
         Movie readyMovie =
                 testMovie.withStatus(MovieStatus.READY).withLocalPath("/path/to/video.mp4");
         List<Movie> movies = List.of(readyMovie);
 
-        when(moviePort.findReadyMovies()).thenReturn(movies);
+        when(movieCatalog.findReadyMovies()).thenReturn(movies);
 
         List<Movie> result = movieApplicationService.getReadyMovies();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getStatus()).isEqualTo(MovieStatus.READY);
         assertThat(result.get(0).isCached()).isTrue();
-        verify(moviePort).findReadyMovies();
+        verify(movieCatalog).findReadyMovies();
         verify(moviePort).applyFavoriteStatus(movies, "user-1");
     }
 
     @Test
     void getMoviesByCategory_shouldReturnMoviesInCategory() {
         List<Movie> movies = List.of(testMovie);
-        when(moviePort.findByCategoryId("cat-1")).thenReturn(movies);
+        when(movieCatalog.findByCategoryId("cat-1")).thenReturn(movies);
 
         List<Movie> result = movieApplicationService.getMoviesByCategory("cat-1");
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getCategoryId()).isEqualTo("cat-1");
-        verify(moviePort).findByCategoryId("cat-1");
+        verify(movieCatalog).findByCategoryId("cat-1");
         verify(moviePort).applyFavoriteStatus(movies, "user-1");
     }
 
@@ -268,21 +315,50 @@ class MovieApplicationServiceTest {
 
     @Test
     void startDownload_shouldUpdateStatusToDownloading() {
+        when(downloadStarter.claim("movie-1")).thenReturn(true);
         when(moviePort.findById("movie-1")).thenReturn(Optional.of(testMovie));
 
         Movie downloadingMovie = testMovie.withStatus(MovieStatus.DOWNLOADING);
 
         when(moviePort.save(any(Movie.class))).thenReturn(downloadingMovie);
-        when(downloadServicePort.downloadMovie(any(Movie.class)))
-                .thenReturn(
-                        java.util.concurrent.CompletableFuture.completedFuture(
-                                java.nio.file.Path.of("/cache/movie.mp4")));
 
         movieApplicationService.startDownload("movie-1");
 
         verify(moviePort).findById("movie-1");
         verify(moviePort).save(argThat(movie -> movie.getStatus() == MovieStatus.DOWNLOADING));
-        verify(downloadServicePort).downloadMovie(any(Movie.class));
+        verify(downloadStarter).admit(testMovie);
+        verify(downloadStarter)
+                .start(argThat(movie -> movie.getStatus() == MovieStatus.DOWNLOADING));
+        verify(downloadStarter, never()).release(any());
+    }
+
+    @Test
+    void startDownload_shouldNotStart_whenMovieDoesNotFitIntoCache() {
+        when(downloadStarter.claim("movie-1")).thenReturn(true);
+        when(moviePort.findById("movie-1")).thenReturn(Optional.of(testMovie));
+        doThrow(new IllegalStateException("Not enough cache space"))
+                .when(downloadStarter)
+                .admit(testMovie);
+
+        assertThatThrownBy(() -> movieApplicationService.startDownload("movie-1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cache space");
+
+        verify(moviePort, never()).save(any());
+        verify(downloadStarter, never()).start(any());
+        verify(downloadStarter).release("movie-1");
+    }
+
+    @Test
+    void startDownload_shouldThrowException_whenAlreadyInProgress() {
+        when(downloadStarter.claim("movie-1")).thenReturn(false);
+
+        assertThatThrownBy(() -> movieApplicationService.startDownload("movie-1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already in progress");
+
+        verifyNoInteractions(moviePort);
+        verify(downloadStarter, never()).release(any());
     }
 
     @Test
@@ -324,6 +400,7 @@ class MovieApplicationServiceTest {
         Movie cachedMovie =
                 testMovie.withStatus(MovieStatus.READY).withLocalPath("/cache/movie.mp4");
 
+        when(downloadStarter.claim("movie-1")).thenReturn(true);
         when(moviePort.findById("movie-1")).thenReturn(Optional.of(cachedMovie));
 
         assertThatThrownBy(() -> movieApplicationService.startDownload("movie-1"))
@@ -332,6 +409,22 @@ class MovieApplicationServiceTest {
 
         verify(moviePort).findById("movie-1");
         verify(moviePort, never()).save(any());
+        verify(downloadStarter).release("movie-1");
+    }
+
+    @Test
+    void startDownload_shouldThrowException_whenSourceUnavailable() {
+        Movie unavailableMovie = testMovie.withStatus(MovieStatus.UNAVAILABLE);
+
+        when(downloadStarter.claim("movie-1")).thenReturn(true);
+        when(moviePort.findById("movie-1")).thenReturn(Optional.of(unavailableMovie));
+
+        assertThatThrownBy(() -> movieApplicationService.startDownload("movie-1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("no longer available");
+
+        verify(moviePort, never()).save(any());
+        verify(downloadStarter, never()).start(any());
     }
 
     @Test
@@ -367,14 +460,23 @@ class MovieApplicationServiceTest {
                                                 && movie.getStatus() == MovieStatus.PENDING));
     }
 
+    @Test
+    void clearAllCache_shouldStartPurgeJob() {
+        CachePurge running = new CachePurge(CachePurge.State.RUNNING, 0, 0, 0, null);
+        when(cachePurgeJob.start()).thenReturn(running);
+
+        assertThat(movieApplicationService.clearAllCache()).isEqualTo(running);
+        verifyNoInteractions(moviePort, fileStoragePort);
+    }
+
     @Test
     void getCacheStats_shouldReturnCacheStatistics() {
         MediaProperties.Storage storage = new MediaProperties.Storage();
         storage.setMaxCacheSizeGb(10);
 
         when(properties.getStorage()).thenReturn(storage);
-        when(moviePort.getTotalCacheSize()).thenReturn(5L * 1024 * 1024 * 1024);
-        when(moviePort.countCachedMovies()).thenReturn(10L);
+        when(cacheUsage.totalBytes()).thenReturn(5L * 1024 * 1024 * 1024);
+        when(cacheUsage.count()).thenReturn(10L);
 
         CacheStats result = movieApplicationService.getCacheStats();
 
@@ -382,8 +484,7 @@ class MovieApplicationServiceTest {
         assertThat(result.getMaxSizeBytes()).isEqualTo(10L * 1024 * 1024 * 1024);
         assertThat(result.getUsagePercent()).isEqualTo(50);
         assertThat(result.getMovieCount()).isEqualTo(10L);
-        verify(moviePort).getTotalCacheSize();
-        verify(moviePort).countCachedMovies();
+        verifyNoInteractions(moviePort);
         verify(properties).getStorage();
     }
 }
@@ -0,0 +1,225 @@
+package com.mediaserver.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.application.model.FacetFilter;
+import com.mediaserver.application.model.MovieFacet;
+import com.mediaserver.application.model.MovieQuery;
+import com.mediaserver.application.port.out.CategoryPort;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieCursor;
+import com.mediaserver.domain.model.MovieSort;
+import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.event.CatalogChangedEvent;
+import com.mediaserver.event.FavoriteChangedEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for MovieCatalog. Tests that listings are served from the in-memory snapshot and that
+ * committed changes are applied to it.
+ */
+@ExtendWith(MockitoExtension.class)
+class MovieCatalogTest {
+
+    @Mock private MoviePort moviePort;
+
+    @Mock private CategoryPort categoryPort;
+
+    private MediaProperties properties;
+    private MovieCatalog movieCatalog;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MediaProperties();
+        movieCatalog = new MovieCatalog(moviePort, categoryPort, properties);
+    }
+
+    private Movie movie(String id, String title, Integer year, String categoryId) {
+        return Movie.builder().id(id).title(title).year(year).categoryId(categoryId).build();
+    }
+
+    private void load(List<Movie> movies, List<Category> categories) {
+        when(moviePort.findAll()).thenReturn(movies);
+        when(categoryPort.findAllOrderedBySortOrder()).thenReturn(categories);
+    }
+
+    @Test
+    void findAll_shouldLoadCatalogOnceAndServeFromMemory() {
+        load(List.of(movie("m2", "Beta", null, null), movie("m1", "Alpha", null, null)), List.of());
+
+        movieCatalog.findAll();
+        List<Movie> result = movieCatalog.findAll();
+
+        assertThat(result).extracting(Movie::getId).containsExactly("m1", "m2");
+        verify(moviePort, times(1)).findAll();
+    }
+
+    @Test
+    void findPage_shouldWalkEverySortWithoutGapsOrDuplicates() {
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            movies.add(movie("m" + i, "Title " + (i % 4), i % 3 == 0 ? null : 2000 + i % 2, null));
+        }
+        load(movies, List.of());
+
+        for (MovieSort sort : MovieSort.values()) {
+            List<String> seen = new ArrayList<>();
+            MovieCursor after = null;
+            List<Movie> page;
+            do {
+                page = movieCatalog.findPage(MovieQuery.all(null), sort, after, 2);
+                page.forEach(movie -> seen.add(movie.getId()));
+                after = page.isEmpty() ? null : MovieCursor.after(page.get(page.size() - 1), sort);
+            } while (page.size() == 2);
+
+            assertThat(seen).hasSize(9).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void onCatalogChanged_shouldApplySavedAndDeletedMoviesAndBumpVersion() {
+        load(
+                List.of(movie("m1", "Alpha", null, "cat-1"), movie("m2", "Beta", null, "cat-1")),
+                List.of());
+        assertThat(movieCatalog.findByCategoryId("cat-1")).hasSize(2);
+        long version = movieCatalog.version();
+
+        movieCatalog.onCatalogChanged(
+                CatalogChangedEvent.moviesSaved(List.of(movie("m3", "Aardvark", null, "cat-1"))));
+        movieCatalog.onCatalogChanged(CatalogChangedEvent.movieDeleted("m2"));
+
+        assertThat(movieCatalog.findByCategoryId("cat-1"))
+                .extracting(Movie::getId)
+                .containsExactly("m3", "m1");
+        assertThat(movieCatalog.version()).isEqualTo(version + 2);
+    }
+
+    @Test
+    void onCatalogChanged_shouldUncategorizeMoviesOfDeletedCategory() {
+        Category action = Category.builder().id("cat-1").name("Action").sortOrder(1).build();
+        load(List.of(movie("m1", "Alpha", null, "cat-1")), List.of(action));
+        assertThat(movieCatalog.countByCategory(null)).isEqualTo(Map.of("cat-1", 1L));
+
+        movieCatalog.onCatalogChanged(CatalogChangedEvent.categoryDeleted("cat-1"));
+
+        assertThat(movieCatalog.categories()).isEmpty();
+        assertThat(movieCatalog.count(MovieQuery.uncategorized(null))).isEqualTo(1);
+    }
+
+    @Test
+    void onCatalogChanged_shouldKeepCategoryNamesOnMoviesCurrent() {
+        Category action = Category.builder().id("cat-1").name("Action").sortOrder(1).build();
+        load(List.of(movie("m1", "Alpha", null, "cat-1")), List.of(action));
+        assertThat(movieCatalog.findAll().get(0).getCategoryName()).isEqualTo("Action");
+
+        movieCatalog.onCatalogChanged(
+                CatalogChangedEvent.categorySaved(action.withName("Adventure")));
+        movieCatalog.onCatalogChanged(
+                CatalogChangedEvent.moviesSaved(List.of(movie("m2", "Beta", null, "cat-1"))));
+
+        assertThat(movieCatalog.findByCategoryId("cat-1"))
+                .extracting(Movie::getCategoryName)
+                .containsExactly("Adventure", "Adventure");
+    }
+
+    @Test
+    void onCatalogChanged_shouldKeepSuggestionsCurrent_whenIndexWasBuilt() {
+        Category action = Category.builder().id("cat-1").name("Action").sortOrder(1).build();
+        load(List.of(movie("m1", "Alpha", null, "cat-1")), List.of(action));
+        assertThat(movieCatalog.suggest("alp", 5)).extracting(Movie::getId).containsExactly("m1");
+
+        movieCatalog.onCatalogChanged(
+                CatalogChangedEvent.categorySaved(action.withName("Adventure")));
+        movieCatalog.onCatalogChanged(
+                CatalogChangedEvent.moviesSaved(List.of(movie("m2", "Alpine", null, "cat-1"))));
+
+        assertThat(movieCatalog.suggest("alp", 5))
+                .extracting(Movie::getId, Movie::getCategoryName)
+                .containsExactly(tuple("m1", "Adventure"), tuple("m2", "Adventure"));
+    }
+
+    @Test
+    void onCatalogChanged_shouldKeepFacetsCurrent_whenIndexWasBuilt() {
+        load(List.of(movie("m1", "Alpha", null, null), movie("m2", "Beta", null, null)), List.of());
+        when(moviePort.findFavoriteIds("user-1")).thenReturn(Set.of());
+        FacetFilter cached = new FacetFilter(Map.of(MovieFacet.CACHED, Set.of("true")));
+        assertThat(movieCatalog.filter(cached, "user-1", 0, 10).total()).isZero();
+
+        movieCatalog.onCatalogChanged(
+                CatalogChangedEvent.moviesSaved(
+                        List.of(
+                                movie("m2", "Beta", null, null)
+                                        .withLocalPath("/cache/m2.mp4")
+                                        .withStatus(MovieStatus.READY))));
+        movieCatalog.onCatalogChanged(
+                CatalogChangedEvent.moviesSaved(
+                        List.of(
+                                movie("m3", "Aardvark", null, null)
+                                        .withLocalPath("/cache/m3.mp4")
+                                        .withStatus(MovieStatus.READY))));
+
+        assertThat(movieCatalog.filter(cached, "user-1", 0, 10).movies())
+                .extracting(Movie::getId)
+                .containsExactly("m3", "m2");
+    }
+
+    @Test
+    void onCatalogChanged_shouldOnlyBumpVersion_whenNotLoadedYet() {
+        movieCatalog.onCatalogChanged(CatalogChangedEvent.movieDeleted("m1"));
+        assertThat(movieCatalog.version()).isEqualTo(1);
+        load(List.of(), List.of());
+
+        movieCatalog.findAll();
+
+        assertThat(movieCatalog.version()).isEqualTo(2);
+        verify(moviePort, times(1)).findAll();
+    }
+
+    @Test
+    void version_shouldChangeWithFavoritesWithoutLoadingCatalog() {
+        String before = movieCatalog.getCatalogVersion();
+
+        movieCatalog.onFavoriteChanged(new FavoriteChangedEvent("user-1", "m1", true));
+
+        assertThat(movieCatalog.getCatalogVersion()).isNotEqualTo(before);
+        verifyNoInteractions(moviePort, categoryPort);
+    }
+
+    @Test
+    void count_shouldFilterCachedAndFavoriteMovies() {
+        Movie cached =
+                movie("m1", "Alpha", null, null)
+                        .withLocalPath("/cache/m1.mp4")
+                        .withStatus(MovieStatus.READY);
+        load(List.of(cached, movie("m2", "Beta", null, null)), List.of());
+        when(moviePort.findFavoriteIds("user-1")).thenReturn(Set.of("m2"));
+
+        assertThat(movieCatalog.count(MovieQuery.cached(null))).isEqualTo(1);
+        assertThat(movieCatalog.count(MovieQuery.favorites("user-1", "bet"))).isEqualTo(1);
+    }
+
+    @Test
+    void reads_shouldGoToDatabase_whenInMemoryCatalogDisabled() {
+        properties.getCatalog().setInMemory(false);
+        movieCatalog = new MovieCatalog(moviePort, categoryPort, properties);
+        when(moviePort.findByCategoryId("cat-1")).thenReturn(List.of());
+
+        movieCatalog.findByCategoryId("cat-1");
+
+        verify(moviePort).findByCategoryId("cat-1");
+        verify(moviePort, never()).findAll();
+    }
+}
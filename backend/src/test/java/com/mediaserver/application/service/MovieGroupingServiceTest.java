@@ -0,0 +1,111 @@
+package com.mediaserver.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.application.model.MoviePage;
+import com.mediaserver.application.model.MovieQuery;
+import com.mediaserver.application.port.out.CurrentUserProvider;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieCursor;
+import com.mediaserver.domain.model.MovieGroup;
+import com.mediaserver.domain.model.MovieSort;
+import com.mediaserver.exception.InvalidPageRequestException;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for MovieGroupingService. Tests per-group paging and cursor handling. */
+@ExtendWith(MockitoExtension.class)
+class MovieGroupingServiceTest {
+
+    @Mock private MoviePort moviePort;
+
+    @Mock private MovieCatalog movieCatalog;
+
+    @Mock private CurrentUserProvider currentUserProvider;
+
+    @InjectMocks private MovieGroupingService movieGroupingService;
+
+    @BeforeEach
+    void setUp() {
+        when(currentUserProvider.getCurrentUserId()).thenReturn("user-1");
+    }
+
+    private Movie movie(String id, String title) {
+        return Movie.builder().id(id).title(title).categoryId("cat-1").build();
+    }
+
+    @Test
+    void getMoviesGrouped_shouldReturnFirstPageAndCountPerGroup() {
+        Category action = Category.builder().id("cat-1").name("Action").build();
+        List<Movie> rows = List.of(movie("m1", "A"), movie("m2", "B"), movie("m3", "C"));
+        when(movieCatalog.count(any(MovieQuery.class))).thenReturn(0L);
+        when(movieCatalog.countByCategory(null)).thenReturn(Map.of("cat-1", 7L));
+        when(movieCatalog.categories()).thenReturn(List.of(action));
+        when(movieCatalog.findPage(MovieQuery.category("cat-1", null), MovieSort.TITLE, null, 3))
+                .thenReturn(rows);
+        when(moviePort.applyFavoriteStatus(anyList(), eq("user-1")))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<MovieGroup> groups = movieGroupingService.getMoviesGrouped(null, MovieSort.TITLE, 2);
+
+        assertThat(groups).hasSize(1);
+        MovieGroup group = groups.get(0);
+        assertThat(group.getKey()).isEqualTo("category:cat-1");
+        assertThat(group.getTotalCount()).isEqualTo(7);
+        assertThat(group.getMovies()).extracting(Movie::getId).containsExactly("m1", "m2");
+        assertThat(MovieCursor.decode(group.getNextCursor()))
+                .contains(MovieCursor.after(rows.get(1), MovieSort.TITLE));
+        verify(moviePort, never()).findAll();
+        verify(moviePort, never()).findPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getMoviePage_shouldContinueAfterCursor() {
+        MovieCursor cursor = new MovieCursor(MovieSort.TITLE, "B", "m2");
+        List<Movie> rows = List.of(movie("m3", "C"));
+        when(movieCatalog.findPage(
+                        MovieQuery.favorites("user-1", null), MovieSort.TITLE, cursor, 3))
+                .thenReturn(rows);
+        when(moviePort.applyFavoriteStatus(rows, "user-1")).thenReturn(rows);
+
+        MoviePage page =
+                movieGroupingService.getMoviePage(
+                        "favorites", null, MovieSort.TITLE, cursor.encode(), 2);
+
+        assertThat(page.movies()).containsExactlyElementsOf(rows);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void getMoviePage_shouldRejectCursorOfAnotherSort() {
+        String cursor = new MovieCursor(MovieSort.TITLE, "B", "m2").encode();
+
+        assertThatThrownBy(
+                        () ->
+                                movieGroupingService.getMoviePage(
+                                        null, null, MovieSort.YEAR, cursor, 10))
+                .isInstanceOf(InvalidPageRequestException.class);
+    }
+
+    @Test
+    void getMoviePage_shouldRejectUnknownGroup() {
+        assertThatThrownBy(
+                        () ->
+                                movieGroupingService.getMoviePage(
+                                        "nope", null, MovieSort.TITLE, null, 10))
+                .isInstanceOf(InvalidPageRequestException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package com.mediaserver.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.application.model.PlaybackStats;
+import com.mediaserver.application.port.out.PlaybackPort;
+import com.mediaserver.config.MediaProperties;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for PlaybackTracker. Tests that streams are counted in memory and written in batches.
+ */
+@ExtendWith(MockitoExtension.class)
+class PlaybackTrackerTest {
+
+    @Mock private PlaybackPort playbackPort;
+
+    private MediaProperties properties;
+    private PlaybackTracker playbackTracker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MediaProperties();
+        playbackTracker = new PlaybackTracker(playbackPort, properties);
+    }
+
+    @Test
+    void streamOpened_shouldCountOnlyStreamsFromTheStartAsPlays() {
+        when(playbackPort.findByMovieIds(anyCollection()))
+                .thenReturn(Map.of("m1", new PlaybackStats("m1", null, 2)));
+
+        playbackTracker.streamOpened("m1", true);
+        playbackTracker.streamOpened("m1", false);
+
+        PlaybackStats stats = playbackTracker.stats(List.of("m1", "m2")).get("m1");
+        assertThat(stats.playCount()).isEqualTo(3);
+        assertThat(stats.lastStreamedAt()).isNotNull();
+        assertThat(playbackTracker.stats(List.of("m2")).get("m2"))
+                .isEqualTo(PlaybackStats.none("m2"));
+        verifyNoMoreInteractions(ignoreStubs(playbackPort));
+    }
+
+    @Test
+    void isStreaming_shouldHoldDuringGracePeriodAfterLastStreamClosed() {
+        properties.getStorage().setStreamingGraceMinutes(0);
+        playbackTracker = new PlaybackTracker(playbackPort, properties);
+
+        playbackTracker.streamOpened("m1", true);
+        playbackTracker.streamOpened("m1", false);
+        playbackTracker.streamClosed("m1");
+        assertThat(playbackTracker.isStreaming("m1")).isTrue();
+
+        playbackTracker.streamClosed("m1");
+        assertThat(playbackTracker.isStreaming("m1")).isFalse();
+        assertThat(playbackTracker.isStreaming("m2")).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldWriteRecordedPlaysOnceAndKeepThem_whenWriteFails() {
+        playbackTracker.streamOpened("m1", true);
+        playbackTracker.streamOpened("m2", true);
+        doThrow(new IllegalStateException("db down"))
+                .doNothing()
+                .when(playbackPort)
+                .addPlays(any());
+
+        playbackTracker.flush();
+        playbackTracker.flush();
+        playbackTracker.flush();
+
+        ArgumentCaptor<Collection<PlaybackStats>> written =
+                ArgumentCaptor.forClass(Collection.class);
+        verify(playbackPort, times(2)).addPlays(written.capture());
+        assertThat(written.getValue())
+                .extracting(PlaybackStats::movieId)
+                .containsExactlyInAnyOrder("m1", "m2");
+    }
+
+    @Test
+    void plus_shouldKeepLatestStreamTimeAndAddPlays() {
+        LocalDateTime earlier = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime later = earlier.plusDays(1);
+
+        PlaybackStats merged =
+                new PlaybackStats("m1", later, 2).plus(new PlaybackStats("m1", earlier, 1));
+
+        assertThat(merged).isEqualTo(new PlaybackStats("m1", later, 3));
+    }
+}
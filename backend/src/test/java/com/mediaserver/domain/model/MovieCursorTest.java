@@ -0,0 +1,63 @@
+package com.mediaserver.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for MovieCursor. Pure domain logic without mocking. */
+class MovieCursorTest {
+
+    private final Movie movie =
+            Movie.builder()
+                    .id("movie-1")
+                    .title("Alien: Covenant")
+                    .year(2017)
+                    .createdAt(LocalDateTime.of(2024, 5, 1, 12, 30))
+                    .build();
+
+    @Test
+    void decode_shouldRestoreEncodedCursor_forEverySort() {
+        for (MovieSort sort : MovieSort.values()) {
+            MovieCursor cursor = MovieCursor.after(movie, sort);
+
+            assertThat(MovieCursor.decode(cursor.encode())).contains(cursor);
+        }
+    }
+
+    @Test
+    void decode_shouldKeepMissingKey() {
+        MovieCursor cursor = MovieCursor.after(movie.withYear(null), MovieSort.YEAR);
+
+        assertThat(cursor.getKey()).isNull();
+        assertThat(MovieCursor.decode(cursor.encode())).contains(cursor);
+    }
+
+    @Test
+    void decode_shouldRejectMalformedTokens() {
+        assertThat(MovieCursor.decode("not base64!")).isEmpty();
+        assertThat(MovieCursor.decode(new MovieCursor(MovieSort.YEAR, "soon", "m").encode()))
+                .isEmpty();
+        assertThat(MovieCursor.decode(new MovieCursor(MovieSort.TITLE, null, "m").encode()))
+                .isEmpty();
+    }
+
+    @Test
+    void precedes_shouldAgreeWithSortComparator() {
+        List<Movie> movies =
+                List.of(
+                        movie,
+                        movie.withId("m0").withYear(null).withCreatedAt(null),
+                        movie.withId("m9").withTitle("Alien").withYear(1979),
+                        movie.withId("m5").withTitle("Zodiac").withYear(2007));
+        for (MovieSort sort : MovieSort.values()) {
+            for (Movie first : movies) {
+                for (Movie second : movies) {
+                    assertThat(MovieCursor.after(first, sort).precedes(second))
+                            .isEqualTo(sort.comparator().compare(first, second) < 0);
+                }
+            }
+        }
+    }
+}
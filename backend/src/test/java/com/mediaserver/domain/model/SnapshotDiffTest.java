@@ -0,0 +1,106 @@
+package com.mediaserver.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for SnapshotDiff. Pure domain logic without mocking. */
+class SnapshotDiffTest {
+
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2024, 1, 10, 10, 20, 30);
+
+    private ScanSnapshotEntry entry(String path, long size, LocalDateTime modifiedAt) {
+        int lastSlash = path.lastIndexOf('/');
+        return ScanSnapshotEntry.builder()
+                .megaPath(path)
+                .parentPath(path.substring(0, lastSlash))
+                .name(path.substring(lastSlash + 1))
+                .size(size)
+                .modifiedAt(modifiedAt)
+                .build();
+    }
+
+    @Test
+    void compute_shouldReportNothing_whenListingIsUnchanged() {
+        List<ScanSnapshotEntry> snapshot =
+                List.of(entry("/Action/a.mp4", 100, MODIFIED), entry("/Action/b.mp4", 200, null));
+
+        SnapshotDiff diff = SnapshotDiff.compute(snapshot, snapshot);
+
+        assertThat(diff.isEmpty()).isTrue();
+        assertThat(diff.getUnchanged()).isEqualTo(2);
+    }
+
+    @Test
+    void compute_shouldReportAddedAndRemovedFiles() {
+        List<ScanSnapshotEntry> previous = List.of(entry("/Action/old.mp4", 100, MODIFIED));
+        List<ScanSnapshotEntry> current = List.of(entry("/Action/new.mp4", 200, MODIFIED));
+
+        SnapshotDiff diff = SnapshotDiff.compute(previous, current);
+
+        assertThat(diff.getAdded())
+                .extracting(ScanSnapshotEntry::getName)
+                .containsExactly("new.mp4");
+        assertThat(diff.getRemoved())
+                .extracting(ScanSnapshotEntry::getName)
+                .containsExactly("old.mp4");
+        assertThat(diff.getRenamed()).isEmpty();
+    }
+
+    @Test
+    void compute_shouldReportSizeChanges() {
+        List<ScanSnapshotEntry> previous = List.of(entry("/Action/a.mp4", 100, MODIFIED));
+        List<ScanSnapshotEntry> current =
+                List.of(entry("/Action/a.mp4", 150, MODIFIED.plusMinutes(5)));
+
+        SnapshotDiff diff = SnapshotDiff.compute(previous, current);
+
+        assertThat(diff.getChanged()).hasSize(1);
+        assertThat(diff.getChanged().get(0).getSize()).isEqualTo(150);
+        assertThat(diff.getAdded()).isEmpty();
+        assertThat(diff.getRemoved()).isEmpty();
+    }
+
+    @Test
+    void compute_shouldDetectRename_whenContentSignatureMatches() {
+        List<ScanSnapshotEntry> previous = List.of(entry("/Action/a.mp4", 100, MODIFIED));
+        List<ScanSnapshotEntry> current = List.of(entry("/Drama/a-renamed.mp4", 100, MODIFIED));
+
+        SnapshotDiff diff = SnapshotDiff.compute(previous, current);
+
+        assertThat(diff.getRenamed()).hasSize(1);
+        assertThat(diff.getRenamed().get(0).from().getMegaPath()).isEqualTo("/Action/a.mp4");
+        assertThat(diff.getRenamed().get(0).to().getMegaPath()).isEqualTo("/Drama/a-renamed.mp4");
+        assertThat(diff.getAdded()).isEmpty();
+        assertThat(diff.getRemoved()).isEmpty();
+    }
+
+    @Test
+    void compute_shouldNotPairRename_whenSignatureIsAmbiguous() {
+        List<ScanSnapshotEntry> previous =
+                List.of(
+                        entry("/Action/a.mp4", 100, MODIFIED),
+                        entry("/Action/b.mp4", 100, MODIFIED));
+        List<ScanSnapshotEntry> current = List.of(entry("/Action/c.mp4", 100, MODIFIED));
+
+        SnapshotDiff diff = SnapshotDiff.compute(previous, current);
+
+        assertThat(diff.getRenamed()).isEmpty();
+        assertThat(diff.getAdded()).hasSize(1);
+        assertThat(diff.getRemoved()).hasSize(2);
+    }
+
+    @Test
+    void compute_shouldNotPairRename_whenModificationTimeIsUnknown() {
+        List<ScanSnapshotEntry> previous = List.of(entry("/Action/a.mp4", 100, null));
+        List<ScanSnapshotEntry> current = List.of(entry("/Action/b.mp4", 100, null));
+
+        SnapshotDiff diff = SnapshotDiff.compute(previous, current);
+
+        assertThat(diff.getRenamed()).isEmpty();
+        assertThat(diff.getAdded()).hasSize(1);
+        assertThat(diff.getRemoved()).hasSize(1);
+    }
+}
@@ -0,0 +1,147 @@
+package com.mediaserver.infrastructure.persistence.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.event.CatalogChangedEvent;
+import com.mediaserver.event.CatalogChangesLoggedEvent;
+import com.mediaserver.infrastructure.persistence.entity.CatalogChangeJpaEntity;
+import com.mediaserver.infrastructure.persistence.repository.JpaCatalogChangeRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+/** Unit tests for CatalogChangeLogAdapter. Tests recording catalog writes in the change log. */
+@ExtendWith(MockitoExtension.class)
+class CatalogChangeLogAdapterTest {
+
+    @Mock private JpaCatalogChangeRepository jpaCatalogChangeRepository;
+
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks private CatalogChangeLogAdapter catalogChangeLogAdapter;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onCatalogChanged_shouldReplacePreviousChangeOfEachEntity() {
+        when(jpaCatalogChangeRepository.saveAll(anyCollection()))
+                .thenAnswer(
+                        invocation -> {
+                            List<CatalogChangeJpaEntity> saved = new ArrayList<>();
+                            long version = 10;
+                            for (CatalogChangeJpaEntity change :
+                                    (Collection<CatalogChangeJpaEntity>)
+                                            invocation.getArgument(0)) {
+                                change.setVersion(++version);
+                                saved.add(change);
+                            }
+                            return saved;
+                        });
+        Movie first = Movie.builder().id("m1").title("Old").build();
+        Movie second = Movie.builder().id("m1").title("New").build();
+
+        catalogChangeLogAdapter.onCatalogChanged(
+                CatalogChangedEvent.moviesSaved(List.of(first, second)));
+
+        verify(jpaCatalogChangeRepository).lockForWrite();
+        verify(jpaCatalogChangeRepository).deleteByEntityTypeAndEntityIdIn("MOVIE", Set.of("m1"));
+        verify(jpaCatalogChangeRepository)
+                .saveAll(
+                        argThat(
+                                (Collection<CatalogChangeJpaEntity> changes) ->
+                                        changes.size() == 1
+                                                && !changes.iterator().next().isDeleted()));
+        verify(eventPublisher).publishEvent(new CatalogChangesLoggedEvent(11));
+    }
+
+    @Test
+    void onCatalogChanged_shouldRecordCategoryDeletionAsTombstone() {
+        when(jpaCatalogChangeRepository.saveAll(anyCollection()))
+                .thenReturn(
+                        List.of(
+                                CatalogChangeJpaEntity.builder()
+                                        .version(3L)
+                                        .entityType("CATEGORY")
+                                        .entityId("cat-1")
+                                        .deleted(true)
+                                        .build()));
+
+        catalogChangeLogAdapter.onCatalogChanged(CatalogChangedEvent.categoryDeleted("cat-1"));
+
+        verify(jpaCatalogChangeRepository)
+                .deleteByEntityTypeAndEntityIdIn("CATEGORY", Set.of("cat-1"));
+        verify(jpaCatalogChangeRepository, never())
+                .deleteByEntityTypeAndEntityIdIn(eq("MOVIE"), anyCollection());
+        verify(eventPublisher).publishEvent(new CatalogChangesLoggedEvent(3));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onCatalogChanged_shouldRecordMoviesUncategorizedByCategoryDeletion() {
+        when(jpaCatalogChangeRepository.saveAll(anyCollection()))
+                .thenAnswer(
+                        invocation -> {
+                            List<CatalogChangeJpaEntity> saved = new ArrayList<>();
+                            long version = 4;
+                            for (CatalogChangeJpaEntity change :
+                                    (Collection<CatalogChangeJpaEntity>)
+                                            invocation.getArgument(0)) {
+                                change.setVersion(++version);
+                                saved.add(change);
+                            }
+                            return saved;
+                        });
+        Movie movie = Movie.builder().id("m1").title("Uncategorized").build();
+
+        catalogChangeLogAdapter.onCatalogChanged(
+                CatalogChangedEvent.categoryDeleted("cat-1", List.of(movie)));
+
+        verify(jpaCatalogChangeRepository)
+                .deleteByEntityTypeAndEntityIdIn("CATEGORY", Set.of("cat-1"));
+        verify(jpaCatalogChangeRepository).deleteByEntityTypeAndEntityIdIn("MOVIE", Set.of("m1"));
+        ArgumentCaptor<Collection<CatalogChangeJpaEntity>> changes =
+                ArgumentCaptor.forClass(Collection.class);
+        verify(jpaCatalogChangeRepository).saveAll(changes.capture());
+        assertThat(changes.getValue())
+                .extracting(
+                        CatalogChangeJpaEntity::getEntityType,
+                        CatalogChangeJpaEntity::getEntityId,
+                        CatalogChangeJpaEntity::isDeleted)
+                .containsExactlyInAnyOrder(
+                        tuple("MOVIE", "m1", false), tuple("CATEGORY", "cat-1", true));
+        verify(eventPublisher).publishEvent(new CatalogChangesLoggedEvent(6));
+    }
+
+    @Test
+    void findSince_shouldMapEntities() {
+        when(jpaCatalogChangeRepository.findByVersionGreaterThanOrderByVersion(eq(3L), any()))
+                .thenReturn(
+                        List.of(
+                                CatalogChangeJpaEntity.builder()
+                                        .version(4L)
+                                        .entityType("CATEGORY")
+                                        .entityId("cat-1")
+                                        .deleted(true)
+                                        .build()));
+
+        assertThat(catalogChangeLogAdapter.findSince(3, 10))
+                .singleElement()
+                .satisfies(
+                        change -> {
+                            assertThat(change.version()).isEqualTo(4);
+                            assertThat(change.entityId()).isEqualTo("cat-1");
+                            assertThat(change.deleted()).isTrue();
+                        });
+    }
+}
@@ -5,17 +5,26 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.event.CatalogChangedEvent;
 import com.mediaserver.infrastructure.persistence.entity.CategoryJpaEntity;
 import com.mediaserver.infrastructure.persistence.mapper.CategoryPersistenceMapper;
+import com.mediaserver.infrastructure.persistence.mapper.MoviePersistenceMapper;
 import com.mediaserver.infrastructure.persistence.repository.JpaCategoryRepository;
+import com.mediaserver.infrastructure.persistence.repository.JpaMovieRepository;
+import com.mediaserver.infrastructure.persistence.repository.MovieRow;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * Unit tests for CategoryRepositoryAdapter. Tests the adapter implementation that bridges domain
@@ -28,6 +37,12 @@ class CategoryRepositoryAdapterTest {
 
     @Mock private CategoryPersistenceMapper categoryPersistenceMapper;
 
+    @Mock private JpaMovieRepository jpaMovieRepository;
+
+    @Mock private MoviePersistenceMapper moviePersistenceMapper;
+
+    @Mock private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks private CategoryRepositoryAdapter categoryRepositoryAdapter;
 
     private Category domainCategory;
@@ -108,15 +123,61 @@ class CategoryRepositoryAdapterTest {
         verify(categoryPersistenceMapper).toEntity(domainCategory);
         verify(jpaCategoryRepository).save(entityCategory);
         verify(categoryPersistenceMapper).toDomain(entityCategory);
+        ArgumentCaptor<CatalogChangedEvent> event =
+                ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().savedCategories()).containsExactly(result);
     }
 
     @Test
-    void delete_shouldCallRepositoryDelete() {
+    void delete_shouldCallRepositoryDeleteAndPublishUncategorizedMovies() {
+        MovieRow row =
+                new MovieRow(
+                        "movie-1",
+                        "Test Movie",
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        MovieStatus.PENDING,
+                        "cat-1",
+                        "Action",
+                        null,
+                        null,
+                        null);
+        when(jpaMovieRepository.findRowsByCategoryId("cat-1")).thenReturn(List.of(row));
+        when(moviePersistenceMapper.rowToDomain(row))
+                .thenReturn(
+                        Movie.builder()
+                                .id("movie-1")
+                                .categoryId("cat-1")
+                                .categoryName("Action")
+                                .build());
         doNothing().when(jpaCategoryRepository).deleteById("cat-1");
 
         categoryRepositoryAdapter.delete("cat-1");
 
-        verify(jpaCategoryRepository).deleteById("cat-1");
+        InOrder inOrder = inOrder(jpaMovieRepository, jpaCategoryRepository);
+        inOrder.verify(jpaMovieRepository).findRowsByCategoryId("cat-1");
+        inOrder.verify(jpaCategoryRepository).deleteById("cat-1");
+        ArgumentCaptor<CatalogChangedEvent> event =
+                ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().deletedCategoryIds()).containsExactly("cat-1");
+        assertThat(event.getValue().savedMovies())
+                .singleElement()
+                .satisfies(
+                        movie -> {
+                            assertThat(movie.getId()).isEqualTo("movie-1");
+                            assertThat(movie.getCategoryId()).isNull();
+                            assertThat(movie.getCategoryName()).isNull();
+                        });
     }
 
     @Test
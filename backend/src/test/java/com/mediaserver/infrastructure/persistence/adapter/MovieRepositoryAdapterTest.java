@@ -2,25 +2,44 @@ package com.mediaserver.infrastructure.persistence.adapter;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
+import com.mediaserver.application.model.MovieQuery;
 import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieCursor;
+import com.mediaserver.domain.model.MovieSort;
 import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.event.CatalogChangedEvent;
+import com.mediaserver.event.FavoriteChangedEvent;
+import com.mediaserver.infrastructure.persistence.entity.CategoryJpaEntity;
 import com.mediaserver.infrastructure.persistence.entity.MovieFavoriteJpaEntity;
 import com.mediaserver.infrastructure.persistence.entity.MovieJpaEntity;
 import com.mediaserver.infrastructure.persistence.mapper.MoviePersistenceMapper;
 import com.mediaserver.infrastructure.persistence.repository.JpaCategoryRepository;
 import com.mediaserver.infrastructure.persistence.repository.JpaMovieFavoriteRepository;
 import com.mediaserver.infrastructure.persistence.repository.JpaMovieRepository;
+import com.mediaserver.infrastructure.persistence.repository.MovieRow;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 
 /**
  * Unit tests for MovieRepositoryAdapter. Tests the adapter implementation that bridges domain and
@@ -37,10 +56,13 @@ class MovieRepositoryAdapterTest {
 
     @Mock private MoviePersistenceMapper mapper;
 
+    @Mock private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks private MovieRepositoryAdapter movieRepositoryAdapter;
 
     private Movie domainMovie;
     private MovieJpaEntity entityMovie;
+    private MovieRow movieRow;
 
     @BeforeEach
     void setUp() {
@@ -64,19 +86,39 @@ class MovieRepositoryAdapterTest {
                         .status(MovieStatus.PENDING)
                         .createdAt(LocalDateTime.now())
                         .build();
+
+        movieRow =
+                new MovieRow(
+                        "movie-1",
+                        "Test Movie",
+                        "A test movie",
+                        2024,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        MovieStatus.PENDING,
+                        "cat-1",
+                        "Action",
+                        null,
+                        LocalDateTime.now(),
+                        null);
     }
 
     @Test
-    void findAll_shouldMapEntitiesToDomainModels() {
-        when(jpaMovieRepository.findAll()).thenReturn(List.of(entityMovie));
-        when(mapper.toDomainList(List.of(entityMovie))).thenReturn(List.of(domainMovie));
+    void findAll_shouldMapRowProjectionsToDomainModels() {
+        when(jpaMovieRepository.findAllRows()).thenReturn(List.of(movieRow));
+        when(mapper.rowsToDomainList(List.of(movieRow))).thenReturn(List.of(domainMovie));
 
         List<Movie> result = movieRepositoryAdapter.findAll();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getTitle()).isEqualTo("Test Movie");
-        verify(jpaMovieRepository).findAll();
-        verify(mapper).toDomainList(List.of(entityMovie));
+        verify(jpaMovieRepository, never()).findAll();
     }
 
     @Test
@@ -117,6 +159,7 @@ class MovieRepositoryAdapterTest {
         verify(mapper).toEntity(domainMovie);
         verify(jpaMovieRepository).save(any(MovieJpaEntity.class));
         verify(mapper).toDomain(entityMovie);
+        verify(eventPublisher).publishEvent(any(Object.class));
     }
 
     @Test
@@ -126,18 +169,22 @@ class MovieRepositoryAdapterTest {
         movieRepositoryAdapter.delete("movie-1");
 
         verify(jpaMovieRepository).deleteById("movie-1");
+        ArgumentCaptor<CatalogChangedEvent> event =
+                ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().deletedMovieIds()).containsExactly("movie-1");
     }
 
     @Test
     void search_shouldMapSearchResults() {
-        when(jpaMovieRepository.search("test")).thenReturn(List.of(entityMovie));
+        when(jpaMovieRepository.search("test", 50, 0)).thenReturn(List.of(entityMovie));
         when(mapper.toDomainList(List.of(entityMovie))).thenReturn(List.of(domainMovie));
 
         List<Movie> result = movieRepositoryAdapter.search("test");
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getTitle()).isEqualTo("Test Movie");
-        verify(jpaMovieRepository).search("test");
+        verify(jpaMovieRepository).search("test", 50, 0);
         verify(mapper).toDomainList(List.of(entityMovie));
     }
 
@@ -155,15 +202,13 @@ class MovieRepositoryAdapterTest {
 
     @Test
     void findByCategoryId_shouldMapMoviesInCategory() {
-        when(jpaMovieRepository.findByCategoryId("cat-1")).thenReturn(List.of(entityMovie));
-        when(mapper.toDomainList(List.of(entityMovie))).thenReturn(List.of(domainMovie));
+        when(jpaMovieRepository.findRowsByCategoryId("cat-1")).thenReturn(List.of(movieRow));
+        when(mapper.rowsToDomainList(List.of(movieRow))).thenReturn(List.of(domainMovie));
 
         List<Movie> result = movieRepositoryAdapter.findByCategoryId("cat-1");
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getCategoryId()).isEqualTo("cat-1");
-        verify(jpaMovieRepository).findByCategoryId("cat-1");
-        verify(mapper).toDomainList(List.of(entityMovie));
     }
 
     @Test
@@ -171,26 +216,13 @@ class MovieRepositoryAdapterTest {
         Movie cachedMovie =
                 domainMovie.withLocalPath("/cache/movie.mp4").withStatus(MovieStatus.READY);
 
-        MovieJpaEntity cachedEntity =
-                MovieJpaEntity.builder()
-                        .id("movie-1")
-                        .title("Test Movie")
-                        .description("A test movie")
-                        .year(2024)
-                        .status(MovieStatus.READY)
-                        .localPath("/cache/movie.mp4")
-                        .createdAt(LocalDateTime.now())
-                        .build();
-
-        when(jpaMovieRepository.findCachedMovies()).thenReturn(List.of(cachedEntity));
-        when(mapper.toDomainList(List.of(cachedEntity))).thenReturn(List.of(cachedMovie));
+        when(jpaMovieRepository.findCachedRows()).thenReturn(List.of(movieRow));
+        when(mapper.rowsToDomainList(List.of(movieRow))).thenReturn(List.of(cachedMovie));
 
         List<Movie> result = movieRepositoryAdapter.findCachedMovies();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).isCached()).isTrue();
-        verify(jpaMovieRepository).findCachedMovies();
-        verify(mapper).toDomainList(List.of(cachedEntity));
     }
 
     @Test
@@ -213,15 +245,28 @@ class MovieRepositoryAdapterTest {
         verify(jpaMovieRepository).countByLocalPathIsNotNull();
     }
 
+    @Test
+    void forEachMovie_shouldMapEachRowAndCloseStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(jpaMovieRepository.streamAllRows())
+                .thenReturn(Stream.of(movieRow).onClose(() -> closed.set(true)));
+        when(mapper.rowToDomain(movieRow)).thenReturn(domainMovie);
+        List<Movie> result = new ArrayList<>();
+
+        movieRepositoryAdapter.forEachMovie(result::add);
+
+        assertThat(result).containsExactly(domainMovie);
+        assertThat(closed).isTrue();
+    }
+
     @Test
     void findAll_shouldReturnEmptyList_whenNoMovies() {
-        when(jpaMovieRepository.findAll()).thenReturn(List.of());
-        when(mapper.toDomainList(List.of())).thenReturn(List.of());
+        when(jpaMovieRepository.findAllRows()).thenReturn(List.of());
+        when(mapper.rowsToDomainList(List.of())).thenReturn(List.of());
 
         List<Movie> result = movieRepositoryAdapter.findAll();
 
         assertThat(result).isEmpty();
-        verify(jpaMovieRepository).findAll();
     }
 
     @Test
@@ -253,15 +298,13 @@ class MovieRepositoryAdapterTest {
     @Test
     void findFavorites_shouldReturnFavoriteMoviesForUser() {
         Movie favoriteMovie = domainMovie.withFavorite(false);
-        when(jpaMovieRepository.findFavoritesByUserId("user-1")).thenReturn(List.of(entityMovie));
-        when(mapper.toDomainList(List.of(entityMovie))).thenReturn(List.of(favoriteMovie));
+        when(jpaMovieRepository.findFavoriteRowsByUserId("user-1")).thenReturn(List.of(movieRow));
+        when(mapper.rowsToDomainList(List.of(movieRow))).thenReturn(List.of(favoriteMovie));
 
         List<Movie> result = movieRepositoryAdapter.findFavorites("user-1");
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).isFavorite()).isTrue();
-        verify(jpaMovieRepository).findFavoritesByUserId("user-1");
-        verify(mapper).toDomainList(List.of(entityMovie));
     }
 
     @Test
@@ -273,6 +316,7 @@ class MovieRepositoryAdapterTest {
         movieRepositoryAdapter.addFavorite("movie-1", "user-1");
 
         verify(jpaMovieFavoriteRepository).save(any(MovieFavoriteJpaEntity.class));
+        verify(eventPublisher).publishEvent(new FavoriteChangedEvent("user-1", "movie-1", true));
     }
 
     @Test
@@ -280,16 +324,183 @@ class MovieRepositoryAdapterTest {
         movieRepositoryAdapter.removeFavorite("movie-1", "user-1");
 
         verify(jpaMovieFavoriteRepository).deleteByMovie_IdAndUserId("movie-1", "user-1");
+        verify(eventPublisher).publishEvent(new FavoriteChangedEvent("user-1", "movie-1", false));
     }
 
     @Test
-    void isFavorite_shouldReturnFavoriteState() {
+    void addFavorites_shouldInsertInOneStatementAndUpdateCachedIds() {
+        when(jpaMovieFavoriteRepository.findMovieIdsByUserId("user-1"))
+                .thenReturn(List.of("movie-1"));
+        movieRepositoryAdapter.findFavoriteIds("user-1");
+        when(jpaMovieFavoriteRepository.insertIgnoringExisting(
+                        List.of("movie-2", "movie-3"), "user-1"))
+                .thenReturn(2);
+
+        int added = movieRepositoryAdapter.addFavorites(List.of("movie-2", "movie-3"), "user-1");
+
+        assertThat(added).isEqualTo(2);
+        assertThat(movieRepositoryAdapter.findFavoriteIds("user-1"))
+                .containsExactlyInAnyOrder("movie-1", "movie-2", "movie-3");
+        verify(eventPublisher)
+                .publishEvent(
+                        new FavoriteChangedEvent("user-1", List.of("movie-2", "movie-3"), true));
+    }
+
+    @Test
+    void resetCache_shouldUpdateInOneStatementAndPublishResetMovies() {
+        when(jpaMovieRepository.findRowsByIdIn(List.of("movie-1"))).thenReturn(List.of(movieRow));
+        when(mapper.rowsToDomainList(List.of(movieRow))).thenReturn(List.of(domainMovie));
+
+        List<Movie> reset = movieRepositoryAdapter.resetCache(List.of("movie-1"));
+
+        assertThat(reset).containsExactly(domainMovie);
+        verify(jpaMovieRepository)
+                .resetCache(eq(List.of("movie-1")), eq(MovieStatus.PENDING), any());
+        verify(eventPublisher).publishEvent(CatalogChangedEvent.moviesSaved(List.of(domainMovie)));
+    }
+
+    @Test
+    void isFavorite_shouldReadCachedFavoriteIds() {
+        when(jpaMovieFavoriteRepository.findMovieIdsByUserId("user-1"))
+                .thenReturn(List.of("movie-1"));
+
+        assertThat(movieRepositoryAdapter.isFavorite("movie-1", "user-1")).isTrue();
+        assertThat(movieRepositoryAdapter.isFavorite("movie-2", "user-1")).isFalse();
+        verify(jpaMovieFavoriteRepository, times(1)).findMovieIdsByUserId("user-1");
+        verify(jpaMovieFavoriteRepository, never()).existsByMovie_IdAndUserId(any(), any());
+    }
+
+    @Test
+    void favoriteIds_shouldBeUpdatedInPlace_whenFavoritesChange() {
+        when(jpaMovieFavoriteRepository.findMovieIdsByUserId("user-1"))
+                .thenReturn(List.of("movie-2"));
         when(jpaMovieFavoriteRepository.existsByMovie_IdAndUserId("movie-1", "user-1"))
-                .thenReturn(true);
+                .thenReturn(false);
+        when(jpaMovieRepository.getReferenceById("movie-1")).thenReturn(entityMovie);
+        movieRepositoryAdapter.findFavoriteIds("user-1");
+
+        movieRepositoryAdapter.addFavorite("movie-1", "user-1");
+        movieRepositoryAdapter.removeFavorite("movie-2", "user-1");
+
+        assertThat(movieRepositoryAdapter.findFavoriteIds("user-1")).containsExactly("movie-1");
+        verify(jpaMovieFavoriteRepository, times(1)).findMovieIdsByUserId("user-1");
+    }
+
+    @Test
+    void applyFavoriteStatus_shouldReturnSameList_whenNoMovieIsFavorite() {
+        when(jpaMovieFavoriteRepository.findMovieIdsByUserId("user-1"))
+                .thenReturn(List.of("other"));
+        List<Movie> movies = List.of(domainMovie);
+
+        List<Movie> result = movieRepositoryAdapter.applyFavoriteStatus(movies, "user-1");
+
+        assertThat(result).isSameAs(movies);
+        verify(jpaMovieRepository, never()).findFavoriteRowsByUserId(any());
+    }
+
+    @Test
+    void applyFavoriteStatus_shouldFlagOnlyFavoriteMovies() {
+        Movie other = domainMovie.withId("movie-2");
+        when(jpaMovieFavoriteRepository.findMovieIdsByUserId("user-1"))
+                .thenReturn(List.of("movie-2"));
+
+        List<Movie> result =
+                movieRepositoryAdapter.applyFavoriteStatus(List.of(domainMovie, other), "user-1");
+
+        assertThat(result).extracting(Movie::isFavorite).containsExactly(false, true);
+        assertThat(result.get(0)).isSameAs(domainMovie);
+    }
+
+    @Test
+    void save_shouldAttachCategoryReferenceWithoutLoadingIt() {
+        CategoryJpaEntity categoryReference = CategoryJpaEntity.builder().id("cat-1").build();
+        when(mapper.toEntity(domainMovie)).thenReturn(entityMovie);
+        when(jpaCategoryRepository.getReferenceById("cat-1")).thenReturn(categoryReference);
+        when(jpaMovieRepository.save(entityMovie)).thenReturn(entityMovie);
+        when(mapper.toDomain(entityMovie)).thenReturn(domainMovie);
+
+        movieRepositoryAdapter.save(domainMovie);
+
+        assertThat(entityMovie.getCategory()).isSameAs(categoryReference);
+        verify(jpaCategoryRepository, never()).findById(any());
+    }
+
+    @Test
+    void saveAll_shouldSaveAllEntitiesInOneCall() {
+        Movie secondMovie = domainMovie.withId(null).withTitle("Second").withCategoryId(null);
+        MovieJpaEntity secondEntity = MovieJpaEntity.builder().title("Second").build();
+        when(mapper.toEntity(domainMovie)).thenReturn(entityMovie);
+        when(mapper.toEntity(secondMovie)).thenReturn(secondEntity);
+        when(jpaMovieRepository.saveAll(List.of(entityMovie, secondEntity)))
+                .thenReturn(List.of(entityMovie, secondEntity));
+        when(mapper.toDomainList(List.of(entityMovie, secondEntity)))
+                .thenReturn(List.of(domainMovie, secondMovie));
+
+        List<Movie> result = movieRepositoryAdapter.saveAll(List.of(domainMovie, secondMovie));
+
+        assertThat(result).containsExactly(domainMovie, secondMovie);
+        verify(jpaCategoryRepository).getReferenceById("cat-1");
+        verify(jpaMovieRepository, never()).save(any());
+        ArgumentCaptor<CatalogChangedEvent> event =
+                ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().savedMovies()).containsExactly(domainMovie, secondMovie);
+    }
+
+    @Test
+    void saveAll_shouldSkipRepository_whenNothingToSave() {
+        List<Movie> result = movieRepositoryAdapter.saveAll(List.of());
+
+        assertThat(result).isEmpty();
+        verifyNoInteractions(jpaMovieRepository, eventPublisher);
+    }
+
+    @Test
+    void findByMegaPaths_shouldQueryInChunks() {
+        List<String> paths = IntStream.range(0, 2500).mapToObj(i -> "/Movies/" + i).toList();
+        when(jpaMovieRepository.findByMegaPathIn(anyCollection())).thenReturn(List.of(entityMovie));
+        when(mapper.toDomainList(anyList())).thenReturn(List.of(domainMovie));
+
+        movieRepositoryAdapter.findByMegaPaths(paths);
+
+        verify(jpaMovieRepository, times(3)).findByMegaPathIn(anyCollection());
+    }
+
+    @Test
+    void findAllMegaPaths_shouldReturnPathsAsSet() {
+        when(jpaMovieRepository.findAllMegaPaths())
+                .thenReturn(List.of("/Movies/a.mp4", "/Movies/b.mp4"));
+
+        Set<String> result = movieRepositoryAdapter.findAllMegaPaths();
+
+        assertThat(result).containsExactlyInAnyOrder("/Movies/a.mp4", "/Movies/b.mp4");
+    }
+
+    @Test
+    void countByCategory_shouldMapRowsById() {
+        when(jpaMovieRepository.countByCategoryMatching("alien"))
+                .thenReturn(List.<Object[]>of(new Object[] {"cat-1", 3L}));
+
+        Map<String, Long> result = movieRepositoryAdapter.countByCategory("alien");
+
+        assertThat(result).containsExactly(Map.entry("cat-1", 3L));
+        verify(jpaMovieRepository, never()).countByCategory();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findPage_shouldQueryWithSpecificationAndLimit() {
+        when(jpaMovieRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenReturn(List.of(entityMovie));
+        when(mapper.toDomainList(List.of(entityMovie))).thenReturn(List.of(domainMovie));
 
-        boolean result = movieRepositoryAdapter.isFavorite("movie-1", "user-1");
+        List<Movie> result =
+                movieRepositoryAdapter.findPage(
+                        MovieQuery.category("cat-1", null),
+                        MovieSort.TITLE,
+                        new MovieCursor(MovieSort.TITLE, "A", "movie-0"),
+                        51);
 
-        assertThat(result).isTrue();
-        verify(jpaMovieFavoriteRepository).existsByMovie_IdAndUserId("movie-1", "user-1");
+        assertThat(result).containsExactly(domainMovie);
     }
 }
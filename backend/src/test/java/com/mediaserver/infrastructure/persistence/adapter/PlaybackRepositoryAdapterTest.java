@@ -0,0 +1,54 @@
+package com.mediaserver.infrastructure.persistence.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.application.model.PlaybackStats;
+import com.mediaserver.infrastructure.persistence.entity.MoviePlaybackJpaEntity;
+import com.mediaserver.infrastructure.persistence.repository.JpaMoviePlaybackRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for PlaybackRepositoryAdapter. Tests reading and adding playback statistics. */
+@ExtendWith(MockitoExtension.class)
+class PlaybackRepositoryAdapterTest {
+
+    @Mock private JpaMoviePlaybackRepository jpaMoviePlaybackRepository;
+
+    @InjectMocks private PlaybackRepositoryAdapter playbackRepositoryAdapter;
+
+    @Test
+    void findByMovieIds_shouldQueryInChunksAndMapRows() {
+        LocalDateTime streamedAt = LocalDateTime.of(2024, 1, 1, 20, 0);
+        when(jpaMoviePlaybackRepository.findByMovieIdIn(anyCollection()))
+                .thenReturn(List.of(new MoviePlaybackJpaEntity("m1", streamedAt, 3)))
+                .thenReturn(List.of());
+        List<String> ids = IntStream.range(0, 1500).mapToObj(i -> "m" + i).toList();
+
+        var result = playbackRepositoryAdapter.findByMovieIds(ids);
+
+        assertThat(result).containsOnlyKeys("m1");
+        assertThat(result.get("m1")).isEqualTo(new PlaybackStats("m1", streamedAt, 3));
+        verify(jpaMoviePlaybackRepository, times(2)).findByMovieIdIn(anyCollection());
+    }
+
+    @Test
+    void addPlays_shouldUpsertEveryMovie() {
+        LocalDateTime streamedAt = LocalDateTime.of(2024, 1, 1, 20, 0);
+
+        playbackRepositoryAdapter.addPlays(
+                List.of(
+                        new PlaybackStats("m1", streamedAt, 1),
+                        new PlaybackStats("m2", streamedAt, 0)));
+
+        verify(jpaMoviePlaybackRepository).addPlays("m1", streamedAt, 1);
+        verify(jpaMoviePlaybackRepository).addPlays("m2", streamedAt, 0);
+    }
+}
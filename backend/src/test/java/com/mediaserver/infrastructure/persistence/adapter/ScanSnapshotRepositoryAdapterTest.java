@@ -0,0 +1,97 @@
+package com.mediaserver.infrastructure.persistence.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.domain.model.ScanSnapshotEntry;
+import com.mediaserver.infrastructure.persistence.entity.ScanSnapshotJpaEntity;
+import com.mediaserver.infrastructure.persistence.mapper.ScanSnapshotPersistenceMapper;
+import com.mediaserver.infrastructure.persistence.repository.JpaScanSnapshotRepository;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for ScanSnapshotRepositoryAdapter. Tests the adapter implementation that bridges
+ * domain and persistence layers.
+ */
+@ExtendWith(MockitoExtension.class)
+class ScanSnapshotRepositoryAdapterTest {
+
+    @Mock private JpaScanSnapshotRepository jpaScanSnapshotRepository;
+
+    @Mock private ScanSnapshotPersistenceMapper mapper;
+
+    @InjectMocks private ScanSnapshotRepositoryAdapter adapter;
+
+    private ScanSnapshotEntry domainEntry;
+    private ScanSnapshotJpaEntity entityEntry;
+
+    @BeforeEach
+    void setUp() {
+        domainEntry =
+                ScanSnapshotEntry.builder()
+                        .megaPath("/Action/a.mp4")
+                        .parentPath("/Action")
+                        .name("a.mp4")
+                        .size(100)
+                        .build();
+        entityEntry =
+                ScanSnapshotJpaEntity.builder()
+                        .megaPath("/Action/a.mp4")
+                        .parentPath("/Action")
+                        .name("a.mp4")
+                        .size(100)
+                        .build();
+    }
+
+    @Test
+    void findByPathPrefix_shouldMapEntitiesToDomainModels() {
+        when(jpaScanSnapshotRepository.findByMegaPathStartingWith("/Action/"))
+                .thenReturn(List.of(entityEntry));
+        when(mapper.toDomainList(List.of(entityEntry))).thenReturn(List.of(domainEntry));
+
+        List<ScanSnapshotEntry> result = adapter.findByPathPrefix("/Action/");
+
+        assertThat(result).containsExactly(domainEntry);
+    }
+
+    @Test
+    void saveAll_shouldSkipRepository_whenNothingToSave() {
+        adapter.saveAll(List.of());
+
+        verifyNoInteractions(jpaScanSnapshotRepository);
+    }
+
+    @Test
+    void saveAll_shouldInsertMappedEntities() {
+        when(mapper.toEntityList(List.of(domainEntry))).thenReturn(List.of(entityEntry));
+
+        adapter.saveAll(List.of(domainEntry));
+
+        verify(jpaScanSnapshotRepository).saveAll(List.of(entityEntry));
+    }
+
+    @Test
+    void deleteByMegaPaths_shouldDeleteInChunks() {
+        List<String> paths = IntStream.range(0, 2500).mapToObj(i -> "/Action/" + i).toList();
+
+        adapter.deleteByMegaPaths(paths);
+
+        verify(jpaScanSnapshotRepository, times(3)).deleteByMegaPathIn(anyCollection());
+    }
+
+    @Test
+    void deleteByMegaPaths_shouldDoNothing_whenEmpty() {
+        adapter.deleteByMegaPaths(List.of());
+
+        verify(jpaScanSnapshotRepository, never()).deleteByMegaPathIn(anyList());
+    }
+}
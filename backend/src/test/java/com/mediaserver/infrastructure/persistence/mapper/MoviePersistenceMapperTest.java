@@ -6,6 +6,7 @@ import com.mediaserver.domain.model.Movie;
 import com.mediaserver.domain.model.MovieStatus;
 import com.mediaserver.infrastructure.persistence.entity.CategoryJpaEntity;
 import com.mediaserver.infrastructure.persistence.entity.MovieJpaEntity;
+import com.mediaserver.infrastructure.persistence.repository.MovieRow;
 import java.time.LocalDateTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -98,6 +99,45 @@ class MoviePersistenceMapperTest {
         assertThat(result.getCategoryId()).isEqualTo("cat-1");
     }
 
+    @Test
+    void toDomain_shouldTakeCategoryName_whenCategoryLoaded() {
+        Movie result = moviePersistenceMapper.toDomain(entityMovie);
+
+        assertThat(result.getCategoryName()).isEqualTo("Action");
+    }
+
+    @Test
+    void toDomain_shouldMapRowProjectionWithCategoryName() {
+        MovieRow row =
+                new MovieRow(
+                        "movie-1",
+                        "Test Movie",
+                        null,
+                        2024,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        "/cache/test.mp4",
+                        1024L,
+                        "video/mp4",
+                        MovieStatus.READY,
+                        "cat-1",
+                        "Action",
+                        null,
+                        null,
+                        null);
+
+        Movie result = moviePersistenceMapper.rowToDomain(row);
+
+        assertThat(result.getTitle()).isEqualTo("Test Movie");
+        assertThat(result.getCategoryId()).isEqualTo("cat-1");
+        assertThat(result.getCategoryName()).isEqualTo("Action");
+        assertThat(result.isCached()).isTrue();
+        assertThat(result.isFavorite()).isFalse();
+    }
+
     @Test
     void toDomain_shouldHandleNullCategory() {
         entityMovie.setCategory(null);
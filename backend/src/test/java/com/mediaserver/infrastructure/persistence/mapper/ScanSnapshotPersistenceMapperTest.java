@@ -0,0 +1,61 @@
+package com.mediaserver.infrastructure.persistence.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mediaserver.domain.model.ScanSnapshotEntry;
+import com.mediaserver.infrastructure.persistence.entity.ScanSnapshotJpaEntity;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Unit tests for ScanSnapshotPersistenceMapper. Tests bidirectional mapping between snapshot
+ * entries and ScanSnapshotJpaEntity.
+ */
+class ScanSnapshotPersistenceMapperTest {
+
+    private final ScanSnapshotPersistenceMapper mapper =
+            Mappers.getMapper(ScanSnapshotPersistenceMapper.class);
+
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2024, 1, 10, 10, 20, 30);
+
+    @Test
+    void toEntity_shouldMapAllFieldsAndMarkAsNew() {
+        ScanSnapshotEntry entry =
+                ScanSnapshotEntry.builder()
+                        .megaPath("/Action/a.mp4")
+                        .parentPath("/Action")
+                        .name("a.mp4")
+                        .size(100)
+                        .modifiedAt(MODIFIED)
+                        .build();
+
+        ScanSnapshotJpaEntity result = mapper.toEntity(entry);
+
+        assertThat(result.getMegaPath()).isEqualTo("/Action/a.mp4");
+        assertThat(result.getParentPath()).isEqualTo("/Action");
+        assertThat(result.getName()).isEqualTo("a.mp4");
+        assertThat(result.getSize()).isEqualTo(100);
+        assertThat(result.getModifiedAt()).isEqualTo(MODIFIED);
+        assertThat(result.isNew()).isTrue();
+    }
+
+    @Test
+    void toDomain_shouldMapAllFields() {
+        ScanSnapshotJpaEntity entity =
+                ScanSnapshotJpaEntity.builder()
+                        .megaPath("/Action/a.mp4")
+                        .parentPath("/Action")
+                        .name("a.mp4")
+                        .size(100)
+                        .modifiedAt(MODIFIED)
+                        .build();
+
+        ScanSnapshotEntry result = mapper.toDomain(entity);
+
+        assertThat(result.getMegaPath()).isEqualTo("/Action/a.mp4");
+        assertThat(result.getParentPath()).isEqualTo("/Action");
+        assertThat(result.getSize()).isEqualTo(100);
+        assertThat(result.getModifiedAt()).isEqualTo(MODIFIED);
+    }
+}
@@ -0,0 +1,76 @@
+package com.mediaserver.infrastructure.rest.controller;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.mediaserver.application.model.BulkResult;
+import com.mediaserver.application.usecase.movie.BulkMovieUseCase;
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.config.WebConfig;
+import com.mediaserver.exception.GlobalExceptionHandler;
+import com.mediaserver.infrastructure.rest.dto.BulkResultDTO;
+import com.mediaserver.infrastructure.rest.mapper.MovieRestMapper;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Unit tests for BulkMovieController. Tests request validation and the per-ID results. */
+@WebMvcTest(BulkMovieController.class)
+@Import({GlobalExceptionHandler.class, MediaProperties.class, WebConfig.class})
+@WithMockUser(username = "admin", roles = "ADMIN")
+class BulkMovieControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockitoBean private BulkMovieUseCase bulkMovieUseCase;
+
+    @MockitoBean private MovieRestMapper movieRestMapper;
+
+    @Test
+    void clearCaches_shouldReturnResultPerId() throws Exception {
+        List<BulkResult> results =
+                List.of(BulkResult.applied("movie-1"), BulkResult.notFound("missing"));
+        when(bulkMovieUseCase.clearCaches(List.of("movie-1", "missing"))).thenReturn(results);
+        when(movieRestMapper.toBulkResultList(results))
+                .thenReturn(
+                        List.of(
+                                BulkResultDTO.builder()
+                                        .movieId("movie-1")
+                                        .outcome("APPLIED")
+                                        .build(),
+                                BulkResultDTO.builder()
+                                        .movieId("missing")
+                                        .outcome("NOT_FOUND")
+                                        .build()));
+
+        mockMvc.perform(
+                        post("/api/movies/bulk/clear-cache")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"ids\":[\"movie-1\",\"missing\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$[1].movieId").value("missing"))
+                .andExpect(jsonPath("$[1].outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    void deleteMovies_shouldReturn400_whenIdsMissing() throws Exception {
+        mockMvc.perform(
+                        post("/api/movies/bulk/delete")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bulkMovieUseCase);
+    }
+}
@@ -0,0 +1,85 @@
+package com.mediaserver.infrastructure.rest.controller;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.mediaserver.application.model.CatalogChanges;
+import com.mediaserver.application.usecase.catalog.GetCatalogChangesUseCase;
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.config.WebConfig;
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.exception.GlobalExceptionHandler;
+import com.mediaserver.exception.InvalidPageRequestException;
+import com.mediaserver.infrastructure.rest.dto.MovieResponseDTO;
+import com.mediaserver.infrastructure.rest.mapper.CategoryRestMapper;
+import com.mediaserver.infrastructure.rest.mapper.MovieRestMapper;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Unit tests for CatalogChangesController. Tests the changes feed request and response shape. */
+@WebMvcTest(CatalogChangesController.class)
+@Import({GlobalExceptionHandler.class, MediaProperties.class, WebConfig.class})
+@WithMockUser(username = "admin", roles = "ADMIN")
+class CatalogChangesControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockitoBean private GetCatalogChangesUseCase getCatalogChangesUseCase;
+
+    @MockitoBean private MovieRestMapper movieRestMapper;
+
+    @MockitoBean private CategoryRestMapper categoryRestMapper;
+
+    @Test
+    void getChanges_shouldReturnOnlyVersion_whenSinceMissing() throws Exception {
+        when(getCatalogChangesUseCase.getLatestVersion()).thenReturn(42L);
+
+        mockMvc.perform(get("/api/movies/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(42))
+                .andExpect(jsonPath("$.movies").isEmpty());
+
+        verify(getCatalogChangesUseCase, never()).getChanges(anyLong(), anyInt());
+    }
+
+    @Test
+    void getChanges_shouldReturnChangedAndDeletedEntities() throws Exception {
+        Movie movie = Movie.builder().id("movie-1").title("Changed").build();
+        when(getCatalogChangesUseCase.getChanges(10, 500))
+                .thenReturn(
+                        new CatalogChanges(
+                                12,
+                                true,
+                                false,
+                                List.of(movie),
+                                List.of("movie-2"),
+                                List.of(),
+                                List.of("cat-1")));
+        when(movieRestMapper.toResponse(movie))
+                .thenReturn(MovieResponseDTO.builder().id("movie-1").title("Changed").build());
+
+        mockMvc.perform(get("/api/movies/changes").param("since", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(12))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.movies[0].id").value("movie-1"))
+                .andExpect(jsonPath("$.deletedMovieIds[0]").value("movie-2"))
+                .andExpect(jsonPath("$.deletedCategoryIds[0]").value("cat-1"));
+    }
+
+    @Test
+    void getChanges_shouldReturnBadRequest_whenLimitInvalid() throws Exception {
+        when(getCatalogChangesUseCase.getChanges(0, 0))
+                .thenThrow(new InvalidPageRequestException("bad limit"));
+
+        mockMvc.perform(get("/api/movies/changes").param("since", "0").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
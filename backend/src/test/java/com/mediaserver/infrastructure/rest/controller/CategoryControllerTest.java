@@ -9,6 +9,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mediaserver.application.command.CreateCategoryCommand;
 import com.mediaserver.application.command.UpdateCategoryCommand;
+import com.mediaserver.application.usecase.catalog.GetCatalogVersionUseCase;
 import com.mediaserver.application.usecase.category.*;
 import com.mediaserver.config.MediaProperties;
 import com.mediaserver.config.WebConfig;
@@ -52,6 +53,8 @@ class CategoryControllerTest {
 
     @MockitoBean private DeleteCategoryUseCase deleteCategoryUseCase;
 
+    @MockitoBean private GetCatalogVersionUseCase getCatalogVersionUseCase;
+
     @MockitoBean private CategoryRestMapper categoryRestMapper;
 
     private Category domainCategory;
@@ -1,5 +1,7 @@
 package com.mediaserver.infrastructure.rest.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -9,35 +11,62 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mediaserver.application.command.CreateMovieCommand;
 import com.mediaserver.application.command.UpdateMovieCommand;
-import com.mediaserver.application.usecase.category.GetAllCategoriesUseCase;
+import com.mediaserver.application.model.CachePurge;
+import com.mediaserver.application.model.FacetFilter;
+import com.mediaserver.application.model.FacetedMovies;
+import com.mediaserver.application.model.MovieFacet;
+import com.mediaserver.application.model.MoviePage;
+import com.mediaserver.application.usecase.catalog.GetCatalogVersionUseCase;
 import com.mediaserver.application.usecase.movie.*;
 import com.mediaserver.config.MediaProperties;
 import com.mediaserver.config.WebConfig;
 import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieGroup;
+import com.mediaserver.domain.model.MovieSort;
 import com.mediaserver.domain.model.MovieStatus;
 import com.mediaserver.exception.GlobalExceptionHandler;
+import com.mediaserver.exception.InvalidPageRequestException;
 import com.mediaserver.exception.MovieNotFoundException;
+import com.mediaserver.infrastructure.rest.dto.MovieGroupResponseDTO;
 import com.mediaserver.infrastructure.rest.dto.MovieRequestDTO;
 import com.mediaserver.infrastructure.rest.dto.MovieResponseDTO;
+import com.mediaserver.infrastructure.rest.dto.MovieSuggestionDTO;
 import com.mediaserver.infrastructure.rest.mapper.MovieRestMapper;
+import com.mediaserver.service.ThumbnailSprites;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
 /**
  * Unit tests for MovieController in Clean Architecture. Tests the REST adapter layer that uses
  * application services (use cases).
  */
 @WebMvcTest(MovieController.class)
-@Import({GlobalExceptionHandler.class, MediaProperties.class, WebConfig.class})
+@Import({
+    GlobalExceptionHandler.class,
+    MediaProperties.class,
+    WebConfig.class,
+    MovieJsonCache.class,
+    MovieRepresentations.class
+})
 @WithMockUser(username = "admin", roles = "ADMIN")
 class MovieControllerTest {
 
@@ -45,7 +74,7 @@ class MovieControllerTest {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @MockitoBean private GetAllMoviesUseCase getAllMoviesUseCase;
+    @MockitoBean private StreamAllMoviesUseCase streamAllMoviesUseCase;
 
     @MockitoBean private GetMovieUseCase getMovieUseCase;
 
@@ -79,7 +108,15 @@ class MovieControllerTest {
 
     @MockitoBean private GetMoviesGroupedUseCase getMoviesGroupedUseCase;
 
-    @MockitoBean private GetAllCategoriesUseCase getAllCategoriesUseCase;
+    @MockitoBean private GetMoviePageUseCase getMoviePageUseCase;
+
+    @MockitoBean private SuggestMoviesUseCase suggestMoviesUseCase;
+
+    @MockitoBean private FilterMoviesUseCase filterMoviesUseCase;
+
+    @MockitoBean private GetCatalogVersionUseCase getCatalogVersionUseCase;
+
+    @MockitoBean private ThumbnailSprites thumbnailSprites;
 
     @MockitoBean private MovieRestMapper movieRestMapper;
 
@@ -115,28 +152,268 @@ class MovieControllerTest {
     }
 
     @Test
-    void getAllMovies_shouldReturnMovieList() throws Exception {
-        when(getAllMoviesUseCase.getAllMovies()).thenReturn(List.of(entityMovie));
+    void getAllMovies_shouldStreamMovieList() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            Consumer<Movie> action = invocation.getArgument(0);
+                            action.accept(entityMovie);
+                            action.accept(entityMovie.withFavorite(true));
+                            return null;
+                        })
+                .when(streamAllMoviesUseCase)
+                .streamAllMovies(any());
         when(movieRestMapper.toResponse(entityMovie)).thenReturn(movieResponseDto);
 
         mockMvc.perform(get("/api/movies"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value("movie-1"))
+                .andExpect(jsonPath("$[0].favorite").value(false))
+                .andExpect(jsonPath("$[1].title").value("Test Movie"))
+                .andExpect(jsonPath("$[1].favorite").value(true));
+
+        verify(movieRestMapper, times(1)).toResponse(entityMovie);
+    }
+
+    @Test
+    void getAllMovies_shouldServePrecompressedCatalog_whenUserHasNoFavorites() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            Consumer<Movie> action = invocation.getArgument(0);
+                            action.accept(entityMovie);
+                            return null;
+                        })
+                .when(streamAllMoviesUseCase)
+                .streamAllMovies(any());
+        when(movieRestMapper.toResponse(entityMovie)).thenReturn(movieResponseDto);
+        when(getFavoritesUseCase.getFavoriteIds()).thenReturn(Set.of());
+        when(getCatalogVersionUseCase.getCatalogVersion()).thenReturn("v1");
+
+        byte[] body =
+                mockMvc.perform(get("/api/movies").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        mockMvc.perform(get("/api/movies").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk());
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(json).startsWith("[{\"id\":\"movie-1\"").endsWith("\"favorite\":false}]");
+        }
+        verify(streamAllMoviesUseCase, times(1)).streamAllMovies(any());
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourQualityValues() {
+        assertThat(MovieController.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(MovieController.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(MovieController.acceptsGzip("*")).isTrue();
+        assertThat(MovieController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(MovieController.acceptsGzip("gzip; q=0.000, *")).isFalse();
+        assertThat(MovieController.acceptsGzip("*;q=0")).isFalse();
+        assertThat(MovieController.acceptsGzip("deflate, identity")).isFalse();
+        assertThat(MovieController.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void getAllMovies_shouldTrimMoviesToSelectedFields() throws Exception {
+        when(getMoviesByCategoryUseCase.getMoviesByCategory("cat-1"))
+                .thenReturn(List.of(entityMovie));
+        when(movieRestMapper.toResponse(entityMovie)).thenReturn(movieResponseDto);
+
+        mockMvc.perform(get("/api/movies").param("categoryId", "cat-1").param("fields", "id,title"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":\"movie-1\",\"title\":\"Test Movie\"}]", true));
+    }
+
+    @Test
+    void getAllMovies_shouldReturnBadRequest_whenFieldIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/movies").param("fields", "id,megaUrl"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown movie field: megaUrl"));
+
+        verifyNoInteractions(streamAllMoviesUseCase);
+    }
+
+    @Test
+    void getAllMovies_shouldWriteCbor_whenAccepted() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            Consumer<Movie> action = invocation.getArgument(0);
+                            action.accept(entityMovie);
+                            return null;
+                        })
+                .when(streamAllMoviesUseCase)
+                .streamAllMovies(any());
+        when(movieRestMapper.toResponse(entityMovie)).thenReturn(movieResponseDto);
+
+        byte[] body =
+                mockMvc.perform(
+                                get("/api/movies")
+                                        .param("fields", "id,status")
+                                        .accept(MediaType.APPLICATION_CBOR))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                        .andExpect(header().string(HttpHeaders.VARY, containsString("Accept")))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+
+        JsonNode movies = CBORMapper.builder().build().readTree(body);
+        assertThat(movies.size()).isEqualTo(1);
+        assertThat(movies.get(0).propertyNames()).containsExactly("id", "status");
+        assertThat(movies.get(0).get("status").asString()).isEqualTo("PENDING");
+    }
+
+    @Test
+    void getMoviesGrouped_shouldTrimMoviesAndWriteSmile_whenAccepted() throws Exception {
+        MovieGroupResponseDTO group =
+                MovieGroupResponseDTO.builder()
+                        .name("Action")
+                        .movies(List.of(movieResponseDto))
+                        .build();
+        when(getMoviesGroupedUseCase.getMoviesGrouped(null, MovieSort.TITLE, 50))
+                .thenReturn(List.<MovieGroup>of());
+        when(movieRestMapper.toGroupResponseList(any())).thenReturn(List.of(group));
+        when(thumbnailSprites.layout(any())).thenReturn(Map.of());
+
+        byte[] body =
+                mockMvc.perform(
+                                get("/api/movies/grouped")
+                                        .param("fields", "id")
+                                        .accept(MovieRepresentations.APPLICATION_SMILE))
+                        .andExpect(status().isOk())
+                        .andExpect(
+                                content()
+                                        .contentTypeCompatibleWith(
+                                                MovieRepresentations.APPLICATION_SMILE))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+
+        JsonNode groups = SmileMapper.builder().build().readTree(body);
+        assertThat(groups.get(0).get("name").asString()).isEqualTo("Action");
+        assertThat(groups.get(0).get("movies").get(0).propertyNames()).containsExactly("id");
+    }
+
+    @Test
+    void getMoviesGrouped_shouldAttachSpriteTiles() throws Exception {
+        movieResponseDto.setThumbnailUrl("/api/thumbnails/file/cover.png");
+        MovieGroupResponseDTO group =
+                MovieGroupResponseDTO.builder()
+                        .name("Action")
+                        .movies(List.of(movieResponseDto))
+                        .build();
+        when(getMoviesGroupedUseCase.getMoviesGrouped(null, MovieSort.TITLE, 50))
+                .thenReturn(List.<MovieGroup>of());
+        when(movieRestMapper.toGroupResponseList(any())).thenReturn(List.of(group));
+        when(thumbnailSprites.layout(Map.of("movie-1", "/api/thumbnails/file/cover.png")))
+                .thenReturn(
+                        Map.of(
+                                "movie-1",
+                                new ThumbnailSprites.Tile(
+                                        "/api/thumbnails/sprite/abc.jpg", 320, 0, 640, 180)));
+
+        mockMvc.perform(get("/api/movies/grouped"))
+                .andExpect(status().isOk())
+                .andExpect(
+                        jsonPath("$[0].spriteTiles['movie-1'].url")
+                                .value("/api/thumbnails/sprite/abc.jpg"))
+                .andExpect(jsonPath("$[0].spriteTiles['movie-1'].x").value(320))
+                .andExpect(jsonPath("$[0].spriteTiles['movie-1'].width").value(320))
+                .andExpect(jsonPath("$[0].spriteTiles['movie-1'].sheetWidth").value(640));
+    }
+
+    @Test
+    void getMoviePage_shouldReturnMoviesAndNextCursor() throws Exception {
+        when(getMoviePageUseCase.getMoviePage("category:cat-1", null, MovieSort.YEAR, "abc", 20))
+                .thenReturn(new MoviePage(List.of(entityMovie), "next"));
+        when(movieRestMapper.toResponse(entityMovie)).thenReturn(movieResponseDto);
+
+        mockMvc.perform(
+                        get("/api/movies/page")
+                                .param("group", "category:cat-1")
+                                .param("sort", "YEAR")
+                                .param("cursor", "abc")
+                                .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movies[0].id").value("movie-1"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getMoviePage_shouldReturnBadRequest_whenCursorIsInvalid() throws Exception {
+        when(getMoviePageUseCase.getMoviePage(null, null, MovieSort.TITLE, "bogus", 50))
+                .thenThrow(new InvalidPageRequestException("Invalid cursor for sort TITLE"));
+
+        mockMvc.perform(get("/api/movies/page").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void suggestMovies_shouldReturnSuggestions() throws Exception {
+        when(suggestMoviesUseCase.suggestMovies("tes", 8)).thenReturn(List.of(entityMovie));
+        when(movieRestMapper.toSuggestion(entityMovie))
+                .thenReturn(MovieSuggestionDTO.builder().id("movie-1").title("Test Movie").build());
+
+        mockMvc.perform(get("/api/movies/suggest").param("q", "tes"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value("movie-1"))
                 .andExpect(jsonPath("$[0].title").value("Test Movie"));
+    }
+
+    @Test
+    void filterMovies_shouldPassSelectedFacetsAndReturnCounts() throws Exception {
+        FacetFilter filter =
+                new FacetFilter(
+                        Map.of(
+                                MovieFacet.YEAR, Set.of("1999", "2003"),
+                                MovieFacet.CACHED, Set.of("true")));
+        when(filterMoviesUseCase.filterMovies(filter, 0, 50))
+                .thenReturn(
+                        new FacetedMovies(
+                                List.of(entityMovie),
+                                1,
+                                Map.of(MovieFacet.YEAR, Map.of("1999", 1))));
+        when(movieRestMapper.toResponse(entityMovie)).thenReturn(movieResponseDto);
 
-        verify(getAllMoviesUseCase).getAllMovies();
+        mockMvc.perform(
+                        get("/api/movies/facets")
+                                .param("year", "1999", "2003")
+                                .param("cached", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movies[0].id").value("movie-1"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.counts.year['1999']").value(1));
     }
 
     @Test
     void getAllMovies_withSearch_shouldCallSearchMovies() throws Exception {
-        when(searchMoviesUseCase.searchMovies("test")).thenReturn(List.of(entityMovie));
+        when(searchMoviesUseCase.searchMovies("test", 0, 50)).thenReturn(List.of(entityMovie));
         when(movieRestMapper.toResponse(entityMovie)).thenReturn(movieResponseDto);
 
         mockMvc.perform(get("/api/movies").param("search", "test"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].title").value("Test Movie"));
 
-        verify(searchMoviesUseCase).searchMovies("test");
+        verify(searchMoviesUseCase).searchMovies("test", 0, 50);
+    }
+
+    @Test
+    void getAllMovies_withSearch_shouldPassRequestedPage() throws Exception {
+        when(searchMoviesUseCase.searchMovies("test", 2, 20)).thenReturn(List.of());
+
+        mockMvc.perform(
+                        get("/api/movies")
+                                .param("search", "test")
+                                .param("page", "2")
+                                .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
     }
 
     @Test
@@ -183,6 +460,65 @@ class MovieControllerTest {
         verify(getMovieUseCase).getMovie("movie-1");
     }
 
+    @Test
+    void getAllMovies_shouldSendVary_whenNotModified() throws Exception {
+        when(getCatalogVersionUseCase.getCatalogVersion()).thenReturn("v.1");
+
+        String etag =
+                mockMvc.perform(get("/api/movies").accept(MediaType.APPLICATION_CBOR))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getHeader("ETag");
+
+        mockMvc.perform(
+                        get("/api/movies")
+                                .accept(MediaType.APPLICATION_CBOR)
+                                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, containsString("Accept")))
+                .andExpect(header().string(HttpHeaders.VARY, containsString("Accept-Encoding")));
+    }
+
+    @Test
+    void getMovie_shouldReturnNotModified_whenCatalogVersionUnchanged() throws Exception {
+        when(getCatalogVersionUseCase.getCatalogVersion()).thenReturn("v.1");
+        when(getMovieUseCase.getMovie("movie-1")).thenReturn(entityMovie);
+        when(movieRestMapper.toResponse(entityMovie)).thenReturn(movieResponseDto);
+
+        String etag =
+                mockMvc.perform(get("/api/movies/movie-1"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Cache-Control", "no-cache"))
+                        .andReturn()
+                        .getResponse()
+                        .getHeader("ETag");
+
+        mockMvc.perform(get("/api/movies/movie-1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(getMovieUseCase, times(1)).getMovie("movie-1");
+
+        when(getCatalogVersionUseCase.getCatalogVersion()).thenReturn("v.2");
+        mockMvc.perform(get("/api/movies/movie-1").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllMovies_shouldTagEachQueryDifferently() throws Exception {
+        when(getCatalogVersionUseCase.getCatalogVersion()).thenReturn("v.1");
+
+        String allTag =
+                mockMvc.perform(get("/api/movies")).andReturn().getResponse().getHeader("ETag");
+        String readyTag =
+                mockMvc.perform(get("/api/movies").param("readyOnly", "true"))
+                        .andReturn()
+                        .getResponse()
+                        .getHeader("ETag");
+
+        assertThat(allTag).startsWith("W/\"v.1-").isNotEqualTo(readyTag);
+    }
+
     @Test
     void getMovie_shouldReturn404_whenNotFound() throws Exception {
         when(getMovieUseCase.getMovie("nonexistent"))
@@ -350,16 +686,29 @@ class MovieControllerTest {
     }
 
     @Test
-    void clearAllCache_shouldReturnClearedCount() throws Exception {
-        when(clearAllCacheUseCase.clearAllCache()).thenReturn(5);
+    void clearAllCache_shouldStartPurgeAndReturnAccepted() throws Exception {
+        when(clearAllCacheUseCase.clearAllCache())
+                .thenReturn(new CachePurge(CachePurge.State.RUNNING, 0, 0, 0, null));
 
         mockMvc.perform(delete("/api/movies/cache").with(csrf()))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$").value(5));
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
 
         verify(clearAllCacheUseCase).clearAllCache();
     }
 
+    @Test
+    void getCachePurge_shouldReturnProgress() throws Exception {
+        when(clearAllCacheUseCase.getCachePurge())
+                .thenReturn(new CachePurge(CachePurge.State.COMPLETED, 5, 4, 1, null));
+
+        mockMvc.perform(get("/api/movies/cache/purge"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.deleted").value(4))
+                .andExpect(jsonPath("$.failed").value(1));
+    }
+
     @Test
     void getFavorites_shouldReturnFavoriteMovies() throws Exception {
         when(getFavoritesUseCase.getFavorites()).thenReturn(List.of(entityMovie));
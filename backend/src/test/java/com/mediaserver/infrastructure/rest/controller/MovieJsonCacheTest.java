@@ -0,0 +1,88 @@
+package com.mediaserver.infrastructure.rest.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.event.CatalogChangedEvent;
+import com.mediaserver.infrastructure.rest.dto.MovieResponseDTO;
+import com.mediaserver.infrastructure.rest.mapper.MovieRestMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Unit tests for MovieJsonCache. Tests that fragments are reused for unchanged movies and
+ * re-encoded for changed ones.
+ */
+@ExtendWith(MockitoExtension.class)
+class MovieJsonCacheTest {
+
+    @Mock private MovieRestMapper movieMapper;
+
+    private MovieJsonCache cache;
+    private Movie movie;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MovieJsonCache(movieMapper, JsonMapper.builder().build());
+        movie = Movie.builder().id("m1").title("Alpha").build();
+        lenient()
+                .when(movieMapper.toResponse(any()))
+                .thenAnswer(
+                        invocation -> {
+                            Movie source = invocation.getArgument(0);
+                            return MovieResponseDTO.builder()
+                                    .id(source.getId())
+                                    .title(source.getTitle())
+                                    .build();
+                        });
+    }
+
+    private String write(List<Movie> movies) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.writeArray(out, movies::forEach);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void writeArray_shouldReuseFragmentAndInsertFavoriteFlag() throws IOException {
+        String json = write(List.of(movie, movie.withFavorite(true)));
+
+        assertThat(json).startsWith("[{\"id\":\"m1\",\"title\":\"Alpha\"");
+        assertThat(json).contains("\"favorite\":false},{").endsWith("\"favorite\":true}]");
+        verify(movieMapper, times(1)).toResponse(any());
+    }
+
+    @Test
+    void writeArray_shouldReencodeChangedMovie() throws IOException {
+        write(List.of(movie));
+
+        String json = write(List.of(movie.withTitle("Beta")));
+
+        assertThat(json).contains("\"title\":\"Beta\"");
+        verify(movieMapper, times(2)).toResponse(any());
+    }
+
+    @Test
+    void onCatalogChanged_shouldEvictSavedMovies() throws IOException {
+        write(List.of(movie));
+
+        cache.onCatalogChanged(CatalogChangedEvent.moviesSaved(List.of(movie)));
+        write(List.of(movie));
+
+        verify(movieMapper, times(2)).toResponse(any());
+    }
+
+    @Test
+    void writeArray_shouldWriteEmptyArray() throws IOException {
+        assertThat(write(List.of())).isEqualTo("[]");
+    }
+}
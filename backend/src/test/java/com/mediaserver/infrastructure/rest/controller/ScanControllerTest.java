@@ -0,0 +1,81 @@
+package com.mediaserver.infrastructure.rest.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.config.WebConfig;
+import com.mediaserver.dto.ScanStatusDTO;
+import com.mediaserver.exception.GlobalExceptionHandler;
+import com.mediaserver.service.MegaScanService;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Unit tests for ScanController. Tests starting, inspecting and cancelling Mega scans. */
+@WebMvcTest(ScanController.class)
+@Import({GlobalExceptionHandler.class, MediaProperties.class, WebConfig.class})
+@WithMockUser(username = "admin", roles = "ADMIN")
+class ScanControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockitoBean private MegaScanService megaScanService;
+
+    @Test
+    void getStatus_shouldReturnScanStatus() throws Exception {
+        when(megaScanService.getStatus())
+                .thenReturn(ScanStatusDTO.builder().running(true).stages(List.of()).build());
+
+        mockMvc.perform(get("/api/scan"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.running").value(true));
+    }
+
+    @Test
+    void startScan_shouldStartAsyncScan() throws Exception {
+        when(megaScanService.isScanInProgress()).thenReturn(false);
+        when(megaScanService.getStatus()).thenReturn(ScanStatusDTO.builder().build());
+
+        mockMvc.perform(post("/api/scan").with(csrf())).andExpect(status().isAccepted());
+
+        verify(megaScanService).scanFolderAsync(null);
+    }
+
+    @Test
+    void startScan_shouldReturnConflict_whenScanIsRunning() throws Exception {
+        when(megaScanService.isScanInProgress()).thenReturn(true);
+        when(megaScanService.getStatus()).thenReturn(ScanStatusDTO.builder().running(true).build());
+
+        mockMvc.perform(post("/api/scan").with(csrf())).andExpect(status().isConflict());
+
+        verify(megaScanService, never()).scanFolderAsync(any());
+    }
+
+    @Test
+    void cancelScan_shouldAcceptCancellation_whenScanIsRunning() throws Exception {
+        when(megaScanService.cancelScan()).thenReturn(true);
+        when(megaScanService.getStatus())
+                .thenReturn(ScanStatusDTO.builder().running(true).cancelRequested(true).build());
+
+        mockMvc.perform(delete("/api/scan").with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.cancelRequested").value(true));
+    }
+
+    @Test
+    void cancelScan_shouldReturnConflict_whenNoScanIsRunning() throws Exception {
+        when(megaScanService.cancelScan()).thenReturn(false);
+        when(megaScanService.getStatus()).thenReturn(ScanStatusDTO.builder().build());
+
+        mockMvc.perform(delete("/api/scan").with(csrf())).andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,161 @@
+package com.mediaserver.infrastructure.rest.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.config.WebConfig;
+import com.mediaserver.exception.GlobalExceptionHandler;
+import com.mediaserver.service.ThumbnailCache;
+import com.mediaserver.service.ThumbnailSprites;
+import com.mediaserver.service.ThumbnailStore;
+import com.mediaserver.service.ThumbnailVariants;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalInt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Unit tests for ThumbnailController. Tests caching headers and conditional requests. */
+@WebMvcTest(ThumbnailController.class)
+@Import({
+    GlobalExceptionHandler.class,
+    MediaProperties.class,
+    WebConfig.class,
+    ThumbnailCache.class
+})
+@WithMockUser(username = "admin", roles = "ADMIN")
+class ThumbnailControllerTest {
+
+    private static final String HASHED_NAME = "a".repeat(64) + ".png";
+
+    @TempDir Path thumbnailDir;
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockitoBean private ThumbnailStore thumbnailStore;
+
+    @MockitoBean private ThumbnailVariants thumbnailVariants;
+
+    @MockitoBean private ThumbnailSprites thumbnailSprites;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(thumbnailStore.directory()).thenReturn(thumbnailDir);
+        Files.write(thumbnailDir.resolve(HASHED_NAME), new byte[] {1, 2, 3});
+        Files.write(thumbnailDir.resolve("Old_Movie_123.png"), new byte[] {4, 5});
+    }
+
+    @Test
+    void getThumbnail_shouldServeContentAddressedFileAsImmutable() throws Exception {
+        mockMvc.perform(get("/api/thumbnails/file/" + HASHED_NAME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + "a".repeat(64) + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(content().bytes(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    void getThumbnail_shouldReturnNotModified_whenETagMatches() throws Exception {
+        mockMvc.perform(
+                        get("/api/thumbnails/file/" + HASHED_NAME)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"" + "a".repeat(64) + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getThumbnail_shouldServeFromCache_afterRepeatedRequests() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/thumbnails/file/Old_Movie_123.png"))
+                    .andExpect(status().isOk());
+        }
+        Files.delete(thumbnailDir.resolve("Old_Movie_123.png"));
+
+        mockMvc.perform(get("/api/thumbnails/file/Old_Movie_123.png"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().bytes(new byte[] {4, 5}));
+    }
+
+    @Test
+    void getThumbnail_shouldServeClosestVariant_whenWidthIsRequested() throws Exception {
+        Path variant = thumbnailDir.resolve("variant.jpg");
+        Files.write(variant, new byte[] {7});
+        when(thumbnailVariants.closestWidth(300)).thenReturn(OptionalInt.of(320));
+        when(thumbnailVariants.find(HASHED_NAME, 320)).thenReturn(Optional.of(variant));
+
+        mockMvc.perform(get("/api/thumbnails/file/" + HASHED_NAME).param("w", "300"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + "a".repeat(64) + "-w320\""))
+                .andExpect(content().bytes(new byte[] {7}));
+    }
+
+    @Test
+    void getThumbnail_shouldServeOriginal_whenVariantIsNotReady() throws Exception {
+        when(thumbnailVariants.closestWidth(300)).thenReturn(OptionalInt.of(320));
+        when(thumbnailVariants.find(HASHED_NAME, 320)).thenReturn(Optional.empty());
+
+        String hash = HASHED_NAME.substring(0, HASHED_NAME.indexOf('.'));
+        String etag =
+                mockMvc.perform(get("/api/thumbnails/file/" + HASHED_NAME).param("w", "300"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                        .andExpect(content().bytes(new byte[] {1, 2, 3}))
+                        .andReturn()
+                        .getResponse()
+                        .getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).isNotIn("\"" + hash + "\"", "\"" + hash + "-w320\"");
+        mockMvc.perform(
+                        get("/api/thumbnails/file/" + HASHED_NAME)
+                                .param("w", "300")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void getSprite_shouldServeRenderedSheetAsImmutable() throws Exception {
+        String sheetId = "b".repeat(32);
+        Path sheet = thumbnailDir.resolve("sheet.jpg");
+        Files.write(sheet, new byte[] {9, 9});
+        when(thumbnailSprites.sheet(sheetId)).thenReturn(Optional.of(sheet));
+
+        mockMvc.perform(get("/api/thumbnails/sprite/" + sheetId + ".jpg"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + sheetId + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(content().bytes(new byte[] {9, 9}));
+    }
+
+    @Test
+    void getSprite_shouldReturnNotFound_whenSheetIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/thumbnails/sprite/" + "c".repeat(32) + ".jpg"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getThumbnail_shouldReturnNotFound_whenFileIsMissing() throws Exception {
+        mockMvc.perform(get("/api/thumbnails/file/missing.png")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getThumbnail_shouldRejectNonImageFiles() throws Exception {
+        mockMvc.perform(get("/api/thumbnails/file/notes.txt")).andExpect(status().isBadRequest());
+    }
+}
@@ -4,8 +4,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.mediaserver.application.command.CreateMovieCommand;
 import com.mediaserver.application.command.UpdateMovieCommand;
+import com.mediaserver.application.model.BulkResult;
 import com.mediaserver.domain.model.Movie;
 import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.infrastructure.rest.dto.BulkResultDTO;
 import com.mediaserver.infrastructure.rest.dto.MovieRequestDTO;
 import com.mediaserver.infrastructure.rest.dto.MovieResponseDTO;
 import java.time.LocalDateTime;
@@ -39,6 +41,7 @@ class MovieRestMapperTest {
                         .duration("2h 30m")
                         .megaUrl("https://mega.nz/file/test123")
                         .thumbnailUrl("https://example.com/thumb.jpg")
+                        .thumbnailPlaceholder("data:image/jpeg;base64,AAAA")
                         .localPath("/cache/test.mp4")
                         .fileSize(1024L * 1024 * 1024)
                         .status(MovieStatus.READY)
@@ -70,6 +73,7 @@ class MovieRestMapperTest {
         assertThat(result.getYear()).isEqualTo(2024);
         assertThat(result.getDuration()).isEqualTo("2h 30m");
         assertThat(result.getThumbnailUrl()).isEqualTo("https://example.com/thumb.jpg");
+        assertThat(result.getThumbnailPlaceholder()).isEqualTo("data:image/jpeg;base64,AAAA");
         assertThat(result.getStatus()).isEqualTo(MovieStatus.READY);
         assertThat(result.getFileSize()).isEqualTo(1024L * 1024 * 1024);
         assertThat(result.getCreatedAt()).isNotNull();
@@ -291,4 +295,14 @@ class MovieRestMapperTest {
         UpdateMovieCommand result3 = movieRestMapper.toUpdateCommand(complexId, requestDto);
         assertThat(result3.getId()).isEqualTo(complexId);
     }
+
+    @Test
+    void toBulkResult_shouldMapOutcomeByName() {
+        BulkResultDTO result =
+                movieRestMapper.toBulkResult(BulkResult.rejected("movie-1", "Movie is busy"));
+
+        assertThat(result.getMovieId()).isEqualTo("movie-1");
+        assertThat(result.getOutcome()).isEqualTo("REJECTED");
+        assertThat(result.getMessage()).isEqualTo("Movie is busy");
+    }
 }
@@ -1,10 +1,21 @@
 package com.mediaserver.integration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
+import com.mediaserver.application.model.CatalogChange;
+import com.mediaserver.application.model.MovieQuery;
+import com.mediaserver.application.port.out.CatalogChangePort;
+import com.mediaserver.application.port.out.MoviePort;
+import com.mediaserver.domain.model.Category;
 import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieCursor;
+import com.mediaserver.domain.model.MovieSort;
 import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.domain.repository.CategoryRepository;
 import com.mediaserver.domain.repository.MovieRepository;
+import com.mediaserver.infrastructure.persistence.repository.JpaMovieRepository;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,6 +23,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,8 +58,14 @@ class RepositoryIntegrationTest {
 
     @Autowired private MovieRepository movieRepository;
 
+    @Autowired private MoviePort moviePort;
+
+    @Autowired private CategoryRepository categoryRepository;
+
     @Autowired private JdbcTemplate jdbcTemplate;
 
+    @Autowired private CatalogChangePort catalogChangePort;
+
     @Test
     void shouldSaveAndRetrieveMovie() {
         Movie movie =
@@ -120,6 +139,22 @@ class RepositoryIntegrationTest {
         assertThat(cachedMovies.get(0).getTitle()).isEqualTo("Cached Movie");
     }
 
+    @Test
+    void shouldJoinCategoryNameIntoListings() {
+        Category category =
+                categoryRepository.save(Category.builder().name("Drama").sortOrder(1).build());
+        movieRepository.save(
+                Movie.builder()
+                        .title("Categorized Movie")
+                        .megaPath("/path/categorized")
+                        .categoryId(category.getId())
+                        .build());
+
+        List<Movie> movies = movieRepository.findByCategoryId(category.getId());
+
+        assertThat(movies).extracting(Movie::getCategoryName).containsExactly("Drama");
+    }
+
     @Test
     void shouldFindFavoriteMovies() {
         String userId = "user-1";
@@ -253,4 +288,119 @@ class RepositoryIntegrationTest {
         assertThat(searchResults).hasSize(1);
         assertThat(searchResults.get(0).getTitle()).isEqualTo("Action Hero");
     }
+
+    @Test
+    void shouldWalkKeysetPagesWithoutGapsOrDuplicates() {
+        for (int i = 0; i < 7; i++) {
+            movieRepository.save(
+                    Movie.builder()
+                            .title("Paged " + i)
+                            .year(i % 3 == 0 ? null : 2000 + i % 2)
+                            .megaPath("/path/paged-" + i)
+                            .status(MovieStatus.PENDING)
+                            .build());
+        }
+
+        for (MovieSort sort : MovieSort.values()) {
+            List<String> seen = new ArrayList<>();
+            MovieCursor after = null;
+            List<Movie> page;
+            do {
+                page = moviePort.findPage(MovieQuery.all("Paged"), sort, after, 3);
+                page.forEach(movie -> seen.add(movie.getId()));
+                after = page.isEmpty() ? null : MovieCursor.after(page.get(page.size() - 1), sort);
+            } while (page.size() == 3);
+
+            assertThat(seen).hasSize(7).doesNotHaveDuplicates();
+        }
+        assertThat(moviePort.count(MovieQuery.all("Paged"))).isEqualTo(7);
+    }
+
+    @Test
+    void shouldRankTitleMatchesAboveDescriptionMatches() {
+        movieRepository.save(
+                Movie.builder()
+                        .title("Quiet Harbor")
+                        .description("A storm rolls into town")
+                        .megaPath("/path/harbor")
+                        .status(MovieStatus.PENDING)
+                        .build());
+        movieRepository.save(
+                Movie.builder()
+                        .title("Storm Front")
+                        .description("A detective story")
+                        .megaPath("/path/storm")
+                        .status(MovieStatus.PENDING)
+                        .build());
+
+        List<Movie> searchResults = moviePort.search("storm", 0, 10);
+
+        assertThat(searchResults)
+                .extracting(Movie::getTitle)
+                .containsExactly("Storm Front", "Quiet Harbor");
+    }
+
+    @Test
+    void searchShouldUseTextIndexes() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        MapSqlParameterSource parameters =
+                new MapSqlParameterSource()
+                        .addValue("query", "storm")
+                        .addValue("limit", 10)
+                        .addValue("offset", 0);
+
+        String plan =
+                String.join(
+                        "\n",
+                        new NamedParameterJdbcTemplate(jdbcTemplate)
+                                .queryForList(
+                                        "EXPLAIN " + JpaMovieRepository.RANKED_SEARCH,
+                                        parameters,
+                                        String.class));
+
+        assertThat(plan).contains("idx_movies_search_vector").contains("idx_movies_title_trgm");
+    }
+
+    @Test
+    void shouldRecordWritesInChangeLog() {
+        long before = catalogChangePort.latestVersion();
+
+        Movie saved =
+                movieRepository.save(
+                        Movie.builder()
+                                .title("Logged")
+                                .megaPath("/path/logged")
+                                .status(MovieStatus.PENDING)
+                                .build());
+        movieRepository.save(saved.withTitle("Logged Again"));
+        movieRepository.delete(saved.getId());
+
+        List<CatalogChange> changes = catalogChangePort.findSince(before, 10);
+        assertThat(changes).hasSize(1);
+        assertThat(changes.get(0).entityId()).isEqualTo(saved.getId());
+        assertThat(changes.get(0).deleted()).isTrue();
+    }
+
+    @Test
+    void shouldRecordMoviesOfDeletedCategoryInChangeLog() {
+        Category category =
+                categoryRepository.save(Category.builder().name("Western").sortOrder(1).build());
+        Movie movie =
+                movieRepository.save(
+                        Movie.builder()
+                                .title("High Noon")
+                                .megaPath("/path/high-noon")
+                                .categoryId(category.getId())
+                                .status(MovieStatus.PENDING)
+                                .build());
+        long before = catalogChangePort.latestVersion();
+
+        categoryRepository.delete(category.getId());
+
+        assertThat(catalogChangePort.findSince(before, 10))
+                .extracting(CatalogChange::type, CatalogChange::entityId, CatalogChange::deleted)
+                .containsExactlyInAnyOrder(
+                        tuple(CatalogChange.EntityType.CATEGORY, category.getId(), true),
+                        tuple(CatalogChange.EntityType.MOVIE, movie.getId(), false));
+    }
 }
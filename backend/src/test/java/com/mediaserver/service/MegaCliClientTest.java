@@ -0,0 +1,39 @@
+package com.mediaserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for MegaCliClient. Tests parsing of mega-ls long listing lines. */
+class MegaCliClientTest {
+
+    private final MegaCliClient megaCliClient = new MegaCliClient();
+
+    @Test
+    void parseMegaLsLine_shouldReadSizeAndModificationTime() {
+        MegaEntry entry =
+                megaCliClient.parseMegaLsLine(
+                        "----    1     734003200 06Oct2020 13:14:31 The Movie (2020).mp4");
+
+        assertThat(entry.name()).isEqualTo("The Movie (2020).mp4");
+        assertThat(entry.isDirectory()).isFalse();
+        assertThat(entry.size()).isEqualTo(734003200L);
+        assertThat(entry.modifiedAt()).isEqualTo(LocalDateTime.of(2020, 10, 6, 13, 14, 31));
+    }
+
+    @Test
+    void parseMegaLsLine_shouldReadDirectories() {
+        MegaEntry entry =
+                megaCliClient.parseMegaLsLine("d---    -             - 06Oct2020 13:14:31 Action");
+
+        assertThat(entry.name()).isEqualTo("Action");
+        assertThat(entry.isDirectory()).isTrue();
+        assertThat(entry.size()).isZero();
+    }
+
+    @Test
+    void parseMegaLsLine_shouldReturnNull_forShortLines() {
+        assertThat(megaCliClient.parseMegaLsLine("total 3")).isNull();
+    }
+}
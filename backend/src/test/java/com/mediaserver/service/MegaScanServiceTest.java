@@ -0,0 +1,149 @@
+package com.mediaserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.domain.model.Category;
+import com.mediaserver.domain.model.ScanSnapshotEntry;
+import com.mediaserver.domain.repository.CategoryRepository;
+import com.mediaserver.domain.repository.MovieRepository;
+import com.mediaserver.domain.repository.ScanSnapshotRepository;
+import com.mediaserver.dto.ScanResultDTO;
+import com.mediaserver.dto.ScanStageMetricsDTO;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for MegaScanService. Tests the staged scan pipeline with mocked Mega CLI and
+ * repositories.
+ */
+@ExtendWith(MockitoExtension.class)
+class MegaScanServiceTest {
+
+    @Mock private CategoryRepository categoryRepository;
+
+    @Mock private MovieRepository movieRepository;
+
+    @Mock private ScanSnapshotRepository snapshotRepository;
+
+    @Mock private MegaCliClient megaCli;
+
+    @Mock private ScanChunkWriter chunkWriter;
+
+    private MegaScanService megaScanService;
+
+    @BeforeEach
+    void setUp() {
+        MediaProperties properties = new MediaProperties();
+        properties.getMega().setRootFolder("/Movies");
+        properties.getMega().setScanChunkSize(2);
+
+        megaScanService =
+                new MegaScanService(
+                        properties,
+                        categoryRepository,
+                        movieRepository,
+                        snapshotRepository,
+                        megaCli,
+                        new ThumbnailFetcher(
+                                new ThumbnailStore(properties),
+                                megaCli,
+                                mock(ThumbnailVariants.class)),
+                        new ScanChangePlanner(movieRepository),
+                        chunkWriter);
+    }
+
+    private MegaEntry video(String name) {
+        return new MegaEntry(name, false, 100, null);
+    }
+
+    @Test
+    void scanFolder_shouldCommitNewMoviesInChunks() throws Exception {
+        when(megaCli.list("/Movies"))
+                .thenReturn(List.of(video("a.mp4"), video("b.mp4"), video("c.mp4")));
+        when(snapshotRepository.findByPathPrefix("/Movies/")).thenReturn(List.of());
+        when(movieRepository.findAllMegaPaths()).thenReturn(new HashSet<>());
+
+        ScanResultDTO result = megaScanService.scanFolder(null);
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getMoviesDiscovered()).isEqualTo(3);
+        assertThat(result.getChunksCommitted()).isEqualTo(2);
+        assertThat(result.getStages())
+                .extracting(ScanStageMetricsDTO::getStage)
+                .containsExactly("listing", "thumbnails", "writing");
+        verify(chunkWriter, times(2)).write(anyList(), anyList(), anyCollection(), anyCollection());
+    }
+
+    @Test
+    void scanFolder_shouldKeepCommittedChunks_whenLaterChunkFails() throws Exception {
+        when(megaCli.list("/Movies"))
+                .thenReturn(List.of(video("a.mp4"), video("b.mp4"), video("c.mp4")));
+        when(snapshotRepository.findByPathPrefix("/Movies/")).thenReturn(List.of());
+        when(movieRepository.findAllMegaPaths()).thenReturn(new HashSet<>());
+        doNothing()
+                .doThrow(new IllegalStateException("database down"))
+                .when(chunkWriter)
+                .write(anyList(), anyList(), anyCollection(), anyCollection());
+
+        ScanResultDTO result = megaScanService.scanFolder(null);
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getChunksCommitted()).isEqualTo(1);
+        assertThat(result.getMoviesDiscovered()).isEqualTo(2);
+    }
+
+    @Test
+    void scanFolder_shouldNotRemoveMovies_whenCategoryListingFails() throws Exception {
+        Category action =
+                Category.builder().id("cat-1").name("Action").megaPath("/Movies/Action").build();
+        when(megaCli.list("/Movies")).thenReturn(List.of(new MegaEntry("Action", true, 0, null)));
+        when(megaCli.list("/Movies/Action")).thenThrow(new IOException("mega-ls failed"));
+        when(categoryRepository.findByMegaPath("/Movies/Action")).thenReturn(Optional.of(action));
+        when(snapshotRepository.findByPathPrefix("/Movies/"))
+                .thenReturn(
+                        List.of(
+                                ScanSnapshotEntry.builder()
+                                        .megaPath("/Movies/Action/a.mp4")
+                                        .parentPath("/Movies/Action")
+                                        .name("a.mp4")
+                                        .size(100)
+                                        .build()));
+
+        ScanResultDTO result = megaScanService.scanFolder(null);
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getErrors()).anyMatch(error -> error.contains("Action"));
+        assertThat(result.getMoviesRemoved()).isZero();
+        verifyNoInteractions(chunkWriter);
+        verify(categoryRepository, never()).save(any());
+    }
+
+    @Test
+    void cancelScan_shouldReturnFalse_whenNoScanIsRunning() {
+        assertThat(megaScanService.cancelScan()).isFalse();
+        assertThat(megaScanService.getStatus().isRunning()).isFalse();
+    }
+
+    @Test
+    void getStatus_shouldExposeLastResult() throws Exception {
+        when(megaCli.list("/Movies")).thenReturn(List.of());
+        when(snapshotRepository.findByPathPrefix("/Movies/")).thenReturn(List.of());
+
+        ScanResultDTO result = megaScanService.scanFolder(null);
+
+        assertThat(megaScanService.getStatus().getLastResult()).isSameAs(result);
+        assertThat(megaScanService.getStatus().getScannedPath()).isEqualTo("/Movies");
+    }
+}
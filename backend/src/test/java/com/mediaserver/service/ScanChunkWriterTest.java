@@ -0,0 +1,106 @@
+package com.mediaserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.domain.model.Movie;
+import com.mediaserver.domain.model.MovieStatus;
+import com.mediaserver.domain.model.ScanSnapshotEntry;
+import com.mediaserver.domain.repository.MovieRepository;
+import com.mediaserver.domain.repository.ScanSnapshotRepository;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for ScanChunkWriter. Tests applying planned changes to the current movie rows. */
+@ExtendWith(MockitoExtension.class)
+class ScanChunkWriterTest {
+
+    @Mock private MovieRepository movieRepository;
+
+    @Mock private ScanSnapshotRepository snapshotRepository;
+
+    @InjectMocks private ScanChunkWriter scanChunkWriter;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void write_shouldSkipChanges_whenRowsChangedSincePlanning() {
+        Movie downloaded =
+                Movie.builder()
+                        .id("movie-1")
+                        .megaPath("/Movies/gone.mp4")
+                        .localPath("/data/movie-1_gone.mp4")
+                        .fileSize(100L)
+                        .status(MovieStatus.READY)
+                        .build();
+        Movie restored =
+                Movie.builder()
+                        .id("movie-2")
+                        .megaPath("/Movies/back.mp4")
+                        .status(MovieStatus.PENDING)
+                        .build();
+        when(movieRepository.findAllById(List.of("movie-1", "movie-1", "movie-2")))
+                .thenReturn(List.of(downloaded, restored));
+        Movie discovered = Movie.builder().id("movie-3").title("New").build();
+        ScanSnapshotEntry entry = ScanSnapshotEntry.builder().megaPath("/Movies/new.mp4").build();
+
+        scanChunkWriter.write(
+                List.of(discovered),
+                List.of(
+                        ScanMovieUpdate.markUnavailable("movie-1"),
+                        ScanMovieUpdate.resize("movie-1", 200),
+                        ScanMovieUpdate.restore("movie-2")),
+                List.of("/Movies/gone.mp4"),
+                List.of(entry));
+
+        ArgumentCaptor<Collection<Movie>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(movieRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).containsExactly(discovered);
+        verify(snapshotRepository).deleteByMegaPaths(List.of("/Movies/gone.mp4"));
+        verify(snapshotRepository).saveAll(List.of(entry));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void write_shouldKeepConcurrentWrites_whenApplyingMoveAndRemoval() {
+        Movie moved =
+                Movie.builder()
+                        .id("movie-1")
+                        .title("Renamed by user")
+                        .megaPath("/Movies/old.mp4")
+                        .localPath("/data/movie-1_old.mp4")
+                        .fileSize(100L)
+                        .status(MovieStatus.READY)
+                        .build();
+        Movie removed =
+                Movie.builder()
+                        .id("movie-2")
+                        .megaPath("/Movies/gone.mp4")
+                        .status(MovieStatus.PENDING)
+                        .build();
+        when(movieRepository.findAllById(anyCollection())).thenReturn(List.of(moved, removed));
+
+        scanChunkWriter.write(
+                List.of(),
+                List.of(
+                        ScanMovieUpdate.move("movie-1", "/Movies/Drama/old.mp4", "cat-2"),
+                        ScanMovieUpdate.markUnavailable("movie-2")),
+                List.of(),
+                List.of());
+
+        ArgumentCaptor<Collection<Movie>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(movieRepository).saveAll(saved.capture());
+        assertThat(saved.getValue())
+                .containsExactly(
+                        moved.withMegaPath("/Movies/Drama/old.mp4")
+                                .withMegaUrl("/Movies/Drama/old.mp4")
+                                .withCategoryId("cat-2"),
+                        removed.withStatus(MovieStatus.UNAVAILABLE));
+    }
+}
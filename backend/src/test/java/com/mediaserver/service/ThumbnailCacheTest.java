@@ -0,0 +1,71 @@
+package com.mediaserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mediaserver.config.MediaProperties;
+import com.mediaserver.service.ThumbnailCache.CachedThumbnail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for ThumbnailCache. Tests admission, size accounting and LRU eviction. */
+class ThumbnailCacheTest {
+
+    private static final int MB = 1024 * 1024;
+
+    private ThumbnailCache thumbnailCache;
+
+    @BeforeEach
+    void setUp() {
+        MediaProperties properties = new MediaProperties();
+        properties.getStorage().setThumbnailCacheMb(2);
+        thumbnailCache = new ThumbnailCache(properties);
+    }
+
+    private CachedThumbnail thumbnail(int size) {
+        return new CachedThumbnail(new byte[size], "\"etag\"");
+    }
+
+    @Test
+    void admit_shouldAcceptFileOnSecondMiss() {
+        assertThat(thumbnailCache.admit("a.png")).isFalse();
+        assertThat(thumbnailCache.admit("a.png")).isTrue();
+    }
+
+    @Test
+    void accepts_shouldRejectFilesLargerThanEntryLimit() {
+        assertThat(thumbnailCache.accepts(200 * 1024)).isFalse();
+        assertThat(thumbnailCache.accepts(100 * 1024)).isTrue();
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedEntries_whenOverCapacity() {
+        int entrySize = 100 * 1024;
+        for (int i = 0; i < 30; i++) {
+            thumbnailCache.put(i + ".png", thumbnail(entrySize));
+            thumbnailCache.get("0.png");
+        }
+
+        assertThat(thumbnailCache.sizeBytes()).isLessThanOrEqualTo(2L * MB);
+        assertThat(thumbnailCache.get("0.png")).isPresent();
+        assertThat(thumbnailCache.get("1.png")).isEmpty();
+        assertThat(thumbnailCache.get("29.png")).isPresent();
+    }
+
+    @Test
+    void put_shouldReplaceExistingEntryWithoutDoubleCounting() {
+        thumbnailCache.put("a.png", thumbnail(1000));
+        thumbnailCache.put("a.png", thumbnail(500));
+
+        assertThat(thumbnailCache.sizeBytes()).isEqualTo(500);
+    }
+
+    @Test
+    void evict_shouldRemoveEntry() {
+        thumbnailCache.put("a.png", thumbnail(1000));
+
+        thumbnailCache.evict("a.png");
+
+        assertThat(thumbnailCache.get("a.png")).isEmpty();
+        assertThat(thumbnailCache.sizeBytes()).isZero();
+    }
+}
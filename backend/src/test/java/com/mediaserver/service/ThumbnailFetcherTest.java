@@ -0,0 +1,126 @@
+package com.mediaserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.mediaserver.config.MediaProperties;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for ThumbnailFetcher. Tests per-scan de-duplication of thumbnail downloads and
+ * placeholder generation.
+ */
+@ExtendWith(MockitoExtension.class)
+class ThumbnailFetcherTest {
+
+    @TempDir Path storageDir;
+
+    @Mock private MegaCliClient megaCli;
+
+    @Mock private ThumbnailVariants thumbnailVariants;
+
+    private ThumbnailFetcher thumbnailFetcher;
+
+    @BeforeEach
+    void setUp() {
+        MediaProperties properties = new MediaProperties();
+        properties.getStorage().setPath(storageDir.toString());
+        thumbnailFetcher =
+                new ThumbnailFetcher(new ThumbnailStore(properties), megaCli, thumbnailVariants);
+    }
+
+    private void megaGetWrites(String megaPath, byte[] content) {
+        when(megaCli.get(eq(megaPath), any(Path.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Files.write(invocation.getArgument(1, Path.class), content);
+                            return true;
+                        });
+    }
+
+    @Test
+    void fetch_shouldDownloadEachPathOncePerSession() {
+        megaGetWrites("/Movies/cover.png", new byte[] {1, 2, 3});
+        ThumbnailFetcher.Session session = thumbnailFetcher.openSession();
+
+        String first = session.fetch("/Movies/cover.png").url();
+        String second = session.fetch("/Movies/cover.png").url();
+
+        assertThat(first).startsWith("/api/thumbnails/file/").endsWith(".png");
+        assertThat(second).isEqualTo(first);
+        verify(megaCli, times(1)).get(eq("/Movies/cover.png"), any(Path.class));
+        verify(thumbnailVariants).schedule(first.substring(first.lastIndexOf('/') + 1));
+    }
+
+    @Test
+    void fetch_shouldShareFile_whenDifferentPathsHaveSameContent() {
+        megaGetWrites("/Action/cover.png", new byte[] {1, 2, 3});
+        megaGetWrites("/Drama/cover.png", new byte[] {1, 2, 3});
+        ThumbnailFetcher.Session session = thumbnailFetcher.openSession();
+
+        String action = session.fetch("/Action/cover.png").url();
+        String drama = session.fetch("/Drama/cover.png").url();
+
+        assertThat(drama).isEqualTo(action);
+    }
+
+    @Test
+    void fetch_shouldReturnNullAndCleanUp_whenDownloadFails() throws Exception {
+        when(megaCli.get(eq("/Movies/missing.png"), any(Path.class))).thenReturn(false);
+
+        ThumbnailFetcher.Thumbnail thumbnail =
+                thumbnailFetcher.openSession().fetch("/Movies/missing.png");
+
+        assertThat(thumbnail.url()).isNull();
+        assertThat(thumbnail.placeholder()).isNull();
+        try (var files = Files.list(storageDir.resolve("thumbnails"))) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void fetch_shouldComputeTinyPlaceholder_whenImageCanBeDecoded() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 600, BufferedImage.TYPE_INT_RGB), "png", png);
+        megaGetWrites("/Movies/poster.png", png.toByteArray());
+
+        ThumbnailFetcher.Thumbnail thumbnail =
+                thumbnailFetcher.openSession().fetch("/Movies/poster.png");
+
+        assertThat(thumbnail.placeholder()).startsWith("data:image/jpeg;base64,");
+        byte[] jpeg =
+                Base64.getDecoder()
+                        .decode(
+                                thumbnail
+                                        .placeholder()
+                                        .substring("data:image/jpeg;base64,".length()));
+        BufferedImage placeholder = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertThat(placeholder.getWidth()).isEqualTo(20);
+        assertThat(placeholder.getHeight()).isEqualTo(30);
+    }
+
+    @Test
+    void fetch_shouldOmitPlaceholder_whenImageCannotBeDecoded() {
+        megaGetWrites("/Movies/cover.png", new byte[] {1, 2, 3});
+
+        ThumbnailFetcher.Thumbnail thumbnail =
+                thumbnailFetcher.openSession().fetch("/Movies/cover.png");
+
+        assertThat(thumbnail.url()).isNotNull();
+        assertThat(thumbnail.placeholder()).isNull();
+    }
+}
@@ -0,0 +1,135 @@
+package com.mediaserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mediaserver.config.MediaProperties;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for ThumbnailSprites. Tests sheet layout, ids and lazy rendering. */
+class ThumbnailSpritesTest {
+
+    private static final String FIRST = "1".repeat(64) + ".png";
+    private static final String SECOND = "2".repeat(64) + ".png";
+
+    @TempDir Path storageDir;
+
+    private ThumbnailStore thumbnailStore;
+    private ThumbnailVariants thumbnailVariants;
+    private ThumbnailSprites thumbnailSprites;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MediaProperties properties = new MediaProperties();
+        properties.getStorage().setPath(storageDir.toString());
+        thumbnailStore = new ThumbnailStore(properties);
+        Files.createDirectories(thumbnailStore.directory());
+        thumbnailVariants = new ThumbnailVariants(thumbnailStore, properties);
+        thumbnailSprites = new ThumbnailSprites(thumbnailStore, thumbnailVariants);
+    }
+
+    @AfterEach
+    void tearDown() {
+        thumbnailVariants.shutdown();
+    }
+
+    private Map<String, String> urls(String... fileNames) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (int i = 0; i < fileNames.length; i++) {
+            urls.put("movie-" + i, ThumbnailStore.URL_PREFIX + fileNames[i]);
+        }
+        return urls;
+    }
+
+    @Test
+    void layout_shouldPlaceTilesSideBySide() {
+        Map<String, ThumbnailSprites.Tile> tiles = thumbnailSprites.layout(urls(FIRST, SECOND));
+
+        assertThat(tiles).containsOnlyKeys("movie-0", "movie-1");
+        assertThat(tiles.get("movie-0").x()).isZero();
+        assertThat(tiles.get("movie-1").x()).isEqualTo(ThumbnailSprites.TILE_WIDTH);
+        assertThat(tiles.get("movie-1").sheetWidth()).isEqualTo(2 * ThumbnailSprites.TILE_WIDTH);
+        assertThat(tiles.get("movie-0").url()).isEqualTo(tiles.get("movie-1").url());
+    }
+
+    @Test
+    void layout_shouldChangeSheet_whenMembershipChanges() {
+        String before = thumbnailSprites.layout(urls(FIRST, SECOND)).get("movie-0").url();
+        String after = thumbnailSprites.layout(urls(SECOND, FIRST)).get("movie-1").url();
+
+        assertThat(after).isNotEqualTo(before);
+    }
+
+    @Test
+    void layout_shouldSkipThumbnailsThatAreNotContentAddressed() {
+        Map<String, String> urls = urls(FIRST, SECOND);
+        urls.put("legacy", ThumbnailStore.URL_PREFIX + "Old_Movie_1.png");
+        urls.put("external", "https://example.com/cover.png");
+
+        assertThat(thumbnailSprites.layout(urls)).containsOnlyKeys("movie-0", "movie-1");
+        assertThat(thumbnailSprites.layout(urls(FIRST))).isEmpty();
+    }
+
+    @Test
+    void sheet_shouldRenderRegisteredSheetOnFirstRequest() throws Exception {
+        ImageIO.write(
+                new BufferedImage(400, 600, BufferedImage.TYPE_INT_RGB),
+                "png",
+                thumbnailStore.directory().resolve(FIRST).toFile());
+        String url = thumbnailSprites.layout(urls(FIRST, SECOND)).get("movie-0").url();
+        String sheetId =
+                url.substring(ThumbnailSprites.URL_PREFIX.length(), url.length() - ".jpg".length());
+
+        Path sheet = thumbnailSprites.sheet(sheetId).orElseThrow();
+
+        BufferedImage image = ImageIO.read(sheet.toFile());
+        assertThat(image.getWidth()).isEqualTo(2 * ThumbnailSprites.TILE_WIDTH);
+        assertThat(image.getHeight()).isEqualTo(ThumbnailSprites.TILE_HEIGHT);
+    }
+
+    @Test
+    void sheet_shouldReturnEmpty_whenSheetIsUnknown() {
+        assertThat(thumbnailSprites.sheet("f".repeat(32))).isEmpty();
+    }
+
+    @Test
+    void sweep_shouldDeleteOldSheetsThatAreNotRegistered() throws Exception {
+        String url = thumbnailSprites.layout(urls(FIRST, SECOND)).get("movie-0").url();
+        String registered =
+                url.substring(ThumbnailSprites.URL_PREFIX.length(), url.length() - ".jpg".length());
+        Path registeredSheet = sheet(registered, Instant.now().minus(Duration.ofDays(3)));
+        Path oldSheet = sheet("a".repeat(32), Instant.now().minus(Duration.ofDays(3)));
+        Path recentSheet = sheet("b".repeat(32), Instant.now());
+        Path otherFile = registeredSheet.resolveSibling("notes.txt");
+        Files.writeString(otherFile, "keep");
+        Files.setLastModifiedTime(
+                otherFile, FileTime.from(Instant.now().minus(Duration.ofDays(3))));
+
+        int deleted = thumbnailSprites.sweep(Instant.now().minus(Duration.ofDays(1)));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(oldSheet).doesNotExist();
+        assertThat(registeredSheet).exists();
+        assertThat(recentSheet).exists();
+        assertThat(otherFile).exists();
+    }
+
+    private Path sheet(String sheetId, Instant lastModified) throws Exception {
+        Path path = thumbnailSprites.sheetPath(sheetId);
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[] {1});
+        Files.setLastModifiedTime(path, FileTime.from(lastModified));
+        return path;
+    }
+}
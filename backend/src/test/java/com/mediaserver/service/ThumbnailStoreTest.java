@@ -0,0 +1,64 @@
+package com.mediaserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mediaserver.config.MediaProperties;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for ThumbnailStore. Tests content-addressed storage on a temporary directory. */
+class ThumbnailStoreTest {
+
+    @TempDir Path storageDir;
+
+    private ThumbnailStore thumbnailStore;
+
+    @BeforeEach
+    void setUp() {
+        MediaProperties properties = new MediaProperties();
+        properties.getStorage().setPath(storageDir.toString());
+        thumbnailStore = new ThumbnailStore(properties);
+    }
+
+    private Path download(byte[] content) throws Exception {
+        Path tempFile = thumbnailStore.newTempFile(".png");
+        Files.write(tempFile, content);
+        return tempFile;
+    }
+
+    @Test
+    void put_shouldNameFileAfterContentHash() throws Exception {
+        String fileName = thumbnailStore.put(download(new byte[] {1, 2, 3}), ".PNG");
+
+        assertThat(fileName).matches("[0-9a-f]{64}\\.png");
+        assertThat(thumbnailStore.directory().resolve(fileName))
+                .hasBinaryContent(new byte[] {1, 2, 3});
+    }
+
+    @Test
+    void put_shouldStoreIdenticalContentOnce() throws Exception {
+        String first = thumbnailStore.put(download(new byte[] {1, 2, 3}), ".png");
+        String second = thumbnailStore.put(download(new byte[] {1, 2, 3}), ".png");
+
+        assertThat(second).isEqualTo(first);
+        try (var files = Files.list(thumbnailStore.directory())) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    void put_shouldKeepDifferentContentApart() throws Exception {
+        String first = thumbnailStore.put(download(new byte[] {1, 2, 3}), ".png");
+        String second = thumbnailStore.put(download(new byte[] {4, 5, 6}), ".png");
+
+        assertThat(second).isNotEqualTo(first);
+    }
+
+    @Test
+    void urlFor_shouldPointToThumbnailEndpoint() {
+        assertThat(thumbnailStore.urlFor("abc.png")).isEqualTo("/api/thumbnails/file/abc.png");
+    }
+}
@@ -0,0 +1,97 @@
+package com.mediaserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mediaserver.config.MediaProperties;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for ThumbnailVariants. Tests width selection and variant generation. */
+class ThumbnailVariantsTest {
+
+    @TempDir Path storageDir;
+
+    private ThumbnailStore thumbnailStore;
+    private ThumbnailVariants thumbnailVariants;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MediaProperties properties = new MediaProperties();
+        properties.getStorage().setPath(storageDir.toString());
+        properties.getStorage().setThumbnailWidths(new int[] {640, 160, 320});
+        thumbnailStore = new ThumbnailStore(properties);
+        Files.createDirectories(thumbnailStore.directory());
+        thumbnailVariants = new ThumbnailVariants(thumbnailStore, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        thumbnailVariants.shutdown();
+    }
+
+    @Test
+    void closestWidth_shouldPickSmallestWidthThatIsLargeEnough() {
+        assertThat(thumbnailVariants.closestWidth(100)).hasValue(160);
+        assertThat(thumbnailVariants.closestWidth(320)).hasValue(320);
+        assertThat(thumbnailVariants.closestWidth(321)).hasValue(640);
+        assertThat(thumbnailVariants.closestWidth(2000)).hasValue(640);
+    }
+
+    @Test
+    void generate_shouldWriteDownscaledJpegs_withoutUpscaling() throws Exception {
+        ImageIO.write(
+                new BufferedImage(400, 600, BufferedImage.TYPE_INT_RGB),
+                "png",
+                thumbnailStore.directory().resolve("cover.png").toFile());
+
+        thumbnailVariants.generate("cover.png");
+
+        BufferedImage small =
+                ImageIO.read(thumbnailVariants.variantPath("cover.png", 160).toFile());
+        assertThat(small.getWidth()).isEqualTo(160);
+        assertThat(small.getHeight()).isEqualTo(240);
+        assertThat(thumbnailVariants.variantPath("cover.png", 320)).exists();
+        assertThat(thumbnailVariants.variantPath("cover.png", 640)).doesNotExist();
+    }
+
+    @Test
+    void generate_shouldSkipUnreadableImages() throws Exception {
+        Files.write(thumbnailStore.directory().resolve("broken.png"), new byte[] {1, 2, 3});
+
+        assertThat(thumbnailVariants.generate("broken.png")).isTrue();
+        assertThat(thumbnailVariants.variantPath("broken.png", 160)).doesNotExist();
+    }
+
+    @Test
+    void find_shouldReturnEmpty_whenVariantIsMissing() {
+        assertThat(thumbnailVariants.find("cover.png", 160)).isEmpty();
+    }
+
+    @Test
+    void schedule_shouldRetry_whenGenerationFailed() throws Exception {
+        assertThat(thumbnailVariants.generate("cover.png")).isFalse();
+        thumbnailVariants.schedule("cover.png");
+        awaitIdle();
+
+        ImageIO.write(
+                new BufferedImage(400, 600, BufferedImage.TYPE_INT_RGB),
+                "png",
+                thumbnailStore.directory().resolve("cover.png").toFile());
+        thumbnailVariants.schedule("cover.png");
+        awaitIdle();
+
+        assertThat(thumbnailVariants.variantPath("cover.png", 160)).exists();
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        for (int i = 0; i < 100 && thumbnailVariants.isBusy(); i++) {
+            Thread.sleep(20);
+        }
+    }
+}
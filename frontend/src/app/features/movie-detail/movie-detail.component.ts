@@ -440,6 +440,8 @@ export class MovieDetailComponent implements OnInit {
         return 'On Mega';
       case 'ERROR':
         return 'Error';
+      case 'UNAVAILABLE':
+        return 'Removed from Mega';
       default:
         return movie.status;
     }
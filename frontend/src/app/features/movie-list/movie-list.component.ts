@@ -9,10 +9,13 @@ import { InputTextModule } from 'primeng/inputtext';
 import { ProgressSpinner } from 'primeng/progressspinner';
 import { TagModule } from 'primeng/tag';
 
-import { Movie } from '../../services/api.service';
+import { Movie, SpriteTile } from '../../services/api.service';
 import { WebSocketService } from '../../services/websocket.service';
 import { MoviesStore } from '../../store/movies.store';
 
+const THUMBNAIL_FILE_PREFIX = '/api/thumbnails/file/';
+const THUMBNAIL_WIDTHS = [160, 320, 640];
+
 @Component({
   selector: 'app-movie-list',
   standalone: true,
@@ -101,23 +104,41 @@ import { MoviesStore } from '../../store/movies.store';
 
         <!-- Category Rows -->
         <div class="content-rows">
-          @for (category of store.moviesByCategory(); track category.name) {
+          @for (category of store.moviesByCategory(); track category.key) {
             <section class="category-row">
               <h3 class="category-title">{{ category.name }}</h3>
               <div class="row-wrapper">
                 <button class="scroll-btn scroll-left" (click)="scrollRow($event, -1)">
                   <i class="pi pi-chevron-left"></i>
                 </button>
-                <div class="movies-row">
+                <div class="movies-row" (scroll)="onRowScroll($event, category.key)">
                   @for (movie of category.movies; track movie.id) {
                     <div
                       class="movie-card"
                       [class.cached]="movie.cached"
                       [routerLink]="['/movie', movie.id]"
                     >
-                      <div class="card-image">
-                        @if (movie.thumbnailUrl) {
-                          <img [src]="movie.thumbnailUrl" [alt]="movie.title" loading="lazy" />
+                      <div
+                        class="card-image"
+                        [style.background-image]="
+                          movie.thumbnailPlaceholder ? 'url(' + movie.thumbnailPlaceholder + ')' : null
+                        "
+                      >
+                        @if (category.spriteTiles?.[movie.id]; as tile) {
+                          <div
+                            class="card-sprite"
+                            role="img"
+                            [attr.aria-label]="movie.title"
+                            [style]="spriteStyle(tile)"
+                          ></div>
+                        } @else if (movie.thumbnailUrl) {
+                          <img
+                            [src]="sizedThumbnail(movie.thumbnailUrl, 320)"
+                            [attr.srcset]="thumbnailSrcset(movie.thumbnailUrl)"
+                            sizes="(max-width: 768px) 150px, 240px"
+                            [alt]="movie.title"
+                            loading="lazy"
+                          />
                         } @else {
                           <div class="card-placeholder">
                             <i class="pi pi-video"></i>
@@ -462,13 +483,21 @@ import { MoviesStore } from '../../store/movies.store';
         aspect-ratio: 16/9;
         border-radius: 4px;
         overflow: hidden;
-        background: #2a2a2a;
+        background-color: #2a2a2a;
+        background-size: cover;
+        background-position: center;
 
         img {
           width: 100%;
           height: 100%;
           object-fit: cover;
         }
+
+        .card-sprite {
+          width: 100%;
+          height: 100%;
+          background-repeat: no-repeat;
+        }
       }
 
       .card-placeholder {
@@ -715,6 +744,14 @@ export class MovieListComponent implements OnInit {
     }
   }
 
+  /** Fetches the next page of a row once it is scrolled close to its end. */
+  onRowScroll(event: Event, groupKey: string): void {
+    const row = event.target as HTMLElement;
+    if (row.scrollLeft + row.clientWidth >= row.scrollWidth - row.clientWidth) {
+      void this.store.loadMoreInGroup(groupKey);
+    }
+  }
+
   playOrView(event: MouseEvent, movie: Movie): void {
     event.stopPropagation();
     event.preventDefault();
@@ -725,6 +762,29 @@ export class MovieListComponent implements OnInit {
     }
   }
 
+  /** Asks the server for a pre-sized variant; only stored thumbnails support resizing. */
+  sizedThumbnail(url: string, width: number): string {
+    return url.startsWith(THUMBNAIL_FILE_PREFIX) ? `${url}?w=${width}` : url;
+  }
+
+  thumbnailSrcset(url: string): string | null {
+    if (!url.startsWith(THUMBNAIL_FILE_PREFIX)) {
+      return null;
+    }
+    return THUMBNAIL_WIDTHS.map((width) => `${url}?w=${width} ${width}w`).join(', ');
+  }
+
+  /** Positions a sprite sheet tile in percent so it scales with the card. */
+  spriteStyle(tile: SpriteTile): Record<string, string> {
+    const offset = (position: number, size: number, sheetSize: number): number =>
+      sheetSize > size ? (position / (sheetSize - size)) * 100 : 0;
+    return {
+      'background-image': `url(${tile.url})`,
+      'background-size': `${(tile.sheetWidth / tile.width) * 100}% ${(tile.sheetHeight / tile.height) * 100}%`,
+      'background-position': `${offset(tile.x, tile.width, tile.sheetWidth)}% ${offset(tile.y, tile.height, tile.sheetHeight)}%`,
+    };
+  }
+
   toggleFavorite(event: MouseEvent, movie: Movie): void {
     event.stopPropagation();
     event.preventDefault();
@@ -98,6 +98,27 @@ describe('ApiService', (): void => {
     });
   });
 
+  describe('getMoviePage', (): void => {
+    it('should continue the search of the grouped view', async (): Promise<void> => {
+      const pagePromise = firstValueFrom(service.getMoviePage('cat-1', 'abc', 'matrix'));
+
+      const req = httpMock.expectOne('/api/movies/page?group=cat-1&cursor=abc&search=matrix');
+      expect(req.request.method).toBe('GET');
+      req.flush({ movies: [] });
+
+      await pagePromise;
+    });
+
+    it('should omit an empty search', async (): Promise<void> => {
+      const pagePromise = firstValueFrom(service.getMoviePage('cat-1', 'abc'));
+
+      const req = httpMock.expectOne('/api/movies/page?group=cat-1&cursor=abc');
+      req.flush({ movies: [] });
+
+      await pagePromise;
+    });
+  });
+
   describe('getMovie', (): void => {
     it('should return a single movie', async (): Promise<void> => {
       const mockMovie: Movie = {
@@ -11,9 +11,10 @@ export interface Movie {
   year?: number;
   duration?: string;
   thumbnailUrl?: string;
+  thumbnailPlaceholder?: string;
   cached: boolean;
   favorite: boolean;
-  status: 'PENDING' | 'DOWNLOADING' | 'READY' | 'ERROR';
+  status: 'PENDING' | 'DOWNLOADING' | 'READY' | 'ERROR' | 'UNAVAILABLE';
   categoryId?: string;
   categoryName?: string;
   fileSize?: number;
@@ -64,12 +65,64 @@ export interface CacheStats {
   movieCount: number;
 }
 
+export interface CachePurge {
+  state: 'IDLE' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+  total: number;
+  deleted: number;
+  failed: number;
+  error?: string;
+}
+
+export interface SpriteTile {
+  url: string;
+  x: number;
+  y: number;
+  width: number;
+  height: number;
+  sheetWidth: number;
+  sheetHeight: number;
+}
+
 export interface MovieGroup {
+  key: string;
   name: string;
   categoryId?: string;
   special: boolean;
   sortOrder: number;
   movies: Movie[];
+  totalCount: number;
+  nextCursor?: string;
+  spriteTiles?: Record<string, SpriteTile>;
+}
+
+export interface MoviePage {
+  movies: Movie[];
+  nextCursor?: string;
+}
+
+export interface CatalogChanges {
+  version: number;
+  hasMore: boolean;
+  reset: boolean;
+  movies: Movie[];
+  deletedMovieIds: string[];
+  categories: Category[];
+  deletedCategoryIds: string[];
+}
+
+export type BulkOperation = 'favorite' | 'unfavorite' | 'download' | 'clear-cache' | 'delete';
+
+export interface BulkResult {
+  movieId: string;
+  outcome: 'APPLIED' | 'UNCHANGED' | 'NOT_FOUND' | 'REJECTED';
+  message?: string;
+}
+
+export interface MovieSuggestion {
+  id: string;
+  title: string;
+  year?: number;
+  thumbnailUrl?: string;
 }
 
 @Injectable({ providedIn: 'root' })
@@ -103,6 +156,29 @@ export class ApiService {
     return this.http.get<MovieGroup[]>(`${this.baseUrl}/movies/grouped`, this.userHeaders());
   }
 
+  /** Continues a group of the grouped view from the cursor it returned, with the same search. */
+  getMoviePage(group: string, cursor: string, search?: string): Observable<MoviePage> {
+    return this.http.get<MoviePage>(`${this.baseUrl}/movies/page`, {
+      params: search ? { group, cursor, search } : { group, cursor },
+      ...this.userHeaders(),
+    });
+  }
+
+  /** Autocompletes a title; cheap enough to call on every keystroke. */
+  suggestMovies(q: string, limit = 8): Observable<MovieSuggestion[]> {
+    return this.http.get<MovieSuggestion[]>(`${this.baseUrl}/movies/suggest`, {
+      params: { q, limit },
+    });
+  }
+
+  /** Movies and categories changed since a version; omit it to learn the current version. */
+  getCatalogChanges(since?: number): Observable<CatalogChanges> {
+    return this.http.get<CatalogChanges>(`${this.baseUrl}/movies/changes`, {
+      params: since === undefined ? {} : { since },
+      ...this.userHeaders(),
+    });
+  }
+
   getMovie(id: string): Observable<Movie> {
     return this.http.get<Movie>(`${this.baseUrl}/movies/${id}`, this.userHeaders());
   }
@@ -159,8 +235,12 @@ export class ApiService {
     return this.http.delete<void>(`${this.baseUrl}/movies/${movieId}/cache`);
   }
 
-  clearAllCache(): Observable<number> {
-    return this.http.delete<number>(`${this.baseUrl}/movies/cache`);
+  clearAllCache(): Observable<CachePurge> {
+    return this.http.delete<CachePurge>(`${this.baseUrl}/movies/cache`);
+  }
+
+  getCachePurge(): Observable<CachePurge> {
+    return this.http.get<CachePurge>(`${this.baseUrl}/movies/cache/purge`);
   }
 
   getFavoriteMovies(): Observable<Movie[]> {
@@ -181,4 +261,12 @@ export class ApiService {
       this.userHeaders()
     );
   }
+
+  bulk(operation: BulkOperation, ids: string[]): Observable<BulkResult[]> {
+    return this.http.post<BulkResult[]>(
+      `${this.baseUrl}/movies/bulk/${operation}`,
+      { ids },
+      this.userHeaders()
+    );
+  }
 }
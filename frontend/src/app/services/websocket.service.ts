@@ -3,13 +3,14 @@ import { Client, IMessage } from '@stomp/stompjs';
 import { Observable, Subject } from 'rxjs';
 import SockJS from 'sockjs-client';
 
-import { DownloadProgress } from './api.service';
+import { CachePurge, DownloadProgress } from './api.service';
 
 @Injectable({ providedIn: 'root' })
 export class WebSocketService {
   private client: Client | undefined;
   private readonly ngZone = inject(NgZone);
   private readonly downloadProgress$ = new Subject<DownloadProgress>();
+  private readonly cachePurgeProgress$ = new Subject<CachePurge>();
   private readonly connected$ = new Subject<boolean>();
   private initialized = false;
 
@@ -35,6 +36,12 @@ export class WebSocketService {
           this.downloadProgress$.next(progress);
         });
       });
+
+      this.client?.subscribe('/topic/cache/purge', (message: IMessage) => {
+        this.ngZone.run(() => {
+          this.cachePurgeProgress$.next(JSON.parse(message.body) as CachePurge);
+        });
+      });
     };
 
     this.client.onDisconnect = () => {
@@ -57,6 +64,10 @@ export class WebSocketService {
     return this.downloadProgress$.asObservable();
   }
 
+  getCachePurgeProgress(): Observable<CachePurge> {
+    return this.cachePurgeProgress$.asObservable();
+  }
+
   isConnected(): Observable<boolean> {
     return this.connected$.asObservable();
   }
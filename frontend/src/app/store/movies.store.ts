@@ -8,9 +8,11 @@ import {
   withState,
 } from '@ngrx/signals';
 import {
+  addEntities,
   addEntity,
   removeEntity,
   setAllEntities,
+  setEntities,
   updateEntity,
   withEntities,
 } from '@ngrx/signals/entities';
@@ -19,8 +21,12 @@ import { firstValueFrom } from 'rxjs';
 import { ApiService, Movie, MovieCreateRequest, MovieGroup } from '../services/api.service';
 import { CurrentUserService } from '../services/current-user.service';
 
+const SEARCH_DEBOUNCE_MS = 250;
+
 interface MoviesState {
   movieGroups: MovieGroup[];
+  cachedMovies: Movie[];
+  favoriteMovies: Movie[];
   filter: string;
   loading: boolean;
   error: string | null;
@@ -28,17 +34,6 @@ interface MoviesState {
   selectedMovieId: string | null;
 }
 
-function filterGroupsBySearch(groups: MovieGroup[], filter: string): MovieGroup[] {
-  if (!filter) return groups;
-  const lowerFilter = filter.toLowerCase();
-  return groups
-    .map((group) => ({
-      ...group,
-      movies: group.movies.filter((m) => m.title.toLowerCase().includes(lowerFilter)),
-    }))
-    .filter((group) => group.movies.length > 0);
-}
-
 function selectFeaturedMovie(movies: Movie[]): Movie | null {
   const cached = movies.filter((m) => m.cached);
   if (cached.length > 0) {
@@ -54,6 +49,8 @@ export const MoviesStore = signalStore(
 
   withState<MoviesState>({
     movieGroups: [],
+    cachedMovies: [],
+    favoriteMovies: [],
     filter: '',
     loading: false,
     error: null,
@@ -64,21 +61,11 @@ export const MoviesStore = signalStore(
   withComputed((state) => ({
     movies: computed(() => state.entities()),
 
-    filteredMovies: computed(() => {
-      const filter = state.filter().toLowerCase();
-      if (!filter) return state.entities();
-      return state.entities().filter((m) => m.title.toLowerCase().includes(filter));
-    }),
-
     readyMovies: computed(() => state.entities().filter((m) => m.status === 'READY')),
 
     downloadingMovies: computed(() => state.entities().filter((m) => m.status === 'DOWNLOADING')),
 
-    cachedMovies: computed(() => state.entities().filter((m) => m.cached)),
-
-    favoriteMovies: computed(() => state.entities().filter((m) => m.favorite)),
-
-    moviesByCategory: computed(() => filterGroupsBySearch(state.movieGroups(), state.filter())),
+    moviesByCategory: computed(() => state.movieGroups()),
 
     featuredMovie: computed(() => selectFeaturedMovie(state.entities())),
 
@@ -86,12 +73,28 @@ export const MoviesStore = signalStore(
   })),
 
   withMethods((store, api = inject(ApiService), currentUser = inject(CurrentUserService)) => {
+    const loadingGroups = new Set<string>();
+    let groupsSearch = '';
+    let groupsRequest = 0;
+    let searchTimer: ReturnType<typeof setTimeout> | undefined;
+
     const loadMovies = async (): Promise<void> => {
+      const search = store.filter();
+      const request = ++groupsRequest;
       patchState(store, { loading: true, error: null });
       try {
-        const groups = await firstValueFrom(api.getMoviesGrouped());
-        const movies = groups.flatMap((g) => g.movies);
-        patchState(store, setAllEntities(movies), { movieGroups: groups, loading: false });
+        const [groups, cachedMovies, favoriteMovies] = await Promise.all([
+          firstValueFrom(api.getMoviesGrouped(search || undefined)),
+          firstValueFrom(api.getCachedMovies()),
+          firstValueFrom(api.getFavoriteMovies()),
+        ]);
+        patchState(store, { cachedMovies, favoriteMovies, loading: false });
+        if (request === groupsRequest) {
+          groupsSearch = search;
+          patchState(store, setAllEntities(groups.flatMap((g) => g.movies)), {
+            movieGroups: groups,
+          });
+        }
       } catch (err) {
         patchState(store, {
           error: err instanceof Error ? err.message : 'Failed to load movies',
@@ -100,6 +103,34 @@ export const MoviesStore = signalStore(
       }
     };
 
+    const searchMovies = async (): Promise<void> => {
+      const search = store.filter();
+      const request = ++groupsRequest;
+      try {
+        const groups = await firstValueFrom(api.getMoviesGrouped(search || undefined));
+        if (request === groupsRequest) {
+          groupsSearch = search;
+          patchState(store, setEntities(groups.flatMap((g) => g.movies)), {
+            movieGroups: groups,
+          });
+        }
+      } catch (err) {
+        patchState(store, {
+          error: err instanceof Error ? err.message : 'Failed to search movies',
+        });
+      }
+    };
+
+    const refreshCachedMovies = async (): Promise<void> => {
+      try {
+        patchState(store, { cachedMovies: await firstValueFrom(api.getCachedMovies()) });
+      } catch (err) {
+        patchState(store, {
+          error: err instanceof Error ? err.message : 'Failed to load cached movies',
+        });
+      }
+    };
+
     return {
       setupUserSync(): void {
         effect(
@@ -118,6 +149,34 @@ export const MoviesStore = signalStore(
         await loadMovies();
       },
 
+      async loadMoreInGroup(key: string): Promise<void> {
+        const group = store.movieGroups().find((g) => g.key === key);
+        if (!group?.nextCursor || loadingGroups.has(key)) return;
+        loadingGroups.add(key);
+        const request = groupsRequest;
+        try {
+          const page = await firstValueFrom(
+            api.getMoviePage(key, group.nextCursor, groupsSearch || undefined)
+          );
+          if (request !== groupsRequest) return;
+          patchState(store, addEntities(page.movies), {
+            movieGroups: store
+              .movieGroups()
+              .map((g) =>
+                g.key === key
+                  ? { ...g, movies: [...g.movies, ...page.movies], nextCursor: page.nextCursor }
+                  : g
+              ),
+          });
+        } catch (err) {
+          patchState(store, {
+            error: err instanceof Error ? err.message : 'Failed to load movies',
+          });
+        } finally {
+          loadingGroups.delete(key);
+        }
+      },
+
       async createMovie(request: MovieCreateRequest): Promise<void> {
         try {
           const movie = await firstValueFrom(api.createMovie(request));
@@ -147,7 +206,10 @@ export const MoviesStore = signalStore(
       async deleteMovie(id: string): Promise<void> {
         try {
           await firstValueFrom(api.deleteMovie(id));
-          patchState(store, removeEntity(id));
+          patchState(store, removeEntity(id), {
+            cachedMovies: store.cachedMovies().filter((m) => m.id !== id),
+            favoriteMovies: store.favoriteMovies().filter((m) => m.id !== id),
+          });
           if (store.selectedMovieId() === id) {
             patchState(store, { selectedMovieId: null });
           }
@@ -161,7 +223,9 @@ export const MoviesStore = signalStore(
       async addFavorite(movieId: string): Promise<void> {
         try {
           const movie = await firstValueFrom(api.addFavorite(movieId));
-          patchState(store, updateEntity({ id: movieId, changes: movie }));
+          patchState(store, updateEntity({ id: movieId, changes: movie }), {
+            favoriteMovies: [...store.favoriteMovies().filter((m) => m.id !== movieId), movie],
+          });
         } catch (err) {
           patchState(store, {
             error: err instanceof Error ? err.message : 'Failed to add favorite',
@@ -172,7 +236,9 @@ export const MoviesStore = signalStore(
       async removeFavorite(movieId: string): Promise<void> {
         try {
           const movie = await firstValueFrom(api.removeFavorite(movieId));
-          patchState(store, updateEntity({ id: movieId, changes: movie }));
+          patchState(store, updateEntity({ id: movieId, changes: movie }), {
+            favoriteMovies: store.favoriteMovies().filter((m) => m.id !== movieId),
+          });
         } catch (err) {
           patchState(store, {
             error: err instanceof Error ? err.message : 'Failed to remove favorite',
@@ -182,10 +248,15 @@ export const MoviesStore = signalStore(
 
       updateMovieStatus(movieId: string, status: Movie['status'], cached = false): void {
         patchState(store, updateEntity({ id: movieId, changes: { status, cached } }));
+        if (cached !== store.cachedMovies().some((m) => m.id === movieId)) {
+          void refreshCachedMovies();
+        }
       },
 
       setFilter(filter: string): void {
         patchState(store, { filter });
+        clearTimeout(searchTimer);
+        searchTimer = setTimeout(() => void searchMovies(), SEARCH_DEBOUNCE_MS);
       },
 
       toggleFavorite(movieId: string): void {